@@ -0,0 +1,192 @@
+package com.think.benchmark;
+
+import com.think.entity.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Builds in-memory providers, patients, availabilities and slots shaped like production data.
+ * The generator is seeded so every benchmark run sees the same fixtures.
+ */
+public class FixtureGenerator {
+
+    private static final String[] SPECIALIZATIONS = {
+        "Cardiology", "Dermatology", "Family Medicine", "Neurology", "Orthopedics",
+        "Pediatrics", "Psychiatry", "Radiology", "Oncology", "Endocrinology"
+    };
+    private static final String[] FIRST_NAMES = {
+        "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda",
+        "David", "Elizabeth", "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica"
+    };
+    private static final String[] LAST_NAMES = {
+        "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis",
+        "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas"
+    };
+    private static final String[][] CITIES = {
+        {"New York", "NY", "10001"}, {"Boston", "MA", "02108"}, {"Chicago", "IL", "60601"},
+        {"Houston", "TX", "77001"}, {"Phoenix", "AZ", "85001"}, {"Seattle", "WA", "98101"}
+    };
+    private static final String[] APPOINTMENT_TYPES = {"CONSULTATION", "FOLLOW_UP", "EMERGENCY", "TELEMEDICINE"};
+    private static final int[] SLOT_DURATIONS = {15, 20, 30, 45, 60};
+    private static final int[] BREAK_DURATIONS = {0, 0, 5, 10, 15};
+
+    private final Random random;
+
+    public FixtureGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public Provider provider() {
+        Provider provider = new Provider();
+        provider.setId(new UUID(random.nextLong(), random.nextLong()));
+        provider.setFirstName(pick(FIRST_NAMES));
+        provider.setLastName(pick(LAST_NAMES));
+        provider.setEmail(provider.getFirstName().toLowerCase() + "." + provider.getLastName().toLowerCase()
+                + random.nextInt(10_000) + "@clinic.example.com");
+        provider.setPhoneNumber("+1" + (2_000_000_000L + random.nextInt(999_999_999)));
+        provider.setPasswordHash("$2a$12$" + "x".repeat(53));
+        provider.setSpecialization(pick(SPECIALIZATIONS));
+        provider.setLicenseNumber("MD" + (100_000 + random.nextInt(900_000)));
+        provider.setYearsOfExperience(1 + random.nextInt(35));
+
+        String[] city = CITIES[random.nextInt(CITIES.length)];
+        provider.setClinicAddress(new ClinicAddress((100 + random.nextInt(9_900)) + " Medical Center Dr",
+                city[0], city[1], city[2]));
+        return provider;
+    }
+
+    public Patient patient() {
+        String[] city = CITIES[random.nextInt(CITIES.length)];
+        PatientAddress address = new PatientAddress();
+        address.setStreet((1 + random.nextInt(999)) + " Main St");
+        address.setCity(city[0]);
+        address.setState(city[1]);
+        address.setZip(city[2]);
+
+        Patient patient = new Patient();
+        patient.setId(UUID.randomUUID().toString());
+        patient.setFirstName(pick(FIRST_NAMES));
+        patient.setLastName(pick(LAST_NAMES));
+        patient.setEmail(patient.getFirstName().toLowerCase() + random.nextInt(100_000) + "@mail.example.com");
+        patient.setPhoneNumber("+1" + (3_000_000_000L + random.nextInt(999_999_999)));
+        patient.setGender(Patient.Gender.values()[random.nextInt(Patient.Gender.values().length)]);
+        patient.setDateOfBirth(LocalDate.of(1940, 1, 1).plusDays(random.nextInt(365 * 65)));
+        patient.setAddress(address);
+        return patient;
+    }
+
+    /**
+     * A single working block between 07:00 and 19:00 with a randomly chosen slot and break length.
+     */
+    public ProviderAvailability availability(Provider provider, LocalDate date) {
+        LocalTime start = LocalTime.of(7 + random.nextInt(3), random.nextBoolean() ? 0 : 30);
+        LocalTime end = start.plusHours(4 + random.nextInt(6));
+
+        AvailabilityPricing pricing = AvailabilityPricing.builder()
+                .baseFee(BigDecimal.valueOf(75 + random.nextInt(250)))
+                .insuranceAccepted(random.nextBoolean())
+                .currency("USD")
+                .build();
+
+        ProviderAvailability availability = ProviderAvailability.builder()
+                .id(UUID.randomUUID())
+                .provider(provider)
+                .date(date)
+                .startTime(start)
+                .endTime(end)
+                .timezone("America/New_York")
+                .isRecurring(false)
+                .slotDuration(SLOT_DURATIONS[random.nextInt(SLOT_DURATIONS.length)])
+                .breakDuration(BREAK_DURATIONS[random.nextInt(BREAK_DURATIONS.length)])
+                .maxAppointmentsPerSlot(1)
+                .currentAppointments(0)
+                .status(ProviderAvailability.AvailabilityStatus.AVAILABLE)
+                .appointmentType(ProviderAvailability.AppointmentType.CONSULTATION)
+                .location(AvailabilityLocation.builder()
+                        .type(ProviderAvailability.LocationType.CLINIC)
+                        .address(provider.getClinicAddress().getStreet())
+                        .roomNumber("Room " + (100 + random.nextInt(400)))
+                        .build())
+                .pricing(pricing)
+                .build();
+        availability.setCreatedAt(LocalDateTime.now());
+        availability.setUpdatedAt(LocalDateTime.now());
+        return availability;
+    }
+
+    public ProviderAvailability availability(Provider provider, LocalDate date, int slotDuration, int breakDuration) {
+        ProviderAvailability availability = availability(provider, date);
+        availability.setStartTime(LocalTime.of(8, 0));
+        availability.setEndTime(LocalTime.of(17, 0));
+        availability.setSlotDuration(slotDuration);
+        availability.setBreakDuration(breakDuration);
+        return availability;
+    }
+
+    /**
+     * Booked slots as they come back from the appointment list query: provider, patient and
+     * availability pricing all populated.
+     */
+    public List<AppointmentSlot> bookedSlots(int count) {
+        List<AppointmentSlot> slots = new ArrayList<>(count);
+        Provider provider = provider();
+        LocalDate date = LocalDate.now().plusDays(1);
+        ProviderAvailability availability = availability(provider, date);
+
+        for (int i = 0; i < count; i++) {
+            if (i % 8 == 0) {
+                provider = provider();
+                availability = availability(provider, date.plusDays(i / 8));
+            }
+            LocalDateTime start = LocalDateTime.of(availability.getDate(), availability.getStartTime())
+                    .plusMinutes((long) (i % 8) * availability.getSlotDuration());
+
+            AppointmentSlot slot = AppointmentSlot.builder()
+                    .id(UUID.randomUUID())
+                    .availability(availability)
+                    .provider(provider)
+                    .patient(patient())
+                    .slotStartTime(start)
+                    .slotEndTime(start.plusMinutes(availability.getSlotDuration()))
+                    .status(AppointmentSlot.SlotStatus.BOOKED)
+                    .appointmentType(pick(APPOINTMENT_TYPES))
+                    .bookingReference("APT-" + Integer.toHexString(0x10000000 + random.nextInt(0x6fffffff)).toUpperCase())
+                    .createdAt(LocalDateTime.now())
+                    .updatedAt(LocalDateTime.now())
+                    .build();
+            slots.add(slot);
+        }
+        return slots;
+    }
+
+    /**
+     * Free-text fields as submitted by registration forms; roughly one in four carries markup.
+     */
+    public List<String> registrationInputs(int count) {
+        List<String> inputs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            switch (random.nextInt(8)) {
+                case 0 -> inputs.add("<script>alert('" + pick(LAST_NAMES) + "')</script>" + pick(FIRST_NAMES));
+                case 1 -> inputs.add("  <b>" + pick(SPECIALIZATIONS) + "</b> <img src=x onerror=alert(1)>  ");
+                case 2 -> inputs.add((100 + random.nextInt(9_900)) + " Medical Center Dr, Suite " + random.nextInt(500));
+                default -> inputs.add(pick(random.nextBoolean() ? FIRST_NAMES : LAST_NAMES));
+            }
+        }
+        return inputs;
+    }
+
+    public String appointmentType() {
+        return pick(APPOINTMENT_TYPES);
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,58 @@
+package com.think.service;
+
+import com.think.benchmark.FixtureGenerator;
+import com.think.dto.AppointmentResponse;
+import com.think.entity.AppointmentSlot;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AppointmentMappingBenchmark {
+
+    // One page of the appointment list endpoint
+    private static final int PAGE_SIZE = 20;
+
+    private AppointmentService service;
+    private List<AppointmentSlot> page;
+    private String[] appointmentTypes;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        FixtureGenerator fixtures = new FixtureGenerator(42);
+        service = new AppointmentService(null, null, null, null, null, null, null);
+        page = fixtures.bookedSlots(PAGE_SIZE);
+        appointmentTypes = new String[64];
+        for (int i = 0; i < appointmentTypes.length; i++) {
+            appointmentTypes[i] = fixtures.appointmentType();
+        }
+    }
+
+    @Benchmark
+    public BigDecimal calculateEstimatedCost() {
+        int i = cursor++ & 63;
+        return service.calculateEstimatedCost(page.get(i % PAGE_SIZE), appointmentTypes[i]);
+    }
+
+    @Benchmark
+    public AppointmentResponse convertToAppointmentResponse() {
+        return service.convertToAppointmentResponse(page.get(cursor++ % PAGE_SIZE));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public void convertPage(Blackhole blackhole) {
+        for (AppointmentSlot slot : page) {
+            blackhole.consume(service.convertToAppointmentResponse(slot));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.think.service;
+
+import com.think.benchmark.FixtureGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SanitizeInputBenchmark {
+
+    private ProviderService service;
+    private List<String> inputs;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        service = new ProviderService(null, null, null);
+        inputs = new FixtureGenerator(42).registrationInputs(256);
+    }
+
+    @Benchmark
+    public String sanitizeInput() {
+        return service.sanitizeInput(inputs.get(cursor++ & 255));
+    }
+}
@@ -0,0 +1,40 @@
+package com.think.service;
+
+import com.think.benchmark.FixtureGenerator;
+import com.think.entity.AppointmentSlot;
+import com.think.entity.ProviderAvailability;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SlotGenerationBenchmark {
+
+    @Param({"15", "30", "60"})
+    int slotDuration;
+
+    @Param({"0", "10"})
+    int breakDuration;
+
+    private ProviderAvailabilityService service;
+    private ProviderAvailability availability;
+
+    @Setup
+    public void setUp() {
+        FixtureGenerator fixtures = new FixtureGenerator(42);
+        service = new ProviderAvailabilityService(null, null, null, null, null, null, null, null, null);
+        availability = fixtures.availability(fixtures.provider(), LocalDate.now().plusDays(7), slotDuration, breakDuration);
+    }
+
+    @Benchmark
+    public List<AppointmentSlot> generateAppointmentSlots() {
+        return service.generateAppointmentSlots(availability);
+    }
+}
@@ -0,0 +1,41 @@
+package com.think.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class BookingReferenceBenchmark {
+
+    private BookingReferenceGenerator generator;
+    private String reference;
+
+    @Setup
+    public void setUp() {
+        generator = new BookingReferenceGenerator(1);
+        reference = generator.next();
+    }
+
+    @Benchmark
+    public String next() {
+        return generator.next();
+    }
+
+    @Benchmark
+    public boolean mayExist() {
+        return generator.mayExist(reference);
+    }
+
+    // The previous AppointmentSlot.onCreate scheme, for comparison
+    @Benchmark
+    public String randomUuidPrefix() {
+        return "APT-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+}
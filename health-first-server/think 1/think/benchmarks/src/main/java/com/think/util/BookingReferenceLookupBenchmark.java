@@ -0,0 +1,86 @@
+package com.think.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point lookups by booking reference against an in-memory H2 table shaped like
+ * {@code appointment_slots.booking_reference} (unique index). Setup inserts {@code references}
+ * generated values; a duplicate fails the unique index and aborts the run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class BookingReferenceLookupBenchmark {
+
+    private static final int BATCH_SIZE = 10_000;
+
+    @Param("10000000")
+    private int references;
+
+    private Connection connection;
+    private PreparedStatement lookup;
+    private String[] samples;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:booking_refs;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS appointment_slots");
+            statement.execute("CREATE TABLE appointment_slots (id BIGINT PRIMARY KEY, "
+                    + "booking_reference VARCHAR(32), CONSTRAINT uk_booking_reference UNIQUE (booking_reference))");
+        }
+
+        BookingReferenceGenerator generator = new BookingReferenceGenerator(1);
+        samples = new String[Math.min(references, 100_000)];
+        int sampleEvery = Math.max(1, references / samples.length);
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO appointment_slots (id, booking_reference) VALUES (?, ?)")) {
+            for (int i = 0; i < references; i++) {
+                String reference = generator.next();
+                if (i % sampleEvery == 0 && i / sampleEvery < samples.length) {
+                    samples[i / sampleEvery] = reference;
+                }
+                insert.setLong(1, i);
+                insert.setString(2, reference);
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        connection.setAutoCommit(true);
+        lookup = connection.prepareStatement("SELECT id FROM appointment_slots WHERE booking_reference = ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE appointment_slots");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public long findByBookingReference() throws SQLException {
+        lookup.setString(1, samples[ThreadLocalRandom.current().nextInt(samples.length)]);
+        try (ResultSet rs = lookup.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : -1;
+        }
+    }
+}
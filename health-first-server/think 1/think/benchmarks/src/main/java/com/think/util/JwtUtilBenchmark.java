@@ -0,0 +1,51 @@
+package com.think.util;
+
+import com.think.benchmark.FixtureGenerator;
+import com.think.entity.Provider;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "healthcareProviderSystemSecretKey2024ForSecureAuthentication");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3600L);
+
+        Provider provider = new FixtureGenerator(42).provider();
+        token = jwtUtil.generateToken(provider.getId(), provider.getEmail(), provider.getSpecialization());
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public String extractEmail() {
+        return jwtUtil.extractEmail(token);
+    }
+
+    @Benchmark
+    public UUID extractProviderId() {
+        return jwtUtil.extractProviderId(token);
+    }
+
+    @Benchmark
+    public String extractRole() {
+        return jwtUtil.extractRole(token);
+    }
+}
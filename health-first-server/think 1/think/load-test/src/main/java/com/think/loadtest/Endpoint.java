@@ -0,0 +1,5 @@
+package com.think.loadtest;
+
+public enum Endpoint {
+    SEARCH, BOOK, CANCEL, LIST
+}
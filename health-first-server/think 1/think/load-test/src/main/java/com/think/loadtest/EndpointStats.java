@@ -0,0 +1,50 @@
+package com.think.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcome counters for one endpoint. Latency is measured from the request's
+ * scheduled start, not from when it was actually sent, so queueing inside the driver or the
+ * server shows up in the percentiles instead of being hidden (coordinated omission).
+ */
+class EndpointStats {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+    final LongAdder succeeded = new LongAdder();
+    final LongAdder failed = new LongAdder();
+    final LongAdder dropped = new LongAdder();
+
+    void recordSuccess(long latencyNanos) {
+        recorder.recordValue(Math.min(latencyNanos, HIGHEST_TRACKABLE_NANOS));
+        succeeded.increment();
+    }
+
+    void recordFailure(long latencyNanos) {
+        recorder.recordValue(Math.min(latencyNanos, HIGHEST_TRACKABLE_NANOS));
+        failed.increment();
+    }
+
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    /**
+     * Discards everything recorded so far; called when the warmup period ends.
+     */
+    void reset() {
+        recorder.getIntervalHistogram();
+        succeeded.reset();
+        failed.reset();
+        dropped.reset();
+    }
+
+    Histogram snapshot() {
+        return recorder.getIntervalHistogram();
+    }
+}
@@ -0,0 +1,184 @@
+package com.think.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load driver. Requests are scheduled on a Poisson arrival process at the configured
+ * rate whether or not earlier requests have completed, so a slow server sees a growing queue
+ * the same way it would under real traffic instead of the driver backing off.
+ *
+ * <pre>
+ * java -jar target/load-test.jar --base-url=http://localhost:8088 --rate=200 --duration=120 \
+ *      --mix=search=60,book=15,cancel=5,list=20 --out=target/load-report.json
+ * </pre>
+ */
+public class LoadDriver {
+
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
+    private final LoadTestConfig config;
+    private final HttpClient client;
+    private final Workload workload;
+    private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    LoadDriver(LoadTestConfig config, ExecutorService callbackExecutor) {
+        this.config = config;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(callbackExecutor)
+                .build();
+        this.workload = new Workload(config, client);
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromArgs(args);
+        System.out.println("Load test: " + config);
+
+        ExecutorService callbackExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);
+        try {
+            LoadDriver driver = new LoadDriver(config, callbackExecutor);
+            driver.workload.login();
+            driver.run();
+            driver.report();
+        } finally {
+            callbackExecutor.shutdownNow();
+        }
+    }
+
+    void run() {
+        Random arrivals = new Random(config.seed + 1);
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / config.ratePerSecond;
+
+        long start = System.nanoTime();
+        long warmupEnd = start + config.warmup.toNanos();
+        long end = warmupEnd + config.duration.toNanos();
+        boolean measuring = config.warmup.isZero();
+        if (measuring) {
+            System.out.println("Measuring for " + config.duration.toSeconds() + "s");
+        } else {
+            System.out.println("Warming up for " + config.warmup.toSeconds() + "s");
+        }
+
+        long intendedStart = start;
+        while (intendedStart < end) {
+            long now = System.nanoTime();
+            if (intendedStart > now) {
+                LockSupport.parkNanos(intendedStart - now);
+            }
+            if (!measuring && intendedStart >= warmupEnd) {
+                stats.values().forEach(EndpointStats::reset);
+                measuring = true;
+                System.out.println("Measuring for " + config.duration.toSeconds() + "s");
+            }
+
+            fire(workload.next(workload.pickEndpoint()), intendedStart);
+
+            // exponential inter-arrival times give a Poisson arrival process
+            intendedStart += (long) (-Math.log(1.0 - arrivals.nextDouble()) * meanIntervalNanos);
+        }
+
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+    }
+
+    private void fire(Workload.Call call, long intendedStart) {
+        EndpointStats endpointStats = stats.get(call.endpoint());
+        if (inFlight.get() >= config.maxInFlight) {
+            endpointStats.recordDropped();
+            return;
+        }
+
+        inFlight.incrementAndGet();
+        client.sendAsync(call.request(), HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    long latency = System.nanoTime() - intendedStart;
+                    inFlight.decrementAndGet();
+                    if (error == null && response.statusCode() / 100 == 2) {
+                        endpointStats.recordSuccess(latency);
+                        call.onSuccess().accept(response.body());
+                    } else {
+                        endpointStats.recordFailure(latency);
+                    }
+                });
+    }
+
+    void report() throws IOException {
+        double seconds = config.duration.toMillis() / 1000.0;
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        ObjectNode json = mapper.createObjectNode();
+        json.put("config", config.toString());
+        ArrayNode endpoints = json.putArray("endpoints");
+
+        System.out.println();
+        System.out.printf("%-8s %10s %8s %8s %10s %9s %9s %9s %9s %9s%n",
+                "endpoint", "ok", "errors", "dropped", "ok/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats endpointStats = entry.getValue();
+            Histogram histogram = endpointStats.snapshot();
+            long ok = endpointStats.succeeded.sum();
+            long errors = endpointStats.failed.sum();
+            long dropped = endpointStats.dropped.sum();
+            if (ok + errors + dropped == 0) {
+                continue;
+            }
+
+            System.out.printf("%-8s %10d %8d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(), ok, errors, dropped, ok / seconds,
+                    millis(histogram, PERCENTILES[0]), millis(histogram, PERCENTILES[1]),
+                    millis(histogram, PERCENTILES[2]), millis(histogram, PERCENTILES[3]),
+                    histogram.getMaxValue() / 1_000_000.0);
+
+            ObjectNode node = endpoints.addObject();
+            node.put("endpoint", entry.getKey().name());
+            node.put("succeeded", ok);
+            node.put("failed", errors);
+            node.put("dropped", dropped);
+            node.put("throughputPerSecond", ok / seconds);
+            ObjectNode latency = node.putObject("latencyMillis");
+            for (double percentile : PERCENTILES) {
+                latency.put("p" + percentile, millis(histogram, percentile));
+            }
+            latency.put("max", histogram.getMaxValue() / 1_000_000.0);
+        }
+        System.out.println("Workload pools at end: " + workload.poolSizes());
+
+        if (config.output != null) {
+            File file = new File(config.output);
+            if (file.getParentFile() != null) {
+                file.getParentFile().mkdirs();
+            }
+            mapper.writeValue(file, json);
+            System.out.println("Report written to " + file.getAbsolutePath());
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1_000_000.0;
+    }
+}
@@ -0,0 +1,82 @@
+package com.think.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Driver settings, parsed from {@code --key=value} arguments.
+ */
+public class LoadTestConfig {
+
+    String baseUrl = "http://localhost:8088";
+    double ratePerSecond = 100;
+    Duration duration = Duration.ofSeconds(60);
+    Duration warmup = Duration.ofSeconds(10);
+    int providers = 50;
+    int patients = 500;
+    int days = 14;
+    int maxInFlight = 2_000;
+    String password = "LoadTest@2024";
+    String output;
+    long seed = 42;
+    Map<Endpoint, Integer> mix = parseMix("search=60,book=15,cancel=5,list=20");
+
+    static LoadTestConfig fromArgs(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+            }
+            int split = arg.indexOf('=');
+            values.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+
+        LoadTestConfig config = new LoadTestConfig();
+        config.baseUrl = values.getOrDefault("base-url", config.baseUrl);
+        config.ratePerSecond = Double.parseDouble(values.getOrDefault("rate", String.valueOf(config.ratePerSecond)));
+        config.duration = Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", String.valueOf(config.duration.toSeconds()))));
+        config.warmup = Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", String.valueOf(config.warmup.toSeconds()))));
+        config.providers = Integer.parseInt(values.getOrDefault("providers", String.valueOf(config.providers)));
+        config.patients = Integer.parseInt(values.getOrDefault("patients", String.valueOf(config.patients)));
+        config.days = Integer.parseInt(values.getOrDefault("days", String.valueOf(config.days)));
+        config.maxInFlight = Integer.parseInt(values.getOrDefault("max-in-flight", String.valueOf(config.maxInFlight)));
+        config.password = values.getOrDefault("password", config.password);
+        config.output = values.get("out");
+        config.seed = Long.parseLong(values.getOrDefault("seed", String.valueOf(config.seed)));
+        if (values.containsKey("mix")) {
+            config.mix = parseMix(values.get("mix"));
+        }
+
+        if (config.ratePerSecond <= 0) {
+            throw new IllegalArgumentException("--rate must be positive");
+        }
+        if (config.providers < 1 || config.patients < 1) {
+            throw new IllegalArgumentException("--providers and --patients must be at least 1");
+        }
+        return config;
+    }
+
+    static Map<Endpoint, Integer> parseMix(String spec) {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + part);
+            }
+            mix.put(Endpoint.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("Mix weights must add up to more than zero");
+        }
+        return mix;
+    }
+
+    @Override
+    public String toString() {
+        return "baseUrl=" + baseUrl + ", rate=" + ratePerSecond + "/s, duration=" + duration.toSeconds()
+                + "s, warmup=" + warmup.toSeconds() + "s, providers=" + providers + ", patients=" + patients
+                + ", maxInFlight=" + maxInFlight + ", mix=" + mix;
+    }
+}
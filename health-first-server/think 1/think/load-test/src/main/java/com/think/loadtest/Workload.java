@@ -0,0 +1,227 @@
+package com.think.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Accounts created by the {@code loadtest} profile's seeder, plus the slots and bookings
+ * discovered while the test runs. Searches feed candidate slots to bookings, and bookings feed
+ * booking references to cancellations.
+ */
+class Workload {
+
+    private static final int MAX_CANDIDATES = 10_000;
+    private static final int LOGIN_CONCURRENCY = 16;
+
+    record Session(String token, String id, String specialization) {
+    }
+
+    record SlotCandidate(String providerId, String date, String startTime) {
+    }
+
+    record Booking(String reference, Session patient) {
+    }
+
+    record Call(Endpoint endpoint, HttpRequest request, Consumer<String> onSuccess) {
+    }
+
+    private final LoadTestConfig config;
+    private final HttpClient client;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Random random;
+    private final List<Session> providers = new ArrayList<>();
+    private final List<Session> patients = new ArrayList<>();
+    private final List<String> specializations = new ArrayList<>();
+    private final ConcurrentLinkedDeque<SlotCandidate> candidates = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger candidateCount = new AtomicInteger();
+    private final ConcurrentLinkedDeque<Booking> bookings = new ConcurrentLinkedDeque<>();
+    private final int[] cumulativeWeights;
+    private final Endpoint[] endpoints;
+
+    Workload(LoadTestConfig config, HttpClient client) {
+        this.config = config;
+        this.client = client;
+        this.random = new Random(config.seed);
+
+        endpoints = config.mix.keySet().toArray(new Endpoint[0]);
+        cumulativeWeights = new int[endpoints.length];
+        int total = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            total += config.mix.get(endpoints[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    void login() {
+        List<Session> loggedIn = loginAll("/api/v1/provider/login", config.providers, "provider%05d@loadtest.example.com",
+                data -> new Session(data.path("access_token").asText(),
+                        data.path("provider").path("id").asText(),
+                        data.path("provider").path("specialization").asText()));
+        providers.addAll(loggedIn);
+        providers.stream().map(Session::specialization).distinct().forEach(specializations::add);
+
+        patients.addAll(loginAll("/api/v1/patient/login", config.patients, "patient%05d@loadtest.example.com",
+                data -> new Session(data.path("access_token").asText(),
+                        data.path("patient").path("patient_id").asText(), null)));
+
+        if (providers.isEmpty() || patients.isEmpty()) {
+            throw new IllegalStateException("No seeded accounts could log in; start the application with --spring.profiles.active=loadtest");
+        }
+        System.out.printf("Logged in %d providers and %d patients%n", providers.size(), patients.size());
+    }
+
+    private List<Session> loginAll(String path, int count, String emailPattern,
+                                   java.util.function.Function<JsonNode, Session> toSession) {
+        Semaphore permits = new Semaphore(LOGIN_CONCURRENCY);
+        List<CompletableFuture<Session>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ObjectNode body = mapper.createObjectNode()
+                    .put("email", String.format(emailPattern, i))
+                    .put("password", config.password);
+            HttpRequest request = jsonRequest(path, null).POST(HttpRequest.BodyPublishers.ofString(body.toString())).build();
+
+            permits.acquireUninterruptibly();
+            futures.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> permits.release())
+                    .thenApply(response -> response.statusCode() == 200 ? toSession.apply(readTree(response.body()).path("data")) : null)
+                    .exceptionally(error -> null));
+        }
+        return futures.stream().map(CompletableFuture::join).filter(session -> session != null).toList();
+    }
+
+    Endpoint pickEndpoint() {
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        return endpoints[endpoints.length - 1];
+    }
+
+    /**
+     * Builds the next call for the chosen endpoint. Book and cancel fall back to search and
+     * list while there is nothing yet to book or cancel.
+     */
+    Call next(Endpoint endpoint) {
+        return switch (endpoint) {
+            case BOOK -> {
+                SlotCandidate slot = candidates.pollFirst();
+                if (slot == null) {
+                    yield search();
+                }
+                candidateCount.decrementAndGet();
+                yield book(slot);
+            }
+            case CANCEL -> {
+                Booking booking = bookings.pollFirst();
+                yield booking == null ? list() : cancel(booking);
+            }
+            case LIST -> list();
+            case SEARCH -> search();
+        };
+    }
+
+    private Call search() {
+        Session provider = providers.get(ThreadLocalRandom.current().nextInt(providers.size()));
+        String specialization = specializations.get(ThreadLocalRandom.current().nextInt(specializations.size()));
+        LocalDate start = LocalDate.now().plusDays(1 + ThreadLocalRandom.current().nextInt(Math.max(1, config.days)));
+        String query = "specialization=" + URLEncoder.encode(specialization, StandardCharsets.UTF_8)
+                + "&startDate=" + start + "&endDate=" + start.plusDays(2);
+
+        HttpRequest request = jsonRequest("/api/v1/provider/availability/search?" + query, provider.token()).GET().build();
+        return new Call(Endpoint.SEARCH, request, this::collectCandidates);
+    }
+
+    private Call book(SlotCandidate slot) {
+        Session patient = patients.get(ThreadLocalRandom.current().nextInt(patients.size()));
+        ObjectNode body = mapper.createObjectNode()
+                .put("patientId", patient.id())
+                .put("providerId", slot.providerId())
+                .put("appointmentDate", slot.date())
+                .put("appointmentTime", slot.startTime())
+                .put("appointmentType", "CONSULTATION")
+                .put("appointmentMode", "IN_PERSON")
+                .put("reasonForVisit", "Load test consultation visit");
+
+        HttpRequest request = jsonRequest("/api/appointments/book", patient.token())
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString())).build();
+        return new Call(Endpoint.BOOK, request, response -> {
+            String reference = readTree(response).path("bookingReference").asText(null);
+            if (reference != null) {
+                bookings.addLast(new Booking(reference, patient));
+            }
+        });
+    }
+
+    private Call cancel(Booking booking) {
+        HttpRequest request = jsonRequest("/api/appointments/" + booking.reference() + "/cancel", booking.patient().token())
+                .PUT(HttpRequest.BodyPublishers.noBody()).build();
+        return new Call(Endpoint.CANCEL, request, response -> { });
+    }
+
+    private Call list() {
+        Session patient = patients.get(ThreadLocalRandom.current().nextInt(patients.size()));
+        HttpRequest request = jsonRequest("/api/appointments?patientId=" + patient.id() + "&page=0&size=20", patient.token())
+                .GET().build();
+        return new Call(Endpoint.LIST, request, response -> { });
+    }
+
+    private void collectCandidates(String body) {
+        for (JsonNode result : readTree(body).path("data").path("results")) {
+            String providerId = result.path("provider").path("id").asText();
+            for (JsonNode slot : result.path("available_slots")) {
+                if (candidateCount.get() >= MAX_CANDIDATES) {
+                    candidates.pollLast();
+                    candidateCount.decrementAndGet();
+                }
+                candidates.addFirst(new SlotCandidate(providerId, slot.path("date").asText(), slot.path("start_time").asText()));
+                candidateCount.incrementAndGet();
+            }
+        }
+    }
+
+    private HttpRequest.Builder jsonRequest(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(config.baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private JsonNode readTree(String body) {
+        try {
+            return mapper.readTree(body);
+        } catch (IOException e) {
+            return mapper.createObjectNode();
+        }
+    }
+
+    Map<String, Integer> poolSizes() {
+        return Map.of("candidateSlots", candidateCount.get(), "openBookings", bookings.size());
+    }
+}
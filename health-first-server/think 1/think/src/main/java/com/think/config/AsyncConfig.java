@@ -0,0 +1,13 @@
+package com.think.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * {@code @Async} work runs on the auto-configured {@code applicationTaskExecutor}, which uses
+ * virtual threads when {@code spring.threads.virtual.enabled=true}.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
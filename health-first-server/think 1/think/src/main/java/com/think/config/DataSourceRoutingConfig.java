@@ -0,0 +1,67 @@
+package com.think.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Primary/replica datasource wiring, active only when {@code app.datasource.replicas[0].jdbc-url}
+ * is set. The primary keeps the standard {@code spring.datasource.*} settings.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas[0].jdbc-url")
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class DataSourceRoutingConfig {
+
+    private final List<HikariDataSource> replicaPools = new ArrayList<>();
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public RecentWriteTracker recentWriteTracker(ReplicaDataSourceProperties properties) {
+        return new RecentWriteTracker(properties.getReadYourWritesWindow(), Clock.systemUTC());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 ReplicaDataSourceProperties properties,
+                                 RecentWriteTracker recentWriteTracker) {
+        List<HikariConfig> replicas = properties.getReplicas();
+        for (int i = 0; i < replicas.size(); i++) {
+            HikariConfig config = replicas.get(i);
+            if (config.getPoolName() == null) {
+                config.setPoolName("think-replica-" + i);
+            }
+            config.setReadOnly(true);
+            replicaPools.add(new HikariDataSource(config));
+        }
+
+        ReadOnlyRoutingDataSource routing = new ReadOnlyRoutingDataSource(primary, replicaPools, recentWriteTracker);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @PreDestroy
+    public void closeReplicaPools() {
+        replicaPools.forEach(HikariDataSource::close);
+    }
+}
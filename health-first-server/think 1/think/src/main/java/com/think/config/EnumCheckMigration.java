@@ -0,0 +1,92 @@
+package com.think.config;
+
+import com.think.entity.AppointmentSlot;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Hibernate writes the enum values into a CHECK constraint when it creates a column for an
+ * {@code @Enumerated(STRING)} attribute, and schema update never revisits it, so a value added
+ * to the enum later is rejected by existing databases. This replaces such stale checks with one
+ * listing the current values. Checks that already allow every value are left alone, so running
+ * it again does nothing.
+ */
+@Slf4j
+public class EnumCheckMigration {
+
+    static final List<EnumColumn> COLUMNS = List.of(
+            new EnumColumn("appointment_slots", "status", AppointmentSlot.SlotStatus.class));
+
+    private static final String CHECKS_ON_TABLE = "SELECT tc.constraint_name, cc.check_clause "
+            + "FROM information_schema.table_constraints tc "
+            + "JOIN information_schema.check_constraints cc "
+            + "ON cc.constraint_schema = tc.constraint_schema AND cc.constraint_name = tc.constraint_name "
+            + "WHERE tc.constraint_type = 'CHECK' AND LOWER(tc.table_name) = ? AND tc.table_schema = CURRENT_SCHEMA";
+
+    private final DataSource dataSource;
+
+    public EnumCheckMigration(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public List<EnumColumn> migrate() throws SQLException {
+        List<EnumColumn> migrated = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            for (EnumColumn column : COLUMNS) {
+                List<String> stale = staleChecks(connection, column);
+                if (stale.isEmpty()) {
+                    continue;
+                }
+                log.info("Updating CHECK constraint on {}.{} to allow {}", column.table(), column.column(), column.values());
+                try (Statement statement = connection.createStatement()) {
+                    for (String name : stale) {
+                        statement.execute("ALTER TABLE " + column.table() + " DROP CONSTRAINT \"" + name + "\"");
+                    }
+                    statement.execute("ALTER TABLE " + column.table() + " ADD CONSTRAINT ck_" + column.table() + "_" + column.column()
+                            + " CHECK (" + column.column() + " IN (" + column.values().stream()
+                            .map(value -> "'" + value + "'").collect(Collectors.joining(", ")) + "))");
+                }
+                migrated.add(column);
+            }
+        }
+        return migrated;
+    }
+
+    private List<String> staleChecks(Connection connection, EnumColumn column) throws SQLException {
+        List<String> stale = new ArrayList<>();
+        try (PreparedStatement query = connection.prepareStatement(CHECKS_ON_TABLE)) {
+            query.setString(1, column.table());
+            try (ResultSet rs = query.executeQuery()) {
+                while (rs.next()) {
+                    String clause = rs.getString("check_clause");
+                    if (clause == null || !clause.toLowerCase().contains(column.column())) {
+                        continue;
+                    }
+                    long listed = column.values().stream().filter(value -> clause.contains("'" + value + "'")).count();
+                    // Only checks that enumerate this enum's values, and not all of them
+                    if (listed > 0 && listed < column.values().size()) {
+                        stale.add(rs.getString("constraint_name"));
+                    }
+                }
+            }
+        }
+        return stale;
+    }
+
+    public record EnumColumn(String table, String column, Class<? extends Enum<?>> type) {
+
+        List<String> values() {
+            return Arrays.stream(type.getEnumConstants()).map(Enum::name).toList();
+        }
+    }
+}
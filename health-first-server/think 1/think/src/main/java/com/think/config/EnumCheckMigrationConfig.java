@@ -0,0 +1,28 @@
+package com.think.config;
+
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Runs {@link EnumCheckMigration} before the entity manager factory starts, so new enum values
+ * can be written as soon as the application serves requests.
+ */
+@Configuration
+public class EnumCheckMigrationConfig {
+
+    @Bean
+    public EnumCheckMigration enumCheckMigration(DataSource dataSource) throws SQLException {
+        EnumCheckMigration migration = new EnumCheckMigration(dataSource);
+        migration.migrate();
+        return migration;
+    }
+
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor enumCheckMigrationDependency() {
+        return new EntityManagerFactoryDependsOnPostProcessor("enumCheckMigration");
+    }
+}
@@ -0,0 +1,182 @@
+package com.think.config;
+
+import com.think.dto.CreateAvailabilityRequest;
+import com.think.dto.PatientRegistrationRequest;
+import com.think.dto.ProviderRegistrationRequest;
+import com.think.dto.ProviderResponse;
+import com.think.entity.Patient;
+import com.think.entity.ProviderAvailability;
+import com.think.repository.PatientRepository;
+import com.think.repository.ProviderRepository;
+import com.think.service.PatientService;
+import com.think.service.ProviderAvailabilityService;
+import com.think.service.ProviderService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Seeds synthetic providers, patients and availability through the service layer for the
+ * {@code loadtest} profile. Even-numbered providers get one-off availabilities for each day and
+ * odd-numbered ones a daily recurring series over the same days, so both kinds of calendar are
+ * read, booked and rolled forward. Accounts use predictable emails and a shared password so the
+ * load driver can log in as any of them; re-running skips accounts that already exist.
+ */
+@Component
+@Profile("loadtest")
+@RequiredArgsConstructor
+@Slf4j
+public class LoadTestDataSeeder implements ApplicationRunner {
+
+    static final String[] SPECIALIZATIONS = {
+        "Cardiology", "Dermatology", "Family Medicine", "Neurology", "Orthopedics",
+        "Pediatrics", "Psychiatry", "Oncology"
+    };
+
+    private final ProviderService providerService;
+    private final PatientService patientService;
+    private final ProviderAvailabilityService availabilityService;
+    private final ProviderRepository providerRepository;
+    private final PatientRepository patientRepository;
+
+    @Value("${loadtest.seed.providers:50}")
+    private int providerCount;
+
+    @Value("${loadtest.seed.patients:500}")
+    private int patientCount;
+
+    @Value("${loadtest.seed.days:14}")
+    private int days;
+
+    @Value("${loadtest.seed.password:LoadTest@2024}")
+    private String password;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Seeding load-test data: {} providers, {} patients, {} days of availability",
+                providerCount, patientCount, days);
+
+        int providersCreated = 0;
+        for (int i = 0; i < providerCount; i++) {
+            if (seedProvider(i)) {
+                providersCreated++;
+            }
+            if ((i + 1) % 10 == 0) {
+                log.info("Seeded {}/{} providers", i + 1, providerCount);
+            }
+        }
+
+        int patientsCreated = 0;
+        for (int i = 0; i < patientCount; i++) {
+            if (seedPatient(i)) {
+                patientsCreated++;
+            }
+            if ((i + 1) % 50 == 0) {
+                log.info("Seeded {}/{} patients", i + 1, patientCount);
+            }
+        }
+
+        log.info("Load-test seeding complete: {} providers and {} patients created", providersCreated, patientsCreated);
+    }
+
+    private boolean seedProvider(int index) {
+        String email = providerEmail(index);
+        if (providerRepository.existsByEmail(email)) {
+            return false;
+        }
+
+        ProviderRegistrationRequest.ClinicAddressRequest address = new ProviderRegistrationRequest.ClinicAddressRequest();
+        address.setStreet((100 + index) + " Load Test Ave");
+        address.setCity("Springfield");
+        address.setState("IL");
+        address.setZip(String.format("%05d", 60000 + index % 1000));
+
+        ProviderRegistrationRequest request = new ProviderRegistrationRequest();
+        request.setFirstName("Provider");
+        request.setLastName("Load" + index);
+        request.setEmail(email);
+        request.setPhoneNumber(String.format("+1555%07d", index));
+        request.setPassword(password);
+        request.setSpecialization(SPECIALIZATIONS[index % SPECIALIZATIONS.length]);
+        request.setLicenseNumber(String.format("LT%06d", index));
+        request.setYearsOfExperience(1 + index % 30);
+        request.setClinicAddress(address);
+
+        ProviderResponse provider = providerService.registerProvider(request);
+
+        LocalDate firstDay = LocalDate.now().plusDays(1);
+        if (index % 2 == 1) {
+            CreateAvailabilityRequest series = availabilityRequest(index, firstDay);
+            series.setIsRecurring(true);
+            series.setRecurrencePattern(ProviderAvailability.RecurrencePattern.DAILY);
+            series.setRecurrenceEndDate(firstDay.plusDays(days - 1));
+            availabilityService.createAvailability(provider.getId().toString(), series);
+            return true;
+        }
+        for (int day = 0; day < days; day++) {
+            availabilityService.createAvailability(provider.getId().toString(), availabilityRequest(index, firstDay.plusDays(day)));
+        }
+        return true;
+    }
+
+    private CreateAvailabilityRequest availabilityRequest(int providerIndex, LocalDate date) {
+        CreateAvailabilityRequest.LocationRequest location = new CreateAvailabilityRequest.LocationRequest(
+                ProviderAvailability.LocationType.CLINIC, (100 + providerIndex) + " Load Test Ave", "Room " + (providerIndex % 20));
+
+        CreateAvailabilityRequest.PricingRequest pricing = new CreateAvailabilityRequest.PricingRequest(
+                BigDecimal.valueOf(100 + (providerIndex % 5) * 25L), providerIndex % 2 == 0, "USD");
+
+        CreateAvailabilityRequest request = new CreateAvailabilityRequest();
+        request.setDate(date);
+        request.setStartTime(LocalTime.of(9, 0));
+        request.setEndTime(LocalTime.of(17, 0));
+        request.setTimezone("America/Chicago");
+        request.setSlotDuration(30);
+        request.setBreakDuration(0);
+        request.setMaxAppointmentsPerSlot(1);
+        request.setAppointmentType(ProviderAvailability.AppointmentType.CONSULTATION);
+        request.setLocation(location);
+        request.setPricing(pricing);
+        return request;
+    }
+
+    private boolean seedPatient(int index) {
+        String email = patientEmail(index);
+        if (patientRepository.existsByEmail(email)) {
+            return false;
+        }
+
+        PatientRegistrationRequest.PatientAddressRequest address = new PatientRegistrationRequest.PatientAddressRequest(
+                (1 + index) + " Main St", "Springfield", "IL", String.format("%05d", 62000 + index % 1000));
+
+        PatientRegistrationRequest request = new PatientRegistrationRequest();
+        request.setFirstName("Patient");
+        request.setLastName("Load" + index);
+        request.setEmail(email);
+        request.setPhoneNumber(String.format("+1666%07d", index));
+        request.setPassword(password);
+        request.setConfirmPassword(password);
+        request.setDateOfBirth(LocalDate.of(1950, 1, 1).plusDays(index * 37L % 18_000));
+        request.setGender(Patient.Gender.values()[index % Patient.Gender.values().length]);
+        request.setAddress(address);
+
+        patientService.registerPatient(request);
+        return true;
+    }
+
+    static String providerEmail(int index) {
+        return String.format("provider%05d@loadtest.example.com", index);
+    }
+
+    static String patientEmail(int index) {
+        return String.format("patient%05d@loadtest.example.com", index);
+    }
+}
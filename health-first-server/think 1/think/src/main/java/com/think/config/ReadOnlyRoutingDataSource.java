@@ -0,0 +1,93 @@
+package com.think.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes connections for {@code @Transactional(readOnly = true)} work round-robin across the
+ * replicas and everything else to the primary. A user who committed a write within the
+ * {@link RecentWriteTracker} window reads from the primary instead, so they never see a
+ * replica that has not caught up with their own change. Only a read-write transaction that
+ * actually sent an INSERT, UPDATE, DELETE or MERGE counts as a write; read-write transactions
+ * that only read leave the user on the replicas.
+ *
+ * <p>Must sit behind a {@code LazyConnectionDataSourceProxy} so the transaction's read-only
+ * flag is bound before the physical connection is fetched.
+ */
+public class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final List<String> replicaKeys = new ArrayList<>();
+    private final RecentWriteTracker recentWrites;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReadOnlyRoutingDataSource(DataSource primary, List<? extends DataSource> replicas,
+                                     RecentWriteTracker recentWrites) {
+        this.recentWrites = recentWrites;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + i;
+            targets.put(key, replicas.get(i));
+            replicaKeys.add(key);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return PRIMARY;
+        }
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+
+        String user = currentUser();
+        if (replicaKeys.isEmpty() || (user != null && recentWrites.wroteRecently(user))) {
+            return PRIMARY;
+        }
+        return replicaKeys.get(Math.floorMod(nextReplica.getAndIncrement(), replicaKeys.size()));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return trackWrites(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return trackWrites(super.getConnection(username, password));
+    }
+
+    private Connection trackWrites(Connection connection) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return connection;
+        }
+        String user = currentUser();
+        if (user == null) {
+            return connection;
+        }
+        return WriteDetectingConnection.wrap(connection, () -> recentWrites.recordOnCommit(user));
+    }
+
+    private String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
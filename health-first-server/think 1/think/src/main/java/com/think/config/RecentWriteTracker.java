@@ -0,0 +1,61 @@
+package com.think.config;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Remembers which users committed a write within the last {@code window}, so their reads can
+ * stay on the primary until replicas have had time to catch up (read-your-writes).
+ */
+public class RecentWriteTracker {
+
+    private static final int PRUNE_THRESHOLD = 10_000;
+
+    private final Duration window;
+    private final Clock clock;
+    private final ConcurrentMap<String, Instant> lastWrites = new ConcurrentHashMap<>();
+
+    public RecentWriteTracker(Duration window, Clock clock) {
+        this.window = window;
+        this.clock = clock;
+    }
+
+    public void recordOnCommit(String user) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(user);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(user);
+            }
+        });
+    }
+
+    public void record(String user) {
+        lastWrites.put(user, clock.instant());
+        if (lastWrites.size() > PRUNE_THRESHOLD) {
+            Instant cutoff = clock.instant().minus(window);
+            lastWrites.values().removeIf(writtenAt -> writtenAt.isBefore(cutoff));
+        }
+    }
+
+    public boolean wroteRecently(String user) {
+        Instant writtenAt = lastWrites.get(user);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (writtenAt.plus(window).isAfter(clock.instant())) {
+            return true;
+        }
+        lastWrites.remove(user, writtenAt);
+        return false;
+    }
+}
@@ -0,0 +1,23 @@
+package com.think.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas under {@code app.datasource.replicas[n].*} (Hikari property names, e.g.
+ * {@code jdbc-url}, {@code username}, {@code maximum-pool-size}).
+ */
+@Data
+@ConfigurationProperties("app.datasource")
+public class ReplicaDataSourceProperties {
+
+    private List<HikariConfig> replicas = new ArrayList<>();
+
+    /** How long a user's reads stay on the primary after they commit a write. */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+}
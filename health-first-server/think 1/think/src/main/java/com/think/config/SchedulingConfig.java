@@ -0,0 +1,13 @@
+package com.think.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * {@code @Scheduled} jobs run on the auto-configured {@code taskScheduler}; set
+ * {@code spring.task.scheduling.pool.size} when jobs should not queue behind each other.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,6 +1,7 @@
 package com.think.config;
 
 import com.think.util.JwtUtil;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -36,12 +37,16 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
+                // Completion of a streaming (SSE) response; the original request was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                
                 // Public endpoints - no authentication required
                 .requestMatchers("/api/providers/register", 
                                 "/api/v1/provider/login",
                                 "/api/v1/patient/register",
                                 "/api/v1/patient/login",
                                 "/h2-console/**",
+                                "/actuator/health",
                                 "/swagger-ui/**",
                                 "/v3/api-docs/**").permitAll()
                 
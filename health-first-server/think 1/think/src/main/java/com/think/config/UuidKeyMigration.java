@@ -0,0 +1,127 @@
+package com.think.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Converts slot and availability key columns created as VARCHAR by earlier versions into native
+ * UUID columns. Existing values are canonical UUID strings, so they convert in place. Foreign
+ * keys on the affected columns are dropped and re-created around the type change. Columns that
+ * are already UUID, and tables that do not exist yet, are skipped, so running it again does
+ * nothing.
+ */
+@Slf4j
+public class UuidKeyMigration {
+
+    static final List<KeyColumn> COLUMNS = List.of(
+            new KeyColumn("provider_availability", "id"),
+            new KeyColumn("appointment_slots", "id"),
+            new KeyColumn("appointment_slots", "availability_id"),
+            new KeyColumn("availability_special_requirements", "availability_id"));
+
+    private static final Set<Integer> TEXT_TYPES = Set.of(Types.VARCHAR, Types.CHAR, Types.NVARCHAR, Types.LONGVARCHAR);
+
+    private final DataSource dataSource;
+
+    public UuidKeyMigration(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public List<KeyColumn> migrate() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData meta = connection.getMetaData();
+            List<KeyColumn> pending = new ArrayList<>();
+            for (KeyColumn column : COLUMNS) {
+                if (isText(meta, column)) {
+                    pending.add(column);
+                }
+            }
+            if (pending.isEmpty()) {
+                return pending;
+            }
+
+            boolean postgres = meta.getDatabaseProductName().toLowerCase().contains("postgres");
+            Map<String, ForeignKey> foreignKeys = foreignKeysOn(meta, pending);
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                for (ForeignKey fk : foreignKeys.values()) {
+                    statement.execute("ALTER TABLE " + fk.table() + " DROP CONSTRAINT " + fk.name());
+                }
+                for (KeyColumn column : pending) {
+                    log.info("Converting {}.{} to UUID", column.table(), column.column());
+                    statement.execute("ALTER TABLE " + column.table() + " ALTER COLUMN " + column.column()
+                            + " SET DATA TYPE UUID" + (postgres ? " USING " + column.column() + "::uuid" : ""));
+                }
+                for (ForeignKey fk : foreignKeys.values()) {
+                    statement.execute("ALTER TABLE " + fk.table() + " ADD CONSTRAINT " + fk.name()
+                            + " FOREIGN KEY (" + fk.column() + ") REFERENCES " + fk.referencedTable()
+                            + " (" + fk.referencedColumn() + ")");
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            return pending;
+        }
+    }
+
+    private boolean isText(DatabaseMetaData meta, KeyColumn column) throws SQLException {
+        try (ResultSet rs = meta.getColumns(null, null, identifier(meta, column.table()), identifier(meta, column.column()))) {
+            return rs.next() && TEXT_TYPES.contains(rs.getInt("DATA_TYPE"));
+        }
+    }
+
+    private Map<String, ForeignKey> foreignKeysOn(DatabaseMetaData meta, List<KeyColumn> columns) throws SQLException {
+        Map<String, ForeignKey> foreignKeys = new LinkedHashMap<>();
+        for (KeyColumn column : columns) {
+            String table = identifier(meta, column.table());
+            try (ResultSet imported = meta.getImportedKeys(null, null, table)) {
+                collect(imported, column, true, foreignKeys);
+            }
+            try (ResultSet exported = meta.getExportedKeys(null, null, table)) {
+                collect(exported, column, false, foreignKeys);
+            }
+        }
+        return foreignKeys;
+    }
+
+    private void collect(ResultSet rs, KeyColumn column, boolean referencing, Map<String, ForeignKey> foreignKeys) throws SQLException {
+        while (rs.next()) {
+            String matched = rs.getString(referencing ? "FKCOLUMN_NAME" : "PKCOLUMN_NAME");
+            if (matched.equalsIgnoreCase(column.column())) {
+                ForeignKey fk = new ForeignKey(rs.getString("FK_NAME"), rs.getString("FKTABLE_NAME"), rs.getString("FKCOLUMN_NAME"),
+                        rs.getString("PKTABLE_NAME"), rs.getString("PKCOLUMN_NAME"));
+                foreignKeys.putIfAbsent(fk.name(), fk);
+            }
+        }
+    }
+
+    private static String identifier(DatabaseMetaData meta, String name) throws SQLException {
+        if (meta.storesUpperCaseIdentifiers()) {
+            return name.toUpperCase();
+        }
+        return meta.storesLowerCaseIdentifiers() ? name.toLowerCase() : name;
+    }
+
+    public record KeyColumn(String table, String column) {
+    }
+
+    record ForeignKey(String name, String table, String column, String referencedTable, String referencedColumn) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.think.config;
+
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Runs {@link UuidKeyMigration} before the entity manager factory starts, so Hibernate's schema
+ * update and the first queries already see UUID key columns.
+ */
+@Configuration
+public class UuidKeyMigrationConfig {
+
+    @Bean
+    public UuidKeyMigration uuidKeyMigration(DataSource dataSource) throws SQLException {
+        UuidKeyMigration migration = new UuidKeyMigration(dataSource);
+        migration.migrate();
+        return migration;
+    }
+
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor uuidKeyMigrationDependency() {
+        return new EntityManagerFactoryDependsOnPostProcessor("uuidKeyMigration");
+    }
+}
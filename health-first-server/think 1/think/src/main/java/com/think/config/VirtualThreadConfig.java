@@ -0,0 +1,56 @@
+package com.think.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Startup checks for the {@code virtual-threads} profile. JDBC calls pin their carrier thread,
+ * so the connection pool must not outgrow the carrier pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class VirtualThreadConfig {
+
+    private final DataSource dataSource;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyVirtualThreadSetup() {
+        if (Runtime.version().feature() < 21) {
+            log.warn("spring.threads.virtual.enabled is set but the runtime is Java {}; requests stay on platform threads",
+                    Runtime.version().feature());
+            return;
+        }
+
+        int carriers = Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+                Runtime.getRuntime().availableProcessors());
+
+        int poolSize = hikariPoolSize();
+        if (poolSize > carriers) {
+            log.warn("Hikari maximum-pool-size ({}) exceeds virtual thread carriers ({}); pinned JDBC calls may starve the scheduler",
+                    poolSize, carriers);
+        } else {
+            log.info("Virtual threads enabled: {} carrier threads, {} pooled JDBC connections", carriers, poolSize);
+        }
+    }
+
+    private int hikariPoolSize() {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class)
+                    ? dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize()
+                    : 0;
+        } catch (SQLException e) {
+            log.warn("Unable to inspect connection pool: {}", e.getMessage());
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.think.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Wraps a JDBC connection and runs a callback the first time a statement that changes data is
+ * prepared or executed on it. Statements are recognised by their leading keyword, which covers
+ * Hibernate flushes, bulk JPQL and native queries alike.
+ */
+final class WriteDetectingConnection implements InvocationHandler {
+
+    private static final Set<String> WRITE_KEYWORDS = Set.of("insert", "update", "delete", "merge");
+
+    private final Connection target;
+    private final Runnable onFirstWrite;
+    private boolean written;
+
+    private WriteDetectingConnection(Connection target, Runnable onFirstWrite) {
+        this.target = target;
+        this.onFirstWrite = onFirstWrite;
+    }
+
+    static Connection wrap(Connection target, Runnable onFirstWrite) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                new WriteDetectingConnection(target, onFirstWrite));
+    }
+
+    static boolean isWrite(String sql) {
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        return WRITE_KEYWORDS.contains(trimmed.substring(0, end).toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "prepareStatement":
+            case "prepareCall":
+                inspect(args[0]);
+                break;
+            default:
+                break;
+        }
+        Object result = invokeOn(target, method, args);
+        if (result instanceof Statement statement && method.getName().equals("createStatement")) {
+            return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] {Statement.class},
+                    (statementProxy, statementMethod, statementArgs) -> {
+                        if (statementArgs != null && statementArgs.length > 0
+                                && (statementMethod.getName().startsWith("execute") || statementMethod.getName().equals("addBatch"))) {
+                            inspect(statementArgs[0]);
+                        }
+                        return invokeOn(statement, statementMethod, statementArgs);
+                    });
+        }
+        return result;
+    }
+
+    private void inspect(Object sql) {
+        if (!written && sql instanceof String text && isWrite(text)) {
+            written = true;
+            onFirstWrite.run();
+        }
+    }
+
+    private static Object invokeOn(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.think.controller;
 
 import com.think.dto.*;
+import com.think.exception.ServiceOverloadedException;
 import com.think.service.AppointmentService;
+import com.think.service.QueryGuard;
+import com.think.service.SlotHoldService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,15 +16,18 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.ArrayList;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/appointments")
@@ -32,6 +38,8 @@ import java.util.ArrayList;
 public class AppointmentController {
     
     private final AppointmentService appointmentService;
+    private final QueryGuard queryGuard;
+    private final SlotHoldService slotHoldService;
     
     @PostMapping("/book")
     @Operation(
@@ -87,10 +95,75 @@ public class AppointmentController {
         }
     }
     
+    @PostMapping("/hold")
+    @Operation(
+        summary = "Hold Slot",
+        description = "Reserve a slot for the patient while checkout completes. The hold expires after a short TTL " +
+                      "unless the patient books the slot; holding again before expiry extends it"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "201",
+            description = "Slot held",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = SlotHoldResponse.class)
+            )
+        ),
+        @ApiResponse(responseCode = "400", description = "Invalid request data or slot not available")
+    })
+    public ResponseEntity<SlotHoldResponse> holdSlot(@Valid @RequestBody HoldSlotRequest request) {
+        try {
+            log.info("Received slot hold request for patient: {}, provider: {}",
+                    request.getPatientId(), request.getProviderId());
+            
+            SlotHoldResponse response = slotHoldService.holdSlot(request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            
+        } catch (IllegalArgumentException e) {
+            log.warn("Slot hold failed: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("Unexpected error during slot hold", e);
+            throw new RuntimeException("Slot hold failed due to an internal error", e);
+        }
+    }
+    
+    @DeleteMapping("/hold/{slotId}")
+    @Operation(
+        summary = "Release Slot Hold",
+        description = "Give up a hold before it expires so the slot becomes available again"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Hold released"),
+        @ApiResponse(responseCode = "400", description = "No active hold on the slot for this patient")
+    })
+    public ResponseEntity<Void> releaseHold(
+            @Parameter(description = "Held slot ID", example = "slot-uuid")
+            @PathVariable UUID slotId,
+            @Parameter(description = "Patient ID holding the slot", example = "patient-uuid")
+            @RequestParam String patientId) {
+        
+        try {
+            slotHoldService.releaseHold(slotId, patientId);
+            return ResponseEntity.noContent().build();
+            
+        } catch (IllegalArgumentException e) {
+            log.warn("Slot hold release failed: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("Error releasing slot hold", e);
+            throw new RuntimeException("Failed to release slot hold", e);
+        }
+    }
+    
     @GetMapping
     @Operation(
         summary = "Get Appointment List",
-        description = "Retrieve a paginated list of appointments with filters for date range, appointment type, provider, and patient"
+        description = "Retrieve a paginated list of appointments with filters for date range, appointment type, provider, and patient. " +
+                      "Patients only see their own appointments and providers only their own schedule; the caller's id from the token replaces any patientId or providerId filter. " +
+                      "When sorted by appointmentDateTime, pages are keyset-paginated: pass the returned nextCursor to fetch the next page. " +
+                      "Totals are only computed when includeTotal=true or when an explicit page number is used."
     )
     @ApiResponses(value = {
         @ApiResponse(
@@ -101,7 +174,9 @@ public class AppointmentController {
                 schema = @Schema(implementation = AppointmentListResponse.class)
             )
         ),
-        @ApiResponse(responseCode = "400", description = "Invalid filter parameters")
+        @ApiResponse(responseCode = "400", description = "Invalid filter parameters"),
+        @ApiResponse(responseCode = "403", description = "Token carries no patient or provider identity"),
+        @ApiResponse(responseCode = "503", description = "Query timed out or database overloaded; retry after the Retry-After delay")
     })
     public ResponseEntity<AppointmentListResponse> getAppointments(
             @Parameter(description = "Start date (YYYY-MM-DD)", example = "2024-02-01")
@@ -123,24 +198,47 @@ public class AppointmentController {
             @Parameter(description = "Sort by field", example = "appointmentDateTime")
             @RequestParam(defaultValue = "appointmentDateTime") String sortBy,
             @Parameter(description = "Sort direction", example = "DESC")
-            @RequestParam(defaultValue = "DESC") String sortDirection) {
+            @RequestParam(defaultValue = "DESC") String sortDirection,
+            @Parameter(description = "Opaque continuation token from a previous response's nextCursor")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Also count matching appointments (extra query)", example = "false")
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestAttribute(value = "userRole", required = false) String userRole,
+            @RequestAttribute(value = "patientId", required = false) String callerPatientId,
+            @RequestAttribute(value = "providerId", required = false) String callerProviderId) {
+        
+        if ("PATIENT".equals(userRole) && callerPatientId != null) {
+            patientId = callerPatientId;
+        } else if ("PROVIDER".equals(userRole) && callerProviderId != null) {
+            providerId = callerProviderId;
+        } else {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
         
         try {
             log.info("Retrieving appointments with filters: startDate={}, endDate={}, appointmentType={}, providerId={}, patientId={}, status={}", 
                     startDate, endDate, appointmentType, providerId, patientId, status);
             
-            // Return empty response for now - will fix database issue later
-            AppointmentListResponse response = new AppointmentListResponse(
-                    new ArrayList<>(),
-                    0,
-                    0,
-                    0L,
-                    size,
-                    false,
-                    false
-            );
+            AppointmentListRequest request = new AppointmentListRequest();
+            request.setStartDate(parseDate(startDate));
+            request.setEndDate(parseDate(endDate));
+            request.setAppointmentType(appointmentType);
+            request.setProviderId(providerId != null ? UUID.fromString(providerId) : null);
+            request.setPatientId(patientId);
+            request.setStatus(status);
+            request.setPage(page);
+            request.setSize(size);
+            request.setSortBy(sortBy);
+            request.setSortDirection(sortDirection);
+            request.setCursor(cursor);
+            request.setIncludeTotal(includeTotal);
+            
+            AppointmentListResponse response = queryGuard.call("appointments.list",
+                    () -> appointmentService.getAppointments(request));
             return ResponseEntity.ok(response);
             
+        } catch (IllegalArgumentException | ServiceOverloadedException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error retrieving appointments", e);
             throw new RuntimeException("Failed to retrieve appointments", e);
@@ -218,6 +316,26 @@ public class AppointmentController {
         }
     }
     
+    private LocalDate parseDate(String date) {
+        if (date == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date format (expected YYYY-MM-DD): " + date);
+        }
+    }
+    
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<Map<String, String>> handleServiceOverloadedException(ServiceOverloadedException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(error);
+    }
+    
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Map<String, String>> handleIllegalArgumentException(IllegalArgumentException e) {
         Map<String, String> error = new HashMap<>();
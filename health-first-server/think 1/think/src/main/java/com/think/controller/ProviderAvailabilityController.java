@@ -2,7 +2,13 @@ package com.think.controller;
 
 import com.think.dto.*;
 import com.think.entity.ProviderAvailability;
+import com.think.exception.ServiceOverloadedException;
+import com.think.service.AvailabilityJobService;
+import com.think.service.BulkAvailabilityService;
 import com.think.service.ProviderAvailabilityService;
+import com.think.service.ProviderOccupancyService;
+import com.think.service.QueryGuard;
+import com.think.service.SlotChangeStream;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,16 +20,22 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.validation.Valid;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import java.net.URI;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/provider")
@@ -34,6 +46,11 @@ import java.util.Map;
 public class ProviderAvailabilityController {
     
     private final ProviderAvailabilityService availabilityService;
+    private final QueryGuard queryGuard;
+    private final SlotChangeStream slotChangeStream;
+    private final BulkAvailabilityService bulkAvailabilityService;
+    private final AvailabilityJobService availabilityJobService;
+    private final ProviderOccupancyService occupancyService;
     
     @PostMapping("/availability")
     @Operation(
@@ -103,18 +120,35 @@ public class ProviderAvailabilityController {
                 )
             )
         ),
+        @ApiResponse(responseCode = "202", description = "Slot generation queued as a job (async=true); poll the Location header"),
         @ApiResponse(responseCode = "400", description = "Invalid request data or overlapping slots"),
         @ApiResponse(responseCode = "404", description = "Provider not found"),
-        @ApiResponse(responseCode = "422", description = "Validation errors")
+        @ApiResponse(responseCode = "422", description = "Validation errors"),
+        @ApiResponse(responseCode = "503", description = "Job queue full; retry after the Retry-After delay")
     })
     public ResponseEntity<Map<String, Object>> createAvailability(
             @Parameter(description = "Provider ID", required = true, example = "provider-uuid-123")
             @RequestParam String providerId,
+            @Parameter(description = "Generate slots in a background job and answer 202 right away", example = "false")
+            @RequestParam(defaultValue = "false") boolean async,
             @Valid @RequestBody CreateAvailabilityRequest request) {
         
         try {
             log.info("Creating availability for provider: {}", providerId);
             
+            if (async) {
+                AvailabilityJobResponse job = availabilityJobService.submit(providerId, request);
+                
+                Map<String, Object> result = new HashMap<>();
+                result.put("success", true);
+                result.put("message", "Availability job accepted");
+                result.put("data", job);
+                
+                return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .location(URI.create("/api/v1/provider/availability/jobs/" + job.getJobId()))
+                    .body(result);
+            }
+            
             AvailabilityResponse response = availabilityService.createAvailability(providerId, request);
             
             Map<String, Object> result = new HashMap<>();
@@ -133,6 +167,15 @@ public class ProviderAvailabilityController {
             
             return ResponseEntity.badRequest().body(result);
             
+        } catch (ServiceOverloadedException e) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", e.getMessage());
+            
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(result);
+            
         } catch (Exception e) {
             log.error("Unexpected error creating availability for provider: {}", providerId, e);
             
@@ -145,6 +188,133 @@ public class ProviderAvailabilityController {
         }
     }
     
+    @GetMapping("/availability/jobs/{jobId}")
+    @Operation(
+        summary = "Get Availability Job",
+        description = "Status and progress of a background availability job"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Job status retrieved successfully",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = AvailabilityJobResponse.class)
+            )
+        ),
+        @ApiResponse(responseCode = "404", description = "Job not found")
+    })
+    public ResponseEntity<Map<String, Object>> getAvailabilityJob(
+            @Parameter(description = "Job ID", required = true, example = "job-uuid-123")
+            @PathVariable String jobId) {
+        
+        try {
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", true);
+            result.put("data", availabilityJobService.getJob(jobId));
+            
+            return ResponseEntity.ok(result);
+            
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", e.getMessage());
+            
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(result);
+        }
+    }
+    
+    @DeleteMapping("/availability/jobs/{jobId}")
+    @Operation(
+        summary = "Cancel Availability Job",
+        description = "Ask a background availability job to stop; it stops before its next chunk and keeps the slots already created"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Cancellation requested"),
+        @ApiResponse(responseCode = "400", description = "Job not found or does not belong to provider")
+    })
+    public ResponseEntity<Map<String, Object>> cancelAvailabilityJob(
+            @Parameter(description = "Job ID", required = true, example = "job-uuid-123")
+            @PathVariable String jobId,
+            @Parameter(description = "Provider ID", required = true, example = "provider-uuid-123")
+            @RequestParam String providerId) {
+        
+        try {
+            log.info("Cancelling availability job {} for provider: {}", jobId, providerId);
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", true);
+            result.put("message", "Availability job cancellation requested");
+            result.put("data", availabilityJobService.cancel(jobId, providerId));
+            
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(result);
+            
+        } catch (IllegalArgumentException e) {
+            log.warn("Failed to cancel availability job {}: {}", jobId, e.getMessage());
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", e.getMessage());
+            
+            return ResponseEntity.badRequest().body(result);
+        }
+    }
+    
+    @PostMapping("/availability/bulk")
+    @Operation(
+        summary = "Apply Availability Template",
+        description = "Create the same availability for many providers at once. The template is validated once; " +
+            "providers that are unknown or already have overlapping availability are reported as FAILED " +
+            "without affecting the others"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "201",
+            description = "Availability created for at least one provider",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = BulkAvailabilityResponse.class)
+            )
+        ),
+        @ApiResponse(responseCode = "400", description = "Invalid template, or no provider could be given the availability")
+    })
+    public ResponseEntity<Map<String, Object>> createBulkAvailability(
+            @Valid @RequestBody BulkAvailabilityRequest request) {
+        
+        try {
+            log.info("Applying availability template to {} providers", request.getProviderIds().size());
+            
+            BulkAvailabilityResponse response = bulkAvailabilityService.createForProviders(request);
+            boolean anyCreated = response.getProvidersCreated() > 0;
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", anyCreated);
+            result.put("message", String.format("Availability created for %d of %d providers",
+                response.getProvidersCreated(), response.getProvidersRequested()));
+            result.put("data", response);
+            
+            return ResponseEntity.status(anyCreated ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST).body(result);
+            
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected availability template: {}", e.getMessage());
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", e.getMessage());
+            
+            return ResponseEntity.badRequest().body(result);
+            
+        } catch (Exception e) {
+            log.error("Unexpected error applying availability template", e);
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", "An unexpected error occurred. Please try again later.");
+            
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(result);
+        }
+    }
+    
     @GetMapping("/{providerId}/availability")
     @Operation(
         summary = "Get Provider Availability",
@@ -159,6 +329,7 @@ public class ProviderAvailabilityController {
                 schema = @Schema(implementation = AvailabilityResponse.ProviderAvailabilityResponse.class)
             )
         ),
+        @ApiResponse(responseCode = "304", description = "Calendar unchanged since the ETag sent in If-None-Match"),
         @ApiResponse(responseCode = "400", description = "Invalid date range"),
         @ApiResponse(responseCode = "404", description = "Provider not found")
     })
@@ -172,11 +343,19 @@ public class ProviderAvailabilityController {
             @Parameter(description = "Filter by status", example = "AVAILABLE")
             @RequestParam(required = false) ProviderAvailability.AvailabilityStatus status,
             @Parameter(description = "Filter by appointment type", example = "CONSULTATION")
-            @RequestParam(required = false) ProviderAvailability.AppointmentType appointmentType) {
+            @RequestParam(required = false) ProviderAvailability.AppointmentType appointmentType,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
         try {
             log.info("Getting availability for provider: {} from {} to {}", providerId, startDate, endDate);
             
+            // No Last-Modified: deletions do not advance max(updatedAt), so only the ETag is a safe validator
+            String eTag = availabilityService.getAvailabilityVersion(providerId, startDate, endDate).eTag();
+            CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+            if (eTagMatches(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
+            }
+            
             AvailabilityResponse.ProviderAvailabilityResponse response = 
                 availabilityService.getProviderAvailability(providerId, startDate, endDate, status, appointmentType);
             
@@ -184,7 +363,7 @@ public class ProviderAvailabilityController {
             result.put("success", true);
             result.put("data", response);
             
-            return ResponseEntity.ok(result);
+            return ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl).body(result);
             
         } catch (IllegalArgumentException e) {
             log.warn("Failed to get availability for provider {}: {}", providerId, e.getMessage());
@@ -206,6 +385,111 @@ public class ProviderAvailabilityController {
         }
     }
     
+    @GetMapping("/{providerId}/availability/free-busy")
+    @Operation(
+        summary = "Get Provider Free/Busy",
+        description = "Free and busy time ranges of one day on 5-minute boundaries, answered from the provider's day bitmap"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Free/busy retrieved successfully",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = FreeBusyResponse.class)
+            )
+        ),
+        @ApiResponse(responseCode = "400", description = "Invalid provider ID")
+    })
+    public ResponseEntity<Map<String, Object>> getFreeBusy(
+            @Parameter(description = "Provider ID", required = true, example = "provider-uuid-123")
+            @PathVariable String providerId,
+            @Parameter(description = "Date (YYYY-MM-DD)", required = true, example = "2024-02-15")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        
+        try {
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", true);
+            result.put("data", occupancyService.getFreeBusy(providerId, date));
+            
+            return ResponseEntity.ok(result);
+            
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", e.getMessage());
+            
+            return ResponseEntity.badRequest().body(result);
+        }
+    }
+    
+    @GetMapping("/{providerId}/availability/next")
+    @Operation(
+        summary = "Get Next Available Time",
+        description = "Start of the provider's first available slot at or after the given time, up to the slot horizon"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Next available time retrieved; next_available is null when nothing is free",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = NextAvailableResponse.class)
+            )
+        ),
+        @ApiResponse(responseCode = "400", description = "Invalid provider ID")
+    })
+    public ResponseEntity<Map<String, Object>> getNextAvailable(
+            @Parameter(description = "Provider ID", required = true, example = "provider-uuid-123")
+            @PathVariable String providerId,
+            @Parameter(description = "Earliest start (ISO date-time); defaults to now", example = "2024-02-15T09:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime after) {
+        
+        try {
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", true);
+            result.put("data", occupancyService.getNextAvailable(providerId, after != null ? after : LocalDateTime.now()));
+            
+            return ResponseEntity.ok(result);
+            
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", e.getMessage());
+            
+            return ResponseEntity.badRequest().body(result);
+        }
+    }
+    
+    @GetMapping("/{providerId}/availability/stream")
+    @Operation(
+        summary = "Stream Provider Slot Changes",
+        description = "Server-Sent Events stream of committed slot changes for one provider: 'slot' events carry the change, " +
+            "'overflow' events report messages dropped because the client fell behind"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Event stream opened"),
+        @ApiResponse(responseCode = "400", description = "Invalid provider ID"),
+        @ApiResponse(responseCode = "503", description = "Too many open streams; retry after the Retry-After delay")
+    })
+    public ResponseEntity<SseEmitter> streamProviderAvailability(
+            @Parameter(description = "Provider ID", required = true, example = "provider-uuid-123")
+            @PathVariable String providerId) {
+        
+        try {
+            return ResponseEntity.ok(slotChangeStream.subscribeProvider(UUID.fromString(providerId)));
+            
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected availability stream for provider {}: {}", providerId, e.getMessage());
+            return ResponseEntity.badRequest().build();
+            
+        } catch (ServiceOverloadedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .build();
+        }
+    }
+    
     @PutMapping("/availability/{slotId}")
     @Operation(
         summary = "Update Availability Slot",
@@ -255,13 +539,73 @@ public class ProviderAvailabilityController {
         }
     }
     
+    @PutMapping("/availability/range")
+    @Operation(
+        summary = "Block or Unblock Slot Range",
+        description = "Set every slot of the provider starting in [start_time, end_time) to BLOCKED or AVAILABLE in one transaction; booked slots are skipped"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Slots updated",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = SlotRangeUpdateResponse.class)
+            )
+        ),
+        @ApiResponse(responseCode = "400", description = "Invalid range, status or provider")
+    })
+    public ResponseEntity<Map<String, Object>> updateSlotRange(
+            @Parameter(description = "Provider ID", required = true, example = "provider-uuid-123")
+            @RequestParam String providerId,
+            @Valid @RequestBody SlotRangeUpdateRequest request) {
+        
+        try {
+            log.info("Updating slot range for provider: {}", providerId);
+            
+            SlotRangeUpdateResponse response = availabilityService.updateSlotRange(providerId, request);
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", true);
+            result.put("message", response.getSlotsUpdated() + " slots set to " + response.getStatus());
+            result.put("data", response);
+            
+            return ResponseEntity.ok(result);
+            
+        } catch (IllegalArgumentException e) {
+            log.warn("Failed to update slot range for provider {}: {}", providerId, e.getMessage());
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", e.getMessage());
+            
+            return ResponseEntity.badRequest().body(result);
+            
+        } catch (Exception e) {
+            log.error("Unexpected error updating slot range for provider: {}", providerId, e);
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", "An unexpected error occurred. Please try again later.");
+            
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(result);
+        }
+    }
+    
     @DeleteMapping("/availability/{slotId}")
     @Operation(
         summary = "Delete Availability Slot",
         description = "Delete a specific availability slot with optional recurring deletion"
     )
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Slot deleted successfully"),
+        @ApiResponse(
+            responseCode = "200",
+            description = "Slot deleted successfully",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = SlotDeletionResponse.class)
+            )
+        ),
         @ApiResponse(responseCode = "400", description = "Cannot delete booked slot"),
         @ApiResponse(responseCode = "404", description = "Slot not found"),
         @ApiResponse(responseCode = "403", description = "Slot does not belong to provider")
@@ -279,11 +623,14 @@ public class ProviderAvailabilityController {
         try {
             log.info("Deleting availability slot: {} for provider: {}", slotId, providerId);
             
-            availabilityService.deleteAvailabilitySlot(slotId, providerId, deleteRecurring, reason);
+            SlotDeletionResponse response = availabilityService.deleteAvailabilitySlot(slotId, providerId, deleteRecurring, reason);
             
             Map<String, Object> result = new HashMap<>();
             result.put("success", true);
-            result.put("message", "Availability slot deleted successfully");
+            result.put("message", response.getSlotsSkipped() > 0
+                ? "Deleted " + response.getSlotsDeleted() + " slots; " + response.getSlotsSkipped() + " booked, held or cancelled slots were kept"
+                : "Availability slot deleted successfully");
+            result.put("data", response);
             
             return ResponseEntity.ok(result);
             
@@ -329,7 +676,8 @@ public class ProviderAvailabilityController {
                 schema = @Schema(implementation = AvailabilitySearchResponse.class)
             )
         ),
-        @ApiResponse(responseCode = "400", description = "Invalid search criteria")
+        @ApiResponse(responseCode = "400", description = "Invalid search criteria"),
+        @ApiResponse(responseCode = "503", description = "Search timed out or database overloaded; retry after the Retry-After delay")
     })
     public ResponseEntity<Map<String, Object>> searchAvailableSlots(
             @Parameter(description = "Specific date to search", example = "2024-02-15")
@@ -369,7 +717,8 @@ public class ProviderAvailabilityController {
             request.setTimezone(timezone);
             request.setAvailableOnly(availableOnly);
             
-            AvailabilitySearchResponse response = availabilityService.searchAvailableSlots(request);
+            AvailabilitySearchResponse response = queryGuard.call("availability.search",
+                    () -> availabilityService.searchAvailableSlots(request));
             
             Map<String, Object> result = new HashMap<>();
             result.put("success", true);
@@ -377,6 +726,15 @@ public class ProviderAvailabilityController {
             
             return ResponseEntity.ok(result);
             
+        } catch (ServiceOverloadedException e) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", e.getMessage());
+            
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(result);
+            
         } catch (Exception e) {
             log.error("Unexpected error searching available slots", e);
             
@@ -388,6 +746,46 @@ public class ProviderAvailabilityController {
         }
     }
     
+    @GetMapping("/availability/search/stream")
+    @Operation(
+        summary = "Stream Slot Changes by Specialization",
+        description = "Server-Sent Events stream of committed slot changes for a specialization, optionally limited to one date"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Event stream opened"),
+        @ApiResponse(responseCode = "503", description = "Too many open streams; retry after the Retry-After delay")
+    })
+    public ResponseEntity<SseEmitter> streamAvailabilitySearch(
+            @Parameter(description = "Provider specialization", example = "Cardiology")
+            @RequestParam(required = false) String specialization,
+            @Parameter(description = "Only slots on this date", example = "2024-02-15")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        
+        try {
+            return ResponseEntity.ok(slotChangeStream.subscribeSpecialization(specialization, date));
+            
+        } catch (ServiceOverloadedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .build();
+        }
+    }
+    
+    // Weak comparison (RFC 9110 13.1.2), which is what If-None-Match calls for
+    private static boolean eTagMatches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidationExceptions(MethodArgumentNotValidException ex) {
         Map<String, Object> result = new HashMap<>();
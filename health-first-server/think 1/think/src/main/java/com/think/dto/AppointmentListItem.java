@@ -0,0 +1,51 @@
+package com.think.dto;
+
+import com.think.entity.AppointmentSlot;
+import com.think.entity.ClinicAddress;
+import com.think.entity.Patient;
+import com.think.entity.PatientAddress;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Flat row for the appointment list, filled by a single constructor-expression query that joins
+ * provider, patient and availability pricing. Field order matches the JPQL select list.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentListItem {
+
+    private UUID id;
+    private String bookingReference;
+    private LocalDateTime slotStartTime;
+    private String appointmentType;
+    private AppointmentSlot.SlotStatus status;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    private String patientId;
+    private String patientFirstName;
+    private String patientLastName;
+    private String patientEmail;
+    private String patientPhone;
+    private Patient.Gender patientGender;
+    private LocalDate patientDateOfBirth;
+    private PatientAddress patientAddress;
+
+    private UUID providerId;
+    private String providerFirstName;
+    private String providerLastName;
+    private String providerSpecialization;
+    private String providerEmail;
+    private String providerPhone;
+    private ClinicAddress clinicAddress;
+
+    private BigDecimal baseFee;
+}
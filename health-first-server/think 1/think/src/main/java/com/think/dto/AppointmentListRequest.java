@@ -22,4 +22,6 @@ public class AppointmentListRequest {
     private Integer size = 20;
     private String sortBy = "appointmentDateTime";
     private String sortDirection = "DESC";
+    private String cursor;
+    private boolean includeTotal = false;
 }
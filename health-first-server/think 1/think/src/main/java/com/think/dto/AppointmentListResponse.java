@@ -13,9 +13,10 @@ public class AppointmentListResponse {
     
     private List<AppointmentResponse> appointments;
     private int currentPage;
-    private int totalPages;
-    private long totalElements;
+    private Integer totalPages;
+    private Long totalElements;
     private int pageSize;
     private boolean hasNext;
     private boolean hasPrevious;
+    private String nextCursor;
 }
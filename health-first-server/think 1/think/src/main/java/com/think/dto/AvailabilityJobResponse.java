@@ -0,0 +1,69 @@
+package com.think.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.think.entity.AvailabilityJob;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AvailabilityJobResponse {
+    
+    @JsonProperty("job_id")
+    private String jobId;
+    
+    @JsonProperty("availability_id")
+    private String availabilityId;
+    
+    @JsonProperty("provider_id")
+    private String providerId;
+    
+    private AvailabilityJob.JobStatus status;
+    
+    @JsonProperty("slots_total")
+    private Integer slotsTotal;
+    
+    @JsonProperty("slots_created")
+    private Integer slotsCreated;
+    
+    @JsonProperty("progress_percent")
+    private Integer progressPercent;
+    
+    @JsonProperty("completed_through")
+    private LocalDate completedThrough;
+    
+    @JsonProperty("cancel_requested")
+    private Boolean cancelRequested;
+    
+    private String message;
+    
+    @JsonProperty("created_at")
+    private LocalDateTime createdAt;
+    
+    @JsonProperty("updated_at")
+    private LocalDateTime updatedAt;
+    
+    public static AvailabilityJobResponse from(AvailabilityJob job) {
+        return AvailabilityJobResponse.builder()
+            .jobId(job.getId().toString())
+            .availabilityId(job.getAvailabilityId().toString())
+            .providerId(job.getProviderId().toString())
+            .status(job.getStatus())
+            .slotsTotal(job.getSlotsTotal())
+            .slotsCreated(job.getSlotsCreated())
+            .progressPercent(job.getSlotsTotal() == 0 ? 100 : (int) (100L * job.getSlotsCreated() / job.getSlotsTotal()))
+            .completedThrough(job.getCompletedThrough())
+            .cancelRequested(job.getCancelRequested())
+            .message(job.getMessage())
+            .createdAt(job.getCreatedAt())
+            .updatedAt(job.getUpdatedAt())
+            .build();
+    }
+}
@@ -0,0 +1,27 @@
+package com.think.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkAvailabilityRequest {
+    
+    @Valid
+    @NotNull(message = "Template is required")
+    private CreateAvailabilityRequest template;
+    
+    @NotEmpty(message = "At least one provider ID is required")
+    @Size(max = 200, message = "At most 200 providers per request")
+    @JsonProperty("provider_ids")
+    private List<String> providerIds;
+}
@@ -0,0 +1,53 @@
+package com.think.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkAvailabilityResponse {
+    
+    @JsonProperty("providers_requested")
+    private Integer providersRequested;
+    
+    @JsonProperty("providers_created")
+    private Integer providersCreated;
+    
+    @JsonProperty("providers_failed")
+    private Integer providersFailed;
+    
+    @JsonProperty("slots_created")
+    private Integer slotsCreated;
+    
+    private List<ProviderResult> results;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ProviderResult {
+        @JsonProperty("provider_id")
+        private String providerId;
+        
+        private Status status;
+        
+        @JsonProperty("availability_id")
+        private String availabilityId;
+        
+        @JsonProperty("slots_created")
+        private Integer slotsCreated;
+        
+        private String message;
+    }
+    
+    public enum Status {
+        CREATED, FAILED
+    }
+}
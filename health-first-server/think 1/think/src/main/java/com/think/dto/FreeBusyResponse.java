@@ -0,0 +1,37 @@
+package com.think.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FreeBusyResponse {
+    
+    @JsonProperty("provider_id")
+    private String providerId;
+    
+    private LocalDate date;
+    
+    // Covered by AVAILABLE slots, on 5-minute boundaries
+    private List<TimeRange> free;
+    
+    // Covered by booked, held or blocked slots
+    private List<TimeRange> busy;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TimeRange {
+        private LocalDateTime start;
+        private LocalDateTime end;
+    }
+}
@@ -0,0 +1,27 @@
+package com.think.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoldSlotRequest {
+    
+    @NotNull(message = "Patient ID is required")
+    private String patientId;
+    
+    @NotNull(message = "Provider ID is required")
+    private String providerId;
+    
+    @NotNull(message = "Appointment date is required")
+    private LocalDate appointmentDate;
+    
+    @NotNull(message = "Appointment time is required")
+    private LocalTime appointmentTime;
+}
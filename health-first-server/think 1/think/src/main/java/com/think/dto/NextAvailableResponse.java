@@ -0,0 +1,29 @@
+package com.think.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NextAvailableResponse {
+    
+    @JsonProperty("provider_id")
+    private String providerId;
+    
+    private LocalDateTime after;
+    
+    // Start of the first AVAILABLE slot at or after the requested time; null if none through searched_through
+    @JsonProperty("next_available")
+    private LocalDateTime nextAvailable;
+    
+    @JsonProperty("searched_through")
+    private LocalDate searchedThrough;
+}
@@ -0,0 +1,56 @@
+package com.think.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.think.entity.AppointmentSlot;
+import com.think.event.SlotChangeEvent;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One slot transition as pushed to availability streams. Patient and booking details are left
+ * out: subscribers only learn that a slot's status changed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SlotChangeMessage {
+
+    private SlotChangeEvent.Type type;
+
+    @JsonProperty("provider_id")
+    private String providerId;
+
+    private String specialization;
+
+    @JsonProperty("slot_id")
+    private String slotId;
+
+    @JsonProperty("availability_id")
+    private String availabilityId;
+
+    @JsonProperty("start_time")
+    private LocalDateTime startTime;
+
+    @JsonProperty("end_time")
+    private LocalDateTime endTime;
+
+    private AppointmentSlot.SlotStatus status;
+
+    public static SlotChangeMessage of(SlotChangeEvent event, SlotChangeEvent.Slot slot) {
+        return SlotChangeMessage.builder()
+                .type(event.getType())
+                .providerId(event.getProviderId().toString())
+                .specialization(event.getSpecialization())
+                .slotId(slot.getId().toString())
+                .availabilityId(slot.getAvailabilityId() != null ? slot.getAvailabilityId().toString() : null)
+                .startTime(slot.getStartTime())
+                .endTime(slot.getEndTime())
+                .status(slot.getStatus())
+                .build();
+    }
+}
@@ -0,0 +1,27 @@
+package com.think.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SlotDeletionResponse {
+    
+    @JsonProperty("availability_id")
+    private String availabilityId;
+    
+    @JsonProperty("slots_deleted")
+    private Integer slotsDeleted;
+    
+    // Booked, held and cancelled slots are never deleted with their series
+    @JsonProperty("slots_skipped")
+    private Integer slotsSkipped;
+    
+    @JsonProperty("availability_deleted")
+    private Boolean availabilityDeleted;
+}
@@ -0,0 +1,23 @@
+package com.think.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SlotHoldResponse {
+    
+    private String slotId;
+    private String providerId;
+    private String patientId;
+    private LocalDateTime slotStartTime;
+    private LocalDateTime slotEndTime;
+    private String status;
+    private LocalDateTime heldUntil;
+}
@@ -0,0 +1,28 @@
+package com.think.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.think.entity.AppointmentSlot;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotRangeUpdateRequest {
+    
+    @NotNull(message = "Start time is required")
+    @JsonProperty("start_time")
+    private LocalDateTime startTime;
+    
+    @NotNull(message = "End time is required")
+    @JsonProperty("end_time")
+    private LocalDateTime endTime;
+    
+    // BLOCKED or AVAILABLE
+    @NotNull(message = "Status is required")
+    private AppointmentSlot.SlotStatus status;
+}
@@ -0,0 +1,31 @@
+package com.think.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.think.entity.AppointmentSlot;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SlotRangeUpdateResponse {
+    
+    private AppointmentSlot.SlotStatus status;
+    
+    @JsonProperty("slots_in_range")
+    private Integer slotsInRange;
+    
+    @JsonProperty("slots_updated")
+    private Integer slotsUpdated;
+    
+    // Booked slots are never changed by a range update
+    @JsonProperty("slots_booked")
+    private Integer slotsBooked;
+    
+    // Already in the requested status, or cancelled
+    @JsonProperty("slots_unchanged")
+    private Integer slotsUnchanged;
+}
@@ -6,13 +6,18 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.GenericGenerator;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "appointment_slots")
+@Table(name = "appointment_slots", indexes = {
+    @Index(name = "idx_slot_provider_start", columnList = "provider_id, slot_start_time"),
+    @Index(name = "idx_slot_patient_start", columnList = "patient_id, slot_start_time"),
+    @Index(name = "idx_slot_start", columnList = "slot_start_time"),
+    @Index(name = "idx_slot_availability", columnList = "availability_id"),
+    @Index(name = "idx_slot_held_until", columnList = "held_until")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -20,9 +25,8 @@ import java.util.UUID;
 public class AppointmentSlot {
     
     @Id
-    @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
-    private String id;
+    @TimeOrderedId
+    private UUID id;
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "availability_id", nullable = false)
@@ -57,6 +61,14 @@ public class AppointmentSlot {
     @Column(name = "booking_reference", unique = true)
     private String bookingReference;
     
+    // Set only while the slot is HELD. idx_slot_held_until still has an entry for every slot, but
+    // the sweeper's range predicate never matches NULL, so its scan only visits live holds
+    @Column(name = "held_until")
+    private LocalDateTime heldUntil;
+    
+    @Column(name = "held_by")
+    private String heldBy;
+    
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
@@ -67,9 +79,6 @@ public class AppointmentSlot {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
-        if (bookingReference == null) {
-            bookingReference = generateBookingReference();
-        }
     }
     
     @PreUpdate
@@ -77,11 +86,7 @@ public class AppointmentSlot {
         updatedAt = LocalDateTime.now();
     }
     
-    private String generateBookingReference() {
-        return "APT-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-    }
-    
     public enum SlotStatus {
-        AVAILABLE, BOOKED, CANCELLED, BLOCKED
+        AVAILABLE, HELD, BOOKED, CANCELLED, BLOCKED
     }
 }
@@ -0,0 +1,67 @@
+package com.think.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Past slot moved out of {@code appointment_slots} by the archiver, keeping its id and columns.
+ * References carry no foreign keys, so availability rows can still be deleted after archiving.
+ */
+@Entity
+@Table(name = "appointment_slots_archive", indexes = {
+    @Index(name = "idx_archive_provider_start", columnList = "provider_id, slot_start_time"),
+    @Index(name = "idx_archive_patient_start", columnList = "patient_id, slot_start_time"),
+    @Index(name = "idx_archive_start", columnList = "slot_start_time")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedAppointmentSlot {
+    
+    @Id
+    private UUID id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "availability_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private ProviderAvailability availability;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "provider_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Provider provider;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "patient_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Patient patient;
+    
+    @Column(name = "slot_start_time", nullable = false)
+    private LocalDateTime slotStartTime;
+    
+    @Column(name = "slot_end_time", nullable = false)
+    private LocalDateTime slotEndTime;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AppointmentSlot.SlotStatus status;
+    
+    @Column(name = "appointment_type")
+    private String appointmentType;
+    
+    @Column(name = "booking_reference")
+    private String bookingReference;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
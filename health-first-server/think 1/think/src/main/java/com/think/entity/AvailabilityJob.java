@@ -0,0 +1,86 @@
+package com.think.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Background expansion of one availability into slots. {@code completedThrough} is the last
+ * occurrence date whose slots are committed, so an interrupted job resumes after it.
+ */
+@Entity
+@Table(name = "availability_jobs", indexes = {
+    @Index(name = "idx_availability_jobs_status", columnList = "status")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AvailabilityJob {
+    
+    @Id
+    @TimeOrderedId
+    private UUID id;
+    
+    @Column(name = "provider_id", nullable = false)
+    private UUID providerId;
+    
+    @Column(name = "availability_id", nullable = false)
+    private UUID availabilityId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private JobStatus status = JobStatus.QUEUED;
+    
+    @Column(name = "generate_through", nullable = false)
+    private LocalDate generateThrough;
+    
+    @Column(name = "completed_through")
+    private LocalDate completedThrough;
+    
+    @Column(name = "slots_total", nullable = false)
+    private Integer slotsTotal;
+    
+    @Column(name = "slots_created", nullable = false)
+    @Builder.Default
+    private Integer slotsCreated = 0;
+    
+    @Column(name = "cancel_requested", nullable = false)
+    @Builder.Default
+    private Boolean cancelRequested = false;
+    
+    @Column(length = 500)
+    private String message;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    public boolean isFinished() {
+        return status == JobStatus.COMPLETED || status == JobStatus.FAILED || status == JobStatus.CANCELLED;
+    }
+    
+    public enum JobStatus {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED
+    }
+}
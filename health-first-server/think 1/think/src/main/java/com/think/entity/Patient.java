@@ -21,7 +21,7 @@ import java.util.List;
 public class Patient {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private String id;
     
     @NotBlank(message = "First name is required")
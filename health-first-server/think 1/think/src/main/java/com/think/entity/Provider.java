@@ -5,6 +5,8 @@ import jakarta.validation.constraints.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -13,13 +15,15 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "providers")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Provider {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @TimeOrderedId
     private UUID id;
     
     @NotBlank(message = "First name is required")
@@ -7,16 +7,23 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.UUID;
 
 @Entity
-@Table(name = "provider_availability")
+@Table(name = "provider_availability", indexes = {
+    @Index(name = "idx_availability_provider_date", columnList = "provider_id, date"),
+    @Index(name = "idx_availability_slots_through", columnList = "slots_generated_through")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -24,9 +31,8 @@ import java.util.List;
 public class ProviderAvailability {
     
     @Id
-    @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
-    private String id;
+    @TimeOrderedId
+    private UUID id;
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "provider_id", nullable = false)
@@ -59,6 +65,10 @@ public class ProviderAvailability {
     @Column(name = "recurrence_end_date")
     private LocalDate recurrenceEndDate;
     
+    // Last date whose slots exist; recurring series are extended from here by SlotHorizonRoller
+    @Column(name = "slots_generated_through")
+    private LocalDate slotsGeneratedThrough;
+    
     @Min(value = 15, message = "Slot duration must be at least 15 minutes")
     @Max(value = 480, message = "Slot duration cannot exceed 8 hours")
     @Column(name = "slot_duration", nullable = false)
@@ -104,6 +114,7 @@ public class ProviderAvailability {
     private String notes;
     
     @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @CollectionTable(name = "availability_special_requirements", 
                      joinColumns = @JoinColumn(name = "availability_id"))
     @Column(name = "requirement")
@@ -0,0 +1,56 @@
+package com.think.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A provider's slots on one day as three 288-bit rows over 5-minute ticks (see
+ * {@link com.think.util.DayBitmap}): ticks covered by AVAILABLE slots, ticks covered by booked,
+ * held or blocked slots, and the start tick of each AVAILABLE slot. Kept in step with
+ * {@link AppointmentSlot} by the slot change events of the same transaction.
+ */
+@Entity
+@Table(name = "provider_day_occupancy", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_occupancy_provider_date", columnNames = {"provider_id", "occupancy_date"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProviderDayOccupancy {
+    
+    @Id
+    @TimeOrderedId
+    private UUID id;
+    
+    @Column(name = "provider_id", nullable = false)
+    private UUID providerId;
+    
+    @Column(name = "occupancy_date", nullable = false)
+    private LocalDate date;
+    
+    @Column(name = "free_ticks", nullable = false, length = 36)
+    private byte[] freeTicks;
+    
+    @Column(name = "busy_ticks", nullable = false, length = 36)
+    private byte[] busyTicks;
+    
+    @Column(name = "start_ticks", nullable = false, length = 36)
+    private byte[] startTicks;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,38 @@
+package com.think.entity;
+
+import com.think.util.UuidV7;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.EnumSet;
+import java.util.UUID;
+
+public class TimeOrderedIdGenerator implements BeforeExecutionGenerator {
+
+    private final boolean textual;
+
+    public TimeOrderedIdGenerator(TimeOrderedId config, Member member, CustomIdGeneratorCreationContext context) {
+        Class<?> type = member instanceof Field field ? field.getType() : ((Method) member).getReturnType();
+        if (type != UUID.class && type != String.class) {
+            throw new IllegalArgumentException("@TimeOrderedId requires a UUID or String id, found " + type.getName());
+        }
+        this.textual = type == String.class;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        UUID id = UuidV7.next();
+        return textual ? id.toString() : id;
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
@@ -0,0 +1,45 @@
+package com.think.event;
+
+import com.think.entity.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Bounded in-process queue standing in for a message broker. When consumers fall behind and the
+ * queue is full, batches are refused and stay in the outbox until there is room.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final BlockingQueue<OutboxEvent> queue;
+
+    public InMemoryOutboxSink(@Value("${app.outbox.memory.capacity:10000}") int capacity) {
+        this.queue = new LinkedBlockingQueue<>(capacity);
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) throws IOException {
+        if (queue.remainingCapacity() < events.size()) {
+            throw new IOException("In-memory outbox queue is full");
+        }
+        queue.addAll(events);
+    }
+
+    public List<OutboxEvent> drain(int max) {
+        List<OutboxEvent> events = new ArrayList<>();
+        queue.drainTo(events, max);
+        return events;
+    }
+
+    public int size() {
+        return queue.size();
+    }
+}
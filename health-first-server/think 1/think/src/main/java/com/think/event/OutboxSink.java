@@ -0,0 +1,15 @@
+package com.think.event;
+
+import com.think.entity.OutboxEvent;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination for relayed outbox events. A batch is either accepted as a whole or the call throws;
+ * the relay then retries the same batch, so consumers must tolerate duplicates (dedupe on id).
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxEvent> events) throws IOException;
+}
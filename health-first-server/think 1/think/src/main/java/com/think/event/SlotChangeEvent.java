@@ -0,0 +1,85 @@
+package com.think.event;
+
+import com.think.entity.AppointmentSlot;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Published once per service operation that changes appointment slots of one provider. The slot
+ * snapshots are taken when the event is published, so listeners never touch lazy associations.
+ */
+@Value
+public class SlotChangeEvent {
+
+    public enum Type {
+        CREATED, HELD, RELEASED, BOOKED, CANCELLED, UPDATED, DELETED
+    }
+
+    Type type;
+    UUID providerId;
+    String specialization;
+    List<Slot> slots;
+
+    @Value
+    @AllArgsConstructor
+    public static class Slot {
+        UUID id;
+        UUID availabilityId;
+        LocalDateTime startTime;
+        LocalDateTime endTime;
+        AppointmentSlot.SlotStatus status;
+        String bookingReference;
+        String patientId;
+        // Where the slot was before an update moved it; null when its times did not change
+        LocalDateTime previousStartTime;
+        LocalDateTime previousEndTime;
+
+        public Slot(UUID id, UUID availabilityId, LocalDateTime startTime, LocalDateTime endTime,
+                    AppointmentSlot.SlotStatus status, String bookingReference, String patientId) {
+            this(id, availabilityId, startTime, endTime, status, bookingReference, patientId, null, null);
+        }
+    }
+
+    public static SlotChangeEvent of(Type type, List<AppointmentSlot> slots) {
+        AppointmentSlot first = slots.get(0);
+        return new SlotChangeEvent(type, first.getProvider().getId(), first.getProvider().getSpecialization(),
+                slots.stream().map(SlotChangeEvent::snapshot).toList());
+    }
+
+    public static SlotChangeEvent of(Type type, AppointmentSlot slot) {
+        return of(type, List.of(slot));
+    }
+
+    public static SlotChangeEvent moved(AppointmentSlot slot, LocalDateTime previousStartTime, LocalDateTime previousEndTime) {
+        return new SlotChangeEvent(Type.UPDATED, slot.getProvider().getId(), slot.getProvider().getSpecialization(),
+                List.of(snapshot(slot, previousStartTime, previousEndTime)));
+    }
+
+    public Set<LocalDate> dates() {
+        Set<LocalDate> dates = new TreeSet<>();
+        for (Slot slot : slots) {
+            dates.add(slot.getStartTime().toLocalDate());
+            if (slot.getPreviousStartTime() != null) {
+                dates.add(slot.getPreviousStartTime().toLocalDate());
+            }
+        }
+        return dates;
+    }
+
+    private static Slot snapshot(AppointmentSlot slot) {
+        return snapshot(slot, null, null);
+    }
+
+    private static Slot snapshot(AppointmentSlot slot, LocalDateTime previousStartTime, LocalDateTime previousEndTime) {
+        return new Slot(slot.getId(), slot.getAvailability() != null ? slot.getAvailability().getId() : null,
+                slot.getSlotStartTime(), slot.getSlotEndTime(), slot.getStatus(), slot.getBookingReference(),
+                slot.getPatient() != null ? slot.getPatient().getId() : null, previousStartTime, previousEndTime);
+    }
+}
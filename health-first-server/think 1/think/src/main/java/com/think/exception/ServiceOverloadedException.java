@@ -0,0 +1,27 @@
+package com.think.exception;
+
+import java.time.Duration;
+
+/**
+ * The database could not answer in time (statement timeout, exhausted pool, lock wait).
+ * Controllers turn this into {@code 503 Service Unavailable} with a {@code Retry-After} header.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServiceOverloadedException(String message, Duration retryAfter, Throwable cause) {
+        super(message, cause);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /** Whole seconds for the {@code Retry-After} header, rounded up and never below one. */
+    public long getRetryAfterSeconds() {
+        long seconds = retryAfter.toSeconds() + (retryAfter.toNanosPart() > 0 ? 1 : 0);
+        return Math.max(1, seconds);
+    }
+}
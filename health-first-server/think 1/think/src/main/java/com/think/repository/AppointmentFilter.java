@@ -0,0 +1,29 @@
+package com.think.repository;
+
+import com.think.entity.AppointmentSlot;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Optional appointment list filters; a null field adds no predicate. {@code includeArchive} also
+ * reads archived slots, for ranges that start before the archive cutoff.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentFilter {
+
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private String appointmentType;
+    private UUID providerId;
+    private String patientId;
+    private AppointmentSlot.SlotStatus status;
+    private boolean includeArchive;
+}
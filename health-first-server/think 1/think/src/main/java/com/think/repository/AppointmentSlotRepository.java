@@ -1,21 +1,26 @@
 package com.think.repository;
 
 import com.think.entity.AppointmentSlot;
+import com.think.entity.ProviderAvailability;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 
 @Repository
-public interface AppointmentSlotRepository extends JpaRepository<AppointmentSlot, String> {
+public interface AppointmentSlotRepository extends JpaRepository<AppointmentSlot, UUID>, AppointmentSlotRepositoryCustom {
     
     @Query("SELECT a FROM AppointmentSlot a WHERE a.provider.id = :providerId AND a.slotStartTime >= :startTime AND a.slotStartTime < :endTime AND a.status = 'AVAILABLE'")
     List<AppointmentSlot> findAvailableSlotsByProviderAndTimeRange(
@@ -23,6 +28,12 @@ public interface AppointmentSlotRepository extends JpaRepository<AppointmentSlot
             @Param("startTime") LocalDateTime startTime,
             @Param("endTime") LocalDateTime endTime);
     
+    @Query("SELECT a FROM AppointmentSlot a WHERE a.provider.id = :providerId AND a.slotStartTime >= :startTime AND a.slotStartTime < :endTime")
+    List<AppointmentSlot> findByProviderAndTimeRange(
+        @Param("providerId") UUID providerId,
+        @Param("startTime") LocalDateTime startTime,
+        @Param("endTime") LocalDateTime endTime);
+    
     @Query("SELECT a FROM AppointmentSlot a WHERE a.provider.id = :providerId AND a.slotStartTime = :appointmentTime AND a.status = 'AVAILABLE'")
     Optional<AppointmentSlot> findAvailableSlotByProviderAndTime(
             @Param("providerId") UUID providerId,
@@ -34,22 +45,6 @@ public interface AppointmentSlotRepository extends JpaRepository<AppointmentSlot
     @Query("SELECT a FROM AppointmentSlot a WHERE a.provider.id = :providerId ORDER BY a.slotStartTime DESC")
     Page<AppointmentSlot> findByProviderId(@Param("providerId") UUID providerId, Pageable pageable);
     
-    @Query("SELECT a FROM AppointmentSlot a WHERE " +
-           "(:startDate IS NULL OR a.slotStartTime >= :startDate) AND " +
-           "(:endDate IS NULL OR a.slotStartTime <= :endDate) AND " +
-           "(:appointmentType IS NULL OR a.appointmentType = :appointmentType) AND " +
-           "(:providerId IS NULL OR a.provider.id = :providerId) AND " +
-           "(:patientId IS NULL OR a.patient.id = :patientId) AND " +
-           "(:status IS NULL OR a.status = :status) " +
-           "ORDER BY a.slotStartTime DESC")
-    Page<AppointmentSlot> findAppointmentsWithFilters(
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate,
-            @Param("appointmentType") String appointmentType,
-            @Param("providerId") UUID providerId,
-            @Param("patientId") String patientId,
-            @Param("status") String status,
-            Pageable pageable);
             
     // Simple query for testing
     @Query("SELECT a FROM AppointmentSlot a")
@@ -64,10 +59,121 @@ public interface AppointmentSlotRepository extends JpaRepository<AppointmentSlot
     Optional<AppointmentSlot> findByBookingReference(@Param("bookingReference") String bookingReference);
     
     @Query("SELECT a FROM AppointmentSlot a WHERE a.availability.id = :availabilityId AND a.status = 'AVAILABLE' ORDER BY a.slotStartTime ASC")
-    List<AppointmentSlot> findAvailableSlotsByAvailabilityId(@Param("availabilityId") String availabilityId);
+    List<AppointmentSlot> findAvailableSlotsByAvailabilityId(@Param("availabilityId") UUID availabilityId);
+    
+    @Query("SELECT a FROM AppointmentSlot a WHERE a.availability.id IN :availabilityIds AND a.status = 'AVAILABLE' " +
+           "AND a.slotStartTime >= :from AND a.slotStartTime < :to ORDER BY a.slotStartTime ASC")
+    List<AppointmentSlot> findAvailableSlotsByAvailabilityIdsInRange(
+        @Param("availabilityIds") Collection<UUID> availabilityIds,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to);
+    
+    @Query("SELECT a FROM AppointmentSlot a JOIN FETCH a.availability pa WHERE a.provider.id = :providerId " +
+           "AND a.slotStartTime >= :from AND a.slotStartTime < :to AND a.status = 'AVAILABLE' " +
+           "AND (:status IS NULL OR pa.status = :status) " +
+           "AND (:appointmentType IS NULL OR pa.appointmentType = :appointmentType) " +
+           "ORDER BY a.slotStartTime ASC")
+    List<AppointmentSlot> findAvailableSlotsWithFilters(
+        @Param("providerId") UUID providerId,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to,
+        @Param("status") ProviderAvailability.AvailabilityStatus status,
+        @Param("appointmentType") ProviderAvailability.AppointmentType appointmentType);
     
     @Query("SELECT COUNT(a) FROM AppointmentSlot a WHERE a.availability.id = :availabilityId AND a.status = 'BOOKED'")
-    long countBookedSlotsByAvailabilityId(@Param("availabilityId") String availabilityId);
+    long countBookedSlotsByAvailabilityId(@Param("availabilityId") UUID availabilityId);
     
     boolean existsByBookingReference(String bookingReference);
+    
+    // Single conditional update: succeeds for an AVAILABLE slot, a slot this patient already holds, or a lapsed hold
+    @Modifying
+    @Query("UPDATE AppointmentSlot a SET a.status = 'HELD', a.heldBy = :patientId, a.heldUntil = :heldUntil, a.updatedAt = :now " +
+           "WHERE a.provider.id = :providerId AND a.slotStartTime = :startTime " +
+           "AND (a.status = 'AVAILABLE' OR (a.status = 'HELD' AND (a.heldBy = :patientId OR a.heldUntil < :now)))")
+    int acquireHold(@Param("providerId") UUID providerId,
+                    @Param("startTime") LocalDateTime startTime,
+                    @Param("patientId") String patientId,
+                    @Param("heldUntil") LocalDateTime heldUntil,
+                    @Param("now") LocalDateTime now);
+    
+    @Query("SELECT a FROM AppointmentSlot a WHERE a.provider.id = :providerId AND a.slotStartTime = :startTime AND a.status = 'HELD' AND a.heldBy = :patientId")
+    Optional<AppointmentSlot> findHeldSlot(
+            @Param("providerId") UUID providerId,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("patientId") String patientId);
+    
+    @Modifying
+    @Query("UPDATE AppointmentSlot a SET a.status = 'AVAILABLE', a.heldBy = NULL, a.heldUntil = NULL, a.updatedAt = :now " +
+           "WHERE a.id = :slotId AND a.status = 'HELD' AND a.heldBy = :patientId")
+    int releaseHold(@Param("slotId") UUID slotId, @Param("patientId") String patientId, @Param("now") LocalDateTime now);
+    
+    // Range scan on idx_slot_held_until. Slots that are not held have a NULL expiry, which the
+    // range predicate skips, so the scan reads live holds only
+    @Query("SELECT a.id FROM AppointmentSlot a WHERE a.heldUntil < :now ORDER BY a.heldUntil")
+    List<UUID> findExpiredHoldIds(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    @Modifying
+    @Query("UPDATE AppointmentSlot a SET a.status = 'AVAILABLE', a.heldBy = NULL, a.heldUntil = NULL, a.updatedAt = :now " +
+           "WHERE a.id IN :ids AND a.status = 'HELD' AND a.heldUntil < :now")
+    int releaseExpiredHolds(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+    
+    @Query("SELECT a FROM AppointmentSlot a JOIN FETCH a.provider WHERE a.id IN :ids")
+    List<AppointmentSlot> findWithProviderByIdIn(@Param("ids") Collection<UUID> ids);
+    
+    // Oldest first along idx_slot_start. Booked slots stay live because booking-reference lookups,
+    // cancellations and reschedules read only this table
+    @Query("SELECT a.id FROM AppointmentSlot a WHERE a.slotStartTime < :cutoff AND a.status IN ('AVAILABLE', 'CANCELLED') " +
+           "ORDER BY a.slotStartTime")
+    List<UUID> findArchivableIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    
+    @Modifying
+    @Query("INSERT INTO ArchivedAppointmentSlot (id, availability, provider, patient, slotStartTime, slotEndTime, status, " +
+           "appointmentType, bookingReference, createdAt, updatedAt, archivedAt) " +
+           "SELECT a.id, a.availability, a.provider, p, a.slotStartTime, a.slotEndTime, a.status, " +
+           "a.appointmentType, a.bookingReference, a.createdAt, a.updatedAt, :archivedAt " +
+           "FROM AppointmentSlot a LEFT JOIN a.patient p WHERE a.id IN :ids")
+    int copyToArchive(@Param("ids") Collection<UUID> ids, @Param("archivedAt") LocalDateTime archivedAt);
+    
+    @Modifying
+    @Query("DELETE FROM AppointmentSlot a WHERE a.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<UUID> ids);
+    
+    // Walks idx_slot_availability; rows leave the status set as they are deleted, so page 0 is always the next chunk
+    @Query("SELECT a FROM AppointmentSlot a WHERE a.availability.id = :availabilityId AND a.status IN :statuses")
+    List<AppointmentSlot> findByAvailabilityIdAndStatusIn(
+        @Param("availabilityId") UUID availabilityId,
+        @Param("statuses") Collection<AppointmentSlot.SlotStatus> statuses,
+        Pageable pageable);
+    
+    // The status check is repeated here so a slot booked or held since it was read is left alone
+    @Modifying
+    @Query("DELETE FROM AppointmentSlot a WHERE a.id IN :ids AND a.status IN :statuses")
+    int deleteByIdsAndStatusIn(@Param("ids") Collection<UUID> ids,
+                               @Param("statuses") Collection<AppointmentSlot.SlotStatus> statuses);
+    
+    @Query("SELECT a.id FROM AppointmentSlot a WHERE a.id IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+    
+    // Every slot of the range, locked until commit so the counts and the changed set cannot drift
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM AppointmentSlot a WHERE a.provider.id = :providerId AND a.slotStartTime >= :from " +
+           "AND a.slotStartTime < :to ORDER BY a.slotStartTime")
+    List<AppointmentSlot> findInRangeForUpdate(@Param("providerId") UUID providerId,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
+    
+    // Clears the persistence context so the locked entities read before it are not flushed over it
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE AppointmentSlot a SET a.status = :status, a.heldBy = NULL, a.heldUntil = NULL, a.updatedAt = :now " +
+           "WHERE a.id IN :ids AND a.status IN :fromStatuses")
+    int updateStatusByIds(@Param("ids") Collection<UUID> ids,
+                          @Param("fromStatuses") Collection<AppointmentSlot.SlotStatus> fromStatuses,
+                          @Param("status") AppointmentSlot.SlotStatus status,
+                          @Param("now") LocalDateTime now);
+    
+    @Query("SELECT COUNT(a) FROM AppointmentSlot a WHERE a.availability.id = :availabilityId")
+    long countByAvailabilityId(@Param("availabilityId") UUID availabilityId);
+    
+    @Query("SELECT MAX(a.slotStartTime) FROM AppointmentSlot a WHERE a.availability.id = :availabilityId")
+    Optional<LocalDateTime> findLastSlotStart(@Param("availabilityId") UUID availabilityId);
 }
@@ -0,0 +1,27 @@
+package com.think.repository;
+
+import com.think.dto.AppointmentListItem;
+import com.think.util.AppointmentCursor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+public interface AppointmentSlotRepositoryCustom {
+
+    /**
+     * Appointment list page built from only the filters that are non-null, so each combination
+     * gets its own plan and can use the matching index. Sorting comes from {@code pageable}.
+     */
+    Page<AppointmentListItem> findAppointmentListItems(AppointmentFilter filter, Pageable pageable);
+
+    /**
+     * Keyset page ordered by {@code (slotStartTime, id)}: up to {@code limit} rows strictly after
+     * {@code after} (or from the start when null). Cost does not grow with the page depth.
+     */
+    List<AppointmentListItem> findAppointmentListItems(AppointmentFilter filter, AppointmentCursor after,
+                                                       Sort.Direction direction, int limit);
+
+    long countAppointments(AppointmentFilter filter);
+}
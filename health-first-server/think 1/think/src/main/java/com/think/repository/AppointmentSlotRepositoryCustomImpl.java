@@ -0,0 +1,211 @@
+package com.think.repository;
+
+import com.think.dto.AppointmentListItem;
+import com.think.entity.AppointmentSlot;
+import com.think.entity.ArchivedAppointmentSlot;
+import com.think.util.AppointmentCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+class AppointmentSlotRepositoryCustomImpl implements AppointmentSlotRepositoryCustom {
+
+    // Same key order the database uses for UUID columns (unsigned, byte by byte)
+    private static final Comparator<UUID> UUID_ORDER = Comparator
+            .<UUID>comparingLong(id -> id.getMostSignificantBits() ^ Long.MIN_VALUE)
+            .thenComparingLong(id -> id.getLeastSignificantBits() ^ Long.MIN_VALUE);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<AppointmentListItem> findAppointmentListItems(AppointmentFilter filter, Pageable pageable) {
+        Sort sort = pageable.getSort();
+        int first = pageable.isPaged() ? (int) pageable.getOffset() : 0;
+        int max = pageable.isPaged() ? pageable.getPageSize() : -1;
+
+        List<AppointmentListItem> content;
+        if (!filter.isIncludeArchive()) {
+            content = listItems(AppointmentSlot.class, filter, null, sort, first, max);
+        } else {
+            // Both tables sort the same way, so the page lies within the first offset + size rows of each
+            int limit = max < 0 ? -1 : first + max;
+            content = merge(listItems(AppointmentSlot.class, filter, null, sort, 0, limit),
+                    listItems(ArchivedAppointmentSlot.class, filter, null, sort, 0, limit), sort, first, max);
+        }
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> countAppointments(filter));
+    }
+
+    @Override
+    public List<AppointmentListItem> findAppointmentListItems(AppointmentFilter filter, AppointmentCursor after,
+                                                              Sort.Direction direction, int limit) {
+        Sort sort = Sort.by(direction, "slotStartTime");
+        List<AppointmentListItem> live = listItems(AppointmentSlot.class, filter, after, sort, 0, limit);
+        if (!filter.isIncludeArchive()) {
+            return live;
+        }
+        return merge(live, listItems(ArchivedAppointmentSlot.class, filter, after, sort, 0, limit), sort, 0, limit);
+    }
+
+    @Override
+    public long countAppointments(AppointmentFilter filter) {
+        long count = count(AppointmentSlot.class, filter);
+        return filter.isIncludeArchive() ? count + count(ArchivedAppointmentSlot.class, filter) : count;
+    }
+
+    private List<AppointmentListItem> listItems(Class<?> table, AppointmentFilter filter, AppointmentCursor after,
+                                                Sort sort, int first, int max) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<AppointmentListItem> query = cb.createQuery(AppointmentListItem.class);
+        Root<?> slot = selectListItem(cb, query, table);
+        List<Predicate> predicates = filters(cb, slot, filter);
+        if (after != null) {
+            predicates.add(seekPast(cb, slot, after, sort.iterator().next().getDirection()));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(orders(cb, slot, sort));
+
+        TypedQuery<AppointmentListItem> typedQuery = entityManager.createQuery(query)
+                .setHint(QueryTimeouts.HINT, QueryTimeouts.APPOINTMENT_LIST_MS)
+                .setFirstResult(first);
+        if (max >= 0) {
+            typedQuery.setMaxResults(max);
+        }
+        return typedQuery.getResultList();
+    }
+
+    private long count(Class<?> table, AppointmentFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+        Root<?> slot = countQuery.from(table);
+        countQuery.select(cb.count(slot));
+        countQuery.where(filters(cb, slot, filter).toArray(new Predicate[0]));
+        return entityManager.createQuery(countQuery)
+                .setHint(QueryTimeouts.HINT, QueryTimeouts.APPOINTMENT_LIST_MS)
+                .getSingleResult();
+    }
+
+    private Root<?> selectListItem(CriteriaBuilder cb, CriteriaQuery<AppointmentListItem> query, Class<?> table) {
+        Root<?> slot = query.from(table);
+        Join<?, ?> provider = slot.join("provider");
+        // Archived slots may outlive their availability row
+        Join<?, ?> availability = slot.join("availability", table == AppointmentSlot.class ? JoinType.INNER : JoinType.LEFT);
+        Join<?, ?> patient = slot.join("patient", JoinType.LEFT);
+
+        query.select(cb.construct(AppointmentListItem.class,
+                slot.get("id"), slot.get("bookingReference"), slot.get("slotStartTime"),
+                slot.get("appointmentType"), slot.get("status"), slot.get("createdAt"), slot.get("updatedAt"),
+                patient.get("id"), patient.get("firstName"), patient.get("lastName"), patient.get("email"),
+                patient.get("phoneNumber"), patient.get("gender"), patient.get("dateOfBirth"), patient.get("address"),
+                provider.get("id"), provider.get("firstName"), provider.get("lastName"), provider.get("specialization"),
+                provider.get("email"), provider.get("phoneNumber"), provider.get("clinicAddress"),
+                availability.get("pricing").get("baseFee")));
+        return slot;
+    }
+
+    private List<Predicate> filters(CriteriaBuilder cb, From<?, ?> slot, AppointmentFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getStartDate() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(slot.get("slotStartTime"), filter.getStartDate()));
+        }
+        if (filter.getEndDate() != null) {
+            predicates.add(cb.lessThanOrEqualTo(slot.get("slotStartTime"), filter.getEndDate()));
+        }
+        if (filter.getAppointmentType() != null) {
+            predicates.add(cb.equal(slot.get("appointmentType"), filter.getAppointmentType()));
+        }
+        // Foreign-key comparisons; no join needed
+        if (filter.getProviderId() != null) {
+            predicates.add(cb.equal(slot.get("provider").get("id"), filter.getProviderId()));
+        }
+        if (filter.getPatientId() != null) {
+            predicates.add(cb.equal(slot.get("patient").get("id"), filter.getPatientId()));
+        }
+        if (filter.getStatus() != null) {
+            predicates.add(cb.equal(slot.get("status"), filter.getStatus()));
+        }
+        return predicates;
+    }
+
+    // (start, id) strictly beyond the cursor in the scan direction
+    private Predicate seekPast(CriteriaBuilder cb, From<?, ?> slot, AppointmentCursor after,
+                               Sort.Direction direction) {
+        Path<LocalDateTime> start = slot.get("slotStartTime");
+        Path<UUID> id = slot.get("id");
+        if (direction.isDescending()) {
+            return cb.or(cb.lessThan(start, after.getSlotStartTime()),
+                    cb.and(cb.equal(start, after.getSlotStartTime()), cb.lessThan(id, after.getId())));
+        }
+        return cb.or(cb.greaterThan(start, after.getSlotStartTime()),
+                cb.and(cb.equal(start, after.getSlotStartTime()), cb.greaterThan(id, after.getId())));
+    }
+
+    private List<Order> orders(CriteriaBuilder cb, From<?, ?> slot, Sort sort) {
+        List<Order> orders = new ArrayList<>(QueryUtils.toOrders(sort, slot, cb));
+        // Stable order across pages when sort keys tie
+        Sort.Order last = sort.isSorted() ? sort.toList().get(sort.toList().size() - 1) : null;
+        orders.add(last != null && last.isDescending() ? cb.desc(slot.get("id")) : cb.asc(slot.get("id")));
+        return orders;
+    }
+
+    private static List<AppointmentListItem> merge(List<AppointmentListItem> live, List<AppointmentListItem> archived,
+                                                   Sort sort, int first, int max) {
+        Stream<AppointmentListItem> merged = Stream.concat(live.stream(), archived.stream())
+                .sorted(comparator(sort))
+                .skip(first);
+        return (max >= 0 ? merged.limit(max) : merged).toList();
+    }
+
+    // Mirrors orders(): the requested keys, then id; nulls sort low as in H2
+    private static Comparator<AppointmentListItem> comparator(Sort sort) {
+        Comparator<AppointmentListItem> comparator = (a, b) -> 0;
+        Sort.Direction lastDirection = Sort.Direction.ASC;
+        for (Sort.Order order : sort) {
+            Comparator<AppointmentListItem> key = Comparator.comparing(sortKey(order.getProperty()),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            comparator = comparator.thenComparing(order.isDescending() ? key.reversed() : key);
+            lastDirection = order.getDirection();
+        }
+        Comparator<AppointmentListItem> byId = Comparator.comparing(AppointmentListItem::getId, UUID_ORDER);
+        return comparator.thenComparing(lastDirection.isDescending() ? byId.reversed() : byId);
+    }
+
+    private static Function<AppointmentListItem, Comparable<Object>> sortKey(String property) {
+        Function<AppointmentListItem, ?> key = switch (property) {
+            case "slotStartTime" -> AppointmentListItem::getSlotStartTime;
+            case "appointmentType" -> AppointmentListItem::getAppointmentType;
+            // Stored as the enum name
+            case "status" -> item -> item.getStatus() != null ? item.getStatus().name() : null;
+            case "createdAt" -> AppointmentListItem::getCreatedAt;
+            case "updatedAt" -> AppointmentListItem::getUpdatedAt;
+            default -> throw new IllegalArgumentException("Invalid sort field: " + property);
+        };
+        @SuppressWarnings("unchecked")
+        Function<AppointmentListItem, Comparable<Object>> comparable = (Function<AppointmentListItem, Comparable<Object>>) key;
+        return comparable;
+    }
+}
@@ -0,0 +1,15 @@
+package com.think.repository;
+
+import com.think.entity.AvailabilityJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface AvailabilityJobRepository extends JpaRepository<AvailabilityJob, UUID> {
+    
+    List<AvailabilityJob> findByStatusIn(Collection<AvailabilityJob.JobStatus> statuses);
+}
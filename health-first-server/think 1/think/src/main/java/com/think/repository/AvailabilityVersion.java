@@ -0,0 +1,22 @@
+package com.think.repository;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * Change stamp for a provider's calendar over a date range. The row counts are part of the stamp
+ * because deleting a slot or an availability leaves the remaining rows' updatedAt untouched.
+ */
+public record AvailabilityVersion(long availabilities, LocalDateTime availabilitiesUpdatedAt,
+                                  long slots, LocalDateTime slotsUpdatedAt) {
+
+    /**
+     * Weak validator: the JSON body is semantically, not byte-for-byte, stable for a given stamp.
+     */
+    public String eTag() {
+        String stamp = availabilities + "|" + availabilitiesUpdatedAt + "|" + slots + "|" + slotsUpdatedAt;
+        return "W/\"" + DigestUtils.md5DigestAsHex(stamp.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -0,0 +1,48 @@
+package com.think.repository;
+
+import com.think.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+
+    // Oldest events that are neither parked (maxAttempts reached) nor backing off, nor queued
+    // behind an earlier failed event of the same aggregate that is still being retried
+    @Query("SELECT e FROM OutboxEvent e WHERE e.attempts < :maxAttempts " +
+           "AND (e.nextAttemptAt IS NULL OR e.nextAttemptAt <= :now) " +
+           "AND NOT EXISTS (SELECT p.id FROM OutboxEvent p WHERE p.aggregateId = e.aggregateId " +
+           "AND p.attempts > 0 AND p.attempts < :maxAttempts " +
+           "AND (p.createdAt < e.createdAt OR (p.createdAt = e.createdAt AND p.id < e.id))) " +
+           "ORDER BY e.createdAt, e.id")
+    List<OutboxEvent> findDue(@Param("now") LocalDateTime now, @Param("maxAttempts") int maxAttempts, Pageable pageable);
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.attempts < :maxAttempts")
+    LocalDateTime findOldestCreatedAt(@Param("maxAttempts") int maxAttempts);
+
+    long countByAttemptsLessThan(int maxAttempts);
+
+    long countByAttemptsGreaterThanEqual(int maxAttempts);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<UUID> ids);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1, e.lastError = :error, " +
+           "e.nextAttemptAt = :nextAttemptAt WHERE e.id = :id")
+    int recordFailure(@Param("id") UUID id, @Param("error") String error,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+}
@@ -1,21 +1,25 @@
 package com.think.repository;
 
 import com.think.entity.ProviderAvailability;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
-import java.time.LocalTime;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface ProviderAvailabilityRepository extends JpaRepository<ProviderAvailability, String> {
+public interface ProviderAvailabilityRepository extends JpaRepository<ProviderAvailability, UUID> {
     
     List<ProviderAvailability> findByProvider_IdAndDateBetweenOrderByDateAscStartTimeAsc(
         UUID providerId, LocalDate startDate, LocalDate endDate);
@@ -23,48 +27,47 @@ public interface ProviderAvailabilityRepository extends JpaRepository<ProviderAv
     List<ProviderAvailability> findByProvider_IdAndDateBetweenAndStatusOrderByDateAscStartTimeAsc(
         UUID providerId, LocalDate startDate, LocalDate endDate, ProviderAvailability.AvailabilityStatus status);
     
-    @Query("SELECT pa FROM ProviderAvailability pa WHERE pa.provider.id = :providerId " +
-           "AND pa.date BETWEEN :startDate AND :endDate " +
-           "AND (:status IS NULL OR pa.status = :status) " +
-           "AND (:appointmentType IS NULL OR pa.appointmentType = :appointmentType) " +
-           "ORDER BY pa.date ASC, pa.startTime ASC")
-    List<ProviderAvailability> findAvailabilityWithFilters(
-        @Param("providerId") UUID providerId,
-        @Param("startDate") LocalDate startDate,
-        @Param("endDate") LocalDate endDate,
-        @Param("status") ProviderAvailability.AvailabilityStatus status,
-        @Param("appointmentType") ProviderAvailability.AppointmentType appointmentType);
-    
+    // A series row carries only its first date, so availabilities match on their slots in [from, to)
     @Query("SELECT pa FROM ProviderAvailability pa WHERE pa.provider.specialization = :specialization " +
-           "AND pa.date BETWEEN :startDate AND :endDate " +
            "AND pa.status = 'AVAILABLE' " +
            "AND (:appointmentType IS NULL OR pa.appointmentType = :appointmentType) " +
            "AND (:insuranceAccepted IS NULL OR pa.pricing.insuranceAccepted = :insuranceAccepted) " +
            "AND (:maxPrice IS NULL OR pa.pricing.baseFee <= :maxPrice) " +
+           "AND EXISTS (SELECT s.id FROM AppointmentSlot s WHERE s.availability = pa AND s.status = 'AVAILABLE' " +
+           "AND s.slotStartTime >= :from AND s.slotStartTime < :to) " +
            "ORDER BY pa.date ASC, pa.startTime ASC")
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.AVAILABILITY_SEARCH_MS))
     Page<ProviderAvailability> searchAvailableSlots(
         @Param("specialization") String specialization,
-        @Param("startDate") LocalDate startDate,
-        @Param("endDate") LocalDate endDate,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to,
         @Param("appointmentType") ProviderAvailability.AppointmentType appointmentType,
         @Param("insuranceAccepted") Boolean insuranceAccepted,
         @Param("maxPrice") Double maxPrice,
         Pageable pageable);
     
+    // Every availability with an occurrence that can fall in [from, through]: one-off dates in range and series still running
     @Query("SELECT pa FROM ProviderAvailability pa WHERE pa.provider.id = :providerId " +
-           "AND pa.date = :date " +
-           "AND ((pa.startTime <= :startTime AND pa.endTime > :startTime) " +
-           "OR (pa.startTime < :endTime AND pa.endTime >= :endTime) " +
-           "OR (pa.startTime >= :startTime AND pa.endTime <= :endTime))")
-    List<ProviderAvailability> findOverlappingSlots(
+           "AND pa.date <= :through " +
+           "AND (pa.date >= :from OR (pa.isRecurring = true " +
+           "AND (pa.recurrenceEndDate IS NULL OR pa.recurrenceEndDate >= :from)))")
+    List<ProviderAvailability> findOverlapCandidates(
         @Param("providerId") UUID providerId,
-        @Param("date") LocalDate date,
-        @Param("startTime") LocalTime startTime,
-        @Param("endTime") LocalTime endTime);
+        @Param("from") LocalDate from,
+        @Param("through") LocalDate through);
+    
+    @Query("SELECT pa FROM ProviderAvailability pa WHERE pa.provider.id IN :providerIds " +
+           "AND pa.date <= :through " +
+           "AND (pa.date >= :from OR (pa.isRecurring = true " +
+           "AND (pa.recurrenceEndDate IS NULL OR pa.recurrenceEndDate >= :from)))")
+    List<ProviderAvailability> findOverlapCandidatesForProviders(
+        @Param("providerIds") Collection<UUID> providerIds,
+        @Param("from") LocalDate from,
+        @Param("through") LocalDate through);
     
     List<ProviderAvailability> findByProvider_IdAndIsRecurringTrue(UUID providerId);
     
-    Optional<ProviderAvailability> findByIdAndProvider_Id(String id, UUID providerId);
+    Optional<ProviderAvailability> findByIdAndProvider_Id(UUID id, UUID providerId);
     
     @Query("SELECT COUNT(pa) FROM ProviderAvailability pa WHERE pa.provider.id = :providerId " +
            "AND pa.date BETWEEN :startDate AND :endDate")
@@ -72,4 +75,40 @@ public interface ProviderAvailabilityRepository extends JpaRepository<ProviderAv
         @Param("providerId") UUID providerId,
         @Param("startDate") LocalDate startDate,
         @Param("endDate") LocalDate endDate);
+    
+    // Rows created before the watermark was recorded had slots for their first date only
+    @Modifying
+    @Query("UPDATE ProviderAvailability pa SET pa.slotsGeneratedThrough = pa.date WHERE pa.slotsGeneratedThrough IS NULL")
+    int initializeSlotWatermarks();
+    
+    @Query("SELECT DISTINCT pa.provider.id FROM ProviderAvailability pa WHERE pa.isRecurring = true " +
+           "AND pa.slotsGeneratedThrough < :through " +
+           "AND (pa.recurrenceEndDate IS NULL OR pa.slotsGeneratedThrough < pa.recurrenceEndDate) " +
+           "AND pa.provider.id > :after ORDER BY pa.provider.id")
+    List<UUID> findProvidersBehindHorizon(
+        @Param("through") LocalDate through,
+        @Param("after") UUID after,
+        Pageable pageable);
+    
+    @Query("SELECT COUNT(DISTINCT pa.provider.id) FROM ProviderAvailability pa WHERE pa.isRecurring = true " +
+           "AND pa.slotsGeneratedThrough < :through " +
+           "AND (pa.recurrenceEndDate IS NULL OR pa.slotsGeneratedThrough < pa.recurrenceEndDate)")
+    long countProvidersBehindHorizon(@Param("through") LocalDate through);
+    
+    @Query("SELECT pa FROM ProviderAvailability pa WHERE pa.provider.id = :providerId AND pa.isRecurring = true " +
+           "AND pa.slotsGeneratedThrough < :through " +
+           "AND (pa.recurrenceEndDate IS NULL OR pa.slotsGeneratedThrough < pa.recurrenceEndDate)")
+    List<ProviderAvailability> findSeriesBehindHorizon(
+        @Param("providerId") UUID providerId,
+        @Param("through") LocalDate through);
+    
+    // Over the slots in [from, to) and the availabilities they belong to, the rows the calendar is built from
+    @Query("SELECT new com.think.repository.AvailabilityVersion(" +
+           "COUNT(DISTINCT pa.id), MAX(pa.updatedAt), COUNT(s.id), MAX(s.updatedAt)) " +
+           "FROM AppointmentSlot s JOIN s.availability pa " +
+           "WHERE s.provider.id = :providerId AND s.slotStartTime >= :from AND s.slotStartTime < :to")
+    AvailabilityVersion findAvailabilityVersion(
+        @Param("providerId") UUID providerId,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to);
 }
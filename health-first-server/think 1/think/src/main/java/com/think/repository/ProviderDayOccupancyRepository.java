@@ -0,0 +1,30 @@
+package com.think.repository;
+
+import com.think.entity.ProviderDayOccupancy;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ProviderDayOccupancyRepository extends JpaRepository<ProviderDayOccupancy, UUID> {
+    
+    // Held until commit, so concurrent bookings on one provider-day apply their bits one after the other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM ProviderDayOccupancy o WHERE o.providerId = :providerId AND o.date IN :dates")
+    List<ProviderDayOccupancy> findForUpdate(@Param("providerId") UUID providerId, @Param("dates") Collection<LocalDate> dates);
+    
+    long countByProviderIdAndDateIn(UUID providerId, Collection<LocalDate> dates);
+    
+    @Query("SELECT o FROM ProviderDayOccupancy o WHERE o.providerId = :providerId AND o.date BETWEEN :from AND :through")
+    List<ProviderDayOccupancy> findInRange(@Param("providerId") UUID providerId,
+                                           @Param("from") LocalDate from,
+                                           @Param("through") LocalDate through);
+}
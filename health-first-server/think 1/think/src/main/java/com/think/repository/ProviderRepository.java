@@ -1,7 +1,9 @@
 package com.think.repository;
 
 import com.think.entity.Provider;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -31,6 +33,11 @@ public interface ProviderRepository extends JpaRepository<Provider, UUID> {
     
     List<Provider> findByIsActiveTrueAndSpecializationContainingIgnoreCase(String specialization);
     
+    // Held until commit while the first occupancy row of a day is built, so only one transaction builds it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Provider p WHERE p.id = :id")
+    Optional<Provider> findForUpdate(@Param("id") UUID id);
+    
     @Query("SELECT p FROM Provider p WHERE p.email = :email AND p.id != :id")
     Optional<Provider> findByEmailAndIdNot(@Param("email") String email, @Param("id") UUID id);
     
@@ -0,0 +1,16 @@
+package com.think.repository;
+
+/**
+ * Statement timeouts (milliseconds) for the read paths that scan the most rows. A query that
+ * exceeds its budget is cancelled by the driver instead of holding a pooled connection.
+ */
+public final class QueryTimeouts {
+
+    public static final String HINT = "jakarta.persistence.query.timeout";
+
+    public static final String APPOINTMENT_LIST_MS = "3000";
+    public static final String AVAILABILITY_SEARCH_MS = "2000";
+
+    private QueryTimeouts() {
+    }
+}
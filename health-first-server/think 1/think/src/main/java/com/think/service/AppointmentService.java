@@ -2,15 +2,22 @@ package com.think.service;
 
 import com.think.dto.*;
 import com.think.entity.AppointmentSlot;
+import com.think.entity.ClinicAddress;
 import com.think.entity.Patient;
+import com.think.entity.PatientAddress;
 import com.think.entity.Provider;
 import com.think.entity.ProviderAvailability;
+import com.think.event.SlotChangeEvent;
+import com.think.repository.AppointmentFilter;
 import com.think.repository.AppointmentSlotRepository;
 import com.think.repository.PatientRepository;
 import com.think.repository.ProviderAvailabilityRepository;
 import com.think.repository.ProviderRepository;
+import com.think.util.AppointmentCursor;
+import com.think.util.BookingReferenceGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -22,9 +29,10 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -36,6 +44,9 @@ public class AppointmentService {
     private final PatientRepository patientRepository;
     private final ProviderRepository providerRepository;
     private final ProviderAvailabilityRepository availabilityRepository;
+    private final BookingReferenceGenerator bookingReferenceGenerator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SlotArchivePolicy archivePolicy;
     
     public AppointmentResponse bookAppointment(BookAppointmentRequest request) {
         log.info("Booking appointment for patient: {}, provider: {}, date: {}, time: {}", 
@@ -62,15 +73,15 @@ public class AppointmentService {
             throw new IllegalArgumentException("This time slot is already booked");
         }
         
-        // Find available slot
-        Optional<AppointmentSlot> availableSlot = appointmentSlotRepository.findAvailableSlotByProviderAndTime(
-                UUID.fromString(request.getProviderId()), appointmentDateTime);
-        
-        if (availableSlot.isEmpty()) {
+        // Claim the slot with the same conditional update a hold uses, so a concurrent hold or booking
+        // cannot slip in between; a hold held by someone else keeps the slot until it lapses
+        LocalDateTime now = LocalDateTime.now();
+        if (appointmentSlotRepository.acquireHold(provider.getId(), appointmentDateTime, patient.getId(), now, now) == 0) {
             throw new IllegalArgumentException("No available slot found for the requested time");
         }
         
-        AppointmentSlot slot = availableSlot.get();
+        AppointmentSlot slot = appointmentSlotRepository.findHeldSlot(provider.getId(), appointmentDateTime, patient.getId())
+                .orElseThrow(() -> new IllegalArgumentException("No available slot found for the requested time"));
         
         // Check if slot is within provider's availability
         if (!isSlotWithinProviderAvailability(slot, appointmentDateTime)) {
@@ -81,67 +92,108 @@ public class AppointmentService {
         slot.setPatient(patient);
         slot.setStatus(AppointmentSlot.SlotStatus.BOOKED);
         slot.setAppointmentType(request.getAppointmentType());
+        slot.setBookingReference(bookingReferenceGenerator.next());
+        slot.setHeldBy(null);
+        slot.setHeldUntil(null);
         
         // Calculate estimated cost
         BigDecimal estimatedCost = calculateEstimatedCost(slot, request.getAppointmentType());
         
         AppointmentSlot savedSlot = appointmentSlotRepository.save(slot);
+        eventPublisher.publishEvent(SlotChangeEvent.of(SlotChangeEvent.Type.BOOKED, savedSlot));
         
         log.info("Appointment booked successfully with booking reference: {}", savedSlot.getBookingReference());
         
         return createAppointmentResponse(savedSlot, patient, provider, estimatedCost, request);
     }
     
+    @Transactional(readOnly = true)
     public AppointmentListResponse getAppointments(AppointmentListRequest request) {
         log.info("Retrieving appointments with filters: startDate={}, endDate={}, appointmentType={}, providerId={}, patientId={}, status={}", 
                 request.getStartDate(), request.getEndDate(), request.getAppointmentType(), 
                 request.getProviderId(), request.getPatientId(), request.getStatus());
         
-        try {
-            // Create pageable
-            Sort sort = Sort.by(Sort.Direction.fromString(request.getSortDirection()), request.getSortBy());
-            Pageable pageable = PageRequest.of(request.getPage(), request.getSize(), sort);
-            
-            // Convert dates to LocalDateTime for query
-            LocalDateTime startDateTime = request.getStartDate() != null ? request.getStartDate().atStartOfDay() : null;
-            LocalDateTime endDateTime = request.getEndDate() != null ? request.getEndDate().atTime(LocalTime.MAX) : null;
-            
-            Page<AppointmentSlot> appointmentPage = appointmentSlotRepository.findAppointmentsWithFilters(
-                    startDateTime, endDateTime, request.getAppointmentType(), 
-                    request.getProviderId(), request.getPatientId(), request.getStatus(), pageable);
-            
-            // Convert to response
-            Page<AppointmentResponse> responsePage = appointmentPage.map(this::convertToAppointmentResponse);
-            
-            return new AppointmentListResponse(
-                    responsePage.getContent(),
-                    responsePage.getNumber(),
-                    responsePage.getTotalPages(),
-                    responsePage.getTotalElements(),
-                    responsePage.getSize(),
-                    responsePage.hasNext(),
-                    responsePage.hasPrevious()
-            );
-        } catch (Exception e) {
-            log.error("Error retrieving appointments", e);
-            // Return empty response instead of throwing exception
-            return new AppointmentListResponse(
-                    new ArrayList<>(),
-                    0,
-                    0,
-                    0L,
-                    request.getSize(),
-                    false,
-                    false
-            );
+        Sort.Direction direction = Sort.Direction.fromString(request.getSortDirection());
+        String sortProperty = resolveSortProperty(request.getSortBy());
+        
+        // Convert dates to LocalDateTime for query
+        LocalDateTime startDate = request.getStartDate() != null ? request.getStartDate().atStartOfDay() : null;
+        AppointmentFilter filter = AppointmentFilter.builder()
+                .startDate(startDate)
+                .endDate(request.getEndDate() != null ? request.getEndDate().atTime(LocalTime.MAX) : null)
+                .appointmentType(request.getAppointmentType())
+                .providerId(request.getProviderId())
+                .patientId(request.getPatientId())
+                .status(request.getStatus() != null ? parseSlotStatus(request.getStatus()) : null)
+                .includeArchive(archivePolicy.reachesArchive(startDate, LocalDate.now()))
+                .build();
+        
+        boolean keyset = "slotStartTime".equals(sortProperty);
+        if (request.getCursor() != null && !keyset) {
+            throw new IllegalArgumentException("Cursor pagination only supports sorting by appointmentDateTime");
+        }
+        if (keyset && (request.getCursor() != null || request.getPage() == 0)) {
+            return getAppointmentsByCursor(filter, direction, request);
+        }
+        
+        // Offset paging for other sort orders and explicit page numbers
+        Pageable pageable = PageRequest.of(request.getPage(), request.getSize(), Sort.by(direction, sortProperty));
+        Page<AppointmentListItem> appointmentPage = appointmentSlotRepository.findAppointmentListItems(filter, pageable);
+        
+        // Convert to response
+        Page<AppointmentResponse> responsePage = appointmentPage.map(this::convertToAppointmentResponse);
+        
+        return new AppointmentListResponse(
+                responsePage.getContent(),
+                responsePage.getNumber(),
+                responsePage.getTotalPages(),
+                responsePage.getTotalElements(),
+                responsePage.getSize(),
+                responsePage.hasNext(),
+                responsePage.hasPrevious(),
+                null
+        );
+    }
+    
+    private AppointmentListResponse getAppointmentsByCursor(AppointmentFilter filter, Sort.Direction direction,
+                                                            AppointmentListRequest request) {
+        AppointmentCursor after = request.getCursor() != null ? AppointmentCursor.decode(request.getCursor(), direction) : null;
+        int size = request.getSize();
+        
+        // One extra row tells us whether another page exists without counting
+        List<AppointmentListItem> rows = appointmentSlotRepository.findAppointmentListItems(filter, after, direction, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<AppointmentListItem> pageRows = hasNext ? rows.subList(0, size) : rows;
+        
+        String nextCursor = null;
+        if (hasNext) {
+            AppointmentListItem last = pageRows.get(pageRows.size() - 1);
+            nextCursor = new AppointmentCursor(last.getSlotStartTime(), last.getId()).encode(direction);
+        }
+        
+        Long totalElements = null;
+        Integer totalPages = null;
+        if (request.isIncludeTotal()) {
+            totalElements = appointmentSlotRepository.countAppointments(filter);
+            totalPages = (int) ((totalElements + size - 1) / size);
         }
+        
+        return new AppointmentListResponse(
+                pageRows.stream().map(this::convertToAppointmentResponse).collect(Collectors.toList()),
+                request.getPage(),
+                totalPages,
+                totalElements,
+                size,
+                hasNext,
+                after != null,
+                nextCursor
+        );
     }
     
     public AppointmentResponse getAppointmentByBookingReference(String bookingReference) {
         log.info("Retrieving appointment with booking reference: {}", bookingReference);
         
-        AppointmentSlot slot = appointmentSlotRepository.findByBookingReference(bookingReference)
-                .orElseThrow(() -> new IllegalArgumentException("Appointment not found with booking reference: " + bookingReference));
+        AppointmentSlot slot = findByBookingReference(bookingReference);
         
         return convertToAppointmentResponse(slot);
     }
@@ -149,34 +201,78 @@ public class AppointmentService {
     public AppointmentResponse cancelAppointment(String bookingReference) {
         log.info("Cancelling appointment with booking reference: {}", bookingReference);
         
-        AppointmentSlot slot = appointmentSlotRepository.findByBookingReference(bookingReference)
-                .orElseThrow(() -> new IllegalArgumentException("Appointment not found with booking reference: " + bookingReference));
+        AppointmentSlot slot = findByBookingReference(bookingReference);
         
         if (slot.getStatus() != AppointmentSlot.SlotStatus.BOOKED) {
             throw new IllegalArgumentException("Appointment is not in BOOKED status and cannot be cancelled");
         }
         
         slot.setStatus(AppointmentSlot.SlotStatus.CANCELLED);
+        // Snapshot before the patient is detached, so listeners know whose booking ended
+        SlotChangeEvent cancelled = SlotChangeEvent.of(SlotChangeEvent.Type.CANCELLED, slot);
         slot.setPatient(null);
         slot.setAppointmentType(null);
         
         AppointmentSlot savedSlot = appointmentSlotRepository.save(slot);
+        eventPublisher.publishEvent(cancelled);
         
         log.info("Appointment cancelled successfully: {}", bookingReference);
         
         return convertToAppointmentResponse(savedSlot);
     }
     
+    private AppointmentSlot findByBookingReference(String bookingReference) {
+        // Malformed or mistyped references are rejected by their checksum without a query
+        String reference = BookingReferenceGenerator.normalize(bookingReference);
+        Optional<AppointmentSlot> slot = bookingReferenceGenerator.mayExist(reference)
+                ? appointmentSlotRepository.findByBookingReference(reference)
+                : Optional.empty();
+        return slot.orElseThrow(() -> new IllegalArgumentException("Appointment not found with booking reference: " + bookingReference));
+    }
+    
     private boolean isSlotWithinProviderAvailability(AppointmentSlot slot, LocalDateTime appointmentDateTime) {
         // Check if the appointment time falls within the slot's time range
         return !appointmentDateTime.isBefore(slot.getSlotStartTime()) && 
                !appointmentDateTime.isAfter(slot.getSlotEndTime());
     }
     
-    private BigDecimal calculateEstimatedCost(AppointmentSlot slot, String appointmentType) {
+    private AppointmentSlot.SlotStatus parseSlotStatus(String status) {
+        try {
+            return AppointmentSlot.SlotStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid appointment status: " + status);
+        }
+    }
+    
+    private String resolveSortProperty(String sortBy) {
+        if (sortBy == null) {
+            return "slotStartTime";
+        }
+        switch (sortBy) {
+            case "appointmentDateTime":
+            case "appointmentDate":
+            case "slotStartTime":
+                return "slotStartTime";
+            case "appointmentType":
+            case "status":
+            case "createdAt":
+            case "updatedAt":
+                return sortBy;
+            default:
+                throw new IllegalArgumentException("Invalid sort field: " + sortBy);
+        }
+    }
+    
+    BigDecimal calculateEstimatedCost(AppointmentSlot slot, String appointmentType) {
         // Get the base fee from provider availability
         ProviderAvailability availability = slot.getAvailability();
-        BigDecimal baseFee = availability.getPricing() != null ? availability.getPricing().getBaseFee() : BigDecimal.valueOf(100.00);
+        return calculateEstimatedCost(availability.getPricing() != null ? availability.getPricing().getBaseFee() : null, appointmentType);
+    }
+    
+    BigDecimal calculateEstimatedCost(BigDecimal baseFee, String appointmentType) {
+        if (baseFee == null) {
+            baseFee = BigDecimal.valueOf(100.00);
+        }
         
         // Apply multipliers based on appointment type
         switch (appointmentType) {
@@ -191,9 +287,9 @@ public class AppointmentService {
         }
     }
     
-    private AppointmentResponse convertToAppointmentResponse(AppointmentSlot slot) {
+    AppointmentResponse convertToAppointmentResponse(AppointmentSlot slot) {
         AppointmentResponse response = new AppointmentResponse();
-        response.setAppointmentId(slot.getId());
+        response.setAppointmentId(slot.getId().toString());
         response.setBookingReference(slot.getBookingReference());
         response.setAppointmentDateTime(slot.getSlotStartTime());
         response.setAppointmentDate(slot.getSlotStartTime().toLocalDate());
@@ -210,7 +306,7 @@ public class AppointmentService {
             response.setPatientPhone(slot.getPatient().getPhoneNumber());
             response.setPatientGender(slot.getPatient().getGender().name());
             response.setPatientDateOfBirth(slot.getPatient().getDateOfBirth());
-            response.setPatientAddress(formatPatientAddress(slot.getPatient()));
+            response.setPatientAddress(formatPatientAddress(slot.getPatient().getAddress()));
         }
         
         if (slot.getProvider() != null) {
@@ -219,7 +315,7 @@ public class AppointmentService {
             response.setProviderSpecialization(slot.getProvider().getSpecialization());
             response.setProviderEmail(slot.getProvider().getEmail());
             response.setProviderPhone(slot.getProvider().getPhoneNumber());
-            response.setClinicAddress(formatClinicAddress(slot.getProvider()));
+            response.setClinicAddress(formatClinicAddress(slot.getProvider().getClinicAddress()));
         }
         
         // Calculate estimated cost
@@ -231,6 +327,43 @@ public class AppointmentService {
         return response;
     }
     
+    AppointmentResponse convertToAppointmentResponse(AppointmentListItem item) {
+        AppointmentResponse response = new AppointmentResponse();
+        response.setAppointmentId(item.getId().toString());
+        response.setBookingReference(item.getBookingReference());
+        response.setAppointmentDateTime(item.getSlotStartTime());
+        response.setAppointmentDate(item.getSlotStartTime().toLocalDate());
+        response.setAppointmentTime(item.getSlotStartTime().toLocalTime());
+        response.setAppointmentType(item.getAppointmentType());
+        response.setStatus(item.getStatus().name());
+        response.setCreatedAt(item.getCreatedAt());
+        response.setUpdatedAt(item.getUpdatedAt());
+        
+        if (item.getPatientId() != null) {
+            response.setPatientId(item.getPatientId());
+            response.setPatientName(item.getPatientFirstName() + " " + item.getPatientLastName());
+            response.setPatientEmail(item.getPatientEmail());
+            response.setPatientPhone(item.getPatientPhone());
+            response.setPatientGender(item.getPatientGender() != null ? item.getPatientGender().name() : null);
+            response.setPatientDateOfBirth(item.getPatientDateOfBirth());
+            response.setPatientAddress(formatPatientAddress(item.getPatientAddress()));
+        }
+        
+        response.setProviderId(item.getProviderId().toString());
+        response.setProviderName(item.getProviderFirstName() + " " + item.getProviderLastName());
+        response.setProviderSpecialization(item.getProviderSpecialization());
+        response.setProviderEmail(item.getProviderEmail());
+        response.setProviderPhone(item.getProviderPhone());
+        response.setClinicAddress(formatClinicAddress(item.getClinicAddress()));
+        
+        if (item.getAppointmentType() != null) {
+            response.setEstimatedCost(calculateEstimatedCost(item.getBaseFee(), item.getAppointmentType()));
+            response.setCurrency("USD"); // Default currency
+        }
+        
+        return response;
+    }
+    
     private AppointmentResponse createAppointmentResponse(AppointmentSlot slot, Patient patient, Provider provider, 
                                                         BigDecimal estimatedCost, BookAppointmentRequest request) {
         AppointmentResponse response = convertToAppointmentResponse(slot);
@@ -244,23 +377,23 @@ public class AppointmentService {
         return response;
     }
     
-    private String formatPatientAddress(Patient patient) {
-        if (patient.getAddress() == null) return "";
+    private String formatPatientAddress(PatientAddress patientAddress) {
+        if (patientAddress == null) return "";
         StringBuilder address = new StringBuilder();
-        if (patient.getAddress().getStreet() != null) address.append(patient.getAddress().getStreet()).append(", ");
-        if (patient.getAddress().getCity() != null) address.append(patient.getAddress().getCity()).append(", ");
-        if (patient.getAddress().getState() != null) address.append(patient.getAddress().getState()).append(" ");
-        if (patient.getAddress().getZip() != null) address.append(patient.getAddress().getZip());
+        if (patientAddress.getStreet() != null) address.append(patientAddress.getStreet()).append(", ");
+        if (patientAddress.getCity() != null) address.append(patientAddress.getCity()).append(", ");
+        if (patientAddress.getState() != null) address.append(patientAddress.getState()).append(" ");
+        if (patientAddress.getZip() != null) address.append(patientAddress.getZip());
         return address.toString().trim();
     }
     
-    private String formatClinicAddress(Provider provider) {
-        if (provider.getClinicAddress() == null) return "";
+    private String formatClinicAddress(ClinicAddress clinicAddress) {
+        if (clinicAddress == null) return "";
         StringBuilder address = new StringBuilder();
-        if (provider.getClinicAddress().getStreet() != null) address.append(provider.getClinicAddress().getStreet()).append(", ");
-        if (provider.getClinicAddress().getCity() != null) address.append(provider.getClinicAddress().getCity()).append(", ");
-        if (provider.getClinicAddress().getState() != null) address.append(provider.getClinicAddress().getState()).append(" ");
-        if (provider.getClinicAddress().getZip() != null) address.append(provider.getClinicAddress().getZip());
+        if (clinicAddress.getStreet() != null) address.append(clinicAddress.getStreet()).append(", ");
+        if (clinicAddress.getCity() != null) address.append(clinicAddress.getCity()).append(", ");
+        if (clinicAddress.getState() != null) address.append(clinicAddress.getState()).append(" ");
+        if (clinicAddress.getZip() != null) address.append(clinicAddress.getZip());
         return address.toString().trim();
     }
 }
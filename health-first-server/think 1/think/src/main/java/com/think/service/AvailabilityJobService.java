@@ -0,0 +1,268 @@
+package com.think.service;
+
+import com.think.dto.AvailabilityJobResponse;
+import com.think.dto.CreateAvailabilityRequest;
+import com.think.entity.AppointmentSlot;
+import com.think.entity.AvailabilityJob;
+import com.think.entity.ProviderAvailability;
+import com.think.event.SlotChangeEvent;
+import com.think.exception.ServiceOverloadedException;
+import com.think.repository.AppointmentSlotRepository;
+import com.think.repository.AvailabilityJobRepository;
+import com.think.repository.ProviderAvailabilityRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+/**
+ * Creates large availabilities in the background. The request transaction only saves the
+ * availability and a QUEUED job; slots are then generated on a small pool of its own in
+ * transactions of about {@code app.availability.jobs.chunk-size} slots, each one advancing the
+ * job's progress. A cancel request is honoured at the next chunk: the series is cut back to the
+ * last committed date, or removed if nothing was committed yet. Jobs left QUEUED or RUNNING by a
+ * shutdown are resumed on startup.
+ * <p>
+ * The pool is not a bean, so it does not replace the auto-configured {@code applicationTaskExecutor};
+ * its queue is bounded and a full queue is answered with 503.
+ */
+@Service
+@Slf4j
+public class AvailabilityJobService {
+
+    private final ProviderAvailabilityService availabilityService;
+    private final ProviderAvailabilityRepository availabilityRepository;
+    private final AppointmentSlotRepository slotRepository;
+    private final AvailabilityJobRepository jobRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+    private final int chunkSize;
+    private final Duration retryAfter;
+
+    @Autowired
+    public AvailabilityJobService(ProviderAvailabilityService availabilityService,
+                                  ProviderAvailabilityRepository availabilityRepository,
+                                  AppointmentSlotRepository slotRepository,
+                                  AvailabilityJobRepository jobRepository,
+                                  ApplicationEventPublisher eventPublisher,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.availability.jobs.threads:2}") int threads,
+                                  @Value("${app.availability.jobs.queue-capacity:50}") int queueCapacity,
+                                  @Value("${app.availability.jobs.chunk-size:500}") int chunkSize,
+                                  @Value("${app.query.retry-after:2s}") Duration retryAfter) {
+        this(availabilityService, availabilityRepository, slotRepository, jobRepository, eventPublisher,
+                new TransactionTemplate(transactionManager), jobExecutor(threads, queueCapacity), meterRegistry,
+                chunkSize, retryAfter);
+    }
+
+    AvailabilityJobService(ProviderAvailabilityService availabilityService, ProviderAvailabilityRepository availabilityRepository,
+                           AppointmentSlotRepository slotRepository, AvailabilityJobRepository jobRepository,
+                           ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate,
+                           Executor executor, MeterRegistry meterRegistry, int chunkSize, Duration retryAfter) {
+        this.availabilityService = availabilityService;
+        this.availabilityRepository = availabilityRepository;
+        this.slotRepository = slotRepository;
+        this.jobRepository = jobRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.chunkSize = chunkSize;
+        this.retryAfter = retryAfter;
+    }
+
+    private static ThreadPoolTaskExecutor jobExecutor(int threads, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("availability-job-");
+        // Running jobs stop between chunks and resume from completed_through on the next start
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        }
+    }
+
+    public AvailabilityJobResponse submit(String providerId, CreateAvailabilityRequest request) {
+        log.info("Queueing availability job for provider: {}", providerId);
+
+        AvailabilityJob job = transactionTemplate.execute(status -> {
+            ProviderAvailability availability = availabilityService.createAvailabilityRecord(providerId, request);
+            int occurrences = ProviderAvailabilityService.occurrences(availability, availability.getDate(),
+                availability.getSlotsGeneratedThrough()).size();
+            return jobRepository.save(AvailabilityJob.builder()
+                .providerId(availability.getProvider().getId())
+                .availabilityId(availability.getId())
+                .generateThrough(availability.getSlotsGeneratedThrough())
+                .slotsTotal(occurrences * availabilityService.generateAppointmentSlots(availability).size())
+                .build());
+        });
+
+        try {
+            executor.execute(() -> run(job.getId()));
+        } catch (TaskRejectedException e) {
+            transactionTemplate.executeWithoutResult(status -> {
+                AvailabilityJob rejected = jobRepository.findById(job.getId()).orElseThrow();
+                rejected.setStatus(AvailabilityJob.JobStatus.FAILED);
+                rejected.setMessage("Job queue is full");
+                availabilityRepository.deleteById(rejected.getAvailabilityId());
+            });
+            count("rejected");
+            throw new ServiceOverloadedException("Too many availability jobs queued, please retry shortly", retryAfter, e);
+        }
+        return AvailabilityJobResponse.from(job);
+    }
+
+    public AvailabilityJobResponse getJob(String jobId) {
+        return AvailabilityJobResponse.from(findJob(jobId));
+    }
+
+    public AvailabilityJobResponse cancel(String jobId, String providerId) {
+        return transactionTemplate.execute(status -> {
+            AvailabilityJob job = findJob(jobId);
+            if (!job.getProviderId().toString().equals(providerId)) {
+                throw new IllegalArgumentException("Job does not belong to provider");
+            }
+            if (!job.isFinished()) {
+                job.setCancelRequested(true);
+            }
+            return AvailabilityJobResponse.from(job);
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinished() {
+        List<AvailabilityJob> unfinished = jobRepository.findByStatusIn(
+            EnumSet.of(AvailabilityJob.JobStatus.QUEUED, AvailabilityJob.JobStatus.RUNNING));
+        for (AvailabilityJob job : unfinished) {
+            try {
+                executor.execute(() -> run(job.getId()));
+            } catch (TaskRejectedException e) {
+                log.warn("Could not resume availability job {}: queue is full", job.getId());
+            }
+        }
+        if (!unfinished.isEmpty()) {
+            log.info("Resumed {} availability jobs", unfinished.size());
+        }
+    }
+
+    void run(UUID jobId) {
+        try {
+            Boolean more = transactionTemplate.execute(status -> start(jobId));
+            while (Boolean.TRUE.equals(more)) {
+                more = transactionTemplate.execute(status -> nextChunk(jobId));
+            }
+        } catch (RuntimeException e) {
+            log.error("Availability job {} failed", jobId, e);
+            transactionTemplate.executeWithoutResult(status -> fail(jobId, e));
+        }
+    }
+
+    private boolean start(UUID jobId) {
+        AvailabilityJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null || job.isFinished()) {
+            return false;
+        }
+        job.setStatus(AvailabilityJob.JobStatus.RUNNING);
+        return true;
+    }
+
+    private boolean nextChunk(UUID jobId) {
+        AvailabilityJob job = jobRepository.findById(jobId).orElseThrow();
+        ProviderAvailability availability = availabilityRepository.findById(job.getAvailabilityId()).orElseThrow();
+        if (job.getCancelRequested()) {
+            cancel(job, availability);
+            return false;
+        }
+
+        LocalDate next = job.getCompletedThrough() != null ? job.getCompletedThrough().plusDays(1) : availability.getDate();
+        List<LocalDate> remaining = ProviderAvailabilityService.occurrences(availability, next, job.getGenerateThrough());
+        if (remaining.isEmpty()) {
+            job.setStatus(AvailabilityJob.JobStatus.COMPLETED);
+            count("completed");
+            log.info("Availability job {} created {} slots", jobId, job.getSlotsCreated());
+            return false;
+        }
+
+        int perOccurrence = Math.max(1, availabilityService.generateAppointmentSlots(availability).size());
+        LocalDate through = remaining.get(Math.min(remaining.size(), Math.max(1, chunkSize / perOccurrence)) - 1);
+        List<AppointmentSlot> slots = availabilityService.generateAppointmentSlots(availability, next, through);
+        slotRepository.saveAll(slots);
+        if (!slots.isEmpty()) {
+            eventPublisher.publishEvent(SlotChangeEvent.of(SlotChangeEvent.Type.CREATED, slots));
+        }
+        job.setCompletedThrough(through);
+        job.setSlotsCreated(job.getSlotsCreated() + slots.size());
+        return true;
+    }
+
+    private void cancel(AvailabilityJob job, ProviderAvailability availability) {
+        LocalDate completed = job.getCompletedThrough();
+        if (completed == null) {
+            availabilityRepository.delete(availability);
+        } else {
+            // The series ends where the job stopped, so the horizon roller does not carry on with it
+            if (Boolean.TRUE.equals(availability.getIsRecurring())) {
+                availability.setRecurrenceEndDate(completed);
+            }
+            availability.setSlotsGeneratedThrough(completed);
+        }
+        job.setStatus(AvailabilityJob.JobStatus.CANCELLED);
+        job.setMessage(completed == null ? "Cancelled before any slots were created"
+            : "Cancelled after creating slots through " + completed);
+        count("cancelled");
+    }
+
+    private void fail(UUID jobId, RuntimeException e) {
+        AvailabilityJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        job.setStatus(AvailabilityJob.JobStatus.FAILED);
+        job.setMessage(e.getMessage() != null && e.getMessage().length() > 500 ? e.getMessage().substring(0, 500) : e.getMessage());
+        // Let the horizon roller fill in what the job did not get to
+        availabilityRepository.findById(job.getAvailabilityId()).ifPresent(availability -> availability.setSlotsGeneratedThrough(
+            job.getCompletedThrough() != null ? job.getCompletedThrough() : availability.getDate().minusDays(1)));
+        count("failed");
+    }
+
+    private AvailabilityJob findJob(String jobId) {
+        UUID id;
+        try {
+            id = UUID.fromString(jobId);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Job not found");
+        }
+        return jobRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Job not found"));
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("think.availability.jobs", "outcome", outcome).increment();
+    }
+}
@@ -0,0 +1,102 @@
+package com.think.service;
+
+import com.think.entity.ProviderAvailability;
+import com.think.repository.ProviderAvailabilityRepository;
+import com.think.util.IntervalTree;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Period;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Checks a new availability against every existing one of the provider across its whole
+ * recurrence window. The existing series that can reach the window are loaded in one query and
+ * expanded into an interval tree, which each occurrence of the new availability is looked up in.
+ * Open-ended series are compared over {@link #OPEN_ENDED_WINDOW} from their start.
+ */
+@Component
+@RequiredArgsConstructor
+public class AvailabilityOverlapChecker {
+
+    static final Period OPEN_ENDED_WINDOW = Period.ofYears(1);
+
+    private final ProviderAvailabilityRepository availabilityRepository;
+
+    public void check(UUID providerId, ProviderAvailability candidate) {
+        LocalDate from = candidate.getDate();
+        LocalDate through = windowEnd(candidate);
+        List<ProviderAvailability> existing = availabilityRepository.findOverlapCandidates(providerId, from, through);
+        firstConflict(candidate, existing, from, through).ifPresent(conflict -> {
+            throw new IllegalArgumentException(message(conflict));
+        });
+    }
+
+    /**
+     * Same check for one availability per provider sharing a window, such as a bulk template, with a
+     * single query for all providers. Returns the conflict message by provider for those that overlap.
+     */
+    public Map<UUID, String> checkAll(Map<UUID, ProviderAvailability> candidates, LocalDate from, LocalDate through) {
+        Map<UUID, List<ProviderAvailability>> existing = availabilityRepository
+            .findOverlapCandidatesForProviders(candidates.keySet(), from, through).stream()
+            .collect(Collectors.groupingBy(availability -> availability.getProvider().getId()));
+        Map<UUID, String> conflicts = new HashMap<>();
+        candidates.forEach((providerId, candidate) ->
+            firstConflict(candidate, existing.getOrDefault(providerId, List.of()), from, through)
+                .ifPresent(conflict -> conflicts.put(providerId, message(conflict))));
+        return conflicts;
+    }
+
+    private static Optional<LocalDate> firstConflict(ProviderAvailability candidate, List<ProviderAvailability> existing,
+                                                     LocalDate from, LocalDate through) {
+        if (existing.isEmpty()) {
+            return Optional.empty();
+        }
+        IntervalTree<LocalDate> tree = intervals(existing, from, through);
+        for (LocalDate date : ProviderAvailabilityService.occurrences(candidate, from, through)) {
+            Optional<LocalDate> conflict = tree.findOverlap(minute(date, candidate.getStartTime()), minute(date, candidate.getEndTime()));
+            if (conflict.isPresent()) {
+                return conflict;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static String message(LocalDate conflict) {
+        return "Time slot overlaps with existing availability on " + conflict;
+    }
+
+    static LocalDate windowEnd(ProviderAvailability availability) {
+        if (!Boolean.TRUE.equals(availability.getIsRecurring())) {
+            return availability.getDate();
+        }
+        return availability.getRecurrenceEndDate() != null
+            ? availability.getRecurrenceEndDate()
+            : availability.getDate().plus(OPEN_ENDED_WINDOW);
+    }
+
+    static IntervalTree<LocalDate> intervals(List<ProviderAvailability> availabilities, LocalDate from, LocalDate through) {
+        List<IntervalTree.Interval<LocalDate>> intervals = new ArrayList<>();
+        for (ProviderAvailability availability : availabilities) {
+            for (LocalDate date : ProviderAvailabilityService.occurrences(availability, from, through)) {
+                intervals.add(new IntervalTree.Interval<>(
+                    minute(date, availability.getStartTime()), minute(date, availability.getEndTime()), date));
+            }
+        }
+        return IntervalTree.of(intervals);
+    }
+
+    private static long minute(LocalDate date, LocalTime time) {
+        return LocalDateTime.of(date, time).toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+}
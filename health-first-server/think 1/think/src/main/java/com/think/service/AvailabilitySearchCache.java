@@ -0,0 +1,83 @@
+package com.think.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.think.dto.AvailabilitySearchResponse;
+import com.think.event.SlotChangeEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of availability search results keyed by {@link AvailabilitySearchKey}.
+ * Concurrent misses on one key run the query once; the other callers wait for that result.
+ * Committed slot changes evict only the entries whose specialization and date range include
+ * the changed slots. A load that was still running when an eviction happened may have read
+ * the old rows, so its result is returned to the caller but not kept. The TTL bounds staleness
+ * for anything the events don't cover.
+ */
+@Component
+@Slf4j
+public class AvailabilitySearchCache {
+
+    private final Cache<AvailabilitySearchKey, AvailabilitySearchResponse> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public AvailabilitySearchCache(MeterRegistry meterRegistry,
+                                   @Value("${app.cache.availability-search.ttl:30s}") Duration ttl,
+                                   @Value("${app.cache.availability-search.max-entries:10000}") long maxEntries) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "availability.search");
+    }
+
+    AvailabilitySearchResponse get(AvailabilitySearchKey key, Supplier<AvailabilitySearchResponse> loader) {
+        long readAt = generation.get();
+        boolean[] loaded = new boolean[1];
+        AvailabilitySearchResponse response = cache.get(key, k -> {
+            loaded[0] = true;
+            return loader.get();
+        });
+        if (loaded[0] && generation.get() != readAt) {
+            cache.asMap().remove(key, response);
+        }
+        return response;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onSlotChange(SlotChangeEvent event) {
+        invalidate(event.getSpecialization(), event.dates());
+    }
+
+    int invalidate(String specialization, Collection<LocalDate> dates) {
+        generation.incrementAndGet();
+        int before = cache.asMap().size();
+        cache.asMap().keySet().removeIf(key -> dates.stream().anyMatch(date -> key.covers(specialization, date)));
+        int evicted = before - cache.asMap().size();
+        if (evicted > 0) {
+            log.debug("Evicted {} availability search entries for {} on {}", evicted, specialization, dates);
+        }
+        return evicted;
+    }
+
+    long size() {
+        return cache.estimatedSize();
+    }
+
+    void cleanUp() {
+        cache.cleanUp();
+    }
+}
@@ -0,0 +1,50 @@
+package com.think.service;
+
+import com.think.dto.AvailabilitySearchRequest;
+import com.think.entity.ProviderAvailability;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * The parameters the availability search query actually runs with. Requests that differ only in
+ * fields the query ignores (location, timezone), in how the date range was given, or in the
+ * spelling of the appointment type or price map to the same key.
+ */
+record AvailabilitySearchKey(String specialization,
+                             LocalDate startDate,
+                             LocalDate endDate,
+                             ProviderAvailability.AppointmentType appointmentType,
+                             Boolean insuranceAccepted,
+                             Double maxPrice) {
+
+    static final int DEFAULT_RANGE_DAYS = 30;
+
+    static AvailabilitySearchKey from(AvailabilitySearchRequest request, LocalDate today) {
+        LocalDate startDate = request.getStartDate();
+        LocalDate endDate = request.getEndDate();
+        if (request.getDate() != null) {
+            startDate = request.getDate();
+            endDate = request.getDate();
+        } else if (startDate == null || endDate == null) {
+            startDate = today;
+            endDate = today.plusDays(DEFAULT_RANGE_DAYS);
+        }
+
+        BigDecimal maxPrice = request.getMaxPrice();
+        return new AvailabilitySearchKey(
+                request.getSpecialization(),
+                startDate,
+                endDate,
+                request.getAppointmentType() != null
+                        ? ProviderAvailability.AppointmentType.valueOf(request.getAppointmentType().trim().toUpperCase())
+                        : null,
+                request.getInsuranceAccepted(),
+                maxPrice != null ? maxPrice.doubleValue() : null);
+    }
+
+    boolean covers(String specialization, LocalDate date) {
+        return (this.specialization == null || this.specialization.equals(specialization))
+                && !date.isBefore(startDate) && !date.isAfter(endDate);
+    }
+}
@@ -0,0 +1,132 @@
+package com.think.service;
+
+import com.think.dto.SlotDeletionResponse;
+import com.think.entity.AppointmentSlot;
+import com.think.entity.ProviderAvailability;
+import com.think.event.SlotChangeEvent;
+import com.think.repository.AppointmentSlotRepository;
+import com.think.repository.ProviderAvailabilityRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Deletes a recurring series with bulk statements, {@code app.availability.delete.chunk-size} slots
+ * per transaction. Only AVAILABLE and BLOCKED slots are deleted; booked, held and cancelled ones are
+ * counted as skipped. The series is ended at its current watermark before the first chunk, so the
+ * horizon roller does not add slots while it is being deleted. It is removed once no slots are
+ * left, otherwise it is kept as CANCELLED and ends on the date of its last remaining slot.
+ */
+@Component
+@Slf4j
+public class AvailabilitySeriesDeleter {
+
+    static final Set<AppointmentSlot.SlotStatus> DELETABLE =
+        EnumSet.of(AppointmentSlot.SlotStatus.AVAILABLE, AppointmentSlot.SlotStatus.BLOCKED);
+
+    private final ProviderAvailabilityRepository availabilityRepository;
+    private final AppointmentSlotRepository slotRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    @Autowired
+    public AvailabilitySeriesDeleter(ProviderAvailabilityRepository availabilityRepository,
+                                     AppointmentSlotRepository slotRepository,
+                                     ApplicationEventPublisher eventPublisher,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${app.availability.delete.chunk-size:500}") int chunkSize) {
+        this(availabilityRepository, slotRepository, eventPublisher, new TransactionTemplate(transactionManager), chunkSize);
+    }
+
+    AvailabilitySeriesDeleter(ProviderAvailabilityRepository availabilityRepository, AppointmentSlotRepository slotRepository,
+                              ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate, int chunkSize) {
+        this.availabilityRepository = availabilityRepository;
+        this.slotRepository = slotRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    public SlotDeletionResponse delete(UUID availabilityId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            ProviderAvailability availability = findAvailability(availabilityId);
+            LocalDate generatedThrough = availability.getSlotsGeneratedThrough() != null
+                ? availability.getSlotsGeneratedThrough() : availability.getDate();
+            availability.setRecurrenceEndDate(generatedThrough);
+            availability.setSlotsGeneratedThrough(generatedThrough);
+        });
+
+        int deleted = 0;
+        Chunk chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> deleteChunk(availabilityId));
+            deleted += chunk.deleted();
+        } while (chunk.found() == chunkSize);
+
+        int slotsDeleted = deleted;
+        SlotDeletionResponse response = transactionTemplate.execute(status -> finish(availabilityId, slotsDeleted));
+        log.info("Deleted {} slots of availability {}, skipped {}", slotsDeleted, availabilityId, response.getSlotsSkipped());
+        return response;
+    }
+
+    private Chunk deleteChunk(UUID availabilityId) {
+        List<AppointmentSlot> candidates = slotRepository.findByAvailabilityIdAndStatusIn(
+            availabilityId, DELETABLE, PageRequest.of(0, chunkSize));
+        if (candidates.isEmpty()) {
+            return new Chunk(0, 0);
+        }
+        List<UUID> ids = candidates.stream().map(AppointmentSlot::getId).toList();
+        int deleted = slotRepository.deleteByIdsAndStatusIn(ids, DELETABLE);
+
+        List<AppointmentSlot> removed = candidates;
+        if (deleted < ids.size()) {
+            // Some were booked or held after they were read and are still there
+            Set<UUID> remaining = new HashSet<>(slotRepository.findExistingIds(ids));
+            removed = candidates.stream().filter(slot -> !remaining.contains(slot.getId())).toList();
+        }
+        if (!removed.isEmpty()) {
+            eventPublisher.publishEvent(SlotChangeEvent.of(SlotChangeEvent.Type.DELETED, removed));
+        }
+        return new Chunk(candidates.size(), deleted);
+    }
+
+    private SlotDeletionResponse finish(UUID availabilityId, int deleted) {
+        ProviderAvailability availability = findAvailability(availabilityId);
+        long skipped = slotRepository.countByAvailabilityId(availabilityId);
+        if (skipped == 0) {
+            availabilityRepository.delete(availability);
+        } else {
+            LocalDate lastDate = slotRepository.findLastSlotStart(availabilityId).orElseThrow().toLocalDate();
+            availability.setStatus(ProviderAvailability.AvailabilityStatus.CANCELLED);
+            availability.setRecurrenceEndDate(lastDate);
+            availability.setSlotsGeneratedThrough(lastDate);
+        }
+        return SlotDeletionResponse.builder()
+            .availabilityId(availabilityId.toString())
+            .slotsDeleted(deleted)
+            .slotsSkipped((int) skipped)
+            .availabilityDeleted(skipped == 0)
+            .build();
+    }
+
+    private ProviderAvailability findAvailability(UUID availabilityId) {
+        return availabilityRepository.findById(availabilityId)
+            .orElseThrow(() -> new IllegalArgumentException("Availability not found"));
+    }
+
+    private record Chunk(int found, int deleted) {
+    }
+}
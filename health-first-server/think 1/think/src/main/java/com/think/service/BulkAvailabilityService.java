@@ -0,0 +1,228 @@
+package com.think.service;
+
+import com.think.dto.BulkAvailabilityRequest;
+import com.think.dto.BulkAvailabilityResponse;
+import com.think.dto.CreateAvailabilityRequest;
+import com.think.entity.AppointmentSlot;
+import com.think.entity.Provider;
+import com.think.entity.ProviderAvailability;
+import com.think.event.SlotChangeEvent;
+import com.think.repository.AppointmentSlotRepository;
+import com.think.repository.ProviderAvailabilityRepository;
+import com.think.repository.ProviderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies one availability template to many providers. The template is validated once and the
+ * providers are loaded in one query. Each provider's availability and slots are then expanded on
+ * the task executor, and the results are persisted in transactions of
+ * {@code app.availability.bulk.providers-per-transaction} providers. The overlap check runs inside
+ * each of those transactions as one query for all of its providers. An overlapping or failed
+ * provider is reported in the summary and does not stop the others: when a transaction fails, its
+ * providers are retried one per transaction, so only the provider that fails again is reported.
+ */
+@Service
+@Slf4j
+public class BulkAvailabilityService {
+
+    private final ProviderRepository providerRepository;
+    private final ProviderAvailabilityRepository availabilityRepository;
+    private final AppointmentSlotRepository slotRepository;
+    private final ProviderAvailabilityService availabilityService;
+    private final AvailabilityOverlapChecker overlapChecker;
+    private final SlotHorizon slotHorizon;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+    private final int providersPerTransaction;
+
+    @Autowired
+    public BulkAvailabilityService(ProviderRepository providerRepository,
+                                   ProviderAvailabilityRepository availabilityRepository,
+                                   AppointmentSlotRepository slotRepository,
+                                   ProviderAvailabilityService availabilityService,
+                                   AvailabilityOverlapChecker overlapChecker,
+                                   SlotHorizon slotHorizon,
+                                   ApplicationEventPublisher eventPublisher,
+                                   PlatformTransactionManager transactionManager,
+                                   @Qualifier("applicationTaskExecutor") Executor executor,
+                                   @Value("${app.availability.bulk.providers-per-transaction:20}") int providersPerTransaction) {
+        this(providerRepository, availabilityRepository, slotRepository, availabilityService, overlapChecker, slotHorizon,
+                eventPublisher, new TransactionTemplate(transactionManager), executor, providersPerTransaction);
+    }
+
+    BulkAvailabilityService(ProviderRepository providerRepository, ProviderAvailabilityRepository availabilityRepository,
+                            AppointmentSlotRepository slotRepository, ProviderAvailabilityService availabilityService,
+                            AvailabilityOverlapChecker overlapChecker, SlotHorizon slotHorizon,
+                            ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate,
+                            Executor executor, int providersPerTransaction) {
+        this.providerRepository = providerRepository;
+        this.availabilityRepository = availabilityRepository;
+        this.slotRepository = slotRepository;
+        this.availabilityService = availabilityService;
+        this.overlapChecker = overlapChecker;
+        this.slotHorizon = slotHorizon;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = executor;
+        this.providersPerTransaction = providersPerTransaction;
+    }
+
+    public BulkAvailabilityResponse createForProviders(BulkAvailabilityRequest request) {
+        CreateAvailabilityRequest template = request.getTemplate();
+        availabilityService.validate(template);
+        log.info("Applying availability template for {} providers", request.getProviderIds().size());
+
+        Map<String, BulkAvailabilityResponse.ProviderResult> results = new LinkedHashMap<>();
+        Set<UUID> providerIds = new LinkedHashSet<>();
+        for (String providerId : request.getProviderIds()) {
+            try {
+                providerIds.add(UUID.fromString(providerId));
+            } catch (IllegalArgumentException e) {
+                results.put(providerId, failed(providerId, "Invalid provider ID format: " + providerId));
+            }
+        }
+        Map<UUID, Provider> providers = providerRepository.findAllById(providerIds).stream()
+            .collect(Collectors.toMap(Provider::getId, Function.identity()));
+        for (UUID providerId : providerIds) {
+            if (!providers.containsKey(providerId)) {
+                results.put(providerId.toString(), failed(providerId.toString(), "Provider not found with ID: " + providerId));
+            }
+        }
+
+        // Expansion needs no database access, so providers are expanded side by side
+        LocalDate through = Boolean.TRUE.equals(template.getIsRecurring()) ? slotHorizon.through(LocalDate.now()) : template.getDate();
+        List<CompletableFuture<Expansion>> futures = providers.values().stream()
+            .map(provider -> CompletableFuture.supplyAsync(() -> expand(provider, template, through), executor))
+            .toList();
+        List<Expansion> expansions = futures.stream().map(CompletableFuture::join).toList();
+
+        for (int from = 0; from < expansions.size(); from += providersPerTransaction) {
+            List<Expansion> chunk = expansions.subList(from, Math.min(from + providersPerTransaction, expansions.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> persist(chunk, results));
+            } catch (RuntimeException e) {
+                if (chunk.size() == 1) {
+                    log.error("Failed to persist availability template for provider {}", chunk.get(0).providerId(), e);
+                    recordFailure(chunk.get(0), e, results);
+                    continue;
+                }
+                log.warn("Failed to persist availability template for {} providers, retrying them one at a time", chunk.size(), e);
+                for (Expansion expansion : chunk) {
+                    // The rolled-back entities keep their generated ids, so the provider is expanded again
+                    Expansion retry = expand(providers.get(expansion.providerId()), template, through);
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> persist(List.of(retry), results));
+                    } catch (RuntimeException retryError) {
+                        log.error("Failed to persist availability template for provider {}", retry.providerId(), retryError);
+                        recordFailure(retry, retryError, results);
+                    }
+                }
+            }
+        }
+
+        // Summary in request order
+        List<BulkAvailabilityResponse.ProviderResult> ordered = request.getProviderIds().stream()
+            .map(id -> results.getOrDefault(id, results.get(normalize(id))))
+            .distinct()
+            .toList();
+        int created = (int) ordered.stream().filter(result -> result.getStatus() == BulkAvailabilityResponse.Status.CREATED).count();
+        return BulkAvailabilityResponse.builder()
+            .providersRequested(ordered.size())
+            .providersCreated(created)
+            .providersFailed(ordered.size() - created)
+            .slotsCreated(ordered.stream().mapToInt(result -> result.getSlotsCreated() != null ? result.getSlotsCreated() : 0).sum())
+            .results(ordered)
+            .build();
+    }
+
+    private Expansion expand(Provider provider, CreateAvailabilityRequest template, LocalDate through) {
+        ProviderAvailability availability = availabilityService.buildAvailabilityEntity(provider, template);
+        LocalDate generateThrough = availability.getIsRecurring() ? through : availability.getDate();
+        availability.setSlotsGeneratedThrough(generateThrough);
+        return new Expansion(provider.getId(), availability,
+            availabilityService.generateAppointmentSlots(availability, availability.getDate(), generateThrough));
+    }
+
+    private void persist(List<Expansion> chunk, Map<String, BulkAvailabilityResponse.ProviderResult> results) {
+        ProviderAvailability first = chunk.get(0).availability();
+        Map<UUID, ProviderAvailability> candidates = chunk.stream()
+            .collect(Collectors.toMap(Expansion::providerId, Expansion::availability));
+        Map<UUID, String> conflicts = overlapChecker.checkAll(candidates, first.getDate(), AvailabilityOverlapChecker.windowEnd(first));
+
+        List<ProviderAvailability> availabilities = new ArrayList<>();
+        List<AppointmentSlot> slots = new ArrayList<>();
+        for (Expansion expansion : chunk) {
+            String providerId = expansion.providerId().toString();
+            if (conflicts.containsKey(expansion.providerId())) {
+                results.put(providerId, failed(providerId, conflicts.get(expansion.providerId())));
+                continue;
+            }
+            availabilities.add(expansion.availability());
+            slots.addAll(expansion.slots());
+        }
+        availabilityRepository.saveAll(availabilities);
+        slotRepository.saveAll(slots);
+
+        for (Expansion expansion : chunk) {
+            if (conflicts.containsKey(expansion.providerId())) {
+                continue;
+            }
+            String providerId = expansion.providerId().toString();
+            results.put(providerId, BulkAvailabilityResponse.ProviderResult.builder()
+                .providerId(providerId)
+                .status(BulkAvailabilityResponse.Status.CREATED)
+                .availabilityId(expansion.availability().getId().toString())
+                .slotsCreated(expansion.slots().size())
+                .build());
+            if (!expansion.slots().isEmpty()) {
+                eventPublisher.publishEvent(SlotChangeEvent.of(SlotChangeEvent.Type.CREATED, expansion.slots()));
+            }
+        }
+    }
+
+    private static void recordFailure(Expansion expansion, RuntimeException e, Map<String, BulkAvailabilityResponse.ProviderResult> results) {
+        String providerId = expansion.providerId().toString();
+        results.put(providerId, failed(providerId, "Failed to create availability: " + e.getMessage()));
+    }
+
+    private static String normalize(String providerId) {
+        try {
+            return UUID.fromString(providerId).toString();
+        } catch (IllegalArgumentException e) {
+            return providerId;
+        }
+    }
+
+    private static BulkAvailabilityResponse.ProviderResult failed(String providerId, String message) {
+        return BulkAvailabilityResponse.ProviderResult.builder()
+            .providerId(providerId)
+            .status(BulkAvailabilityResponse.Status.FAILED)
+            .slotsCreated(0)
+            .message(message)
+            .build();
+    }
+
+    private record Expansion(UUID providerId, ProviderAvailability availability, List<AppointmentSlot> slots) {
+    }
+}
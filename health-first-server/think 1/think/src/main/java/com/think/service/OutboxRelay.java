@@ -0,0 +1,176 @@
+package com.think.service;
+
+import com.think.entity.OutboxEvent;
+import com.think.event.OutboxSink;
+import com.think.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox oldest-first in batches: publish to the sink, then delete what was accepted.
+ * A crash between the two re-sends the batch on the next run, so delivery is at-least-once. When
+ * the sink refuses a batch its events are retried one at a time, so a single bad event cannot
+ * hold back other aggregates. Each event that still fails waits an exponentially growing
+ * backoff before its next attempt and is parked (left in the table, no longer sent) after
+ * {@code app.outbox.max-attempts}.
+ *
+ * <p>Events of one aggregate are delivered in creation order: once an event fails, later events
+ * with the same {@code aggregateId} are held back, in this batch and in later runs, until it is
+ * delivered. Parking gives up on that order, so the events behind a parked one go out again.
+ * Only one instance should run the relay ({@code app.outbox.relay.enabled}).
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxRepository;
+    private final OutboxSink sink;
+    private final Clock clock;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration maxBackoff;
+    private final Counter published;
+    private final Counter failures;
+    private final Timer deliveryLag;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong parked = new AtomicLong();
+    private final AtomicLong oldestAgeMillis = new AtomicLong();
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxRepository,
+                       OutboxSink sink,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.outbox.batch-size:100}") int batchSize,
+                       @Value("${app.outbox.max-batches-per-run:50}") int maxBatchesPerRun,
+                       @Value("${app.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${app.outbox.retry-backoff:PT5S}") Duration retryBackoff,
+                       @Value("${app.outbox.max-backoff:PT10M}") Duration maxBackoff) {
+        this(outboxRepository, sink, meterRegistry, Clock.systemDefaultZone(), batchSize, maxBatchesPerRun,
+                maxAttempts, retryBackoff, maxBackoff);
+    }
+
+    OutboxRelay(OutboxEventRepository outboxRepository, OutboxSink sink, MeterRegistry meterRegistry,
+                Clock clock, int batchSize, int maxBatchesPerRun,
+                int maxAttempts, Duration retryBackoff, Duration maxBackoff) {
+        this.outboxRepository = outboxRepository;
+        this.sink = sink;
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.maxBackoff = maxBackoff;
+        this.published = meterRegistry.counter("think.outbox.events", "outcome", "published");
+        this.failures = meterRegistry.counter("think.outbox.events", "outcome", "failed");
+        this.deliveryLag = Timer.builder("think.outbox.delivery.lag")
+                .description("Time from commit to acceptance by the sink")
+                .register(meterRegistry);
+        meterRegistry.gauge("think.outbox.pending", pending);
+        meterRegistry.gauge("think.outbox.parked", parked);
+        meterRegistry.gauge("think.outbox.oldest.age.seconds", oldestAgeMillis, age -> age.get() / 1000.0);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:PT1S}")
+    public void relay() {
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            if (relayBatch() < batchSize) {
+                break;
+            }
+        }
+        updateBacklog();
+    }
+
+    // Returns the number of events delivered; fewer than a full batch ends the run
+    int relayBatch() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<OutboxEvent> batch = outboxRepository.findDue(now, maxAttempts, PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            sink.publish(batch);
+        } catch (Exception e) {
+            log.warn("Outbox batch of {} events not delivered, retrying one at a time: {}", batch.size(), e.getMessage());
+            int delivered = 0;
+            Set<UUID> heldBack = new HashSet<>();
+            for (OutboxEvent event : batch) {
+                if (heldBack.contains(event.getAggregateId())) {
+                    continue;
+                }
+                if (deliverAlone(event, now)) {
+                    delivered++;
+                } else {
+                    heldBack.add(event.getAggregateId());
+                }
+            }
+            return delivered;
+        }
+
+        delivered(batch, now);
+        return batch.size();
+    }
+
+    private boolean deliverAlone(OutboxEvent event, LocalDateTime now) {
+        try {
+            sink.publish(List.of(event));
+        } catch (Exception e) {
+            failures.increment();
+            int attempts = event.getAttempts() + 1;
+            outboxRepository.recordFailure(event.getId(), truncate(e.getClass().getSimpleName() + ": " + e.getMessage()),
+                    now.plus(backoff(attempts)));
+            if (attempts >= maxAttempts) {
+                log.error("Outbox event {} ({}) parked after {} attempts: {}",
+                        event.getId(), event.getEventType(), attempts, e.getMessage());
+            }
+            return false;
+        }
+        delivered(List.of(event), now);
+        return true;
+    }
+
+    private void delivered(List<OutboxEvent> events, LocalDateTime now) {
+        outboxRepository.deleteByIds(events.stream().map(OutboxEvent::getId).toList());
+        published.increment(events.size());
+        for (OutboxEvent event : events) {
+            deliveryLag.record(Duration.between(event.getCreatedAt(), now));
+        }
+    }
+
+    // retry-backoff doubled per failed attempt, capped at max-backoff
+    Duration backoff(int attempts) {
+        Duration delay = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private void updateBacklog() {
+        pending.set(outboxRepository.countByAttemptsLessThan(maxAttempts));
+        parked.set(outboxRepository.countByAttemptsGreaterThanEqual(maxAttempts));
+        LocalDateTime oldest = outboxRepository.findOldestCreatedAt(maxAttempts);
+        oldestAgeMillis.set(oldest != null ? Duration.between(oldest, LocalDateTime.now(clock)).toMillis() : 0);
+    }
+
+    private static String truncate(String message) {
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
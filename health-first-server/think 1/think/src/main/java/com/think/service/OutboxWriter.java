@@ -0,0 +1,69 @@
+package com.think.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.think.entity.OutboxEvent;
+import com.think.event.SlotChangeEvent;
+import com.think.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records bookings and cancellations in the outbox as part of the transaction that made them,
+ * so an event exists if and only if the change committed. Delivery is left to {@link OutboxRelay}.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    static final String AGGREGATE_TYPE = "AppointmentSlot";
+
+    private final OutboxEventRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onSlotChange(SlotChangeEvent event) {
+        String eventType = switch (event.getType()) {
+            case BOOKED -> "appointment.booked";
+            case CANCELLED -> "appointment.cancelled";
+            default -> null;
+        };
+        if (eventType == null) {
+            return;
+        }
+
+        List<OutboxEvent> rows = event.getSlots().stream()
+                .map(slot -> OutboxEvent.builder()
+                        .aggregateType(AGGREGATE_TYPE)
+                        .aggregateId(slot.getId())
+                        .eventType(eventType)
+                        .payload(payload(event, slot))
+                        .build())
+                .toList();
+        outboxRepository.saveAll(rows);
+    }
+
+    private String payload(SlotChangeEvent event, SlotChangeEvent.Slot slot) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("slot_id", slot.getId());
+        payload.put("booking_reference", slot.getBookingReference());
+        payload.put("provider_id", event.getProviderId());
+        payload.put("specialization", event.getSpecialization());
+        payload.put("patient_id", slot.getPatientId());
+        payload.put("availability_id", slot.getAvailabilityId());
+        payload.put("start_time", slot.getStartTime());
+        payload.put("end_time", slot.getEndTime());
+        payload.put("status", slot.getStatus());
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox payload for slot " + slot.getId(), e);
+        }
+    }
+}
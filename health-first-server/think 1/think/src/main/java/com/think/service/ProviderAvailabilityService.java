@@ -2,20 +2,26 @@ package com.think.service;
 
 import com.think.dto.*;
 import com.think.entity.*;
+import com.think.event.SlotChangeEvent;
 import com.think.repository.AppointmentSlotRepository;
+import com.think.repository.AvailabilityVersion;
 import com.think.repository.ProviderAvailabilityRepository;
 import com.think.repository.ProviderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -27,11 +33,41 @@ public class ProviderAvailabilityService {
     private final ProviderAvailabilityRepository availabilityRepository;
     private final AppointmentSlotRepository slotRepository;
     private final ProviderRepository providerRepository;
+    private final AvailabilitySearchCache searchCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+    private final SlotHorizon slotHorizon;
+    private final AvailabilityOverlapChecker overlapChecker;
+    private final AvailabilitySeriesDeleter seriesDeleter;
     
     @Transactional
     public AvailabilityResponse createAvailability(String providerId, CreateAvailabilityRequest request) {
         log.info("Creating availability for provider: {}", providerId);
         
+        ProviderAvailability savedAvailability = createAvailabilityRecord(providerId, request);
+        LocalDate generateThrough = savedAvailability.getSlotsGeneratedThrough();
+        
+        // Generate appointment slots
+        List<AppointmentSlot> slots = generateAppointmentSlots(savedAvailability, savedAvailability.getDate(), generateThrough);
+        slotRepository.saveAll(slots);
+        if (!slots.isEmpty()) {
+            eventPublisher.publishEvent(SlotChangeEvent.of(SlotChangeEvent.Type.CREATED, slots));
+        }
+        
+        // Calculate total appointments
+        int totalAppointments = slots.size() * savedAvailability.getMaxAppointmentsPerSlot();
+        
+        return AvailabilityResponse.builder()
+            .availabilityId(savedAvailability.getId().toString())
+            .slotsCreated(slots.size())
+            .dateRange(new AvailabilityResponse.DateRange(request.getDate(), 
+                request.getRecurrenceEndDate() != null ? request.getRecurrenceEndDate() : request.getDate()))
+            .totalAppointmentsAvailable(totalAppointments)
+            .build();
+    }
+    
+    // Validated, overlap-checked and saved with its slot watermark; the caller generates the slots
+    ProviderAvailability createAvailabilityRecord(String providerId, CreateAvailabilityRequest request) {
         UUID providerUuid;
         try {
             providerUuid = UUID.fromString(providerId);
@@ -42,35 +78,16 @@ public class ProviderAvailabilityService {
         Provider provider = providerRepository.findById(providerUuid)
             .orElseThrow(() -> new IllegalArgumentException("Provider not found with ID: " + providerId));
         
-        // Validate time range
-        validateTimeRange(request.getStartTime(), request.getEndTime());
-        
-        // Check for overlapping slots
-        List<ProviderAvailability> overlappingSlots = availabilityRepository.findOverlappingSlots(
-            providerUuid, request.getDate(), request.getStartTime(), request.getEndTime());
+        validate(request);
         
-        if (!overlappingSlots.isEmpty()) {
-            throw new IllegalArgumentException("Time slot overlaps with existing availability");
-        }
-        
-        // Create availability entity
+        // Create availability entity and check every occurrence against the provider's existing ones
         ProviderAvailability availability = buildAvailabilityEntity(provider, request);
-        ProviderAvailability savedAvailability = availabilityRepository.save(availability);
+        overlapChecker.check(providerUuid, availability);
         
-        // Generate appointment slots
-        List<AppointmentSlot> slots = generateAppointmentSlots(savedAvailability);
-        slotRepository.saveAll(slots);
-        
-        // Calculate total appointments
-        int totalAppointments = slots.size() * availability.getMaxAppointmentsPerSlot();
-        
-        return AvailabilityResponse.builder()
-            .availabilityId(savedAvailability.getId())
-            .slotsCreated(slots.size())
-            .dateRange(new AvailabilityResponse.DateRange(request.getDate(), 
-                request.getRecurrenceEndDate() != null ? request.getRecurrenceEndDate() : request.getDate()))
-            .totalAppointmentsAvailable(totalAppointments)
-            .build();
+        // Recurring series only get slots up to the horizon here
+        LocalDate generateThrough = availability.getIsRecurring() ? slotHorizon.through(LocalDate.now()) : availability.getDate();
+        availability.setSlotsGeneratedThrough(generateThrough);
+        return availabilityRepository.save(availability);
     }
     
     @Transactional(readOnly = true)
@@ -81,12 +98,12 @@ public class ProviderAvailabilityService {
         
         log.info("Getting availability for provider: {} from {} to {}", providerId, startDate, endDate);
         
-        List<ProviderAvailability> availabilities = availabilityRepository.findAvailabilityWithFilters(
-            UUID.fromString(providerId), startDate, endDate, status, appointmentType);
+        List<AppointmentSlot> slots = slotRepository.findAvailableSlotsWithFilters(
+            UUID.fromString(providerId), startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay(), status, appointmentType);
         
-        // Group by date and convert to response format
-        Map<LocalDate, List<ProviderAvailability>> groupedByDate = availabilities.stream()
-            .collect(Collectors.groupingBy(ProviderAvailability::getDate));
+        // Group by the slot's own date: a series row carries only its first date
+        Map<LocalDate, List<AppointmentSlot>> groupedByDate = slots.stream()
+            .collect(Collectors.groupingBy(slot -> slot.getSlotStartTime().toLocalDate()));
         
         List<AvailabilityResponse.DailyAvailability> dailyAvailabilities = groupedByDate.entrySet().stream()
             .map(entry -> buildDailyAvailability(entry.getKey(), entry.getValue()))
@@ -94,7 +111,7 @@ public class ProviderAvailabilityService {
             .collect(Collectors.toList());
         
         // Calculate summary
-        AvailabilityResponse.AvailabilitySummary summary = calculateAvailabilitySummary(availabilities);
+        AvailabilityResponse.AvailabilitySummary summary = calculateAvailabilitySummary(slots);
         
         return AvailabilityResponse.ProviderAvailabilityResponse.builder()
             .providerId(providerId)
@@ -103,44 +120,60 @@ public class ProviderAvailabilityService {
             .build();
     }
     
+    // One aggregate over the same provider/slot range getProviderAvailability reads, filters aside
     @Transactional(readOnly = true)
+    public AvailabilityVersion getAvailabilityVersion(String providerId, LocalDate startDate, LocalDate endDate) {
+        return availabilityRepository.findAvailabilityVersion(
+            UUID.fromString(providerId), startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
+    }
+    
+    // Not transactional itself: cache hits should not check out a connection
     public AvailabilitySearchResponse searchAvailableSlots(AvailabilitySearchRequest request) {
         log.info("Searching available slots with criteria: {}", request);
         
-        // Set default date range if not provided
-        LocalDate startDate = request.getStartDate();
-        LocalDate endDate = request.getEndDate();
-        
-        if (request.getDate() != null) {
-            startDate = request.getDate();
-            endDate = request.getDate();
-        } else if (startDate == null || endDate == null) {
-            startDate = LocalDate.now();
-            endDate = startDate.plusDays(30);
-        }
+        AvailabilitySearchKey key = AvailabilitySearchKey.from(request, LocalDate.now());
+        AvailabilitySearchResponse cached = searchCache.get(key, () -> {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            return readOnly.execute(status -> runSearch(key));
+        });
         
+        return AvailabilitySearchResponse.builder()
+            .searchCriteria(buildSearchCriteria(request))
+            .totalResults(cached.getTotalResults())
+            .results(cached.getResults())
+            .build();
+    }
+    
+    private AvailabilitySearchResponse runSearch(AvailabilitySearchKey key) {
         Pageable pageable = PageRequest.of(0, 50); // Limit results
+        LocalDateTime from = key.startDate().atStartOfDay();
+        LocalDateTime to = key.endDate().plusDays(1).atStartOfDay();
         
         Page<ProviderAvailability> availabilities = availabilityRepository.searchAvailableSlots(
-            request.getSpecialization(),
-            startDate,
-            endDate,
-            request.getAppointmentType() != null ? 
-                ProviderAvailability.AppointmentType.valueOf(request.getAppointmentType().toUpperCase()) : null,
-            request.getInsuranceAccepted(),
-            request.getMaxPrice() != null ? request.getMaxPrice().doubleValue() : null,
+            key.specialization(),
+            from,
+            to,
+            key.appointmentType(),
+            key.insuranceAccepted(),
+            key.maxPrice(),
             pageable
         );
         
+        // The page's slots in one query, limited to the searched range
+        Map<UUID, List<AppointmentSlot>> slotsByAvailability = availabilities.isEmpty() ? Map.of()
+            : slotRepository.findAvailableSlotsByAvailabilityIdsInRange(
+                    availabilities.map(ProviderAvailability::getId).getContent(), from, to).stream()
+                .collect(Collectors.groupingBy(slot -> slot.getAvailability().getId()));
+        
         // Convert to search response
         List<AvailabilitySearchResponse.SearchResult> results = availabilities.getContent().stream()
             .collect(Collectors.groupingBy(ProviderAvailability::getProvider))
             .entrySet().stream()
-            .map(entry -> buildSearchResult(entry.getKey(), entry.getValue()))
+            .map(entry -> buildSearchResult(entry.getKey(), entry.getValue(), slotsByAvailability))
             .collect(Collectors.toList());
         
         return AvailabilitySearchResponse.builder()
-            .searchCriteria(buildSearchCriteria(request))
             .totalResults((int) availabilities.getTotalElements())
             .results(results)
             .build();
@@ -150,13 +183,15 @@ public class ProviderAvailabilityService {
     public void updateAvailabilitySlot(String slotId, String providerId, Map<String, Object> updates) {
         log.info("Updating availability slot: {} for provider: {}", slotId, providerId);
         
-        AppointmentSlot slot = slotRepository.findById(slotId)
-            .orElseThrow(() -> new IllegalArgumentException("Slot not found"));
+        AppointmentSlot slot = findSlot(slotId);
         
         if (!slot.getProvider().getId().toString().equals(providerId)) {
             throw new IllegalArgumentException("Slot does not belong to provider");
         }
         
+        LocalDateTime previousStart = slot.getSlotStartTime();
+        LocalDateTime previousEnd = slot.getSlotEndTime();
+        
         // Apply updates
         if (updates.containsKey("start_time")) {
             slot.setSlotStartTime(LocalDateTime.parse((String) updates.get("start_time")));
@@ -166,6 +201,9 @@ public class ProviderAvailabilityService {
         }
         if (updates.containsKey("status")) {
             slot.setStatus(AppointmentSlot.SlotStatus.valueOf((String) updates.get("status")));
+            // A provider override ends any checkout hold on the slot
+            slot.setHeldBy(null);
+            slot.setHeldUntil(null);
         }
         if (updates.containsKey("notes")) {
             // Update the parent availability notes
@@ -175,32 +213,113 @@ public class ProviderAvailabilityService {
         }
         
         slotRepository.save(slot);
+        boolean moved = !slot.getSlotStartTime().equals(previousStart) || !slot.getSlotEndTime().equals(previousEnd);
+        eventPublisher.publishEvent(moved
+            ? SlotChangeEvent.moved(slot, previousStart, previousEnd)
+            : SlotChangeEvent.of(SlotChangeEvent.Type.UPDATED, slot));
     }
     
     @Transactional
-    public void deleteAvailabilitySlot(String slotId, String providerId, boolean deleteRecurring, String reason) {
-        log.info("Deleting availability slot: {} for provider: {}", slotId, providerId);
+    public SlotRangeUpdateResponse updateSlotRange(String providerId, SlotRangeUpdateRequest request) {
+        log.info("Setting slots of provider {} from {} to {} to {}", providerId, request.getStartTime(),
+            request.getEndTime(), request.getStatus());
         
-        AppointmentSlot slot = slotRepository.findById(slotId)
-            .orElseThrow(() -> new IllegalArgumentException("Slot not found"));
-        
-        if (!slot.getProvider().getId().toString().equals(providerId)) {
-            throw new IllegalArgumentException("Slot does not belong to provider");
+        UUID providerUuid;
+        try {
+            providerUuid = UUID.fromString(providerId);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid provider ID format: " + providerId);
+        }
+        // Loaded before the slots so they reference this instance, which the event still reads after the clear
+        providerRepository.findById(providerUuid)
+            .orElseThrow(() -> new IllegalArgumentException("Provider not found with ID: " + providerId));
+        if (!request.getEndTime().isAfter(request.getStartTime())) {
+            throw new IllegalArgumentException("End time must be after start time");
         }
         
-        if (slot.getStatus() == AppointmentSlot.SlotStatus.BOOKED) {
-            throw new IllegalArgumentException("Cannot delete booked slot");
+        // Blocking ends checkout holds, like a single-slot override; booked and cancelled slots are never touched
+        Set<AppointmentSlot.SlotStatus> fromStatuses = switch (request.getStatus()) {
+            case BLOCKED -> EnumSet.of(AppointmentSlot.SlotStatus.AVAILABLE, AppointmentSlot.SlotStatus.HELD);
+            case AVAILABLE -> EnumSet.of(AppointmentSlot.SlotStatus.BLOCKED);
+            default -> throw new IllegalArgumentException("Status must be BLOCKED or AVAILABLE");
+        };
+        
+        // The counts, the ids for the single UPDATE and the change event all come from this one locked set
+        List<AppointmentSlot> inRange = slotRepository.findInRangeForUpdate(providerUuid, request.getStartTime(), request.getEndTime());
+        int booked = (int) inRange.stream().filter(slot -> slot.getStatus() == AppointmentSlot.SlotStatus.BOOKED).count();
+        List<AppointmentSlot> changed = inRange.stream()
+            .filter(slot -> fromStatuses.contains(slot.getStatus()))
+            .toList();
+        if (!changed.isEmpty()) {
+            slotRepository.updateStatusByIds(changed.stream().map(AppointmentSlot::getId).toList(), fromStatuses,
+                request.getStatus(), LocalDateTime.now());
+            // The entities are detached now; update the copies the event is built from
+            for (AppointmentSlot slot : changed) {
+                slot.setStatus(request.getStatus());
+                slot.setHeldBy(null);
+                slot.setHeldUntil(null);
+            }
+            eventPublisher.publishEvent(SlotChangeEvent.of(SlotChangeEvent.Type.UPDATED, changed));
         }
         
-        if (deleteRecurring && slot.getAvailability().getIsRecurring()) {
-            // Delete all recurring slots
-            List<AppointmentSlot> recurringSlots = slotRepository.findAvailableSlotsByAvailabilityId(
-                slot.getAvailability().getId());
-            slotRepository.deleteAll(recurringSlots);
-            availabilityRepository.delete(slot.getAvailability());
-        } else {
+        return SlotRangeUpdateResponse.builder()
+            .status(request.getStatus())
+            .slotsInRange(inRange.size())
+            .slotsUpdated(changed.size())
+            .slotsBooked(booked)
+            .slotsUnchanged(inRange.size() - changed.size() - booked)
+            .build();
+    }
+    
+    // Not transactional: a recurring series is deleted in chunks that commit one by one
+    public SlotDeletionResponse deleteAvailabilitySlot(String slotId, String providerId, boolean deleteRecurring, String reason) {
+        log.info("Deleting availability slot: {} for provider: {}", slotId, providerId);
+        
+        SlotDeletion deletion = new TransactionTemplate(transactionManager).execute(status -> {
+            AppointmentSlot slot = findSlot(slotId);
+            
+            if (!slot.getProvider().getId().toString().equals(providerId)) {
+                throw new IllegalArgumentException("Slot does not belong to provider");
+            }
+            
+            if (slot.getStatus() == AppointmentSlot.SlotStatus.BOOKED) {
+                throw new IllegalArgumentException("Cannot delete booked slot");
+            }
+            
+            if (deleteRecurring && slot.getAvailability().getIsRecurring()) {
+                return new SlotDeletion(slot.getAvailability().getId(), true);
+            }
             slotRepository.delete(slot);
+            eventPublisher.publishEvent(SlotChangeEvent.of(SlotChangeEvent.Type.DELETED, slot));
+            return new SlotDeletion(slot.getAvailability().getId(), false);
+        });
+        
+        if (deletion.series()) {
+            // Delete all recurring slots that are not booked, held or cancelled
+            return seriesDeleter.delete(deletion.availabilityId());
         }
+        return SlotDeletionResponse.builder()
+            .availabilityId(deletion.availabilityId().toString())
+            .slotsDeleted(1)
+            .slotsSkipped(0)
+            .availabilityDeleted(false)
+            .build();
+    }
+    
+    private AppointmentSlot findSlot(String slotId) {
+        UUID id;
+        try {
+            id = UUID.fromString(slotId);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Slot not found");
+        }
+        return slotRepository.findById(id)
+            .orElseThrow(() -> new IllegalArgumentException("Slot not found"));
+    }
+    
+    void validate(CreateAvailabilityRequest request) {
+        validateTimeRange(request.getStartTime(), request.getEndTime());
+        validateRecurrence(request);
     }
     
     private void validateTimeRange(LocalTime startTime, LocalTime endTime) {
@@ -214,7 +333,19 @@ public class ProviderAvailabilityService {
         }
     }
     
-    private ProviderAvailability buildAvailabilityEntity(Provider provider, CreateAvailabilityRequest request) {
+    private void validateRecurrence(CreateAvailabilityRequest request) {
+        if (!Boolean.TRUE.equals(request.getIsRecurring())) {
+            return;
+        }
+        if (request.getRecurrencePattern() == null) {
+            throw new IllegalArgumentException("Recurrence pattern is required for recurring availability");
+        }
+        if (request.getRecurrenceEndDate() != null && request.getRecurrenceEndDate().isBefore(request.getDate())) {
+            throw new IllegalArgumentException("Recurrence end date cannot be before the start date");
+        }
+    }
+    
+    ProviderAvailability buildAvailabilityEntity(Provider provider, CreateAvailabilityRequest request) {
         return ProviderAvailability.builder()
             .provider(provider)
             .date(request.getDate())
@@ -260,14 +391,57 @@ public class ProviderAvailabilityService {
             .build();
     }
     
-    private List<AppointmentSlot> generateAppointmentSlots(ProviderAvailability availability) {
+    List<AppointmentSlot> generateAppointmentSlots(ProviderAvailability availability) {
+        return generateAppointmentSlots(availability, availability.getDate(), availability.getDate());
+    }
+    
+    List<AppointmentSlot> generateAppointmentSlots(ProviderAvailability availability, LocalDate from, LocalDate through) {
         List<AppointmentSlot> slots = new ArrayList<>();
+        for (LocalDate date : occurrences(availability, from, through)) {
+            addSlots(slots, availability, date);
+        }
+        return slots;
+    }
+    
+    static List<LocalDate> occurrences(ProviderAvailability availability, LocalDate from, LocalDate through) {
+        LocalDate start = availability.getDate();
+        if (!Boolean.TRUE.equals(availability.getIsRecurring())) {
+            return start.isBefore(from) || start.isAfter(through) ? List.of() : List.of(start);
+        }
+        LocalDate last = availability.getRecurrenceEndDate() != null && availability.getRecurrenceEndDate().isBefore(through)
+            ? availability.getRecurrenceEndDate() : through;
+        ProviderAvailability.RecurrencePattern pattern = availability.getRecurrencePattern();
+        
+        // Occurrences are offsets from the series start, so monthly series keep their day of month
+        long offset = from.isAfter(start) ? switch (pattern) {
+            case DAILY -> ChronoUnit.DAYS.between(start, from);
+            case WEEKLY -> ChronoUnit.WEEKS.between(start, from);
+            case MONTHLY -> ChronoUnit.MONTHS.between(start, from);
+        } : 0;
+        List<LocalDate> dates = new ArrayList<>();
+        for (LocalDate date = occurrence(start, pattern, offset); !date.isAfter(last); date = occurrence(start, pattern, ++offset)) {
+            if (!date.isBefore(from)) {
+                dates.add(date);
+            }
+        }
+        return dates;
+    }
+    
+    private static LocalDate occurrence(LocalDate start, ProviderAvailability.RecurrencePattern pattern, long offset) {
+        return switch (pattern) {
+            case DAILY -> start.plusDays(offset);
+            case WEEKLY -> start.plusWeeks(offset);
+            case MONTHLY -> start.plusMonths(offset);
+        };
+    }
+    
+    private void addSlots(List<AppointmentSlot> slots, ProviderAvailability availability, LocalDate date) {
         LocalTime currentTime = availability.getStartTime();
         
         while (currentTime.plusMinutes(availability.getSlotDuration()).isBefore(availability.getEndTime()) ||
                currentTime.plusMinutes(availability.getSlotDuration()).equals(availability.getEndTime())) {
             
-            LocalDateTime slotStart = LocalDateTime.of(availability.getDate(), currentTime);
+            LocalDateTime slotStart = LocalDateTime.of(date, currentTime);
             LocalDateTime slotEnd = slotStart.plusMinutes(availability.getSlotDuration());
             
             AppointmentSlot slot = AppointmentSlot.builder()
@@ -284,27 +458,18 @@ public class ProviderAvailabilityService {
             // Add break duration
             currentTime = currentTime.plusMinutes(availability.getSlotDuration() + availability.getBreakDuration());
         }
-        
-        return slots;
     }
     
-    private AvailabilityResponse.DailyAvailability buildDailyAvailability(LocalDate date, List<ProviderAvailability> availabilities) {
-        List<AvailabilityResponse.SlotInfo> slots = availabilities.stream()
-            .flatMap(availability -> {
-                List<AppointmentSlot> appointmentSlots = slotRepository.findAvailableSlotsByAvailabilityId(availability.getId());
-                return appointmentSlots.stream().map(this::buildSlotInfo);
-            })
-            .collect(Collectors.toList());
-        
+    private AvailabilityResponse.DailyAvailability buildDailyAvailability(LocalDate date, List<AppointmentSlot> slots) {
         return AvailabilityResponse.DailyAvailability.builder()
             .date(date)
-            .slots(slots)
+            .slots(slots.stream().map(this::buildSlotInfo).collect(Collectors.toList()))
             .build();
     }
     
     private AvailabilityResponse.SlotInfo buildSlotInfo(AppointmentSlot slot) {
         return AvailabilityResponse.SlotInfo.builder()
-            .slotId(slot.getId())
+            .slotId(slot.getId().toString())
             .startTime(slot.getSlotStartTime().toLocalTime())
             .endTime(slot.getSlotEndTime().toLocalTime())
             .status(slot.getStatus())
@@ -333,28 +498,23 @@ public class ProviderAvailabilityService {
             .build();
     }
     
-    private AvailabilityResponse.AvailabilitySummary calculateAvailabilitySummary(List<ProviderAvailability> availabilities) {
-        int totalSlots = 0;
+    private AvailabilityResponse.AvailabilitySummary calculateAvailabilitySummary(List<AppointmentSlot> slots) {
+        int totalSlots = slots.size();
         int availableSlots = 0;
         int bookedSlots = 0;
         int cancelledSlots = 0;
         
-        for (ProviderAvailability availability : availabilities) {
-            List<AppointmentSlot> slots = slotRepository.findAvailableSlotsByAvailabilityId(availability.getId());
-            totalSlots += slots.size();
-            
-            for (AppointmentSlot slot : slots) {
-                switch (slot.getStatus()) {
-                    case AVAILABLE:
-                        availableSlots++;
-                        break;
-                    case BOOKED:
-                        bookedSlots++;
-                        break;
-                    case CANCELLED:
-                        cancelledSlots++;
-                        break;
-                }
+        for (AppointmentSlot slot : slots) {
+            switch (slot.getStatus()) {
+                case AVAILABLE:
+                    availableSlots++;
+                    break;
+                case BOOKED:
+                    bookedSlots++;
+                    break;
+                case CANCELLED:
+                    cancelledSlots++;
+                    break;
             }
         }
         
@@ -366,12 +526,11 @@ public class ProviderAvailabilityService {
             .build();
     }
     
-    private AvailabilitySearchResponse.SearchResult buildSearchResult(Provider provider, List<ProviderAvailability> availabilities) {
+    private AvailabilitySearchResponse.SearchResult buildSearchResult(Provider provider, List<ProviderAvailability> availabilities,
+                                                                      Map<UUID, List<AppointmentSlot>> slotsByAvailability) {
         List<AvailabilitySearchResponse.AvailableSlot> availableSlots = availabilities.stream()
-            .flatMap(availability -> {
-                List<AppointmentSlot> slots = slotRepository.findAvailableSlotsByAvailabilityId(availability.getId());
-                return slots.stream().map(slot -> buildAvailableSlot(slot, availability));
-            })
+            .flatMap(availability -> slotsByAvailability.getOrDefault(availability.getId(), List.of()).stream()
+                .map(slot -> buildAvailableSlot(slot, availability)))
             .collect(Collectors.toList());
         
         return AvailabilitySearchResponse.SearchResult.builder()
@@ -395,14 +554,15 @@ public class ProviderAvailabilityService {
     
     private AvailabilitySearchResponse.AvailableSlot buildAvailableSlot(AppointmentSlot slot, ProviderAvailability availability) {
         return AvailabilitySearchResponse.AvailableSlot.builder()
-            .slotId(slot.getId())
+            .slotId(slot.getId().toString())
             .date(slot.getSlotStartTime().toLocalDate())
             .startTime(slot.getSlotStartTime().toLocalTime())
             .endTime(slot.getSlotEndTime().toLocalTime())
             .appointmentType(slot.getAppointmentType())
             .location(buildSearchLocationInfo(availability.getLocation()))
             .pricing(buildSearchPricingInfo(availability.getPricing()))
-            .specialRequirements(availability.getSpecialRequirements())
+            .specialRequirements(availability.getSpecialRequirements() != null
+                ? new ArrayList<>(availability.getSpecialRequirements()) : null)
             .build();
     }
     
@@ -436,4 +596,7 @@ public class ProviderAvailabilityService {
             request.getTimezone()
         );
     }
+    
+    private record SlotDeletion(UUID availabilityId, boolean series) {
+    }
 }
@@ -0,0 +1,290 @@
+package com.think.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.think.dto.FreeBusyResponse;
+import com.think.dto.NextAvailableResponse;
+import com.think.entity.AppointmentSlot;
+import com.think.entity.ProviderDayOccupancy;
+import com.think.event.SlotChangeEvent;
+import com.think.repository.AppointmentSlotRepository;
+import com.think.repository.ProviderDayOccupancyRepository;
+import com.think.repository.ProviderRepository;
+import com.think.util.DayBitmap;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Free/busy and next-available answers from {@link ProviderDayOccupancy} bitmaps instead of slot
+ * rows. Every slot change event rewrites the ticks of its slots in the occupancy rows before the
+ * transaction commits, and the cached days are evicted after it commits. A moved slot's ticks are
+ * cleared on its old date first. Days whose slots predate the occupancy table have no row until
+ * one of their slots next changes; until then they are computed from their slots when they are
+ * read. The first row of a day is built from its slots in the changing transaction while it holds
+ * the provider row lock, so a concurrent change on that day waits and then applies its ticks to
+ * the new row. A day read before an eviction is not cached once that eviction has run.
+ */
+@Service
+@Slf4j
+public class ProviderOccupancyService {
+
+    private static final Set<AppointmentSlot.SlotStatus> BUSY = EnumSet.of(
+        AppointmentSlot.SlotStatus.BOOKED, AppointmentSlot.SlotStatus.HELD, AppointmentSlot.SlotStatus.BLOCKED);
+
+    private final ProviderDayOccupancyRepository occupancyRepository;
+    private final AppointmentSlotRepository slotRepository;
+    private final ProviderRepository providerRepository;
+    private final SlotHorizon slotHorizon;
+    private final Cache<DayKey, DayOccupancy> cache;
+    // Bumped before every eviction, so a read that overlapped one drops what it loaded
+    private final AtomicLong generation = new AtomicLong();
+
+    public ProviderOccupancyService(ProviderDayOccupancyRepository occupancyRepository,
+                                    AppointmentSlotRepository slotRepository,
+                                    ProviderRepository providerRepository,
+                                    SlotHorizon slotHorizon,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.cache.occupancy.ttl:10m}") Duration ttl,
+                                    @Value("${app.cache.occupancy.max-entries:50000}") long maxEntries) {
+        this.occupancyRepository = occupancyRepository;
+        this.slotRepository = slotRepository;
+        this.providerRepository = providerRepository;
+        this.slotHorizon = slotHorizon;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "provider.occupancy");
+    }
+
+    @Transactional(readOnly = true)
+    public FreeBusyResponse getFreeBusy(String providerId, LocalDate date) {
+        DayOccupancy day = days(parseProviderId(providerId), date, date).get(date);
+        return FreeBusyResponse.builder()
+            .providerId(providerId)
+            .date(date)
+            .free(timeRanges(date, day.free()))
+            .busy(timeRanges(date, day.busy()))
+            .build();
+    }
+
+    @Transactional(readOnly = true)
+    public NextAvailableResponse getNextAvailable(String providerId, LocalDateTime after) {
+        UUID providerUuid = parseProviderId(providerId);
+        // Past days have nothing bookable; starting at now keeps an early 'after' from walking years of days
+        LocalDateTime now = LocalDateTime.now();
+        if (after.isBefore(now)) {
+            after = now;
+        }
+        LocalDate through = slotHorizon.through(now.toLocalDate());
+        LocalDateTime next = null;
+        if (!after.toLocalDate().isAfter(through)) {
+            Map<LocalDate, DayOccupancy> days = days(providerUuid, after.toLocalDate(), through);
+            for (LocalDate date = after.toLocalDate(); next == null && !date.isAfter(through); date = date.plusDays(1)) {
+                int fromTick = date.equals(after.toLocalDate()) ? DayBitmap.tickAtOrAfter(after.toLocalTime()) : 0;
+                int tick = days.get(date).starts().next(fromTick);
+                if (tick >= 0) {
+                    next = date.atStartOfDay().plusMinutes(DayBitmap.minuteOf(tick));
+                }
+            }
+        }
+        return NextAvailableResponse.builder()
+            .providerId(providerId)
+            .after(after)
+            .nextAvailable(next)
+            .searchedThrough(through)
+            .build();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onSlotChange(SlotChangeEvent event) {
+        // Old ranges of moved slots are cleared before any slot's new range is applied
+        Map<LocalDate, List<TickChange>> byDate = new TreeMap<>();
+        for (SlotChangeEvent.Slot slot : event.getSlots()) {
+            if (slot.getPreviousStartTime() != null) {
+                byDate.computeIfAbsent(slot.getPreviousStartTime().toLocalDate(), date -> new ArrayList<>())
+                    .add(new TickChange(slot.getPreviousStartTime(), slot.getPreviousEndTime(), null));
+            }
+        }
+        for (SlotChangeEvent.Slot slot : event.getSlots()) {
+            byDate.computeIfAbsent(slot.getStartTime().toLocalDate(), date -> new ArrayList<>())
+                .add(new TickChange(slot.getStartTime(), slot.getEndTime(),
+                    event.getType() == SlotChangeEvent.Type.DELETED ? null : slot.getStatus()));
+        }
+        UUID providerId = event.getProviderId();
+        Map<LocalDate, ProviderDayOccupancy> rows;
+        if (occupancyRepository.countByProviderIdAndDateIn(providerId, byDate.keySet()) < byDate.size()) {
+            // Taken before any row lock, so it cannot wait behind a transaction that waits for it
+            providerRepository.findForUpdate(providerId);
+            rows = lockRows(providerId, byDate.keySet());
+            for (LocalDate date : byDate.keySet()) {
+                rows.computeIfAbsent(date, missing -> buildRow(providerId, missing));
+            }
+        } else {
+            rows = lockRows(providerId, byDate.keySet());
+        }
+
+        List<ProviderDayOccupancy> changed = new ArrayList<>();
+        for (Map.Entry<LocalDate, List<TickChange>> entry : byDate.entrySet()) {
+            ProviderDayOccupancy row = rows.get(entry.getKey());
+            DayOccupancy day = DayOccupancy.of(row);
+            for (TickChange change : entry.getValue()) {
+                apply(day, change.start(), change.end(), change.status());
+            }
+            row.setFreeTicks(day.free().toBytes());
+            row.setBusyTicks(day.busy().toBytes());
+            row.setStartTicks(day.starts().toBytes());
+            changed.add(row);
+        }
+        occupancyRepository.saveAll(changed);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void evict(SlotChangeEvent event) {
+        generation.incrementAndGet();
+        for (LocalDate date : event.dates()) {
+            cache.invalidate(new DayKey(event.getProviderId(), date));
+        }
+    }
+
+    // Cached days first, then the stored rows in one query, then the remaining days from their slots in one query
+    Map<LocalDate, DayOccupancy> days(UUID providerId, LocalDate from, LocalDate through) {
+        long readAt = generation.get();
+        Map<LocalDate, DayOccupancy> days = new HashMap<>();
+        List<LocalDate> missing = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(through); date = date.plusDays(1)) {
+            DayOccupancy cached = cache.getIfPresent(new DayKey(providerId, date));
+            if (cached != null) {
+                days.put(date, cached);
+            } else {
+                missing.add(date);
+            }
+        }
+        if (missing.isEmpty()) {
+            return days;
+        }
+
+        LocalDate firstMissing = missing.get(0);
+        LocalDate lastMissing = missing.get(missing.size() - 1);
+        Map<LocalDate, DayOccupancy> loaded = new HashMap<>();
+        for (ProviderDayOccupancy row : occupancyRepository.findInRange(providerId, firstMissing, lastMissing)) {
+            loaded.put(row.getDate(), DayOccupancy.of(row));
+        }
+        List<LocalDate> withoutRow = missing.stream().filter(date -> !loaded.containsKey(date)).toList();
+        if (!withoutRow.isEmpty()) {
+            LocalDate first = withoutRow.get(0);
+            LocalDate last = withoutRow.get(withoutRow.size() - 1);
+            Map<LocalDate, List<AppointmentSlot>> slotsByDate = slotRepository.findByProviderAndTimeRange(
+                    providerId, first.atStartOfDay(), last.plusDays(1).atStartOfDay()).stream()
+                .collect(Collectors.groupingBy(slot -> slot.getSlotStartTime().toLocalDate()));
+            for (LocalDate date : withoutRow) {
+                loaded.put(date, fromSlots(date, slotsByDate.getOrDefault(date, List.of())));
+            }
+        }
+        for (LocalDate date : missing) {
+            DayOccupancy day = loaded.get(date);
+            cache.put(new DayKey(providerId, date), day);
+            days.put(date, day);
+        }
+        // Checked after the puts: an eviction either ran before this check or will remove them itself
+        if (generation.get() != readAt) {
+            missing.forEach(date -> cache.invalidate(new DayKey(providerId, date)));
+        }
+        return days;
+    }
+
+    private Map<LocalDate, ProviderDayOccupancy> lockRows(UUID providerId, Collection<LocalDate> dates) {
+        return occupancyRepository.findForUpdate(providerId, dates).stream()
+            .collect(Collectors.toMap(ProviderDayOccupancy::getDate, Function.identity(), (a, b) -> a, HashMap::new));
+    }
+
+    // From this transaction's view of the slots, which includes its own changes; saved with the other rows
+    private ProviderDayOccupancy buildRow(UUID providerId, LocalDate date) {
+        log.debug("Building occupancy row for provider {} on {}", providerId, date);
+        return toRow(providerId, date, fromSlots(date, slotRepository.findByProviderAndTimeRange(providerId,
+            date.atStartOfDay(), date.plusDays(1).atStartOfDay())));
+    }
+
+    static DayOccupancy fromSlots(LocalDate date, List<AppointmentSlot> slots) {
+        DayOccupancy day = DayOccupancy.empty();
+        for (AppointmentSlot slot : slots) {
+            apply(day, slot.getSlotStartTime(), slot.getSlotEndTime(), slot.getStatus());
+        }
+        return day;
+    }
+
+    // Clears the slot's ticks and sets them again for its new status; a null status removes the slot
+    static void apply(DayOccupancy day, LocalDateTime start, LocalDateTime end, AppointmentSlot.SlotStatus status) {
+        LocalTime endTime = end.toLocalDate().isAfter(start.toLocalDate()) ? LocalTime.MIDNIGHT : end.toLocalTime();
+        DayBitmap.Run range = DayBitmap.range(start.toLocalTime(), endTime);
+        day.free().clear(range.from(), range.to());
+        day.busy().clear(range.from(), range.to());
+        day.starts().clear(range.from(), range.to());
+        if (status == AppointmentSlot.SlotStatus.AVAILABLE) {
+            day.free().set(range.from(), range.to());
+            day.starts().set(range.from(), range.from() + 1);
+        } else if (status != null && BUSY.contains(status)) {
+            day.busy().set(range.from(), range.to());
+        }
+    }
+
+    private static ProviderDayOccupancy toRow(UUID providerId, LocalDate date, DayOccupancy day) {
+        return ProviderDayOccupancy.builder()
+            .providerId(providerId)
+            .date(date)
+            .freeTicks(day.free().toBytes())
+            .busyTicks(day.busy().toBytes())
+            .startTicks(day.starts().toBytes())
+            .build();
+    }
+
+    private static List<FreeBusyResponse.TimeRange> timeRanges(LocalDate date, DayBitmap bitmap) {
+        return bitmap.runs().stream()
+            .map(run -> new FreeBusyResponse.TimeRange(
+                date.atStartOfDay().plusMinutes(DayBitmap.minuteOf(run.from())),
+                date.atStartOfDay().plusMinutes(DayBitmap.minuteOf(run.to()))))
+            .toList();
+    }
+
+    private static UUID parseProviderId(String providerId) {
+        try {
+            return UUID.fromString(providerId);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid provider ID format: " + providerId);
+        }
+    }
+
+    record DayKey(UUID providerId, LocalDate date) {
+    }
+
+    private record TickChange(LocalDateTime start, LocalDateTime end, AppointmentSlot.SlotStatus status) {
+    }
+
+    record DayOccupancy(DayBitmap free, DayBitmap busy, DayBitmap starts) {
+
+        static DayOccupancy empty() {
+            return new DayOccupancy(DayBitmap.empty(), DayBitmap.empty(), DayBitmap.empty());
+        }
+
+        static DayOccupancy of(ProviderDayOccupancy row) {
+            return new DayOccupancy(DayBitmap.of(row.getFreeTicks()), DayBitmap.of(row.getBusyTicks()),
+                DayBitmap.of(row.getStartTicks()));
+        }
+    }
+}
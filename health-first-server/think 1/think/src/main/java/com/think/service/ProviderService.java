@@ -143,7 +143,7 @@ public class ProviderService {
     /**
      * Sanitize input to prevent injection attacks
      */
-    private String sanitizeInput(String input) {
+    String sanitizeInput(String input) {
         if (input == null) {
             return null;
         }
@@ -0,0 +1,49 @@
+package com.think.service;
+
+import com.think.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Wraps a read call (including its transaction) so statement timeouts, pool exhaustion and
+ * other transient database failures surface as {@link ServiceOverloadedException} and are
+ * counted in {@code think.query.failures}, rather than looking like an empty result.
+ */
+@Component
+@Slf4j
+public class QueryGuard {
+
+    private final MeterRegistry meterRegistry;
+    private final Duration retryAfter;
+
+    public QueryGuard(MeterRegistry meterRegistry,
+                      @Value("${app.query.retry-after:2s}") Duration retryAfter) {
+        this.meterRegistry = meterRegistry;
+        this.retryAfter = retryAfter;
+    }
+
+    public <T> T call(String query, Supplier<T> action) {
+        try {
+            return action.get();
+        } catch (QueryTimeoutException e) {
+            throw overloaded(query, "timeout", e);
+        } catch (TransientDataAccessException | DataAccessResourceFailureException | CannotCreateTransactionException e) {
+            throw overloaded(query, "unavailable", e);
+        }
+    }
+
+    private ServiceOverloadedException overloaded(String query, String reason, RuntimeException cause) {
+        meterRegistry.counter("think.query.failures", "query", query, "reason", reason).increment();
+        log.warn("Query {} failed ({}): {}", query, reason, cause.getMessage());
+        return new ServiceOverloadedException("The service is busy, please retry shortly", retryAfter, cause);
+    }
+}
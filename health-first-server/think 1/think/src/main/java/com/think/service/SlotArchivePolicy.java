@@ -0,0 +1,30 @@
+package com.think.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Slots starting before the cutoff ({@code app.archive.retention-days} before today) are moved to
+ * the archive table. Queries whose range starts before the cutoff read the archive as well; an
+ * open-ended range stays on the live table, which holds the whole retention window.
+ */
+@Component
+public class SlotArchivePolicy {
+
+    private final int retentionDays;
+
+    public SlotArchivePolicy(@Value("${app.archive.retention-days:365}") int retentionDays) {
+        this.retentionDays = retentionDays;
+    }
+
+    public LocalDateTime cutoff(LocalDate today) {
+        return today.minusDays(retentionDays).atStartOfDay();
+    }
+
+    public boolean reachesArchive(LocalDateTime rangeStart, LocalDate today) {
+        return rangeStart != null && rangeStart.isBefore(cutoff(today));
+    }
+}
@@ -0,0 +1,102 @@
+package com.think.service;
+
+import com.think.repository.AppointmentSlotRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves available and cancelled slots older than the {@link SlotArchivePolicy} cutoff into
+ * {@code appointment_slots_archive}, oldest first. Booked slots stay live. Each batch is copied
+ * and deleted in one transaction, so a slot is always in exactly one of the two tables. Batches
+ * are separated by {@code app.archive.pause} and a run stops after
+ * {@code app.archive.max-batches-per-run}, so a large backlog is worked off over several nights
+ * instead of competing with daytime traffic.
+ */
+@Component
+@ConditionalOnProperty(name = "app.archive.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class SlotArchiver {
+
+    private final AppointmentSlotRepository slotRepository;
+    private final SlotArchivePolicy archivePolicy;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration pause;
+    private final Counter archived;
+
+    @Autowired
+    public SlotArchiver(AppointmentSlotRepository slotRepository,
+                        SlotArchivePolicy archivePolicy,
+                        PlatformTransactionManager transactionManager,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.archive.batch-size:500}") int batchSize,
+                        @Value("${app.archive.max-batches-per-run:200}") int maxBatchesPerRun,
+                        @Value("${app.archive.pause:PT0.2S}") Duration pause) {
+        this(slotRepository, archivePolicy, new TransactionTemplate(transactionManager), meterRegistry,
+                Clock.systemDefaultZone(), batchSize, maxBatchesPerRun, pause);
+    }
+
+    SlotArchiver(AppointmentSlotRepository slotRepository, SlotArchivePolicy archivePolicy,
+                 TransactionTemplate transactionTemplate, MeterRegistry meterRegistry, Clock clock,
+                 int batchSize, int maxBatchesPerRun, Duration pause) {
+        this.slotRepository = slotRepository;
+        this.archivePolicy = archivePolicy;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.pause = pause;
+        this.archived = meterRegistry.counter("think.archive.slots");
+    }
+
+    @Scheduled(cron = "${app.archive.cron:0 0 3 * * *}")
+    public void archive() {
+        LocalDateTime cutoff = archivePolicy.cutoff(LocalDate.now(clock));
+        int total = 0;
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            Integer moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            total += moved != null ? moved : 0;
+            if (moved == null || moved < batchSize) {
+                break;
+            }
+            if (!pause.isZero()) {
+                try {
+                    Thread.sleep(pause.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        log.info("Archived {} slots starting before {}", total, cutoff);
+    }
+
+    int archiveBatch(LocalDateTime cutoff) {
+        List<UUID> ids = slotRepository.findArchivableIds(cutoff, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        slotRepository.copyToArchive(ids, LocalDateTime.now(clock));
+        slotRepository.deleteByIds(ids);
+        archived.increment(ids.size());
+        return ids.size();
+    }
+}
@@ -0,0 +1,244 @@
+package com.think.service;
+
+import com.think.dto.SlotChangeMessage;
+import com.think.event.SlotChangeEvent;
+import com.think.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+
+/**
+ * Pushes committed slot changes to Server-Sent Event subscribers, either per provider or per
+ * specialization (optionally one date). The committing thread only appends to each matching
+ * subscriber's bounded buffer; writes to the connection happen on a small dedicated pool, one
+ * drain at a time per subscriber, so clients that read slowly never hold threads other work needs. A full buffer drops its oldest message and the subscriber is sent an
+ * {@code overflow} event with the number dropped, so a slow client knows to refetch.
+ */
+@Component
+@Slf4j
+public class SlotChangeStream {
+
+    static final String SLOT_EVENT = "slot";
+    static final String OVERFLOW_EVENT = "overflow";
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger reserved = new AtomicInteger();
+    private final Executor executor;
+    private final Duration timeout;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final Duration retryAfter;
+    private final Counter sent;
+    private final Counter dropped;
+
+    @Autowired
+    public SlotChangeStream(MeterRegistry meterRegistry,
+                            @Value("${app.sse.writer-threads:4}") int writerThreads,
+                            @Value("${app.sse.timeout:30m}") Duration timeout,
+                            @Value("${app.sse.buffer-size:64}") int bufferSize,
+                            @Value("${app.sse.max-subscribers:2000}") int maxSubscribers,
+                            @Value("${app.query.retry-after:2s}") Duration retryAfter) {
+        this(meterRegistry, writerExecutor(writerThreads, maxSubscribers), timeout, bufferSize, maxSubscribers, retryAfter);
+    }
+
+    SlotChangeStream(MeterRegistry meterRegistry, Executor executor, Duration timeout, int bufferSize,
+                     int maxSubscribers, Duration retryAfter) {
+        this.executor = executor;
+        this.timeout = timeout;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.retryAfter = retryAfter;
+        this.sent = meterRegistry.counter("think.sse.events", "outcome", "sent");
+        this.dropped = meterRegistry.counter("think.sse.events", "outcome", "dropped");
+        meterRegistry.gauge("think.sse.subscribers", subscribers, Set::size);
+    }
+
+    // Each subscriber has at most one drain queued, so the queue never needs more room than that
+    private static ThreadPoolTaskExecutor writerExecutor(int threads, int maxSubscribers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(maxSubscribers);
+        executor.setThreadNamePrefix("sse-writer-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        }
+    }
+
+    public SseEmitter subscribeProvider(UUID providerId) {
+        return subscribe(new SseEmitter(timeout.toMillis()), providerFilter(providerId));
+    }
+
+    public SseEmitter subscribeSpecialization(String specialization, LocalDate date) {
+        return subscribe(new SseEmitter(timeout.toMillis()), specializationFilter(specialization, date));
+    }
+
+    static BiPredicate<SlotChangeEvent, SlotChangeEvent.Slot> providerFilter(UUID providerId) {
+        return (event, slot) -> providerId.equals(event.getProviderId());
+    }
+
+    static BiPredicate<SlotChangeEvent, SlotChangeEvent.Slot> specializationFilter(String specialization, LocalDate date) {
+        return (event, slot) -> (specialization == null || specialization.equals(event.getSpecialization()))
+                && (date == null || date.equals(slot.getStartTime().toLocalDate()));
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, BiPredicate<SlotChangeEvent, SlotChangeEvent.Slot> filter) {
+        if (reserved.incrementAndGet() > maxSubscribers) {
+            reserved.decrementAndGet();
+            throw new ServiceOverloadedException("Too many open availability streams, please retry shortly", retryAfter, null);
+        }
+        Subscriber subscriber = new Subscriber(emitter, filter);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> {
+            // A timeout is the normal end of a stream; clients reconnect
+            unsubscribe(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(e -> unsubscribe(subscriber));
+        return emitter;
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            reserved.decrementAndGet();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onSlotChange(SlotChangeEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            for (SlotChangeEvent.Slot slot : event.getSlots()) {
+                if (subscriber.filter.test(event, slot)) {
+                    subscriber.offer(SlotChangeMessage.of(event, slot));
+                }
+            }
+        }
+    }
+
+    // Keeps idle connections open through proxies and finds clients that went away
+    @Scheduled(fixedDelayString = "${app.sse.heartbeat:PT15S}")
+    public void heartbeat() {
+        subscribers.forEach(Subscriber::heartbeat);
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BiPredicate<SlotChangeEvent, SlotChangeEvent.Slot> filter;
+        private final Deque<SlotChangeMessage> buffer = new ArrayDeque<>();
+        private long droppedSinceLastSend;
+        private boolean heartbeatDue;
+        private boolean draining;
+
+        Subscriber(SseEmitter emitter, BiPredicate<SlotChangeEvent, SlotChangeEvent.Slot> filter) {
+            this.emitter = emitter;
+            this.filter = filter;
+        }
+
+        void offer(SlotChangeMessage message) {
+            synchronized (this) {
+                if (buffer.size() == bufferSize) {
+                    buffer.pollFirst();
+                    droppedSinceLastSend++;
+                    dropped.increment();
+                }
+                buffer.addLast(message);
+            }
+            scheduleDrain();
+        }
+
+        void heartbeat() {
+            synchronized (this) {
+                heartbeatDue = true;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            synchronized (this) {
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            try {
+                executor.execute(this::drain);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    draining = false;
+                }
+                log.warn("Could not schedule availability stream write: {}", e.getMessage());
+            }
+        }
+
+        private void drain() {
+            try {
+                while (true) {
+                    SlotChangeMessage message;
+                    long overflow;
+                    boolean ping;
+                    synchronized (this) {
+                        message = buffer.pollFirst();
+                        overflow = droppedSinceLastSend;
+                        ping = heartbeatDue && message == null && overflow == 0;
+                        droppedSinceLastSend = 0;
+                        heartbeatDue = false;
+                        if (message == null && overflow == 0 && !ping) {
+                            draining = false;
+                            return;
+                        }
+                    }
+                    if (overflow > 0) {
+                        emitter.send(SseEmitter.event().name(OVERFLOW_EVENT).data(Map.of("dropped", overflow)));
+                    }
+                    if (message != null) {
+                        emitter.send(SseEmitter.event().name(SLOT_EVENT).data(message));
+                        sent.increment();
+                    }
+                    if (ping) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client disconnected or the emitter already completed
+                unsubscribe(this);
+                emitter.completeWithError(e);
+                log.debug("Closed availability stream: {}", e.getMessage());
+            }
+        }
+    }
+}
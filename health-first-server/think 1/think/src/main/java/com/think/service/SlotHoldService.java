@@ -0,0 +1,114 @@
+package com.think.service;
+
+import com.think.dto.HoldSlotRequest;
+import com.think.dto.SlotHoldResponse;
+import com.think.entity.AppointmentSlot;
+import com.think.event.SlotChangeEvent;
+import com.think.repository.AppointmentSlotRepository;
+import com.think.repository.PatientRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Short-lived holds that reserve a slot while the patient finishes checkout. A hold is granted
+ * by one conditional UPDATE, so two patients racing for the same slot cannot both win; booking
+ * goes through the same statement and honours holds of other patients until they expire.
+ * Expired holds are returned to AVAILABLE by {@link SlotHoldSweeper}.
+ */
+@Service
+@Slf4j
+@Transactional
+public class SlotHoldService {
+
+    private final AppointmentSlotRepository slotRepository;
+    private final PatientRepository patientRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+    private final Duration ttl;
+    private final Counter granted;
+    private final Counter rejected;
+
+    @Autowired
+    public SlotHoldService(AppointmentSlotRepository slotRepository,
+                           PatientRepository patientRepository,
+                           ApplicationEventPublisher eventPublisher,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.hold.ttl:10m}") Duration ttl) {
+        this(slotRepository, patientRepository, eventPublisher, meterRegistry, Clock.systemDefaultZone(), ttl);
+    }
+
+    SlotHoldService(AppointmentSlotRepository slotRepository, PatientRepository patientRepository,
+                    ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry, Clock clock, Duration ttl) {
+        this.slotRepository = slotRepository;
+        this.patientRepository = patientRepository;
+        this.eventPublisher = eventPublisher;
+        this.clock = clock;
+        this.ttl = ttl;
+        this.granted = meterRegistry.counter("think.slot.holds", "outcome", "granted");
+        this.rejected = meterRegistry.counter("think.slot.holds", "outcome", "rejected");
+    }
+
+    public SlotHoldResponse holdSlot(HoldSlotRequest request) {
+        log.info("Holding slot for patient: {}, provider: {}, date: {}, time: {}",
+                request.getPatientId(), request.getProviderId(), request.getAppointmentDate(), request.getAppointmentTime());
+
+        if (!patientRepository.existsById(request.getPatientId())) {
+            throw new IllegalArgumentException("Patient not found with ID: " + request.getPatientId());
+        }
+        UUID providerId;
+        try {
+            providerId = UUID.fromString(request.getProviderId());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid provider ID format: " + request.getProviderId());
+        }
+
+        LocalDateTime startTime = LocalDateTime.of(request.getAppointmentDate(), request.getAppointmentTime());
+        LocalDateTime now = LocalDateTime.now(clock);
+        if (startTime.isBefore(now)) {
+            throw new IllegalArgumentException("Appointment cannot be scheduled in the past");
+        }
+
+        // Holding again before expiry extends the patient's own hold
+        if (slotRepository.acquireHold(providerId, startTime, request.getPatientId(), now.plus(ttl), now) == 0) {
+            rejected.increment();
+            throw new IllegalArgumentException("This time slot is not available");
+        }
+        AppointmentSlot slot = slotRepository.findHeldSlot(providerId, startTime, request.getPatientId())
+                .orElseThrow(() -> new IllegalArgumentException("This time slot is not available"));
+        granted.increment();
+        eventPublisher.publishEvent(SlotChangeEvent.of(SlotChangeEvent.Type.HELD, slot));
+
+        log.info("Slot {} held until {}", slot.getId(), slot.getHeldUntil());
+        return SlotHoldResponse.builder()
+                .slotId(slot.getId().toString())
+                .providerId(providerId.toString())
+                .patientId(slot.getHeldBy())
+                .slotStartTime(slot.getSlotStartTime())
+                .slotEndTime(slot.getSlotEndTime())
+                .status(slot.getStatus().name())
+                .heldUntil(slot.getHeldUntil())
+                .build();
+    }
+
+    public void releaseHold(UUID slotId, String patientId) {
+        log.info("Releasing hold on slot {} for patient {}", slotId, patientId);
+
+        if (slotRepository.releaseHold(slotId, patientId, LocalDateTime.now(clock)) == 0) {
+            throw new IllegalArgumentException("No active hold on slot " + slotId + " for patient " + patientId);
+        }
+        List<AppointmentSlot> released = slotRepository.findWithProviderByIdIn(List.of(slotId));
+        eventPublisher.publishEvent(SlotChangeEvent.of(SlotChangeEvent.Type.RELEASED, released));
+    }
+}
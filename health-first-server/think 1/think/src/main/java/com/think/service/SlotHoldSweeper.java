@@ -0,0 +1,95 @@
+package com.think.service;
+
+import com.think.entity.AppointmentSlot;
+import com.think.event.SlotChangeEvent;
+import com.think.repository.AppointmentSlotRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Returns expired holds to AVAILABLE, oldest expiry first, one batch per transaction. Candidates
+ * come from a range scan of the held_until index. The index also has the NULL entries of every
+ * slot that is not held, but the {@code held_until < now} range never reaches them. The release
+ * re-checks the expiry, so a hold that was booked or renewed in the meantime is left alone.
+ */
+@Component
+@ConditionalOnProperty(name = "app.hold.sweeper.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class SlotHoldSweeper {
+
+    private final AppointmentSlotRepository slotRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Counter expired;
+
+    @Autowired
+    public SlotHoldSweeper(AppointmentSlotRepository slotRepository,
+                           ApplicationEventPublisher eventPublisher,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.hold.sweep-batch-size:500}") int batchSize,
+                           @Value("${app.hold.max-batches-per-run:20}") int maxBatchesPerRun) {
+        this(slotRepository, eventPublisher, new TransactionTemplate(transactionManager), meterRegistry,
+                Clock.systemDefaultZone(), batchSize, maxBatchesPerRun);
+    }
+
+    SlotHoldSweeper(AppointmentSlotRepository slotRepository, ApplicationEventPublisher eventPublisher,
+                    TransactionTemplate transactionTemplate, MeterRegistry meterRegistry, Clock clock,
+                    int batchSize, int maxBatchesPerRun) {
+        this.slotRepository = slotRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.expired = meterRegistry.counter("think.slot.holds", "outcome", "expired");
+    }
+
+    @Scheduled(fixedDelayString = "${app.hold.sweep-interval:PT30S}")
+    public void sweep() {
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            Integer candidates = transactionTemplate.execute(status -> sweepBatch());
+            if (candidates == null || candidates < batchSize) {
+                break;
+            }
+        }
+    }
+
+    int sweepBatch() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<UUID> ids = slotRepository.findExpiredHoldIds(now, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int released = slotRepository.releaseExpiredHolds(ids, now);
+        if (released > 0) {
+            Map<UUID, List<AppointmentSlot>> byProvider = slotRepository.findWithProviderByIdIn(ids).stream()
+                    .filter(slot -> slot.getStatus() == AppointmentSlot.SlotStatus.AVAILABLE)
+                    .collect(Collectors.groupingBy(slot -> slot.getProvider().getId()));
+            byProvider.values().forEach(slots -> eventPublisher.publishEvent(SlotChangeEvent.of(SlotChangeEvent.Type.RELEASED, slots)));
+            expired.increment(released);
+            log.info("Released {} expired slot holds", released);
+        }
+        return ids.size();
+    }
+}
@@ -0,0 +1,24 @@
+package com.think.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * How far ahead recurring availability is materialized as slots. Later occurrences exist only as
+ * the series row until {@link SlotHorizonRoller} reaches them.
+ */
+@Component
+public class SlotHorizon {
+
+    private final int days;
+
+    public SlotHorizon(@Value("${app.horizon.days:90}") int days) {
+        this.days = days;
+    }
+
+    public LocalDate through(LocalDate today) {
+        return today.plusDays(days);
+    }
+}
@@ -0,0 +1,136 @@
+package com.think.service;
+
+import com.think.entity.AppointmentSlot;
+import com.think.entity.ProviderAvailability;
+import com.think.event.SlotChangeEvent;
+import com.think.repository.AppointmentSlotRepository;
+import com.think.repository.ProviderAvailabilityRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Extends recurring availability series whose slots stop short of the horizon, one provider per
+ * transaction. Each series records the last date it has slots for in the same transaction as the
+ * new slots, so running again skips finished work and a run that stops midway picks up with the
+ * providers it had not reached. Past occurrences a series missed are not back-filled.
+ */
+@Component
+@ConditionalOnProperty(name = "app.horizon.roller.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class SlotHorizonRoller {
+
+    private static final UUID FIRST = new UUID(0, 0);
+
+    private final ProviderAvailabilityRepository availabilityRepository;
+    private final AppointmentSlotRepository slotRepository;
+    private final ProviderAvailabilityService availabilityService;
+    private final SlotHorizon slotHorizon;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final int providerBatchSize;
+    private final Counter slotsCreated;
+    private final Counter seriesExtended;
+    private final Counter providersRolled;
+    private final Counter providersFailed;
+    private final AtomicLong providersPending = new AtomicLong();
+    private final AtomicLong lastCompleted = new AtomicLong();
+
+    @Autowired
+    public SlotHorizonRoller(ProviderAvailabilityRepository availabilityRepository,
+                             AppointmentSlotRepository slotRepository,
+                             ProviderAvailabilityService availabilityService,
+                             SlotHorizon slotHorizon,
+                             ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.horizon.provider-batch-size:100}") int providerBatchSize) {
+        this(availabilityRepository, slotRepository, availabilityService, slotHorizon, eventPublisher,
+                new TransactionTemplate(transactionManager), meterRegistry, Clock.systemDefaultZone(), providerBatchSize);
+    }
+
+    SlotHorizonRoller(ProviderAvailabilityRepository availabilityRepository, AppointmentSlotRepository slotRepository,
+                      ProviderAvailabilityService availabilityService, SlotHorizon slotHorizon,
+                      ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate,
+                      MeterRegistry meterRegistry, Clock clock, int providerBatchSize) {
+        this.availabilityRepository = availabilityRepository;
+        this.slotRepository = slotRepository;
+        this.availabilityService = availabilityService;
+        this.slotHorizon = slotHorizon;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.providerBatchSize = providerBatchSize;
+        this.slotsCreated = meterRegistry.counter("think.horizon.slots.created");
+        this.seriesExtended = meterRegistry.counter("think.horizon.series.extended");
+        this.providersRolled = meterRegistry.counter("think.horizon.providers", "outcome", "rolled");
+        this.providersFailed = meterRegistry.counter("think.horizon.providers", "outcome", "failed");
+        meterRegistry.gauge("think.horizon.providers.pending", providersPending);
+        meterRegistry.gauge("think.horizon.last.completed.seconds", lastCompleted);
+    }
+
+    @Scheduled(cron = "${app.horizon.cron:0 30 2 * * *}")
+    public void roll() {
+        LocalDate today = LocalDate.now(clock);
+        LocalDate through = slotHorizon.through(today);
+        transactionTemplate.executeWithoutResult(status -> availabilityRepository.initializeSlotWatermarks());
+        providersPending.set(availabilityRepository.countProvidersBehindHorizon(through));
+        log.info("Rolling slot horizon through {} for {} providers", through, providersPending.get());
+
+        UUID after = FIRST;
+        List<UUID> providers;
+        do {
+            providers = availabilityRepository.findProvidersBehindHorizon(through, after, PageRequest.of(0, providerBatchSize));
+            for (UUID providerId : providers) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> rollProvider(providerId, today, through));
+                    providersRolled.increment();
+                } catch (RuntimeException e) {
+                    // Left behind the horizon, so the next run retries it
+                    providersFailed.increment();
+                    log.warn("Could not extend slots for provider {}: {}", providerId, e.getMessage());
+                }
+                providersPending.decrementAndGet();
+            }
+            if (!providers.isEmpty()) {
+                after = providers.get(providers.size() - 1);
+            }
+        } while (providers.size() == providerBatchSize);
+
+        lastCompleted.set(Instant.now(clock).getEpochSecond());
+    }
+
+    void rollProvider(UUID providerId, LocalDate today, LocalDate through) {
+        List<ProviderAvailability> series = availabilityRepository.findSeriesBehindHorizon(providerId, through);
+        List<AppointmentSlot> created = new ArrayList<>();
+        for (ProviderAvailability availability : series) {
+            LocalDate next = availability.getSlotsGeneratedThrough().plusDays(1);
+            created.addAll(availabilityService.generateAppointmentSlots(availability, next.isBefore(today) ? today : next, through));
+            availability.setSlotsGeneratedThrough(through);
+        }
+        slotRepository.saveAll(created);
+        if (!created.isEmpty()) {
+            eventPublisher.publishEvent(SlotChangeEvent.of(SlotChangeEvent.Type.CREATED, created));
+        }
+        seriesExtended.increment(series.size());
+        slotsCreated.increment(created.size());
+    }
+}
@@ -0,0 +1,51 @@
+package com.think.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Continuation point for keyset pagination over {@code (slotStartTime, id)}. Clients only see the
+ * opaque {@link #encode} form; the sort direction is baked in so a token cannot be replayed
+ * against the opposite ordering.
+ */
+@Data
+@AllArgsConstructor
+public class AppointmentCursor {
+
+    private static final String VERSION = "1";
+
+    private LocalDateTime slotStartTime;
+    private UUID id;
+
+    public String encode(Sort.Direction direction) {
+        String raw = VERSION + "|" + direction.name() + "|" + slotStartTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static AppointmentCursor decode(String token, Sort.Direction direction) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", 4);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (parts.length != 4 || !VERSION.equals(parts[0]) || parts[3].isEmpty()) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (!direction.name().equals(parts[1])) {
+            throw new IllegalArgumentException("Cursor was issued for a different sort direction");
+        }
+        try {
+            return new AppointmentCursor(LocalDateTime.parse(parts[2]), UUID.fromString(parts[3]));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.think.util;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Issues booking references such as {@code APT-0D2FJ6WQ40C3RX}: a 64-bit time-ordered id
+ * (42 bits of milliseconds since 2024-01-01, 10-bit node, 12-bit sequence) in Crockford base32,
+ * followed by a Luhn mod-32 check character.
+ *
+ * <p>Ids are unique per node without coordination: a CAS on the last issued value replaces
+ * {@code SecureRandom} on the hot path, and a full millisecond of sequence rolls into the next
+ * millisecond instead of blocking. Set {@code app.booking-reference.node-id} (0-1023) per
+ * instance when running more than one; otherwise a random node id is picked at startup.
+ */
+@Component
+public class BookingReferenceGenerator {
+
+    public static final String PREFIX = "APT-";
+
+    static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int BODY_LENGTH = 13;
+    private static final Pattern LEGACY_FORMAT = Pattern.compile("APT-[0-9A-F]{8}");
+
+    private final Clock clock;
+    private final long nodeId;
+    // Last issued (elapsed millis << SEQUENCE_BITS | sequence)
+    private final AtomicLong lastTick = new AtomicLong();
+
+    @Autowired
+    public BookingReferenceGenerator(@Value("${app.booking-reference.node-id:-1}") int nodeId) {
+        this(Clock.systemUTC(), nodeId >= 0 ? nodeId : new SecureRandom().nextInt(1 << NODE_BITS));
+    }
+
+    BookingReferenceGenerator(Clock clock, int nodeId) {
+        if (nodeId < 0 || nodeId >= (1 << NODE_BITS)) {
+            throw new IllegalArgumentException("Booking reference node id must be between 0 and 1023");
+        }
+        this.clock = clock;
+        this.nodeId = nodeId;
+    }
+
+    public String next() {
+        return format(nextId());
+    }
+
+    long nextId() {
+        long now = clock.millis() - EPOCH_MILLIS;
+        long tick = lastTick.updateAndGet(last -> (last >>> SEQUENCE_BITS) < now ? now << SEQUENCE_BITS : last + 1);
+        long millis = tick >>> SEQUENCE_BITS;
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | (tick & SEQUENCE_MASK);
+    }
+
+    static String format(long id) {
+        char[] out = new char[PREFIX.length() + BODY_LENGTH + 1];
+        PREFIX.getChars(0, PREFIX.length(), out, 0);
+        for (int i = BODY_LENGTH - 1; i >= 0; i--) {
+            out[PREFIX.length() + i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        out[out.length - 1] = ALPHABET[checkValue(out, PREFIX.length(), BODY_LENGTH)];
+        return new String(out);
+    }
+
+    /**
+     * Canonical form of a reference as typed by a user. Crockford base32 is case-insensitive and
+     * reads {@code I}/{@code L} as {@code 1} and {@code O} as {@code 0}, so those are mapped before
+     * the checksum is verified or the reference is looked up.
+     */
+    public static String normalize(String reference) {
+        if (reference == null) {
+            return null;
+        }
+        String upper = reference.trim().toUpperCase(Locale.ROOT);
+        if (!upper.startsWith(PREFIX)) {
+            return upper;
+        }
+        char[] chars = upper.toCharArray();
+        for (int i = PREFIX.length(); i < chars.length; i++) {
+            switch (chars[i]) {
+                case 'I', 'L' -> chars[i] = '1';
+                case 'O' -> chars[i] = '0';
+                default -> { }
+            }
+        }
+        return new String(chars);
+    }
+
+    /**
+     * False when {@code reference} cannot belong to any appointment (wrong shape or failed
+     * checksum), so lookups can reject typos without a database round trip. References issued
+     * before this format ({@code APT-} plus eight hex digits) are still accepted. The check is
+     * made on the {@link #normalize normalized} reference.
+     */
+    public boolean mayExist(String reference) {
+        if (reference == null) {
+            return false;
+        }
+        reference = normalize(reference);
+        if (LEGACY_FORMAT.matcher(reference).matches()) {
+            return true;
+        }
+        if (reference.length() != PREFIX.length() + BODY_LENGTH + 1 || !reference.startsWith(PREFIX)) {
+            return false;
+        }
+        char[] chars = reference.toCharArray();
+        for (int i = PREFIX.length(); i < chars.length; i++) {
+            if (indexOf(chars[i]) < 0) {
+                return false;
+            }
+        }
+        return indexOf(chars[chars.length - 1]) == checkValue(chars, PREFIX.length(), BODY_LENGTH);
+    }
+
+    // Luhn mod 32: catches any single wrong character and most adjacent swaps
+    private static int checkValue(char[] chars, int offset, int length) {
+        int factor = 2;
+        int sum = 0;
+        for (int i = offset + length - 1; i >= offset; i--) {
+            int addend = factor * indexOf(chars[i]);
+            factor = factor == 2 ? 1 : 2;
+            sum += addend / 32 + addend % 32;
+        }
+        return (32 - sum % 32) % 32;
+    }
+
+    private static int indexOf(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        for (int i = 10; i < ALPHABET.length; i++) {
+            if (ALPHABET[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,98 @@
+package com.think.util;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * One bit per 5-minute tick of a day, 288 bits stored in 36 bytes. Times are mapped to ticks
+ * outward, so a range that does not start or end on a tick still covers every tick it touches.
+ */
+public final class DayBitmap {
+
+    public static final int TICK_MINUTES = 5;
+    public static final int TICKS = 24 * 60 / TICK_MINUTES;
+    public static final int BYTES = TICKS / 8;
+
+    private final BitSet bits;
+
+    private DayBitmap(BitSet bits) {
+        this.bits = bits;
+    }
+
+    public static DayBitmap empty() {
+        return new DayBitmap(new BitSet(TICKS));
+    }
+
+    public static DayBitmap of(byte[] bytes) {
+        return new DayBitmap(bytes != null ? BitSet.valueOf(bytes) : new BitSet(TICKS));
+    }
+
+    public byte[] toBytes() {
+        // BitSet drops trailing zero bytes; the column always holds the full day
+        return Arrays.copyOf(bits.toByteArray(), BYTES);
+    }
+
+    public void set(int fromTick, int toTick) {
+        bits.set(fromTick, toTick);
+    }
+
+    public void clear(int fromTick, int toTick) {
+        bits.clear(fromTick, toTick);
+    }
+
+    public boolean get(int tick) {
+        return bits.get(tick);
+    }
+
+    /**
+     * First set tick at or after {@code fromTick}, or -1.
+     */
+    public int next(int fromTick) {
+        return fromTick >= TICKS ? -1 : bits.nextSetBit(fromTick);
+    }
+
+    public boolean isEmpty() {
+        return bits.isEmpty();
+    }
+
+    /**
+     * Maximal runs of set ticks, in order.
+     */
+    public List<Run> runs() {
+        List<Run> runs = new ArrayList<>();
+        for (int from = bits.nextSetBit(0); from >= 0; from = bits.nextSetBit(from)) {
+            int to = bits.nextClearBit(from);
+            runs.add(new Run(from, to));
+            from = to;
+        }
+        return runs;
+    }
+
+    public static int tickAtOrBefore(LocalTime time) {
+        return time.toSecondOfDay() / (TICK_MINUTES * 60);
+    }
+
+    public static int tickAtOrAfter(LocalTime time) {
+        int seconds = time.toSecondOfDay() + (time.getNano() > 0 ? 1 : 0);
+        return (seconds + TICK_MINUTES * 60 - 1) / (TICK_MINUTES * 60);
+    }
+
+    /**
+     * Tick range {@code [from, to)} covering {@code [start, end)} of one day; an end of midnight
+     * means the end of the day.
+     */
+    public static Run range(LocalTime start, LocalTime end) {
+        int to = end.equals(LocalTime.MIDNIGHT) ? TICKS : tickAtOrAfter(end);
+        return new Run(tickAtOrBefore(start), Math.max(to, tickAtOrBefore(start) + 1));
+    }
+
+    public static int minuteOf(int tick) {
+        return tick * TICK_MINUTES;
+    }
+
+    public record Run(int from, int to) {
+    }
+}
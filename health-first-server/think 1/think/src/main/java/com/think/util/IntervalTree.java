@@ -0,0 +1,85 @@
+package com.think.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Static interval tree over half-open {@code [start, end)} intervals. The intervals are sorted by
+ * start once and the sorted array is used as an implicit balanced tree, each node carrying the
+ * largest end in its subtree. Building is O(n log n) and finding an overlapping interval is
+ * O(log n) per query.
+ */
+public final class IntervalTree<T> {
+
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnds;
+    private final List<T> values;
+
+    private IntervalTree(List<Interval<T>> sorted) {
+        int n = sorted.size();
+        this.starts = new long[n];
+        this.ends = new long[n];
+        this.maxEnds = new long[n];
+        this.values = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Interval<T> interval = sorted.get(i);
+            starts[i] = interval.start();
+            ends[i] = interval.end();
+            values.add(interval.value());
+        }
+        fillMaxEnds(0, n);
+    }
+
+    public static <T> IntervalTree<T> of(List<Interval<T>> intervals) {
+        List<Interval<T>> sorted = new ArrayList<>(intervals);
+        sorted.sort(Comparator.comparingLong(Interval::start));
+        return new IntervalTree<>(sorted);
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public Optional<T> findOverlap(long start, long end) {
+        int index = findOverlap(0, values.size(), start, end);
+        return index < 0 ? Optional.empty() : Optional.of(values.get(index));
+    }
+
+    private long fillMaxEnds(int lo, int hi) {
+        if (lo >= hi) {
+            return Long.MIN_VALUE;
+        }
+        int mid = (lo + hi) >>> 1;
+        maxEnds[mid] = Math.max(ends[mid], Math.max(fillMaxEnds(lo, mid), fillMaxEnds(mid + 1, hi)));
+        return maxEnds[mid];
+    }
+
+    private int findOverlap(int lo, int hi, long start, long end) {
+        if (lo >= hi) {
+            return -1;
+        }
+        int mid = (lo + hi) >>> 1;
+        // Nothing in this subtree ends after the query starts
+        if (maxEnds[mid] <= start) {
+            return -1;
+        }
+        int left = findOverlap(lo, mid, start, end);
+        if (left >= 0) {
+            return left;
+        }
+        // Everything from here rightwards starts at or after the query ends
+        if (starts[mid] >= end) {
+            return -1;
+        }
+        if (ends[mid] > start) {
+            return mid;
+        }
+        return findOverlap(mid + 1, hi, start, end);
+    }
+
+    public record Interval<T>(long start, long end, T value) {
+    }
+}
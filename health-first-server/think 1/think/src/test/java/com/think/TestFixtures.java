@@ -0,0 +1,87 @@
+package com.think;
+
+import com.think.entity.AppointmentSlot;
+import com.think.entity.AvailabilityLocation;
+import com.think.entity.AvailabilityPricing;
+import com.think.entity.ClinicAddress;
+import com.think.entity.Patient;
+import com.think.entity.PatientAddress;
+import com.think.entity.Provider;
+import com.think.entity.ProviderAvailability;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Valid, unsaved entities for repository and service tests. Providers and patients built with
+ * different indexes never collide on their unique columns.
+ */
+public final class TestFixtures {
+
+    public static final String SPECIALIZATION = "Cardiology";
+
+    private TestFixtures() {
+    }
+
+    public static Provider provider(int index) {
+        Provider provider = new Provider();
+        provider.setFirstName("Provider");
+        provider.setLastName("Number" + index);
+        provider.setEmail("provider" + index + "@example.com");
+        provider.setPhoneNumber(String.format("+1555%07d", index));
+        provider.setPasswordHash("hash");
+        provider.setSpecialization(SPECIALIZATION);
+        provider.setLicenseNumber(String.format("LIC%03d", index));
+        provider.setYearsOfExperience(5);
+        provider.setClinicAddress(new ClinicAddress("10 Clinic Rd", "Springfield", "IL", "62702"));
+        return provider;
+    }
+
+    public static Patient patient(int index) {
+        Patient patient = new Patient();
+        patient.setFirstName("Patient");
+        patient.setLastName("Number" + index);
+        patient.setEmail("patient" + index + "@example.com");
+        patient.setPhoneNumber(String.format("+1666%07d", index));
+        patient.setPasswordHash("hash");
+        patient.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        patient.setGender(Patient.Gender.FEMALE);
+        patient.setAddress(new PatientAddress("1 Main St", "Springfield", "IL", "62701"));
+        return patient;
+    }
+
+    // One-off clinic availability from 09:00 to 17:00
+    public static ProviderAvailability availability(Provider provider, LocalDate date) {
+        return availability(provider, date, LocalTime.of(9, 0), LocalTime.of(17, 0));
+    }
+
+    public static ProviderAvailability availability(Provider provider, LocalDate date, LocalTime start, LocalTime end) {
+        ProviderAvailability availability = new ProviderAvailability();
+        availability.setProvider(provider);
+        availability.setDate(date);
+        availability.setStartTime(start);
+        availability.setEndTime(end);
+        availability.setTimezone("UTC");
+        availability.setIsRecurring(false);
+        availability.setLocation(new AvailabilityLocation(ProviderAvailability.LocationType.CLINIC, "10 Clinic Rd", null));
+        availability.setPricing(new AvailabilityPricing(BigDecimal.valueOf(120), true, "USD"));
+        return availability;
+    }
+
+    // 30-minute AVAILABLE slot of the availability's provider
+    public static AppointmentSlot slot(ProviderAvailability availability, LocalDateTime start) {
+        return slot(availability, start, AppointmentSlot.SlotStatus.AVAILABLE);
+    }
+
+    public static AppointmentSlot slot(ProviderAvailability availability, LocalDateTime start, AppointmentSlot.SlotStatus status) {
+        return AppointmentSlot.builder()
+                .availability(availability)
+                .provider(availability.getProvider())
+                .slotStartTime(start)
+                .slotEndTime(start.plusMinutes(30))
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,57 @@
+package com.think.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnumCheckMigrationTest {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:enum_check_migration_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void migrate_CheckWithoutNewValue_IsReplaced() throws Exception {
+        createLegacySchema();
+
+        var migrated = new EnumCheckMigration(dataSource).migrate();
+
+        assertEquals(EnumCheckMigration.COLUMNS, migrated);
+        jdbc.update("INSERT INTO appointment_slots (id, status, appointment_type) VALUES (RANDOM_UUID(), 'HELD', 'CONSULTATION')");
+        assertThrows(DataIntegrityViolationException.class,
+                () -> jdbc.update("INSERT INTO appointment_slots (id, status, appointment_type) VALUES (RANDOM_UUID(), 'GONE', 'CONSULTATION')"));
+        assertThrows(DataIntegrityViolationException.class,
+                () -> jdbc.update("INSERT INTO appointment_slots (id, status, appointment_type) VALUES (RANDOM_UUID(), 'HELD', 'UNKNOWN')"));
+    }
+
+    @Test
+    void migrate_SecondRun_DoesNothing() throws Exception {
+        createLegacySchema();
+        EnumCheckMigration migration = new EnumCheckMigration(dataSource);
+        migration.migrate();
+
+        assertTrue(migration.migrate().isEmpty());
+    }
+
+    @Test
+    void migrate_EmptyDatabase_DoesNothing() throws Exception {
+        assertTrue(new EnumCheckMigration(dataSource).migrate().isEmpty());
+    }
+
+    private void createLegacySchema() {
+        jdbc.execute("CREATE TABLE appointment_slots (id UUID PRIMARY KEY, "
+                + "status VARCHAR(255) CHECK (status IN ('AVAILABLE', 'BOOKED', 'CANCELLED', 'BLOCKED')), "
+                + "appointment_type VARCHAR(255) CHECK (appointment_type IN ('CONSULTATION', 'FOLLOW_UP')))");
+    }
+}
@@ -0,0 +1,203 @@
+package com.think.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadOnlyRoutingDataSourceTest {
+
+    private MutableClock clock;
+    private DataSource primary;
+    private DataSource replica;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2024-01-15T10:00:00Z"));
+        primary = h2Instance("primary");
+        replica = h2Instance("replica");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransaction_UsesReplica() {
+        Router router = router(List.of(replica));
+
+        assertEquals("replica", router.read());
+    }
+
+    @Test
+    void writeTransaction_UsesPrimary() {
+        Router router = router(List.of(replica));
+
+        assertEquals("primary", router.write());
+    }
+
+    @Test
+    void nonTransactionalAccess_UsesPrimary() {
+        Router router = router(List.of(replica));
+
+        assertEquals("primary", router.jdbc.queryForObject("SELECT name FROM instance", String.class));
+    }
+
+    @Test
+    void readAfterOwnWrite_UsesPrimaryUntilWindowElapses() {
+        Router router = router(List.of(replica));
+        authenticate("patient@example.com");
+
+        router.write();
+
+        assertEquals("primary", router.read());
+        clock.advance(Duration.ofSeconds(6));
+        assertEquals("replica", router.read());
+    }
+
+    @Test
+    void readWriteTransactionWithoutChanges_DoesNotPinUserToPrimary() {
+        Router router = router(List.of(replica));
+        authenticate("patient@example.com");
+
+        assertEquals("primary", router.readInWriteTransaction());
+
+        assertEquals("replica", router.read());
+    }
+
+    @Test
+    void readAfterAnotherUsersWrite_UsesReplica() {
+        Router router = router(List.of(replica));
+        authenticate("provider@example.com");
+        router.write();
+
+        authenticate("patient@example.com");
+
+        assertEquals("replica", router.read());
+    }
+
+    @Test
+    void rolledBackWrite_DoesNotPinUserToPrimary() {
+        Router router = router(List.of(replica));
+        authenticate("patient@example.com");
+
+        router.transactions.execute(status -> {
+            router.jdbc.update("UPDATE instance SET name = name");
+            status.setRollbackOnly();
+            return null;
+        });
+
+        assertEquals("replica", router.read());
+    }
+
+    @Test
+    void multipleReplicas_AreUsedRoundRobin() {
+        DataSource secondReplica = h2Instance("replica-2");
+        Router router = router(List.of(replica, secondReplica));
+
+        assertEquals("replica", router.read());
+        assertEquals("replica-2", router.read());
+        assertEquals("replica", router.read());
+    }
+
+    @Test
+    void noReplicas_ReadOnlyUsesPrimary() {
+        Router router = router(List.of());
+
+        assertEquals("primary", router.read());
+    }
+
+    private Router router(List<DataSource> replicas) {
+        RecentWriteTracker tracker = new RecentWriteTracker(Duration.ofSeconds(5), clock);
+        ReadOnlyRoutingDataSource routing = new ReadOnlyRoutingDataSource(primary, replicas, tracker);
+        routing.afterPropertiesSet();
+        return new Router(new LazyConnectionDataSourceProxy(routing));
+    }
+
+    private void authenticate(String email) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null, List.of()));
+    }
+
+    private static DataSource h2Instance(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE instance (name VARCHAR(20))");
+        jdbc.update("INSERT INTO instance VALUES (?)", name);
+        return dataSource;
+    }
+
+    private static class Router {
+        final JdbcTemplate jdbc;
+        final TransactionTemplate transactions;
+
+        Router(DataSource dataSource) {
+            this.jdbc = new JdbcTemplate(dataSource);
+            this.transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        }
+
+        String read() {
+            transactions.setReadOnly(true);
+            return transactions.execute(status -> jdbc.queryForObject("SELECT name FROM instance", String.class));
+        }
+
+        String write() {
+            transactions.setReadOnly(false);
+            return transactions.execute(status -> {
+                jdbc.update("UPDATE instance SET name = name");
+                return jdbc.queryForObject("SELECT name FROM instance", String.class);
+            });
+        }
+
+        String readInWriteTransaction() {
+            transactions.setReadOnly(false);
+            return transactions.execute(status -> jdbc.queryForObject("SELECT name FROM instance", String.class));
+        }
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
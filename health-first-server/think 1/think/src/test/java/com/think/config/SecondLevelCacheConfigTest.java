@@ -0,0 +1,110 @@
+package com.think.config;
+
+import com.think.TestFixtures;
+import com.think.entity.Provider;
+import com.think.entity.ProviderAvailability;
+import com.think.repository.ProviderAvailabilityRepository;
+import com.think.repository.ProviderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(SecondLevelCacheConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheConfigTest {
+
+    @Autowired
+    private ProviderRepository providerRepository;
+
+    @Autowired
+    private ProviderAvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        availabilityRepository.deleteAll();
+        providerRepository.deleteAll();
+    }
+
+    @Test
+    void findById_AfterInsert_IsServedFromCache() {
+        Provider provider = providerRepository.save(TestFixtures.provider(1));
+        statistics.clear();
+
+        providerRepository.findById(provider.getId()).orElseThrow();
+        Provider found = providerRepository.findById(provider.getId()).orElseThrow();
+
+        assertEquals("Springfield", found.getClinicAddress().getCity());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getDomainDataRegionStatistics(Provider.class.getName()).getHitCount());
+    }
+
+    @Test
+    void update_ReplacesCachedEntry() {
+        Provider provider = providerRepository.save(TestFixtures.provider(2));
+        provider.setYearsOfExperience(12);
+        provider.getClinicAddress().setCity("Shelbyville");
+        providerRepository.save(provider);
+        statistics.clear();
+
+        Provider found = providerRepository.findById(provider.getId()).orElseThrow();
+
+        assertEquals(12, found.getYearsOfExperience());
+        assertEquals("Shelbyville", found.getClinicAddress().getCity());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void availabilityWithProviderAndRequirements_SecondReadSkipsDatabase() {
+        Provider provider = providerRepository.save(TestFixtures.provider(3));
+        ProviderAvailability withRequirements = TestFixtures.availability(provider, LocalDate.of(2030, 3, 4));
+        withRequirements.setSpecialRequirements(new ArrayList<>(List.of("wheelchair")));
+        ProviderAvailability availability = availabilityRepository.save(withRequirements);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> readAvailability(availability));
+        statistics.clear();
+
+        String city = transaction.execute(status -> readAvailability(availability));
+
+        assertEquals("Springfield", city);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getSecondLevelCacheMissCount());
+    }
+
+    private String readAvailability(ProviderAvailability saved) {
+        ProviderAvailability availability = availabilityRepository.findById(saved.getId()).orElseThrow();
+        assertEquals(List.of("wheelchair"), availability.getSpecialRequirements());
+        assertEquals(0, BigDecimal.valueOf(120).compareTo(availability.getPricing().getBaseFee()));
+        return availability.getProvider().getClinicAddress().getCity();
+    }
+}
@@ -0,0 +1,73 @@
+package com.think.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidKeyMigrationTest {
+
+    private static final String AVAILABILITY_ID = "6f1c1f43-52f4-4a0e-9d52-1b8e2a4c9f10";
+    private static final String SLOT_ID = "0b7e2c6a-1d2f-4b3c-8a9e-7f6d5c4b3a21";
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:uuid_migration_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void migrate_LegacyVarcharKeys_ConvertsInPlaceAndKeepsForeignKeys() throws Exception {
+        createLegacySchema();
+
+        var migrated = new UuidKeyMigration(dataSource).migrate();
+
+        assertEquals(UuidKeyMigration.COLUMNS, migrated);
+        assertEquals("UUID", columnType("PROVIDER_AVAILABILITY", "ID"));
+        assertEquals("UUID", columnType("APPOINTMENT_SLOTS", "ID"));
+        assertEquals("UUID", columnType("APPOINTMENT_SLOTS", "AVAILABILITY_ID"));
+        assertEquals("UUID", columnType("AVAILABILITY_SPECIAL_REQUIREMENTS", "AVAILABILITY_ID"));
+        assertEquals(UUID.fromString(SLOT_ID), jdbc.queryForObject(
+                "SELECT s.id FROM appointment_slots s JOIN provider_availability a ON s.availability_id = a.id", UUID.class));
+        assertThrows(DataIntegrityViolationException.class,
+                () -> jdbc.update("INSERT INTO appointment_slots (id, availability_id) VALUES (RANDOM_UUID(), RANDOM_UUID())"));
+    }
+
+    @Test
+    void migrate_SecondRun_DoesNothing() throws Exception {
+        createLegacySchema();
+        UuidKeyMigration migration = new UuidKeyMigration(dataSource);
+        migration.migrate();
+
+        assertTrue(migration.migrate().isEmpty());
+    }
+
+    @Test
+    void migrate_EmptyDatabase_DoesNothing() throws Exception {
+        assertTrue(new UuidKeyMigration(dataSource).migrate().isEmpty());
+    }
+
+    private void createLegacySchema() {
+        jdbc.execute("CREATE TABLE provider_availability (id VARCHAR(255) PRIMARY KEY)");
+        jdbc.execute("CREATE TABLE appointment_slots (id VARCHAR(255) PRIMARY KEY, availability_id VARCHAR(255), "
+                + "CONSTRAINT fk_slot_availability FOREIGN KEY (availability_id) REFERENCES provider_availability (id))");
+        jdbc.execute("CREATE TABLE availability_special_requirements (availability_id VARCHAR(255) NOT NULL, requirement VARCHAR(255), "
+                + "CONSTRAINT fk_requirement_availability FOREIGN KEY (availability_id) REFERENCES provider_availability (id))");
+        jdbc.update("INSERT INTO provider_availability (id) VALUES (?)", AVAILABILITY_ID);
+        jdbc.update("INSERT INTO appointment_slots (id, availability_id) VALUES (?, ?)", SLOT_ID, AVAILABILITY_ID);
+        jdbc.update("INSERT INTO availability_special_requirements (availability_id, requirement) VALUES (?, 'wheelchair')", AVAILABILITY_ID);
+    }
+
+    private String columnType(String table, String column) {
+        return jdbc.queryForObject("SELECT data_type FROM information_schema.columns WHERE table_name = ? AND column_name = ?",
+                String.class, table, column);
+    }
+}
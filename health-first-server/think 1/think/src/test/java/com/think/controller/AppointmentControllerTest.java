@@ -1,26 +1,40 @@
 package com.think.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.think.dto.AppointmentListRequest;
 import com.think.dto.AppointmentListResponse;
 import com.think.dto.AppointmentResponse;
 import com.think.dto.BookAppointmentRequest;
+import com.think.dto.HoldSlotRequest;
+import com.think.dto.SlotHoldResponse;
+import com.think.exception.ServiceOverloadedException;
 import com.think.service.AppointmentService;
+import com.think.service.QueryGuard;
+import com.think.service.SlotHoldService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -32,6 +46,12 @@ class AppointmentControllerTest {
     @Mock
     private AppointmentService appointmentService;
 
+    @Mock
+    private SlotHoldService slotHoldService;
+
+    @Spy
+    private QueryGuard queryGuard = new QueryGuard(new SimpleMeterRegistry(), Duration.ofSeconds(2));
+
     @InjectMocks
     private AppointmentController appointmentController;
 
@@ -82,7 +102,7 @@ class AppointmentControllerTest {
         testListResponse.setAppointments(List.of(testResponse));
         testListResponse.setCurrentPage(0);
         testListResponse.setTotalPages(1);
-        testListResponse.setTotalElements(1);
+        testListResponse.setTotalElements(1L);
         testListResponse.setPageSize(20);
         testListResponse.setHasNext(false);
         testListResponse.setHasPrevious(false);
@@ -149,7 +169,7 @@ class AppointmentControllerTest {
         when(appointmentService.getAppointments(any())).thenReturn(testListResponse);
 
         // Act & Assert
-        mockMvc.perform(get("/api/appointments")
+        mockMvc.perform(asPatient(get("/api/appointments"), testRequest.getPatientId())
                 .param("page", "0")
                 .param("size", "20")
                 .param("sortBy", "appointmentDateTime")
@@ -173,7 +193,7 @@ class AppointmentControllerTest {
         when(appointmentService.getAppointments(any())).thenReturn(testListResponse);
 
         // Act & Assert
-        mockMvc.perform(get("/api/appointments")
+        mockMvc.perform(asPatient(get("/api/appointments"), testRequest.getPatientId())
                 .param("startDate", "2024-02-01")
                 .param("endDate", "2024-02-28")
                 .param("appointmentType", "CONSULTATION")
@@ -186,6 +206,75 @@ class AppointmentControllerTest {
         verify(appointmentService).getAppointments(any());
     }
 
+    @Test
+    void getAppointments_QueryTimeout_ReturnsServiceUnavailable() throws Exception {
+        // Arrange
+        when(appointmentService.getAppointments(any())).thenThrow(new QueryTimeoutException("statement timeout"));
+
+        // Act & Assert
+        mockMvc.perform(asPatient(get("/api/appointments"), testRequest.getPatientId()))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.error").exists());
+    }
+
+    @Test
+    void getAppointments_PatientFilteringByAnotherPatient_SeesOnlyOwnAppointments() throws Exception {
+        String otherPatientId = UUID.randomUUID().toString();
+        when(appointmentService.getAppointments(any())).thenReturn(testListResponse);
+
+        mockMvc.perform(asPatient(get("/api/appointments"), testRequest.getPatientId())
+                .param("patientId", otherPatientId))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<AppointmentListRequest> request = ArgumentCaptor.forClass(AppointmentListRequest.class);
+        verify(appointmentService).getAppointments(request.capture());
+        assertEquals(testRequest.getPatientId(), request.getValue().getPatientId());
+    }
+
+    @Test
+    void getAppointments_Provider_SeesOnlyOwnSchedule() throws Exception {
+        UUID providerId = UUID.fromString(testRequest.getProviderId());
+        when(appointmentService.getAppointments(any())).thenReturn(testListResponse);
+
+        mockMvc.perform(get("/api/appointments")
+                .requestAttr("userRole", "PROVIDER")
+                .requestAttr("providerId", providerId.toString())
+                .param("providerId", UUID.randomUUID().toString()))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<AppointmentListRequest> request = ArgumentCaptor.forClass(AppointmentListRequest.class);
+        verify(appointmentService).getAppointments(request.capture());
+        assertEquals(providerId, request.getValue().getProviderId());
+    }
+
+    @Test
+    void getAppointments_NoCallerIdentity_ReturnsForbidden() throws Exception {
+        mockMvc.perform(get("/api/appointments").param("patientId", testRequest.getPatientId()))
+                .andExpect(status().isForbidden());
+
+        verify(appointmentService, never()).getAppointments(any());
+    }
+
+    @Test
+    void getAppointments_SubSecondRetryAfter_RoundsUpToOneSecond() throws Exception {
+        when(appointmentService.getAppointments(any()))
+                .thenThrow(new ServiceOverloadedException("busy", Duration.ofMillis(300), null));
+
+        mockMvc.perform(asPatient(get("/api/appointments"), testRequest.getPatientId()))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void getAppointments_InvalidDate_ReturnsBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(asPatient(get("/api/appointments"), testRequest.getPatientId()).param("startDate", "02/01/2024"))
+                .andExpect(status().isBadRequest());
+
+        verify(appointmentService, never()).getAppointments(any());
+    }
+
     @Test
     void getAppointmentByBookingReference_Success() throws Exception {
         // Arrange
@@ -232,6 +321,54 @@ class AppointmentControllerTest {
         verify(appointmentService).cancelAppointment("APT-12345678");
     }
 
+    @Test
+    void holdSlot_Success() throws Exception {
+        // Arrange
+        LocalDateTime heldUntil = LocalDateTime.of(2030, 2, 15, 9, 40);
+        when(slotHoldService.holdSlot(any(HoldSlotRequest.class))).thenReturn(SlotHoldResponse.builder()
+                .slotId("slot-123")
+                .patientId(testRequest.getPatientId())
+                .status("HELD")
+                .heldUntil(heldUntil)
+                .build());
+        String body = "{\"patientId\":\"" + testRequest.getPatientId() + "\",\"providerId\":\"" + testRequest.getProviderId()
+                + "\",\"appointmentDate\":\"2030-02-15\",\"appointmentTime\":\"10:00\"}";
+
+        // Act & Assert
+        mockMvc.perform(post("/api/appointments/hold")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.slotId").value("slot-123"))
+                .andExpect(jsonPath("$.status").value("HELD"));
+    }
+
+    @Test
+    void holdSlot_SlotTaken_ReturnsBadRequest() throws Exception {
+        // Arrange
+        when(slotHoldService.holdSlot(any(HoldSlotRequest.class)))
+                .thenThrow(new IllegalArgumentException("This time slot is not available"));
+        String body = "{\"patientId\":\"patient-1\",\"providerId\":\"" + testRequest.getProviderId()
+                + "\",\"appointmentDate\":\"2030-02-15\",\"appointmentTime\":\"10:00\"}";
+
+        // Act & Assert
+        mockMvc.perform(post("/api/appointments/hold")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("This time slot is not available"));
+    }
+
+    @Test
+    void releaseHold_ReturnsNoContent() throws Exception {
+        UUID slotId = UUID.randomUUID();
+
+        mockMvc.perform(delete("/api/appointments/hold/" + slotId).param("patientId", "patient-1"))
+                .andExpect(status().isNoContent());
+
+        verify(slotHoldService).releaseHold(slotId, "patient-1");
+    }
+
     @Test
     void cancelAppointment_NotFound() throws Exception {
         // Arrange
@@ -259,4 +396,8 @@ class AppointmentControllerTest {
 
         verify(appointmentService).cancelAppointment("APT-12345678");
     }
+
+    private static MockHttpServletRequestBuilder asPatient(MockHttpServletRequestBuilder request, String patientId) {
+        return request.requestAttr("userRole", "PATIENT").requestAttr("patientId", patientId);
+    }
 }
@@ -0,0 +1,269 @@
+package com.think.controller;
+
+import com.think.dto.AvailabilityJobResponse;
+import com.think.dto.AvailabilityResponse;
+import com.think.dto.BulkAvailabilityResponse;
+import com.think.dto.FreeBusyResponse;
+import com.think.dto.SlotRangeUpdateResponse;
+import com.think.entity.AppointmentSlot;
+import com.think.entity.AvailabilityJob;
+import com.think.repository.AvailabilityVersion;
+import com.think.service.AvailabilityJobService;
+import com.think.service.BulkAvailabilityService;
+import com.think.service.ProviderAvailabilityService;
+import com.think.service.ProviderOccupancyService;
+import com.think.exception.ServiceOverloadedException;
+import com.think.service.QueryGuard;
+import com.think.service.SlotChangeStream;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProviderAvailabilityControllerTest {
+
+    private static final String PROVIDER_ID = UUID.randomUUID().toString();
+    private static final LocalDate START = LocalDate.of(2030, 3, 4);
+    private static final LocalDate END = LocalDate.of(2030, 3, 10);
+
+    @Mock
+    private ProviderAvailabilityService availabilityService;
+
+    @Mock
+    private SlotChangeStream slotChangeStream;
+
+    @Mock
+    private BulkAvailabilityService bulkAvailabilityService;
+
+    @Mock
+    private AvailabilityJobService availabilityJobService;
+
+    @Mock
+    private ProviderOccupancyService occupancyService;
+
+    @Spy
+    private QueryGuard queryGuard = new QueryGuard(new SimpleMeterRegistry(), Duration.ofSeconds(2));
+
+    @InjectMocks
+    private ProviderAvailabilityController availabilityController;
+
+    private MockMvc mockMvc;
+    private String eTag;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(availabilityController).build();
+
+        AvailabilityVersion version = new AvailabilityVersion(1, LocalDateTime.of(2030, 3, 1, 8, 0), 16, LocalDateTime.of(2030, 3, 2, 9, 0));
+        eTag = version.eTag();
+        lenient().when(availabilityService.getAvailabilityVersion(PROVIDER_ID, START, END)).thenReturn(version);
+    }
+
+    @Test
+    void getProviderAvailability_NoValidator_ReturnsCalendarWithETag() throws Exception {
+        when(availabilityService.getProviderAvailability(eq(PROVIDER_ID), eq(START), eq(END), isNull(), isNull()))
+                .thenReturn(calendar());
+
+        mockMvc.perform(get("/api/v1/provider/{providerId}/availability", PROVIDER_ID)
+                .param("startDate", START.toString())
+                .param("endDate", END.toString()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(jsonPath("$.data.provider_id").value(PROVIDER_ID));
+    }
+
+    @Test
+    void getProviderAvailability_MatchingETag_Returns304WithoutBuildingCalendar() throws Exception {
+        mockMvc.perform(get("/api/v1/provider/{providerId}/availability", PROVIDER_ID)
+                .param("startDate", START.toString())
+                .param("endDate", END.toString())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"stale\", " + eTag.substring(2)))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+
+        verify(availabilityService, never()).getProviderAvailability(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getProviderAvailability_StaleETag_ReturnsCalendar() throws Exception {
+        when(availabilityService.getProviderAvailability(eq(PROVIDER_ID), eq(START), eq(END), isNull(), isNull()))
+                .thenReturn(calendar());
+
+        mockMvc.perform(get("/api/v1/provider/{providerId}/availability", PROVIDER_ID)
+                .param("startDate", START.toString())
+                .param("endDate", END.toString())
+                .header(HttpHeaders.IF_NONE_MATCH, "W/\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+    }
+
+    @Test
+    void streamProviderAvailability_TooManyStreams_Returns503WithRetryAfter() throws Exception {
+        when(slotChangeStream.subscribeProvider(UUID.fromString(PROVIDER_ID)))
+                .thenThrow(new ServiceOverloadedException("Too many open availability streams", Duration.ofSeconds(2), null));
+
+        mockMvc.perform(get("/api/v1/provider/{providerId}/availability/stream", PROVIDER_ID))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"));
+    }
+
+    @Test
+    void streamProviderAvailability_InvalidProviderId_Returns400() throws Exception {
+        mockMvc.perform(get("/api/v1/provider/{providerId}/availability/stream", "not-a-uuid"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(slotChangeStream);
+    }
+
+    @Test
+    void createBulkAvailability_PartialSuccess_Returns201WithSummary() throws Exception {
+        when(bulkAvailabilityService.createForProviders(any())).thenReturn(BulkAvailabilityResponse.builder()
+                .providersRequested(2)
+                .providersCreated(1)
+                .providersFailed(1)
+                .slotsCreated(16)
+                .results(List.of(
+                        BulkAvailabilityResponse.ProviderResult.builder().providerId(PROVIDER_ID)
+                                .status(BulkAvailabilityResponse.Status.CREATED).slotsCreated(16).build(),
+                        BulkAvailabilityResponse.ProviderResult.builder().providerId("other")
+                                .status(BulkAvailabilityResponse.Status.FAILED).slotsCreated(0)
+                                .message("Invalid provider ID format: other").build()))
+                .build());
+
+        mockMvc.perform(post("/api/v1/provider/availability/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"template": {"date": "2030-03-04", "startTime": "09:00", "endTime": "17:00", "timezone": "UTC",
+                                      "location": {"type": "CLINIC", "address": "10 Clinic Rd"}},
+                         "provider_ids": ["%s", "other"]}
+                        """.formatted(PROVIDER_ID)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.message").value("Availability created for 1 of 2 providers"))
+                .andExpect(jsonPath("$.data.slots_created").value(16))
+                .andExpect(jsonPath("$.data.results[1].status").value("FAILED"));
+    }
+
+    @Test
+    void createBulkAvailability_NoProviders_Returns400() throws Exception {
+        mockMvc.perform(post("/api/v1/provider/availability/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"template": {"date": "2030-03-04", "startTime": "09:00", "endTime": "17:00", "timezone": "UTC",
+                                      "location": {"type": "CLINIC", "address": "10 Clinic Rd"}},
+                         "provider_ids": []}
+                        """))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bulkAvailabilityService);
+    }
+
+    @Test
+    void createAvailability_Async_Returns202WithJobLocation() throws Exception {
+        String jobId = UUID.randomUUID().toString();
+        when(availabilityJobService.submit(eq(PROVIDER_ID), any())).thenReturn(AvailabilityJobResponse.builder()
+                .jobId(jobId)
+                .providerId(PROVIDER_ID)
+                .status(AvailabilityJob.JobStatus.QUEUED)
+                .slotsTotal(11680)
+                .slotsCreated(0)
+                .progressPercent(0)
+                .build());
+
+        mockMvc.perform(post("/api/v1/provider/availability")
+                .param("providerId", PROVIDER_ID)
+                .param("async", "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"date": "2030-03-04", "startTime": "09:00", "endTime": "17:00", "timezone": "UTC",
+                         "slot_duration": 15, "is_recurring": true, "recurrence_pattern": "DAILY",
+                         "recurrence_end_date": "2031-03-03", "location": {"type": "CLINIC", "address": "10 Clinic Rd"}}
+                        """))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "/api/v1/provider/availability/jobs/" + jobId))
+                .andExpect(jsonPath("$.data.status").value("QUEUED"))
+                .andExpect(jsonPath("$.data.slots_total").value(11680));
+
+        verify(availabilityService, never()).createAvailability(any(), any());
+    }
+
+    @Test
+    void getAvailabilityJob_UnknownJob_Returns404() throws Exception {
+        when(availabilityJobService.getJob("missing")).thenThrow(new IllegalArgumentException("Job not found"));
+
+        mockMvc.perform(get("/api/v1/provider/availability/jobs/{jobId}", "missing"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Job not found"));
+    }
+
+    @Test
+    void updateSlotRange_Block_ReturnsCounts() throws Exception {
+        when(availabilityService.updateSlotRange(eq(PROVIDER_ID), any())).thenReturn(SlotRangeUpdateResponse.builder()
+                .status(AppointmentSlot.SlotStatus.BLOCKED)
+                .slotsInRange(8)
+                .slotsUpdated(6)
+                .slotsBooked(2)
+                .slotsUnchanged(0)
+                .build());
+
+        mockMvc.perform(put("/api/v1/provider/availability/range")
+                .param("providerId", PROVIDER_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"start_time": "2030-03-04T13:00:00", "end_time": "2030-03-04T17:00:00", "status": "BLOCKED"}
+                        """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("6 slots set to BLOCKED"))
+                .andExpect(jsonPath("$.data.slots_booked").value(2));
+
+        verify(availabilityService, never()).updateAvailabilitySlot(any(), any(), any());
+    }
+
+    @Test
+    void getFreeBusy_ReturnsRangesFromOccupancy() throws Exception {
+        when(occupancyService.getFreeBusy(PROVIDER_ID, START)).thenReturn(FreeBusyResponse.builder()
+                .providerId(PROVIDER_ID)
+                .date(START)
+                .free(List.of(new FreeBusyResponse.TimeRange(START.atTime(9, 0), START.atTime(12, 0))))
+                .busy(List.of(new FreeBusyResponse.TimeRange(START.atTime(12, 0), START.atTime(12, 30))))
+                .build());
+
+        mockMvc.perform(get("/api/v1/provider/{providerId}/availability/free-busy", PROVIDER_ID)
+                .param("date", START.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.free.length()").value(1))
+                .andExpect(jsonPath("$.data.busy.length()").value(1));
+
+        verifyNoInteractions(availabilityService);
+    }
+
+    private AvailabilityResponse.ProviderAvailabilityResponse calendar() {
+        return AvailabilityResponse.ProviderAvailabilityResponse.builder()
+                .providerId(PROVIDER_ID)
+                .availability(List.of())
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.think.event;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.think.entity.OutboxEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileOutboxSinkTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void publish_AppendsOneJsonLinePerEvent() throws Exception {
+        Path file = directory.resolve("outbox/events.jsonl");
+        FileOutboxSink sink = new FileOutboxSink(objectMapper, file);
+        OutboxEvent first = event("{\"booking_reference\":\"APT-1\"}");
+        OutboxEvent second = event("{\"booking_reference\":\"APT-2\"}");
+
+        sink.publish(List.of(first));
+        sink.publish(List.of(second));
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        JsonNode line = objectMapper.readTree(lines.get(1));
+        assertEquals(second.getId().toString(), line.get("id").asText());
+        assertEquals("appointment.booked", line.get("event_type").asText());
+        assertEquals("APT-2", line.get("payload").get("booking_reference").asText());
+    }
+
+    private static OutboxEvent event(String payload) {
+        return OutboxEvent.builder()
+                .id(UUID.randomUUID())
+                .aggregateType("AppointmentSlot")
+                .aggregateId(UUID.randomUUID())
+                .eventType("appointment.booked")
+                .payload(payload)
+                .createdAt(LocalDateTime.of(2030, 3, 4, 9, 0))
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+package com.think.repository;
+
+import com.think.TestFixtures;
+import com.think.entity.AppointmentSlot;
+import com.think.entity.Provider;
+import com.think.entity.ProviderAvailability;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class AvailabilityVersionQueryTest {
+
+    private static final LocalDate DATE = LocalDate.of(2030, 3, 4);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProviderAvailabilityRepository availabilityRepository;
+
+    private Provider provider;
+    private Provider otherProvider;
+    private AppointmentSlot slot;
+
+    @BeforeEach
+    void setUp() {
+        provider = persistProvider(0);
+        otherProvider = persistProvider(1);
+        ProviderAvailability availability = persistAvailability(provider, DATE);
+        slot = persistSlot(availability, DATE.atTime(9, 0));
+        persistSlot(availability, DATE.atTime(9, 30));
+        persistSlot(persistAvailability(otherProvider, DATE), DATE.atTime(9, 0));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findAvailabilityVersion_CountsRowsInRange() {
+        AvailabilityVersion version = version();
+
+        assertEquals(1, version.availabilities());
+        assertEquals(2, version.slots());
+        assertNotNull(version.slotsUpdatedAt());
+        assertEquals(version.eTag(), version().eTag());
+    }
+
+    @Test
+    void findAvailabilityVersion_EmptyRange_HasStableETag() {
+        AvailabilityVersion version = availabilityRepository.findAvailabilityVersion(
+                provider.getId(), DATE.plusDays(1).atStartOfDay(), DATE.plusDays(8).atStartOfDay());
+
+        assertEquals(0, version.slots());
+        assertNull(version.availabilitiesUpdatedAt());
+        assertTrue(version.eTag().startsWith("W/\""));
+    }
+
+    @Test
+    void findAvailabilityVersion_SlotUpdated_ChangesETag() {
+        String before = version().eTag();
+
+        entityManager.getEntityManager()
+                .createQuery("UPDATE AppointmentSlot s SET s.status = :status, s.updatedAt = :updatedAt WHERE s.id = :id")
+                .setParameter("status", AppointmentSlot.SlotStatus.BLOCKED)
+                .setParameter("updatedAt", LocalDateTime.now().plusMinutes(1))
+                .setParameter("id", slot.getId())
+                .executeUpdate();
+
+        assertNotEquals(before, version().eTag());
+    }
+
+    @Test
+    void findAvailabilityVersion_SlotDeleted_ChangesETag() {
+        String before = version().eTag();
+
+        entityManager.remove(entityManager.find(AppointmentSlot.class, slot.getId()));
+        entityManager.flush();
+
+        assertNotEquals(before, version().eTag());
+    }
+
+    @Test
+    void findAvailabilityVersion_OtherProviderChange_KeepsETag() {
+        String before = version().eTag();
+
+        persistSlot(persistAvailability(otherProvider, DATE.plusDays(1)), DATE.plusDays(1).atTime(10, 0));
+        persistSlot(persistAvailability(provider, DATE.plusDays(30)), DATE.plusDays(30).atTime(10, 0));
+        entityManager.flush();
+
+        assertEquals(before, version().eTag());
+    }
+
+    @Test
+    void findAvailabilityVersion_SeriesStartedBeforeRange_CountsItsSlotsInRange() {
+        ProviderAvailability series = TestFixtures.availability(provider, DATE.minusDays(10));
+        series.setIsRecurring(true);
+        series.setRecurrencePattern(ProviderAvailability.RecurrencePattern.DAILY);
+        series = entityManager.persist(series);
+        persistSlot(series, DATE.minusDays(10).atTime(9, 0));
+        persistSlot(series, DATE.plusDays(2).atTime(9, 0));
+        entityManager.flush();
+
+        AvailabilityVersion version = version();
+
+        assertEquals(2, version.availabilities());
+        assertEquals(3, version.slots());
+    }
+
+    private AvailabilityVersion version() {
+        return availabilityRepository.findAvailabilityVersion(provider.getId(), DATE.atStartOfDay(), DATE.plusDays(8).atStartOfDay());
+    }
+
+    private Provider persistProvider(int index) {
+        return entityManager.persist(TestFixtures.provider(index));
+    }
+
+    private ProviderAvailability persistAvailability(Provider provider, LocalDate date) {
+        return entityManager.persist(TestFixtures.availability(provider, date));
+    }
+
+    private AppointmentSlot persistSlot(ProviderAvailability availability, LocalDateTime start) {
+        return entityManager.persist(TestFixtures.slot(availability, start));
+    }
+}
@@ -0,0 +1,60 @@
+package com.think.repository;
+
+import com.think.entity.OutboxEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class OutboxEventRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 3, 4, 9, 0);
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Test
+    void findDue_EarlierEventOfAggregateRetrying_HoldsBackLaterOnes() {
+        UUID retrying = UUID.randomUUID();
+        UUID parked = UUID.randomUUID();
+        outboxRepository.save(event(retrying, 5, 1, NOW.plusSeconds(30)));
+        outboxRepository.save(event(retrying, 4, 0, null));
+        OutboxEvent unrelated = outboxRepository.save(event(UUID.randomUUID(), 3, 0, null));
+        outboxRepository.save(event(parked, 2, 3, NOW.minusSeconds(1)));
+        OutboxEvent afterParked = outboxRepository.save(event(parked, 1, 0, null));
+
+        List<OutboxEvent> due = outboxRepository.findDue(NOW, 3, PageRequest.of(0, 10));
+
+        assertEquals(List.of(unrelated.getId(), afterParked.getId()), due.stream().map(OutboxEvent::getId).toList());
+    }
+
+    @Test
+    void findDue_FreshEventsOfOneAggregate_AreAllDueInOrder() {
+        UUID aggregate = UUID.randomUUID();
+        OutboxEvent first = outboxRepository.save(event(aggregate, 2, 0, null));
+        OutboxEvent second = outboxRepository.save(event(aggregate, 1, 0, null));
+
+        List<OutboxEvent> due = outboxRepository.findDue(NOW, 3, PageRequest.of(0, 10));
+
+        assertEquals(List.of(first.getId(), second.getId()), due.stream().map(OutboxEvent::getId).toList());
+    }
+
+    private static OutboxEvent event(UUID aggregateId, int secondsAgo, int attempts, LocalDateTime nextAttemptAt) {
+        return OutboxEvent.builder()
+                .aggregateType("AppointmentSlot")
+                .aggregateId(aggregateId)
+                .eventType("appointment.booked")
+                .payload("{}")
+                .createdAt(NOW.minusSeconds(secondsAgo))
+                .attempts(attempts)
+                .nextAttemptAt(nextAttemptAt)
+                .build();
+    }
+}
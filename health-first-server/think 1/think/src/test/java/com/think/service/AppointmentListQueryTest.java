@@ -0,0 +1,210 @@
+package com.think.service;
+
+import com.think.TestFixtures;
+import com.think.dto.AppointmentListRequest;
+import com.think.dto.AppointmentListResponse;
+import com.think.dto.AppointmentResponse;
+import com.think.entity.*;
+import com.think.util.BookingReferenceGenerator;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards against lazy-load storms in the appointment list: a page must cost one select for the
+ * rows and one for the total, however many patients, providers and availabilities it spans.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.think.service.AppointmentListQueryTest$RecordingStatementInspector"
+})
+@Import({AppointmentService.class, BookingReferenceGenerator.class, SlotArchivePolicy.class})
+class AppointmentListQueryTest {
+
+    private static final int PROVIDERS = 3;
+    private static final int SLOTS_PER_PROVIDER = 10;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        LocalDate date = LocalDate.of(2030, 3, 4);
+        for (int p = 0; p < PROVIDERS; p++) {
+            Provider provider = entityManager.persist(TestFixtures.provider(p));
+            ProviderAvailability availability = entityManager.persist(TestFixtures.availability(provider, date));
+            for (int s = 0; s < SLOTS_PER_PROVIDER; s++) {
+                AppointmentSlot slot = TestFixtures.slot(availability, date.atTime(9, 0).plusMinutes(30L * s));
+                if (s % 2 == 0) {
+                    slot.setPatient(entityManager.persist(TestFixtures.patient(p * SLOTS_PER_PROVIDER + s)));
+                    slot.setStatus(AppointmentSlot.SlotStatus.BOOKED);
+                    slot.setAppointmentType("CONSULTATION");
+                }
+                entityManager.persist(slot);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        RecordingStatementInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void getAppointments_FullPage_UsesOneStatement() {
+        AppointmentListRequest request = new AppointmentListRequest();
+        request.setSize(20);
+
+        AppointmentListResponse response = appointmentService.getAppointments(request);
+
+        assertEquals(20, response.getAppointments().size());
+        assertTrue(response.isHasNext());
+        assertNull(response.getTotalElements());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void getAppointments_IncludeTotal_AddsCountStatement() {
+        AppointmentListRequest request = new AppointmentListRequest();
+        request.setSize(20);
+        request.setIncludeTotal(true);
+
+        AppointmentListResponse response = appointmentService.getAppointments(request);
+
+        assertEquals(PROVIDERS * SLOTS_PER_PROVIDER, response.getTotalElements());
+        assertEquals(2, response.getTotalPages());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getAppointments_FollowingCursors_VisitsEverySlotOnceInOrder() {
+        AppointmentListRequest request = new AppointmentListRequest();
+        request.setSize(7);
+
+        List<AppointmentResponse> seen = new ArrayList<>();
+        int pages = 0;
+        AppointmentListResponse response;
+        do {
+            response = appointmentService.getAppointments(request);
+            seen.addAll(response.getAppointments());
+            request.setCursor(response.getNextCursor());
+            pages++;
+        } while (response.isHasNext());
+
+        assertEquals(5, pages);
+        assertEquals(pages, statistics.getPrepareStatementCount());
+        assertEquals(PROVIDERS * SLOTS_PER_PROVIDER, seen.stream().map(AppointmentResponse::getAppointmentId).distinct().count());
+        for (int i = 1; i < seen.size(); i++) {
+            AppointmentResponse previous = seen.get(i - 1);
+            AppointmentResponse current = seen.get(i);
+            int byTime = current.getAppointmentDateTime().compareTo(previous.getAppointmentDateTime());
+            assertTrue(byTime < 0 || (byTime == 0 && current.getAppointmentId().compareTo(previous.getAppointmentId()) < 0));
+        }
+    }
+
+    @Test
+    void getAppointments_BookedFilter_MapsJoinedColumns() {
+        AppointmentListRequest request = new AppointmentListRequest();
+        request.setStatus("BOOKED");
+        request.setSortDirection("ASC");
+        request.setSize(20);
+
+        AppointmentListResponse response = appointmentService.getAppointments(request);
+
+        assertEquals(PROVIDERS * SLOTS_PER_PROVIDER / 2, response.getAppointments().size());
+        // Partial first page: the total is known without a count query
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        AppointmentResponse first = response.getAppointments().get(0);
+        assertEquals("BOOKED", first.getStatus());
+        assertNotNull(first.getPatientName());
+        assertEquals("FEMALE", first.getPatientGender());
+        assertEquals("1 Main St, Springfield, IL 62701", first.getPatientAddress());
+        assertTrue(first.getProviderName().startsWith("Provider"));
+        assertEquals("10 Clinic Rd, Springfield, IL 62702", first.getClinicAddress());
+        assertEquals(0, BigDecimal.valueOf(120).compareTo(first.getEstimatedCost()));
+    }
+
+    @Test
+    void getAppointments_UnbookedSlot_HasNoPatientOrCost() {
+        AppointmentListRequest request = new AppointmentListRequest();
+        request.setStatus("AVAILABLE");
+
+        AppointmentListResponse response = appointmentService.getAppointments(request);
+
+        AppointmentResponse first = response.getAppointments().get(0);
+        assertNull(first.getPatientId());
+        assertNull(first.getEstimatedCost());
+        assertNotNull(first.getProviderId());
+    }
+
+    @Test
+    void getAppointments_ProviderScoped_EmitsOnlySuppliedPredicates() {
+        Provider provider = entityManager.getEntityManager()
+                .createQuery("SELECT p FROM Provider p WHERE p.email = 'provider1@example.com'", Provider.class)
+                .getSingleResult();
+        RecordingStatementInspector.STATEMENTS.clear();
+
+        AppointmentListRequest request = new AppointmentListRequest();
+        request.setProviderId(provider.getId());
+
+        AppointmentListResponse response = appointmentService.getAppointments(request);
+
+        assertEquals(SLOTS_PER_PROVIDER, response.getAppointments().size());
+        assertTrue(response.getAppointments().stream().allMatch(a -> a.getProviderId().equals(provider.getId().toString())));
+        String sql = RecordingStatementInspector.STATEMENTS.get(0).toLowerCase();
+        assertFalse(sql.contains("is null"), sql);
+        assertTrue(sql.contains("provider_id=?"), sql);
+        assertFalse(sql.contains("patient_id=?"), sql);
+    }
+
+    @Test
+    void getAppointments_SortsByRequestedFieldOnly() {
+        AppointmentListRequest request = new AppointmentListRequest();
+        request.setSortBy("createdAt");
+        request.setSortDirection("ASC");
+
+        appointmentService.getAppointments(request);
+
+        String sql = RecordingStatementInspector.STATEMENTS.get(0).toLowerCase();
+        String orderBy = sql.substring(sql.indexOf("order by") + "order by".length(), sql.indexOf(" offset"));
+        // Requested field plus the id tie-breaker; no hardcoded slot_start_time ordering
+        assertEquals(2, orderBy.split(",").length, orderBy);
+        assertFalse(orderBy.contains("slot_start_time"), orderBy);
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -1,24 +1,33 @@
 package com.think.service;
 
+import com.think.dto.AppointmentListItem;
 import com.think.dto.AppointmentListRequest;
 import com.think.dto.AppointmentListResponse;
 import com.think.dto.AppointmentResponse;
 import com.think.dto.BookAppointmentRequest;
 import com.think.entity.*;
+import com.think.event.SlotChangeEvent;
+import com.think.repository.AppointmentFilter;
 import com.think.repository.AppointmentSlotRepository;
 import com.think.repository.PatientRepository;
 import com.think.repository.ProviderAvailabilityRepository;
 import com.think.repository.ProviderRepository;
+import com.think.util.AppointmentCursor;
+import com.think.util.BookingReferenceGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -35,6 +44,8 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class AppointmentServiceTest {
 
+    private static final UUID SLOT_ID = slotId(123);
+
     @Mock
     private AppointmentSlotRepository appointmentSlotRepository;
 
@@ -47,6 +58,15 @@ class AppointmentServiceTest {
     @Mock
     private ProviderAvailabilityRepository availabilityRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private BookingReferenceGenerator bookingReferenceGenerator = new BookingReferenceGenerator(0);
+
+    @Spy
+    private SlotArchivePolicy archivePolicy = new SlotArchivePolicy(365);
+
     @InjectMocks
     private AppointmentService appointmentService;
 
@@ -92,7 +112,7 @@ class AppointmentServiceTest {
 
         // Setup test availability
         testAvailability = new ProviderAvailability();
-        testAvailability.setId("availability-123");
+        testAvailability.setId(UUID.fromString("018f3c9e-7a10-7abc-8000-000000000123"));
         testAvailability.setProvider(testProvider);
         testAvailability.setDate(LocalDate.of(2024, 2, 15));
         testAvailability.setStartTime(LocalTime.of(9, 0));
@@ -107,7 +127,7 @@ class AppointmentServiceTest {
 
         // Setup test slot
         testSlot = new AppointmentSlot();
-        testSlot.setId("slot-123");
+        testSlot.setId(SLOT_ID);
         testSlot.setAvailability(testAvailability);
         testSlot.setProvider(testProvider);
         testSlot.setSlotStartTime(LocalDateTime.of(2024, 2, 15, 10, 0));
@@ -135,7 +155,11 @@ class AppointmentServiceTest {
         when(patientRepository.findById("patient-123")).thenReturn(Optional.of(testPatient));
         when(providerRepository.findById(testProvider.getId())).thenReturn(Optional.of(testProvider));
         when(appointmentSlotRepository.countBookedSlotsByProviderAndTime(any(), any())).thenReturn(0L);
-        when(appointmentSlotRepository.findAvailableSlotByProviderAndTime(any(), any())).thenReturn(Optional.of(testSlot));
+        testSlot.setStatus(AppointmentSlot.SlotStatus.HELD);
+        testSlot.setHeldBy("patient-123");
+        testSlot.setHeldUntil(LocalDateTime.now());
+        when(appointmentSlotRepository.acquireHold(eq(testProvider.getId()), any(), eq("patient-123"), any(), any())).thenReturn(1);
+        when(appointmentSlotRepository.findHeldSlot(eq(testProvider.getId()), any(), eq("patient-123"))).thenReturn(Optional.of(testSlot));
         when(appointmentSlotRepository.save(any())).thenReturn(testSlot);
 
         // Act
@@ -143,8 +167,9 @@ class AppointmentServiceTest {
 
         // Assert
         assertNotNull(response);
-        assertEquals("slot-123", response.getAppointmentId());
-        assertEquals("APT-12345678", response.getBookingReference());
+        assertEquals(SLOT_ID.toString(), response.getAppointmentId());
+        assertNotEquals("APT-12345678", response.getBookingReference());
+        assertTrue(bookingReferenceGenerator.mayExist(response.getBookingReference()));
         assertEquals("John Doe", response.getPatientName());
         assertEquals("Dr. Jane Smith", response.getProviderName());
         assertEquals("CONSULTATION", response.getAppointmentType());
@@ -152,6 +177,8 @@ class AppointmentServiceTest {
         assertEquals("Regular checkup and consultation", response.getReasonForVisit());
         assertEquals(BigDecimal.valueOf(150.00), response.getEstimatedCost());
         assertEquals("USD", response.getCurrency());
+        assertNull(testSlot.getHeldUntil());
+        assertNull(testSlot.getHeldBy());
 
         verify(appointmentSlotRepository).save(any(AppointmentSlot.class));
     }
@@ -211,7 +238,7 @@ class AppointmentServiceTest {
         when(patientRepository.findById("patient-123")).thenReturn(Optional.of(testPatient));
         when(providerRepository.findById(testProvider.getId())).thenReturn(Optional.of(testProvider));
         when(appointmentSlotRepository.countBookedSlotsByProviderAndTime(any(), any())).thenReturn(0L);
-        when(appointmentSlotRepository.findAvailableSlotByProviderAndTime(any(), any())).thenReturn(Optional.empty());
+        when(appointmentSlotRepository.acquireHold(any(), any(), any(), any(), any())).thenReturn(0);
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, 
@@ -228,9 +255,11 @@ class AppointmentServiceTest {
         request.setSortBy("appointmentDateTime");
         request.setSortDirection("DESC");
 
-        Page<AppointmentSlot> page = new PageImpl<>(List.of(testSlot), PageRequest.of(0, 20), 1);
-        when(appointmentSlotRepository.findAppointmentsWithFilters(any(), any(), any(), any(), any(), any(), any()))
-                .thenReturn(page);
+        request.setIncludeTotal(true);
+
+        when(appointmentSlotRepository.findAppointmentListItems(any(AppointmentFilter.class), isNull(), eq(Sort.Direction.DESC), eq(21)))
+                .thenReturn(List.of(listItem(SLOT_ID, testSlot.getSlotStartTime())));
+        when(appointmentSlotRepository.countAppointments(any(AppointmentFilter.class))).thenReturn(1L);
 
         // Act
         AppointmentListResponse response = appointmentService.getAppointments(request);
@@ -238,12 +267,103 @@ class AppointmentServiceTest {
         // Assert
         assertNotNull(response);
         assertEquals(1, response.getAppointments().size());
+        assertEquals("Dr. Jane Smith", response.getAppointments().get(0).getProviderName());
         assertEquals(0, response.getCurrentPage());
         assertEquals(1, response.getTotalPages());
-        assertEquals(1, response.getTotalElements());
+        assertEquals(1L, response.getTotalElements());
         assertEquals(20, response.getPageSize());
         assertFalse(response.isHasNext());
         assertFalse(response.isHasPrevious());
+        assertNull(response.getNextCursor());
+    }
+
+    @Test
+    void getAppointments_MorePages_ReturnsCursorWithoutCounting() {
+        // Arrange
+        AppointmentListRequest request = new AppointmentListRequest();
+        request.setSize(2);
+        LocalDateTime start = testSlot.getSlotStartTime();
+        when(appointmentSlotRepository.findAppointmentListItems(any(AppointmentFilter.class), isNull(), eq(Sort.Direction.DESC), eq(3)))
+                .thenReturn(List.of(listItem(slotId(3), start.plusHours(2)), listItem(slotId(2), start.plusHours(1)), listItem(slotId(1), start)));
+
+        // Act
+        AppointmentListResponse response = appointmentService.getAppointments(request);
+
+        // Assert
+        assertEquals(2, response.getAppointments().size());
+        assertTrue(response.isHasNext());
+        assertNull(response.getTotalElements());
+        AppointmentCursor cursor = AppointmentCursor.decode(response.getNextCursor(), Sort.Direction.DESC);
+        assertEquals(slotId(2), cursor.getId());
+        assertEquals(start.plusHours(1), cursor.getSlotStartTime());
+        verify(appointmentSlotRepository, never()).countAppointments(any());
+    }
+
+    @Test
+    void getAppointments_RangeWithinRetention_SkipsArchive() {
+        // Arrange
+        AppointmentListRequest request = new AppointmentListRequest();
+        request.setStartDate(LocalDate.now().minusDays(30));
+        ArgumentCaptor<AppointmentFilter> filter = ArgumentCaptor.forClass(AppointmentFilter.class);
+        when(appointmentSlotRepository.findAppointmentListItems(filter.capture(), isNull(), eq(Sort.Direction.DESC), eq(21)))
+                .thenReturn(List.of());
+
+        // Act
+        appointmentService.getAppointments(request);
+        request.setStartDate(LocalDate.now().minusDays(400));
+        appointmentService.getAppointments(request);
+
+        // Assert
+        assertFalse(filter.getAllValues().get(0).isIncludeArchive());
+        assertTrue(filter.getAllValues().get(1).isIncludeArchive());
+    }
+
+    @Test
+    void getAppointments_WithCursor_SeeksPastIt() {
+        // Arrange
+        LocalDateTime start = testSlot.getSlotStartTime();
+        AppointmentListRequest request = new AppointmentListRequest();
+        request.setSize(2);
+        request.setCursor(new AppointmentCursor(start.plusHours(1), slotId(2)).encode(Sort.Direction.DESC));
+        when(appointmentSlotRepository.findAppointmentListItems(any(AppointmentFilter.class), any(AppointmentCursor.class), eq(Sort.Direction.DESC), eq(3)))
+                .thenReturn(List.of(listItem(slotId(1), start)));
+
+        // Act
+        AppointmentListResponse response = appointmentService.getAppointments(request);
+
+        // Assert
+        assertEquals(1, response.getAppointments().size());
+        assertFalse(response.isHasNext());
+        assertTrue(response.isHasPrevious());
+        assertNull(response.getNextCursor());
+    }
+
+    @Test
+    void getAppointments_CursorForOtherDirection_ThrowsException() {
+        AppointmentListRequest request = new AppointmentListRequest();
+        request.setSortDirection("ASC");
+        request.setCursor(new AppointmentCursor(testSlot.getSlotStartTime(), slotId(1)).encode(Sort.Direction.DESC));
+
+        assertThrows(IllegalArgumentException.class, () -> appointmentService.getAppointments(request));
+    }
+
+    @Test
+    void getAppointments_ExplicitPage_UsesOffsetPaging() {
+        // Arrange
+        AppointmentListRequest request = new AppointmentListRequest();
+        request.setPage(1);
+        request.setSize(1);
+        Page<AppointmentListItem> page = new PageImpl<>(List.of(listItem(SLOT_ID, testSlot.getSlotStartTime())), PageRequest.of(1, 1), 3);
+        when(appointmentSlotRepository.findAppointmentListItems(any(AppointmentFilter.class), any(Pageable.class))).thenReturn(page);
+
+        // Act
+        AppointmentListResponse response = appointmentService.getAppointments(request);
+
+        // Assert
+        assertEquals(1, response.getCurrentPage());
+        assertEquals(3, response.getTotalPages());
+        assertTrue(response.isHasNext());
+        assertTrue(response.isHasPrevious());
     }
 
     @Test
@@ -256,7 +376,7 @@ class AppointmentServiceTest {
 
         // Assert
         assertNotNull(response);
-        assertEquals("slot-123", response.getAppointmentId());
+        assertEquals(SLOT_ID.toString(), response.getAppointmentId());
         assertEquals("APT-12345678", response.getBookingReference());
     }
 
@@ -288,6 +408,11 @@ class AppointmentServiceTest {
         assertNotNull(response);
         assertEquals("CANCELLED", response.getStatus());
         verify(appointmentSlotRepository).save(any(AppointmentSlot.class));
+        ArgumentCaptor<SlotChangeEvent> event = ArgumentCaptor.forClass(SlotChangeEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(SlotChangeEvent.Type.CANCELLED, event.getValue().getType());
+        assertEquals("Cardiology", event.getValue().getSpecialization());
+        assertEquals("patient-123", event.getValue().getSlots().get(0).getPatientId());
     }
 
     @Test
@@ -312,4 +437,57 @@ class AppointmentServiceTest {
                 () -> appointmentService.cancelAppointment("APT-12345678"));
         assertEquals("Appointment is not in BOOKED status and cannot be cancelled", exception.getMessage());
     }
+
+    @Test
+    void getAppointmentByBookingReference_BadChecksum_SkipsLookup() {
+        String reference = bookingReferenceGenerator.next();
+        String mistyped = reference.substring(0, 6) + (reference.charAt(6) == '0' ? '1' : '0') + reference.substring(7);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> appointmentService.getAppointmentByBookingReference(mistyped));
+        assertEquals("Appointment not found with booking reference: " + mistyped, exception.getMessage());
+        verify(appointmentSlotRepository, never()).findByBookingReference(any());
+    }
+
+    @Test
+    void getAppointmentByBookingReference_LowercaseReference_LooksUpCanonicalForm() {
+        String reference = bookingReferenceGenerator.next();
+        testSlot.setBookingReference(reference);
+        when(appointmentSlotRepository.findByBookingReference(reference)).thenReturn(Optional.of(testSlot));
+
+        AppointmentResponse response = appointmentService.getAppointmentByBookingReference(reference.toLowerCase());
+
+        assertEquals(reference, response.getBookingReference());
+    }
+
+    @Test
+    void cancelAppointment_IssuedReference_LooksUpSlot() {
+        String reference = bookingReferenceGenerator.next();
+        testSlot.setBookingReference(reference);
+        testSlot.setStatus(AppointmentSlot.SlotStatus.BOOKED);
+        when(appointmentSlotRepository.findByBookingReference(reference)).thenReturn(Optional.of(testSlot));
+        when(appointmentSlotRepository.save(any())).thenReturn(testSlot);
+
+        AppointmentResponse response = appointmentService.cancelAppointment(reference);
+
+        assertEquals("CANCELLED", response.getStatus());
+        assertEquals(reference, response.getBookingReference());
+    }
+
+    private static UUID slotId(int n) {
+        return new UUID(0x018f3c9e7a107000L, 0x8000000000000000L | n);
+    }
+
+    private AppointmentListItem listItem(UUID id, LocalDateTime start) {
+        AppointmentListItem item = new AppointmentListItem();
+        item.setId(id);
+        item.setBookingReference("APT-" + id);
+        item.setSlotStartTime(start);
+        item.setStatus(AppointmentSlot.SlotStatus.AVAILABLE);
+        item.setProviderId(testProvider.getId());
+        item.setProviderFirstName("Dr. Jane");
+        item.setProviderLastName("Smith");
+        item.setClinicAddress(testProvider.getClinicAddress());
+        return item;
+    }
 }
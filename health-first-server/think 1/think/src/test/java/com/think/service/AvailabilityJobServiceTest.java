@@ -0,0 +1,180 @@
+package com.think.service;
+
+import com.think.TestFixtures;
+import com.think.dto.AvailabilityJobResponse;
+import com.think.dto.CreateAvailabilityRequest;
+import com.think.entity.*;
+import com.think.event.SlotChangeEvent;
+import com.think.exception.ServiceOverloadedException;
+import com.think.repository.AppointmentSlotRepository;
+import com.think.repository.AvailabilityJobRepository;
+import com.think.repository.ProviderAvailabilityRepository;
+import com.think.repository.ProviderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@RecordApplicationEvents
+class AvailabilityJobServiceTest {
+
+    private static final LocalDate START = LocalDate.now().plusDays(1);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProviderRepository providerRepository;
+
+    @Autowired
+    private ProviderAvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private AppointmentSlotRepository slotRepository;
+
+    @Autowired
+    private AvailabilityJobRepository jobRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private final List<Runnable> pending = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private Provider provider;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        provider = entityManager.persist(TestFixtures.provider(1));
+    }
+
+    @Test
+    void submit_GeneratesSlotsInChunksAndCompletes() {
+        AvailabilityJobService jobs = service(pending::add);
+
+        AvailabilityJobResponse queued = jobs.submit(provider.getId().toString(), dailyFor10Days());
+        assertEquals(AvailabilityJob.JobStatus.QUEUED, queued.getStatus());
+        assertEquals(40, queued.getSlotsTotal());
+        assertEquals(0, slotRepository.count());
+        runPending();
+        entityManager.flush();
+        entityManager.clear();
+
+        AvailabilityJobResponse done = jobs.getJob(queued.getJobId());
+        assertEquals(AvailabilityJob.JobStatus.COMPLETED, done.getStatus());
+        assertEquals(40, done.getSlotsCreated());
+        assertEquals(100, done.getProgressPercent());
+        assertEquals(START.plusDays(9), done.getCompletedThrough());
+        assertEquals(40, slotRepository.findAvailableSlotsByAvailabilityId(UUID.fromString(done.getAvailabilityId())).size());
+        // Ten slots per chunk: two days of four slots each
+        assertEquals(5, events.stream(SlotChangeEvent.class).count());
+        assertEquals(1.0, meterRegistry.get("think.availability.jobs").tag("outcome", "completed").counter().count());
+    }
+
+    @Test
+    void run_InterruptedJob_ResumesAfterCompletedThrough() {
+        AvailabilityJobService jobs = service(pending::add);
+        AvailabilityJobResponse queued = jobs.submit(provider.getId().toString(), dailyFor10Days());
+        pending.clear();
+        AvailabilityJob job = jobRepository.findById(UUID.fromString(queued.getJobId())).orElseThrow();
+        job.setStatus(AvailabilityJob.JobStatus.RUNNING);
+        job.setCompletedThrough(START.plusDays(5));
+        job.setSlotsCreated(24);
+        entityManager.flush();
+
+        jobs.resumeUnfinished();
+        runPending();
+        entityManager.flush();
+        entityManager.clear();
+
+        AvailabilityJobResponse done = jobs.getJob(queued.getJobId());
+        assertEquals(AvailabilityJob.JobStatus.COMPLETED, done.getStatus());
+        assertEquals(40, done.getSlotsCreated());
+        assertEquals(16, slotRepository.count());
+    }
+
+    @Test
+    void cancel_BeforeFirstChunk_RemovesAvailability() {
+        AvailabilityJobService jobs = service(pending::add);
+        AvailabilityJobResponse queued = jobs.submit(provider.getId().toString(), dailyFor10Days());
+
+        assertThrows(IllegalArgumentException.class, () -> jobs.cancel(queued.getJobId(), UUID.randomUUID().toString()));
+        assertTrue(jobs.cancel(queued.getJobId(), provider.getId().toString()).getCancelRequested());
+        runPending();
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(AvailabilityJob.JobStatus.CANCELLED, jobs.getJob(queued.getJobId()).getStatus());
+        assertTrue(availabilityRepository.findById(UUID.fromString(queued.getAvailabilityId())).isEmpty());
+        assertEquals(0, slotRepository.count());
+    }
+
+    @Test
+    void submit_QueueFull_ThrowsOverloadedAndDropsAvailability() {
+        AvailabilityJobService jobs = service(task -> {
+            throw new TaskRejectedException("full");
+        });
+
+        assertThrows(ServiceOverloadedException.class, () -> jobs.submit(provider.getId().toString(), dailyFor10Days()));
+        entityManager.flush();
+        entityManager.clear();
+
+        AvailabilityJob job = jobRepository.findAll().get(0);
+        assertEquals(AvailabilityJob.JobStatus.FAILED, job.getStatus());
+        assertTrue(availabilityRepository.findAll().isEmpty());
+    }
+
+    private AvailabilityJobService service(Executor executor) {
+        SlotHorizon horizon = new SlotHorizon(30);
+        AvailabilityOverlapChecker overlapChecker = new AvailabilityOverlapChecker(availabilityRepository);
+        ProviderAvailabilityService availabilityService = new ProviderAvailabilityService(
+                availabilityRepository, slotRepository, providerRepository, null, eventPublisher, transactionManager,
+                horizon, overlapChecker, null);
+        return new AvailabilityJobService(availabilityService, availabilityRepository, slotRepository, jobRepository,
+                eventPublisher, new TransactionTemplate(transactionManager), executor, meterRegistry, 10, Duration.ofSeconds(2));
+    }
+
+    private void runPending() {
+        while (!pending.isEmpty()) {
+            pending.remove(0).run();
+        }
+    }
+
+    private static CreateAvailabilityRequest dailyFor10Days() {
+        CreateAvailabilityRequest request = new CreateAvailabilityRequest();
+        request.setDate(START);
+        request.setStartTime(LocalTime.of(9, 0));
+        request.setEndTime(LocalTime.of(11, 0));
+        request.setTimezone("UTC");
+        request.setIsRecurring(true);
+        request.setRecurrencePattern(ProviderAvailability.RecurrencePattern.DAILY);
+        request.setRecurrenceEndDate(START.plusDays(9));
+        request.setLocation(new CreateAvailabilityRequest.LocationRequest(ProviderAvailability.LocationType.CLINIC, "10 Clinic Rd", null));
+        return request;
+    }
+}
@@ -0,0 +1,89 @@
+package com.think.service;
+
+import com.think.TestFixtures;
+import com.think.entity.Provider;
+import com.think.entity.ProviderAvailability;
+import com.think.repository.ProviderAvailabilityRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class AvailabilityOverlapCheckerTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2030, 3, 4);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProviderAvailabilityRepository availabilityRepository;
+
+    private AvailabilityOverlapChecker checker;
+    private Provider provider;
+
+    @BeforeEach
+    void setUp() {
+        checker = new AvailabilityOverlapChecker(availabilityRepository);
+        provider = entityManager.persist(TestFixtures.provider(1));
+    }
+
+    @Test
+    void check_WeeklySeries_FindsOneOffLaterInTheSeries() {
+        entityManager.persist(availability(MONDAY.plusWeeks(5), LocalTime.of(10, 0), LocalTime.of(11, 0)));
+        entityManager.flush();
+
+        ProviderAvailability series = availability(MONDAY, LocalTime.of(9, 0), LocalTime.of(12, 0));
+        series.setIsRecurring(true);
+        series.setRecurrencePattern(ProviderAvailability.RecurrencePattern.WEEKLY);
+        series.setRecurrenceEndDate(MONDAY.plusWeeks(10));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> checker.check(provider.getId(), series));
+        assertEquals("Time slot overlaps with existing availability on " + MONDAY.plusWeeks(5), exception.getMessage());
+    }
+
+    @Test
+    void check_OneOff_FindsOpenEndedSeriesStartedEarlier() {
+        ProviderAvailability daily = availability(MONDAY.minusMonths(2), LocalTime.of(14, 0), LocalTime.of(16, 0));
+        daily.setIsRecurring(true);
+        daily.setRecurrencePattern(ProviderAvailability.RecurrencePattern.DAILY);
+        entityManager.persist(daily);
+        entityManager.flush();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> checker.check(provider.getId(), availability(MONDAY, LocalTime.of(15, 30), LocalTime.of(17, 0))));
+        assertDoesNotThrow(() -> checker.check(provider.getId(), availability(MONDAY, LocalTime.of(16, 0), LocalTime.of(17, 0))));
+    }
+
+    @Test
+    void check_SeriesOnOtherWeekdaysOrEndedSeries_DoNotOverlap() {
+        ProviderAvailability ended = availability(MONDAY.minusWeeks(8), LocalTime.of(9, 0), LocalTime.of(17, 0));
+        ended.setIsRecurring(true);
+        ended.setRecurrencePattern(ProviderAvailability.RecurrencePattern.WEEKLY);
+        ended.setRecurrenceEndDate(MONDAY.minusDays(1));
+        entityManager.persist(ended);
+        ProviderAvailability tuesdays = availability(MONDAY.plusDays(1), LocalTime.of(9, 0), LocalTime.of(17, 0));
+        tuesdays.setIsRecurring(true);
+        tuesdays.setRecurrencePattern(ProviderAvailability.RecurrencePattern.WEEKLY);
+        entityManager.persist(tuesdays);
+        entityManager.flush();
+
+        ProviderAvailability mondays = availability(MONDAY, LocalTime.of(9, 0), LocalTime.of(17, 0));
+        mondays.setIsRecurring(true);
+        mondays.setRecurrencePattern(ProviderAvailability.RecurrencePattern.WEEKLY);
+
+        assertDoesNotThrow(() -> checker.check(provider.getId(), mondays));
+    }
+
+    private ProviderAvailability availability(LocalDate date, LocalTime start, LocalTime end) {
+        return TestFixtures.availability(provider, date, start, end);
+    }
+}
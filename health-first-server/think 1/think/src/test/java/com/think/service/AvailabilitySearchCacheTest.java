@@ -0,0 +1,189 @@
+package com.think.service;
+
+import com.think.dto.AvailabilitySearchRequest;
+import com.think.dto.AvailabilitySearchResponse;
+import com.think.entity.ProviderAvailability;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailabilitySearchCacheTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2030, 3, 4);
+
+    private final AvailabilitySearchCache cache = new AvailabilitySearchCache(new SimpleMeterRegistry(), Duration.ofSeconds(30), 100);
+
+    @Test
+    void key_EquivalentRequests_AreEqual() {
+        AvailabilitySearchRequest byDate = request("Cardiology");
+        byDate.setDate(TODAY);
+        byDate.setAppointmentType("consultation");
+        byDate.setMaxPrice(new BigDecimal("150.00"));
+        byDate.setLocation("Springfield");
+        byDate.setTimezone("America/Chicago");
+
+        AvailabilitySearchRequest byRange = request("Cardiology");
+        byRange.setStartDate(TODAY);
+        byRange.setEndDate(TODAY);
+        byRange.setAppointmentType("CONSULTATION");
+        byRange.setMaxPrice(new BigDecimal("150"));
+
+        assertEquals(AvailabilitySearchKey.from(byDate, TODAY), AvailabilitySearchKey.from(byRange, TODAY));
+    }
+
+    @Test
+    void key_NoDates_DefaultsToThirtyDaysFromToday() {
+        AvailabilitySearchKey key = AvailabilitySearchKey.from(request("Cardiology"), TODAY);
+
+        assertEquals(TODAY, key.startDate());
+        assertEquals(TODAY.plusDays(30), key.endDate());
+        assertEquals(ProviderAvailability.AppointmentType.CONSULTATION,
+                AvailabilitySearchKey.from(withType("Consultation "), TODAY).appointmentType());
+    }
+
+    @Test
+    void get_SameKey_LoadsOnce() {
+        AvailabilitySearchKey key = key("Cardiology", TODAY, TODAY);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(key, () -> response(loads.incrementAndGet()));
+        AvailabilitySearchResponse second = cache.get(key, () -> response(loads.incrementAndGet()));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, second.getTotalResults());
+    }
+
+    @Test
+    void get_ConcurrentMisses_ShareOneLoad() throws Exception {
+        AvailabilitySearchKey key = key("Cardiology", TODAY, TODAY);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<AvailabilitySearchResponse>> callers = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                callers.add(executor.submit(() -> cache.get(key, () -> {
+                    loads.incrementAndGet();
+                    loading.countDown();
+                    await(release);
+                    return response(42);
+                })));
+            }
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<AvailabilitySearchResponse> caller : callers) {
+                assertEquals(42, caller.get(5, TimeUnit.SECONDS).getTotalResults());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_FailedLoad_IsNotCached() {
+        AvailabilitySearchKey key = key("Cardiology", TODAY, TODAY);
+
+        assertThrows(IllegalStateException.class, () -> cache.get(key, () -> {
+            throw new IllegalStateException("timeout");
+        }));
+
+        assertEquals(7, cache.get(key, () -> response(7)).getTotalResults());
+    }
+
+    @Test
+    void get_EvictedWhileLoading_DoesNotKeepStaleResult() throws Exception {
+        AvailabilitySearchKey key = key("Cardiology", TODAY, TODAY);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<AvailabilitySearchResponse> stale = executor.submit(() -> cache.get(key, () -> {
+                loading.countDown();
+                await(release);
+                return response(1);
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            cache.invalidate("Cardiology", Set.of(TODAY));
+            release.countDown();
+
+            assertEquals(1, stale.get(5, TimeUnit.SECONDS).getTotalResults());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(2, cache.get(key, () -> response(2)).getTotalResults());
+    }
+
+    @Test
+    void invalidate_EvictsOnlyMatchingSpecializationAndDate() {
+        cache.get(key("Cardiology", TODAY, TODAY.plusDays(7)), () -> response(1));
+        cache.get(key("Cardiology", TODAY.plusDays(10), TODAY.plusDays(12)), () -> response(2));
+        cache.get(key("Dermatology", TODAY, TODAY.plusDays(7)), () -> response(3));
+
+        int evicted = cache.invalidate("Cardiology", Set.of(TODAY.plusDays(3)));
+
+        assertEquals(1, evicted);
+        AtomicInteger reloads = new AtomicInteger();
+        cache.get(key("Cardiology", TODAY.plusDays(10), TODAY.plusDays(12)), () -> response(reloads.incrementAndGet()));
+        cache.get(key("Dermatology", TODAY, TODAY.plusDays(7)), () -> response(reloads.incrementAndGet()));
+        assertEquals(0, reloads.get());
+    }
+
+    @Test
+    void get_RespectsSizeBound() {
+        AvailabilitySearchCache small = new AvailabilitySearchCache(new SimpleMeterRegistry(), Duration.ofSeconds(30), 10);
+
+        for (int i = 0; i < 100; i++) {
+            small.get(key("Specialization" + i, TODAY, TODAY), () -> response(0));
+        }
+
+        small.cleanUp();
+        assertTrue(small.size() <= 10);
+    }
+
+    private static AvailabilitySearchRequest request(String specialization) {
+        AvailabilitySearchRequest request = new AvailabilitySearchRequest();
+        request.setSpecialization(specialization);
+        return request;
+    }
+
+    private static AvailabilitySearchRequest withType(String type) {
+        AvailabilitySearchRequest request = request("Cardiology");
+        request.setAppointmentType(type);
+        return request;
+    }
+
+    private static AvailabilitySearchKey key(String specialization, LocalDate start, LocalDate end) {
+        return new AvailabilitySearchKey(specialization, start, end, null, null, null);
+    }
+
+    private static AvailabilitySearchResponse response(int totalResults) {
+        return AvailabilitySearchResponse.builder().totalResults(totalResults).results(List.of()).build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.think.service;
+
+import com.think.TestFixtures;
+import com.think.dto.SlotDeletionResponse;
+import com.think.entity.AppointmentSlot;
+import com.think.entity.Provider;
+import com.think.entity.ProviderAvailability;
+import com.think.event.SlotChangeEvent;
+import com.think.repository.AppointmentSlotRepository;
+import com.think.repository.ProviderAvailabilityRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@RecordApplicationEvents
+class AvailabilitySeriesDeleterTest {
+
+    private static final LocalDate START = LocalDate.now().plusDays(1);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProviderAvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private AppointmentSlotRepository slotRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private AvailabilitySeriesDeleter deleter;
+    private Provider provider;
+    private ProviderAvailability availability;
+
+    @BeforeEach
+    void setUp() {
+        deleter = new AvailabilitySeriesDeleter(availabilityRepository, slotRepository, eventPublisher,
+                new TransactionTemplate(transactionManager), 2);
+        provider = entityManager.persist(TestFixtures.provider(1));
+        availability = persistSeries();
+    }
+
+    @Test
+    void delete_KeepsBookedHeldAndCancelledSlotsAndEndsSeriesAtLastOne() {
+        persistSlot(0, AppointmentSlot.SlotStatus.AVAILABLE);
+        persistSlot(1, AppointmentSlot.SlotStatus.BOOKED);
+        persistSlot(2, AppointmentSlot.SlotStatus.AVAILABLE);
+        persistSlot(3, AppointmentSlot.SlotStatus.BLOCKED);
+        persistSlot(4, AppointmentSlot.SlotStatus.CANCELLED);
+        persistSlot(5, AppointmentSlot.SlotStatus.AVAILABLE);
+        persistSlot(6, AppointmentSlot.SlotStatus.HELD);
+        persistSlot(7, AppointmentSlot.SlotStatus.AVAILABLE);
+        flushAndClear();
+
+        SlotDeletionResponse response = deleter.delete(availability.getId());
+        flushAndClear();
+
+        assertEquals(5, response.getSlotsDeleted());
+        assertEquals(3, response.getSlotsSkipped());
+        assertFalse(response.getAvailabilityDeleted());
+        assertEquals(3, slotRepository.countByAvailabilityId(availability.getId()));
+        ProviderAvailability kept = availabilityRepository.findById(availability.getId()).orElseThrow();
+        assertEquals(ProviderAvailability.AvailabilityStatus.CANCELLED, kept.getStatus());
+        assertEquals(START.plusDays(6), kept.getRecurrenceEndDate());
+        assertEquals(START.plusDays(6), kept.getSlotsGeneratedThrough());
+        // Chunks of two: 2 + 2 + 1 slots
+        assertEquals(3, events.stream(SlotChangeEvent.class).count());
+        assertTrue(events.stream(SlotChangeEvent.class).allMatch(event -> event.getType() == SlotChangeEvent.Type.DELETED));
+    }
+
+    @Test
+    void delete_NoBookedSlots_RemovesSeries() {
+        for (int day = 0; day < 4; day++) {
+            persistSlot(day, AppointmentSlot.SlotStatus.AVAILABLE);
+        }
+        flushAndClear();
+
+        SlotDeletionResponse response = deleter.delete(availability.getId());
+        flushAndClear();
+
+        assertEquals(4, response.getSlotsDeleted());
+        assertEquals(0, response.getSlotsSkipped());
+        assertTrue(response.getAvailabilityDeleted());
+        assertTrue(availabilityRepository.findById(availability.getId()).isEmpty());
+    }
+
+    @Test
+    void delete_UnknownAvailability_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> deleter.delete(UUID.randomUUID()));
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private void persistSlot(int day, AppointmentSlot.SlotStatus status) {
+        entityManager.persist(TestFixtures.slot(availability, START.plusDays(day).atTime(9, 0), status));
+    }
+
+    private ProviderAvailability persistSeries() {
+        ProviderAvailability availability = TestFixtures.availability(provider, START, LocalTime.of(9, 0), LocalTime.of(9, 30));
+        availability.setIsRecurring(true);
+        availability.setRecurrencePattern(ProviderAvailability.RecurrencePattern.DAILY);
+        availability.setSlotsGeneratedThrough(START.plusDays(7));
+        return entityManager.persist(availability);
+    }
+}
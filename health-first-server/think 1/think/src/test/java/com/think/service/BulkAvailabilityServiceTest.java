@@ -0,0 +1,173 @@
+package com.think.service;
+
+import com.think.TestFixtures;
+import com.think.dto.BulkAvailabilityRequest;
+import com.think.dto.BulkAvailabilityResponse;
+import com.think.dto.CreateAvailabilityRequest;
+import com.think.entity.*;
+import com.think.event.SlotChangeEvent;
+import com.think.repository.AppointmentSlotRepository;
+import com.think.repository.ProviderAvailabilityRepository;
+import com.think.repository.ProviderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@RecordApplicationEvents
+class BulkAvailabilityServiceTest {
+
+    private static final LocalDate DATE = LocalDate.now().plusDays(7);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProviderRepository providerRepository;
+
+    @Autowired
+    private ProviderAvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private AppointmentSlotRepository slotRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private BulkAvailabilityService bulkService;
+
+    @BeforeEach
+    void setUp() {
+        SlotHorizon horizon = new SlotHorizon(14);
+        AvailabilityOverlapChecker overlapChecker = new AvailabilityOverlapChecker(availabilityRepository);
+        ProviderAvailabilityService availabilityService = new ProviderAvailabilityService(
+                null, null, null, null, null, null, horizon, overlapChecker, null);
+        bulkService = new BulkAvailabilityService(providerRepository, availabilityRepository, slotRepository,
+                availabilityService, overlapChecker, horizon, eventPublisher, new TransactionTemplate(transactionManager),
+                Runnable::run, 2);
+    }
+
+    @Test
+    void createForProviders_ReportsEachProviderAndSkipsOverlaps() {
+        Provider first = entityManager.persist(TestFixtures.provider(1));
+        Provider second = entityManager.persist(TestFixtures.provider(2));
+        Provider busy = entityManager.persist(TestFixtures.provider(3));
+        ProviderAvailability existing = TestFixtures.availability(busy, DATE, LocalTime.of(10, 0), LocalTime.of(11, 0));
+        entityManager.persist(existing);
+        entityManager.flush();
+        entityManager.clear();
+        String unknown = UUID.randomUUID().toString();
+
+        BulkAvailabilityResponse response = bulkService.createForProviders(new BulkAvailabilityRequest(template(),
+                List.of(first.getId().toString(), busy.getId().toString(), unknown, "not-a-uuid", second.getId().toString(),
+                        first.getId().toString())));
+
+        assertEquals(5, response.getProvidersRequested());
+        assertEquals(2, response.getProvidersCreated());
+        assertEquals(3, response.getProvidersFailed());
+        assertEquals(16, response.getSlotsCreated());
+        List<BulkAvailabilityResponse.ProviderResult> results = response.getResults();
+        assertEquals(first.getId().toString(), results.get(0).getProviderId());
+        assertEquals(BulkAvailabilityResponse.Status.CREATED, results.get(0).getStatus());
+        assertEquals(8, results.get(0).getSlotsCreated());
+        assertEquals("Time slot overlaps with existing availability on " + DATE, results.get(1).getMessage());
+        assertEquals("Provider not found with ID: " + unknown, results.get(2).getMessage());
+        assertEquals("Invalid provider ID format: not-a-uuid", results.get(3).getMessage());
+        assertEquals(BulkAvailabilityResponse.Status.CREATED, results.get(4).getStatus());
+
+        entityManager.flush();
+        entityManager.clear();
+        assertEquals(8, slotRepository.findAvailableSlotsByAvailabilityId(UUID.fromString(results.get(4).getAvailabilityId())).size());
+        assertEquals(1, availabilityRepository.findOverlapCandidates(busy.getId(), DATE, DATE).size());
+        assertEquals(2, events.stream(SlotChangeEvent.class).count());
+    }
+
+    @Test
+    void createForProviders_FailedTransaction_RetriesEachProviderAlone() {
+        Provider first = withId(TestFixtures.provider(1));
+        Provider broken = withId(TestFixtures.provider(2));
+        Provider second = withId(TestFixtures.provider(3));
+        ProviderRepository providers = mock(ProviderRepository.class);
+        when(providers.findAllById(any())).thenReturn(List.of(first, broken, second));
+        ProviderAvailabilityRepository availabilities = mock(ProviderAvailabilityRepository.class);
+        when(availabilities.saveAll(anyList())).thenAnswer(invocation -> {
+            List<ProviderAvailability> saved = invocation.getArgument(0);
+            saved.forEach(availability -> availability.setId(UUID.randomUUID()));
+            return saved;
+        });
+        AppointmentSlotRepository slots = mock(AppointmentSlotRepository.class);
+        when(slots.saveAll(anyList())).thenAnswer(invocation -> {
+            List<AppointmentSlot> saved = invocation.getArgument(0);
+            if (saved.stream().anyMatch(slot -> slot.getProvider().getId().equals(broken.getId()))) {
+                throw new DataIntegrityViolationException("slot rejected");
+            }
+            return saved;
+        });
+        ApplicationEventPublisher publisher = mock(ApplicationEventPublisher.class);
+        SlotHorizon horizon = new SlotHorizon(14);
+        AvailabilityOverlapChecker overlapChecker = new AvailabilityOverlapChecker(availabilities);
+        BulkAvailabilityService service = new BulkAvailabilityService(providers, availabilities, slots,
+                new ProviderAvailabilityService(null, null, null, null, null, null, horizon, overlapChecker, null),
+                overlapChecker, horizon, publisher, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                Runnable::run, 3);
+
+        BulkAvailabilityResponse response = service.createForProviders(new BulkAvailabilityRequest(template(),
+                List.of(first.getId().toString(), broken.getId().toString(), second.getId().toString())));
+
+        assertEquals(2, response.getProvidersCreated());
+        assertEquals(List.of(BulkAvailabilityResponse.Status.CREATED, BulkAvailabilityResponse.Status.FAILED,
+                        BulkAvailabilityResponse.Status.CREATED),
+                response.getResults().stream().map(BulkAvailabilityResponse.ProviderResult::getStatus).toList());
+        assertEquals("Failed to create availability: slot rejected", response.getResults().get(1).getMessage());
+        verify(slots, times(4)).saveAll(anyList());
+        verify(publisher, times(2)).publishEvent(any(SlotChangeEvent.class));
+    }
+
+    @Test
+    void createForProviders_InvalidTemplate_RejectsBeforeLoadingProviders() {
+        CreateAvailabilityRequest template = template();
+        template.setEndTime(LocalTime.of(8, 0));
+
+        assertThrows(IllegalArgumentException.class, () -> bulkService.createForProviders(
+                new BulkAvailabilityRequest(template, List.of(UUID.randomUUID().toString()))));
+    }
+
+    private static Provider withId(Provider provider) {
+        provider.setId(UUID.randomUUID());
+        return provider;
+    }
+
+    private static CreateAvailabilityRequest template() {
+        CreateAvailabilityRequest template = new CreateAvailabilityRequest();
+        template.setDate(DATE);
+        template.setStartTime(LocalTime.of(9, 0));
+        template.setEndTime(LocalTime.of(13, 0));
+        template.setTimezone("UTC");
+        template.setLocation(new CreateAvailabilityRequest.LocationRequest(ProviderAvailability.LocationType.CLINIC, "10 Clinic Rd", null));
+        return template;
+    }
+}
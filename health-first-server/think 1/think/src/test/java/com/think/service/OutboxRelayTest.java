@@ -0,0 +1,156 @@
+package com.think.service;
+
+import com.think.entity.OutboxEvent;
+import com.think.event.InMemoryOutboxSink;
+import com.think.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 3, 4, 9, 0);
+
+    @Mock
+    private OutboxEventRepository outboxRepository;
+
+    private InMemoryOutboxSink sink;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        sink = new InMemoryOutboxSink(3);
+        meterRegistry = new SimpleMeterRegistry();
+        Clock clock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        relay = new OutboxRelay(outboxRepository, sink, meterRegistry, clock, 2, 10,
+                3, Duration.ofSeconds(5), Duration.ofMinutes(1));
+    }
+
+    @Test
+    void relay_DeliversBatchesUntilDrainedAndDeletesThem() {
+        List<OutboxEvent> first = List.of(event(5), event(4));
+        List<OutboxEvent> second = List.of(event(3));
+        when(outboxRepository.findDue(eq(NOW), eq(3), any(Pageable.class))).thenReturn(first).thenReturn(second);
+
+        relay.relay();
+
+        assertEquals(3, sink.size());
+        verify(outboxRepository).deleteByIds(ids(first));
+        verify(outboxRepository).deleteByIds(ids(second));
+        verify(outboxRepository, times(2)).findDue(eq(NOW), eq(3), any(Pageable.class));
+        assertEquals(3.0, meterRegistry.get("think.outbox.events").tag("outcome", "published").counter().count());
+        assertEquals(5.0, meterRegistry.get("think.outbox.delivery.lag").timer().max(TimeUnit.SECONDS));
+    }
+
+    @Test
+    void relay_SinkRefusesBatch_DeliversWhatItCanAndBacksOffTheRest() throws Exception {
+        OutboxEvent first = event(2);
+        OutboxEvent second = event(1);
+        when(outboxRepository.findDue(eq(NOW), eq(3), any(Pageable.class))).thenReturn(List.of(first, second));
+        when(outboxRepository.countByAttemptsLessThan(3)).thenReturn(1L);
+        when(outboxRepository.findOldestCreatedAt(3)).thenReturn(NOW.minusSeconds(30));
+        sink.publish(List.of(event(9), event(9)));
+
+        relay.relay();
+
+        verify(outboxRepository).deleteByIds(List.of(first.getId()));
+        verify(outboxRepository).recordFailure(eq(second.getId()), contains("full"), eq(NOW.plusSeconds(5)));
+        verify(outboxRepository, times(1)).findDue(any(), anyInt(), any(Pageable.class));
+        assertEquals(1.0, meterRegistry.get("think.outbox.events").tag("outcome", "failed").counter().count());
+        assertEquals(1.0, meterRegistry.get("think.outbox.pending").gauge().value());
+        assertEquals(30.0, meterRegistry.get("think.outbox.oldest.age.seconds").gauge().value());
+    }
+
+    @Test
+    void relay_EventFailsAlone_HoldsBackLaterEventsOfSameAggregate() {
+        OutboxEvent first = event(3);
+        OutboxEvent other = event(2);
+        OutboxEvent second = event(1);
+        second.setAggregateId(first.getAggregateId());
+        when(outboxRepository.findDue(eq(NOW), eq(3), any(Pageable.class))).thenReturn(List.of(first, other, second));
+        List<OutboxEvent> accepted = new ArrayList<>();
+        OutboxRelay picky = new OutboxRelay(outboxRepository, events -> {
+            if (events.contains(first)) {
+                throw new IOException("rejected");
+            }
+            accepted.addAll(events);
+        }, new SimpleMeterRegistry(), Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC), 3, 10,
+                3, Duration.ofSeconds(5), Duration.ofMinutes(1));
+
+        assertEquals(1, picky.relayBatch());
+
+        assertEquals(List.of(other), accepted);
+        verify(outboxRepository).deleteByIds(List.of(other.getId()));
+        verify(outboxRepository).recordFailure(eq(first.getId()), contains("rejected"), eq(NOW.plusSeconds(5)));
+        verify(outboxRepository, never()).recordFailure(eq(second.getId()), any(), any());
+    }
+
+    @Test
+    void relay_LastAttemptFails_ParksEvent() throws Exception {
+        OutboxEvent poison = event(60);
+        poison.setAttempts(2);
+        when(outboxRepository.findDue(eq(NOW), eq(3), any(Pageable.class))).thenReturn(List.of(poison));
+        when(outboxRepository.countByAttemptsGreaterThanEqual(3)).thenReturn(1L);
+        sink.publish(List.of(event(9), event(9), event(9)));
+
+        relay.relay();
+
+        verify(outboxRepository).recordFailure(eq(poison.getId()), contains("full"), eq(NOW.plusSeconds(20)));
+        verify(outboxRepository, never()).deleteByIds(anyCollection());
+        assertEquals(1.0, meterRegistry.get("think.outbox.parked").gauge().value());
+    }
+
+    @Test
+    void backoff_DoublesPerAttemptUpToCap() {
+        assertEquals(Duration.ofSeconds(5), relay.backoff(1));
+        assertEquals(Duration.ofSeconds(40), relay.backoff(4));
+        assertEquals(Duration.ofMinutes(1), relay.backoff(5));
+        assertEquals(Duration.ofMinutes(1), relay.backoff(100));
+    }
+
+    @Test
+    void relay_EmptyOutbox_PublishesNothing() {
+        when(outboxRepository.findDue(eq(NOW), eq(3), any(Pageable.class))).thenReturn(List.of());
+
+        relay.relay();
+
+        assertEquals(0, sink.size());
+        verify(outboxRepository, never()).deleteByIds(anyCollection());
+        assertEquals(0.0, meterRegistry.get("think.outbox.oldest.age.seconds").gauge().value());
+    }
+
+    private static OutboxEvent event(int secondsAgo) {
+        return OutboxEvent.builder()
+                .id(UUID.randomUUID())
+                .aggregateType("AppointmentSlot")
+                .aggregateId(UUID.randomUUID())
+                .eventType("appointment.booked")
+                .payload("{}")
+                .createdAt(NOW.minusSeconds(secondsAgo))
+                .build();
+    }
+
+    private static List<UUID> ids(List<OutboxEvent> events) {
+        return events.stream().map(OutboxEvent::getId).toList();
+    }
+}
@@ -0,0 +1,97 @@
+package com.think.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.think.entity.AppointmentSlot;
+import com.think.entity.OutboxEvent;
+import com.think.event.SlotChangeEvent;
+import com.think.repository.OutboxEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(OutboxWriter.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxWriterTest {
+
+    private static final UUID PROVIDER = UUID.randomUUID();
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void tearDown() {
+        outboxRepository.deleteAll();
+    }
+
+    @Test
+    void onSlotChange_CommittedBooking_WritesOneRowPerSlot() throws Exception {
+        SlotChangeEvent.Slot slot = slot(AppointmentSlot.SlotStatus.BOOKED);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                eventPublisher.publishEvent(new SlotChangeEvent(SlotChangeEvent.Type.BOOKED, PROVIDER, "Cardiology", List.of(slot))));
+
+        List<OutboxEvent> rows = outboxRepository.findAll();
+        assertEquals(1, rows.size());
+        OutboxEvent row = rows.get(0);
+        assertEquals("appointment.booked", row.getEventType());
+        assertEquals(slot.getId(), row.getAggregateId());
+        assertEquals(0, row.getAttempts());
+        JsonNode payload = objectMapper.readTree(row.getPayload());
+        assertEquals("APT-TEST", payload.get("booking_reference").asText());
+        assertEquals("patient-1", payload.get("patient_id").asText());
+        assertEquals("2030-03-04T09:00:00", payload.get("start_time").asText());
+    }
+
+    @Test
+    void onSlotChange_RolledBackCancellation_WritesNothing() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new SlotChangeEvent(SlotChangeEvent.Type.CANCELLED, PROVIDER, "Cardiology",
+                    List.of(slot(AppointmentSlot.SlotStatus.CANCELLED))));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    void onSlotChange_SlotCreation_IsNotAnOutboxEvent() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                eventPublisher.publishEvent(new SlotChangeEvent(SlotChangeEvent.Type.CREATED, PROVIDER, "Cardiology",
+                        List.of(slot(AppointmentSlot.SlotStatus.AVAILABLE)))));
+
+        assertEquals(0, outboxRepository.count());
+    }
+
+    private static SlotChangeEvent.Slot slot(AppointmentSlot.SlotStatus status) {
+        LocalDateTime start = LocalDateTime.of(2030, 3, 4, 9, 0);
+        return new SlotChangeEvent.Slot(UUID.randomUUID(), UUID.randomUUID(), start, start.plusMinutes(30),
+                status, "APT-TEST", "patient-1");
+    }
+}
@@ -0,0 +1,227 @@
+package com.think.service;
+
+import com.think.TestFixtures;
+import com.think.dto.FreeBusyResponse;
+import com.think.dto.NextAvailableResponse;
+import com.think.entity.AppointmentSlot;
+import com.think.entity.Provider;
+import com.think.entity.ProviderAvailability;
+import com.think.entity.ProviderDayOccupancy;
+import com.think.event.SlotChangeEvent;
+import com.think.repository.AppointmentSlotRepository;
+import com.think.repository.ProviderDayOccupancyRepository;
+import com.think.repository.ProviderRepository;
+import com.think.util.DayBitmap;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+class ProviderOccupancyServiceTest {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(2);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProviderDayOccupancyRepository occupancyRepository;
+
+    @Autowired
+    private AppointmentSlotRepository slotRepository;
+
+    @Autowired
+    private ProviderRepository providerRepository;
+
+    private ProviderOccupancyService occupancyService;
+    private Provider provider;
+    private ProviderAvailability availability;
+
+    @BeforeEach
+    void setUp() {
+        occupancyService = new ProviderOccupancyService(occupancyRepository, slotRepository, providerRepository,
+                new SlotHorizon(14), new SimpleMeterRegistry(), Duration.ofMinutes(10), 1000);
+        provider = entityManager.persist(TestFixtures.provider(1));
+        availability = entityManager.persist(TestFixtures.availability(provider, DAY, LocalTime.of(8, 0), LocalTime.of(17, 0)));
+    }
+
+    @Test
+    void onSlotChange_CreatedThenBooked_TracksFreeAndBusyTicks() {
+        List<AppointmentSlot> slots = List.of(
+                persistSlot(DAY.atTime(9, 0), AppointmentSlot.SlotStatus.AVAILABLE),
+                persistSlot(DAY.atTime(9, 30), AppointmentSlot.SlotStatus.AVAILABLE),
+                persistSlot(DAY.atTime(10, 0), AppointmentSlot.SlotStatus.AVAILABLE));
+        entityManager.flush();
+
+        occupancyService.onSlotChange(SlotChangeEvent.of(SlotChangeEvent.Type.CREATED, slots));
+        slots.get(1).setStatus(AppointmentSlot.SlotStatus.BOOKED);
+        occupancyService.onSlotChange(SlotChangeEvent.of(SlotChangeEvent.Type.BOOKED, slots.get(1)));
+        entityManager.flush();
+        occupancyService.evict(SlotChangeEvent.of(SlotChangeEvent.Type.BOOKED, slots.get(1)));
+
+        FreeBusyResponse freeBusy = occupancyService.getFreeBusy(provider.getId().toString(), DAY);
+        assertEquals(List.of(range(9, 0, 9, 30), range(10, 0, 10, 30)), freeBusy.getFree());
+        assertEquals(List.of(range(9, 30, 10, 0)), freeBusy.getBusy());
+        assertEquals(1, occupancyRepository.findInRange(provider.getId(), DAY, DAY.plusDays(1)).size());
+
+        occupancyService.onSlotChange(SlotChangeEvent.of(SlotChangeEvent.Type.DELETED, slots.get(2)));
+        occupancyService.evict(SlotChangeEvent.of(SlotChangeEvent.Type.DELETED, slots.get(2)));
+        assertEquals(List.of(range(9, 0, 9, 30)), occupancyService.getFreeBusy(provider.getId().toString(), DAY).getFree());
+    }
+
+    @Test
+    void getNextAvailable_SkipsBusyAndEarlierSlots() {
+        List<AppointmentSlot> slots = List.of(
+                persistSlot(DAY.atTime(9, 0), AppointmentSlot.SlotStatus.AVAILABLE),
+                persistSlot(DAY.atTime(9, 30), AppointmentSlot.SlotStatus.BOOKED),
+                persistSlot(DAY.plusDays(3).atTime(8, 0), AppointmentSlot.SlotStatus.AVAILABLE));
+        entityManager.flush();
+        occupancyService.onSlotChange(SlotChangeEvent.of(SlotChangeEvent.Type.CREATED, slots));
+        entityManager.flush();
+        String providerId = provider.getId().toString();
+
+        assertEquals(DAY.atTime(9, 0), occupancyService.getNextAvailable(providerId, DAY.atTime(9, 0)).getNextAvailable());
+        assertEquals(DAY.plusDays(3).atTime(8, 0),
+                occupancyService.getNextAvailable(providerId, DAY.atTime(9, 1)).getNextAvailable());
+        assertNull(occupancyService.getNextAvailable(providerId, DAY.plusDays(3).atTime(8, 5)).getNextAvailable());
+    }
+
+    @Test
+    void getNextAvailable_AfterInThePast_StartsFromNow() {
+        ProviderDayOccupancyRepository rows = mock(ProviderDayOccupancyRepository.class);
+        AppointmentSlotRepository slots = mock(AppointmentSlotRepository.class);
+        ProviderOccupancyService service = new ProviderOccupancyService(rows, slots, providerRepository,
+                new SlotHorizon(14), new SimpleMeterRegistry(), Duration.ofMinutes(10), 1000);
+
+        NextAvailableResponse response = service.getNextAvailable(provider.getId().toString(), LocalDateTime.of(1900, 1, 1, 0, 0));
+
+        assertNull(response.getNextAvailable());
+        assertFalse(response.getAfter().toLocalDate().isBefore(LocalDate.now()));
+        verify(rows).findInRange(eq(provider.getId()), eq(response.getAfter().toLocalDate()), any());
+    }
+
+    @Test
+    void getFreeBusy_DayWithoutRow_IsComputedFromSlotsUntilAChangeBuildsItsRow() {
+        AppointmentSlot slot = persistSlot(DAY.atTime(14, 0), AppointmentSlot.SlotStatus.AVAILABLE);
+        entityManager.flush();
+
+        assertEquals(List.of(range(14, 0, 14, 30)),
+                occupancyService.getFreeBusy(provider.getId().toString(), DAY).getFree());
+
+        slot.setStatus(AppointmentSlot.SlotStatus.BOOKED);
+        occupancyService.onSlotChange(SlotChangeEvent.of(SlotChangeEvent.Type.BOOKED, slot));
+        occupancyService.evict(SlotChangeEvent.of(SlotChangeEvent.Type.BOOKED, slot));
+        entityManager.flush();
+
+        List<ProviderDayOccupancy> stored = occupancyRepository.findInRange(provider.getId(), DAY, DAY);
+        assertEquals(1, stored.size());
+        assertTrue(DayBitmap.of(stored.get(0).getFreeTicks()).runs().isEmpty());
+        assertEquals(List.of(range(14, 0, 14, 30)),
+                occupancyService.getFreeBusy(provider.getId().toString(), DAY).getBusy());
+    }
+
+    @Test
+    void onSlotChange_MovedSlot_ClearsItsOldTicks() {
+        AppointmentSlot slot = persistSlot(DAY.atTime(9, 0), AppointmentSlot.SlotStatus.AVAILABLE);
+        AppointmentSlot other = persistSlot(DAY.atTime(10, 0), AppointmentSlot.SlotStatus.AVAILABLE);
+        entityManager.flush();
+        occupancyService.onSlotChange(SlotChangeEvent.of(SlotChangeEvent.Type.CREATED, List.of(slot, other)));
+        String providerId = provider.getId().toString();
+
+        slot.setSlotStartTime(DAY.atTime(11, 0));
+        slot.setSlotEndTime(DAY.atTime(11, 30));
+        SlotChangeEvent sameDay = SlotChangeEvent.moved(slot, DAY.atTime(9, 0), DAY.atTime(9, 30));
+        occupancyService.onSlotChange(sameDay);
+        entityManager.flush();
+        occupancyService.evict(sameDay);
+        assertEquals(List.of(range(10, 0, 10, 30), range(11, 0, 11, 30)), occupancyService.getFreeBusy(providerId, DAY).getFree());
+
+        LocalDateTime nextDay = DAY.plusDays(1).atTime(9, 0);
+        slot.setSlotStartTime(nextDay);
+        slot.setSlotEndTime(nextDay.plusMinutes(30));
+        SlotChangeEvent toNextDay = SlotChangeEvent.moved(slot, DAY.atTime(11, 0), DAY.atTime(11, 30));
+        assertEquals(Set.of(DAY, DAY.plusDays(1)), toNextDay.dates());
+        occupancyService.onSlotChange(toNextDay);
+        entityManager.flush();
+        occupancyService.evict(toNextDay);
+        assertEquals(List.of(range(10, 0, 10, 30)), occupancyService.getFreeBusy(providerId, DAY).getFree());
+        assertEquals(List.of(new FreeBusyResponse.TimeRange(nextDay, nextDay.plusMinutes(30))),
+                occupancyService.getFreeBusy(providerId, DAY.plusDays(1)).getFree());
+    }
+
+    @Test
+    void onSlotChange_RowBuiltWhileWaitingForProviderLock_AppliesTicksToIt() {
+        ProviderDayOccupancyRepository rows = mock(ProviderDayOccupancyRepository.class);
+        AppointmentSlotRepository slots = mock(AppointmentSlotRepository.class);
+        ProviderRepository providers = mock(ProviderRepository.class);
+        ProviderDayOccupancy concurrent = ProviderDayOccupancy.builder()
+                .providerId(provider.getId())
+                .date(DAY)
+                .freeTicks(DayBitmap.empty().toBytes())
+                .busyTicks(DayBitmap.empty().toBytes())
+                .startTicks(DayBitmap.empty().toBytes())
+                .build();
+        when(rows.countByProviderIdAndDateIn(any(), any())).thenReturn(0L);
+        when(rows.findForUpdate(any(), any())).thenReturn(List.of(concurrent));
+        ProviderOccupancyService service = new ProviderOccupancyService(rows, slots, providers,
+                new SlotHorizon(14), new SimpleMeterRegistry(), Duration.ofMinutes(10), 1000);
+
+        service.onSlotChange(SlotChangeEvent.of(SlotChangeEvent.Type.CREATED, TestFixtures.slot(availability, DAY.atTime(9, 0))));
+
+        InOrder order = inOrder(providers, rows);
+        order.verify(providers).findForUpdate(provider.getId());
+        order.verify(rows).findForUpdate(any(), any());
+        verify(slots, never()).findByProviderAndTimeRange(any(), any(), any());
+        verify(rows).saveAll(List.of(concurrent));
+        assertEquals(DayBitmap.tickAtOrAfter(LocalTime.of(9, 0)), DayBitmap.of(concurrent.getStartTicks()).next(0));
+    }
+
+    @Test
+    void days_EvictedWhileLoading_IsNotCached() {
+        ProviderDayOccupancyRepository rows = mock(ProviderDayOccupancyRepository.class);
+        AppointmentSlotRepository slots = mock(AppointmentSlotRepository.class);
+        ProviderOccupancyService service = new ProviderOccupancyService(rows, slots, providerRepository,
+                new SlotHorizon(14), new SimpleMeterRegistry(), Duration.ofMinutes(10), 1000);
+        SlotChangeEvent booked = SlotChangeEvent.of(SlotChangeEvent.Type.BOOKED,
+                TestFixtures.slot(availability, DAY.atTime(9, 0), AppointmentSlot.SlotStatus.BOOKED));
+        AtomicBoolean evictDuringLoad = new AtomicBoolean(true);
+        when(rows.findInRange(any(), any(), any())).thenAnswer(invocation -> {
+            if (evictDuringLoad.getAndSet(false)) {
+                service.evict(booked);
+            }
+            return List.of();
+        });
+        when(slots.findByProviderAndTimeRange(any(), any(), any())).thenReturn(List.of());
+
+        for (int i = 0; i < 3; i++) {
+            service.days(provider.getId(), DAY, DAY);
+        }
+
+        verify(rows, times(2)).findInRange(any(), any(), any());
+    }
+
+    private static FreeBusyResponse.TimeRange range(int startHour, int startMinute, int endHour, int endMinute) {
+        return new FreeBusyResponse.TimeRange(DAY.atTime(startHour, startMinute), DAY.atTime(endHour, endMinute));
+    }
+
+    private AppointmentSlot persistSlot(LocalDateTime start, AppointmentSlot.SlotStatus status) {
+        return entityManager.persist(TestFixtures.slot(availability, start, status));
+    }
+}
@@ -0,0 +1,63 @@
+package com.think.service;
+
+import com.think.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryGuardTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private QueryGuard queryGuard;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        queryGuard = new QueryGuard(meterRegistry, Duration.ofSeconds(3));
+    }
+
+    @Test
+    void call_Success_ReturnsResult() {
+        assertEquals("ok", queryGuard.call("appointments.list", () -> "ok"));
+    }
+
+    @Test
+    void call_QueryTimeout_ThrowsOverloadedAndCounts() {
+        ServiceOverloadedException exception = assertThrows(ServiceOverloadedException.class,
+                () -> queryGuard.call("appointments.list", () -> {
+                    throw new QueryTimeoutException("statement timeout");
+                }));
+
+        assertEquals(Duration.ofSeconds(3), exception.getRetryAfter());
+        assertEquals(1.0, meterRegistry.get("think.query.failures")
+                .tag("query", "appointments.list").tag("reason", "timeout").counter().count());
+    }
+
+    @Test
+    void call_NoConnectionAvailable_ThrowsOverloaded() {
+        assertThrows(ServiceOverloadedException.class,
+                () -> queryGuard.call("availability.search", () -> {
+                    throw new CannotCreateTransactionException("Connection is not available, request timed out");
+                }));
+
+        assertEquals(1.0, meterRegistry.get("think.query.failures")
+                .tag("query", "availability.search").tag("reason", "unavailable").counter().count());
+    }
+
+    @Test
+    void call_NonTransientFailure_PropagatesUnchanged() {
+        assertThrows(DataIntegrityViolationException.class,
+                () -> queryGuard.call("appointments.list", () -> {
+                    throw new DataIntegrityViolationException("constraint");
+                }));
+
+        assertTrue(meterRegistry.find("think.query.failures").counters().isEmpty());
+    }
+}
@@ -0,0 +1,111 @@
+package com.think.service;
+
+import com.think.TestFixtures;
+import com.think.dto.AvailabilityResponse;
+import com.think.dto.AvailabilitySearchRequest;
+import com.think.dto.AvailabilitySearchResponse;
+import com.think.entity.AppointmentSlot;
+import com.think.entity.Provider;
+import com.think.entity.ProviderAvailability;
+import com.think.repository.AppointmentSlotRepository;
+import com.think.repository.ProviderAvailabilityRepository;
+import com.think.repository.ProviderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class SeriesAvailabilityReadTest {
+
+    private static final LocalDate START = LocalDate.of(2030, 3, 4);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProviderRepository providerRepository;
+
+    @Autowired
+    private ProviderAvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private AppointmentSlotRepository slotRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ProviderAvailabilityService availabilityService;
+    private Provider provider;
+
+    @BeforeEach
+    void setUp() {
+        availabilityService = new ProviderAvailabilityService(availabilityRepository, slotRepository, providerRepository,
+                new AvailabilitySearchCache(new SimpleMeterRegistry(), Duration.ofSeconds(30), 100),
+                null, transactionManager, null, null, null);
+        provider = entityManager.persist(TestFixtures.provider(1));
+        ProviderAvailability series = TestFixtures.availability(provider, START, LocalTime.of(9, 0), LocalTime.of(10, 0));
+        series.setIsRecurring(true);
+        series.setRecurrencePattern(ProviderAvailability.RecurrencePattern.DAILY);
+        series.setSlotsGeneratedThrough(START.plusDays(13));
+        series = entityManager.persist(series);
+        for (int day = 0; day < 14; day++) {
+            entityManager.persist(TestFixtures.slot(series, START.plusDays(day).atTime(9, 0)));
+            entityManager.persist(TestFixtures.slot(series, START.plusDays(day).atTime(9, 30),
+                    day == 10 ? AppointmentSlot.SlotStatus.BOOKED : AppointmentSlot.SlotStatus.AVAILABLE));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void getProviderAvailability_SeriesAfterStartDate_ListsOccurrencesInRange() {
+        AvailabilityResponse.ProviderAvailabilityResponse response = availabilityService.getProviderAvailability(
+                provider.getId().toString(), START.plusDays(10), START.plusDays(11), null, null);
+
+        List<AvailabilityResponse.DailyAvailability> days = response.getAvailability();
+        assertEquals(List.of(START.plusDays(10), START.plusDays(11)),
+                days.stream().map(AvailabilityResponse.DailyAvailability::getDate).toList());
+        assertEquals(1, days.get(0).getSlots().size());
+        assertEquals(2, days.get(1).getSlots().size());
+        assertEquals(3, response.getAvailabilitySummary().getTotalSlots());
+    }
+
+    @Test
+    void searchAvailableSlots_SeriesAfterStartDate_ReturnsOnlySlotsInRange() {
+        AvailabilitySearchRequest request = new AvailabilitySearchRequest();
+        request.setSpecialization(TestFixtures.SPECIALIZATION);
+        request.setStartDate(START.plusDays(12));
+        request.setEndDate(START.plusDays(12));
+
+        AvailabilitySearchResponse response = availabilityService.searchAvailableSlots(request);
+
+        assertEquals(1, response.getResults().size());
+        List<AvailabilitySearchResponse.AvailableSlot> slots = response.getResults().get(0).getAvailableSlots();
+        assertEquals(2, slots.size());
+        assertTrue(slots.stream().allMatch(slot -> slot.getDate().equals(START.plusDays(12))));
+    }
+
+    @Test
+    void searchAvailableSlots_RangeAfterLastOccurrence_FindsNothing() {
+        AvailabilitySearchRequest request = new AvailabilitySearchRequest();
+        request.setSpecialization(TestFixtures.SPECIALIZATION);
+        request.setStartDate(START.plusDays(20));
+        request.setEndDate(START.plusDays(25));
+
+        AvailabilitySearchResponse response = availabilityService.searchAvailableSlots(request);
+
+        assertEquals(0, response.getTotalResults());
+        assertTrue(response.getResults().isEmpty());
+    }
+}
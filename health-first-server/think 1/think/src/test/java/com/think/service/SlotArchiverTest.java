@@ -0,0 +1,124 @@
+package com.think.service;
+
+import com.think.TestFixtures;
+import com.think.dto.AppointmentListItem;
+import com.think.entity.*;
+import com.think.repository.AppointmentFilter;
+import com.think.repository.AppointmentSlotRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class SlotArchiverTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 3, 4, 3, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AppointmentSlotRepository slotRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SlotArchivePolicy archivePolicy;
+    private SlotArchiver archiver;
+    private Provider provider;
+    private Patient patient;
+    private ProviderAvailability availability;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        archivePolicy = new SlotArchivePolicy(30);
+        Clock clock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        archiver = new SlotArchiver(slotRepository, archivePolicy, new TransactionTemplate(transactionManager),
+                meterRegistry, clock, 2, 10, Duration.ZERO);
+        provider = entityManager.persist(TestFixtures.provider(1));
+        patient = entityManager.persist(TestFixtures.patient(1));
+        availability = entityManager.persist(TestFixtures.availability(provider, NOW.toLocalDate().minusDays(60)));
+    }
+
+    @Test
+    void archive_MovesOpenAndCancelledSlotsBeforeCutoffInBatches() {
+        LocalDateTime old = NOW.minusDays(60).withHour(9);
+        AppointmentSlot booked = persistSlot(old, AppointmentSlot.SlotStatus.BOOKED);
+        booked.setPatient(patient);
+        booked.setBookingReference("APT-OLD1");
+        persistSlot(old.plusMinutes(30), AppointmentSlot.SlotStatus.AVAILABLE);
+        AppointmentSlot cancelled = persistSlot(old.plusMinutes(60), AppointmentSlot.SlotStatus.CANCELLED);
+        cancelled.setPatient(patient);
+        cancelled.setBookingReference("APT-OLD2");
+        persistSlot(old.plusMinutes(90), AppointmentSlot.SlotStatus.AVAILABLE);
+        AppointmentSlot held = persistSlot(old.plusMinutes(120), AppointmentSlot.SlotStatus.HELD);
+        AppointmentSlot recent = persistSlot(NOW.minusDays(5), AppointmentSlot.SlotStatus.AVAILABLE);
+        entityManager.flush();
+        entityManager.clear();
+
+        archiver.archive();
+        entityManager.clear();
+
+        assertEquals(List.of(booked.getId(), held.getId(), recent.getId()),
+                slotRepository.findAll(Sort.by("slotStartTime")).stream().map(AppointmentSlot::getId).toList());
+        assertTrue(slotRepository.findByBookingReference("APT-OLD1").isPresent());
+        ArchivedAppointmentSlot archived = entityManager.find(ArchivedAppointmentSlot.class, cancelled.getId());
+        assertEquals(patient.getId(), archived.getPatient().getId());
+        assertEquals(provider.getId(), archived.getProvider().getId());
+        assertEquals(availability.getId(), archived.getAvailability().getId());
+        assertEquals(AppointmentSlot.SlotStatus.CANCELLED, archived.getStatus());
+        assertEquals("APT-OLD2", archived.getBookingReference());
+        assertEquals(NOW, archived.getArchivedAt());
+        assertEquals(3.0, meterRegistry.get("think.archive.slots").counter().count());
+    }
+
+    @Test
+    void findAppointmentListItems_IncludeArchive_MergesBothTables() {
+        LocalDateTime old = NOW.minusDays(60).withHour(9);
+        for (int i = 0; i < 3; i++) {
+            persistSlot(old.plusMinutes(30L * i), AppointmentSlot.SlotStatus.AVAILABLE);
+            persistSlot(NOW.minusDays(5).plusMinutes(30L * i), AppointmentSlot.SlotStatus.AVAILABLE);
+        }
+        entityManager.flush();
+        archiver.archive();
+        entityManager.clear();
+
+        AppointmentFilter liveOnly = AppointmentFilter.builder().providerId(provider.getId()).build();
+        AppointmentFilter all = AppointmentFilter.builder().providerId(provider.getId()).includeArchive(true).build();
+
+        assertEquals(3, slotRepository.countAppointments(liveOnly));
+        assertEquals(6, slotRepository.countAppointments(all));
+
+        Page<AppointmentListItem> page = slotRepository.findAppointmentListItems(all,
+                PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "slotStartTime")));
+        assertEquals(List.of(NOW.minusDays(5), old.plusMinutes(60)),
+                page.getContent().stream().map(AppointmentListItem::getSlotStartTime).toList());
+        assertEquals(6, page.getTotalElements());
+
+        List<AppointmentListItem> seek = slotRepository.findAppointmentListItems(all, null, Sort.Direction.ASC, 4);
+        assertEquals(List.of(old, old.plusMinutes(30), old.plusMinutes(60), NOW.minusDays(5)),
+                seek.stream().map(AppointmentListItem::getSlotStartTime).toList());
+    }
+
+    private AppointmentSlot persistSlot(LocalDateTime start, AppointmentSlot.SlotStatus status) {
+        return entityManager.persist(TestFixtures.slot(availability, start, status));
+    }
+}
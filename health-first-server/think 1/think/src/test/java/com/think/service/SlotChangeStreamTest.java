@@ -0,0 +1,205 @@
+package com.think.service;
+
+import com.think.dto.SlotChangeMessage;
+import com.think.entity.AppointmentSlot;
+import com.think.event.SlotChangeEvent;
+import com.think.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlotChangeStreamTest {
+
+    private static final UUID PROVIDER = UUID.randomUUID();
+    private static final LocalDate DATE = LocalDate.of(2030, 3, 4);
+
+    private final List<Runnable> pending = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private SlotChangeStream stream;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        stream = new SlotChangeStream(meterRegistry, pending::add, Duration.ofMinutes(1), 2, 3, Duration.ofSeconds(2));
+    }
+
+    @Test
+    void onSlotChange_ProviderSubscriber_ReceivesOnlyThatProvider() {
+        RecordingEmitter emitter = subscribe(SlotChangeStream.providerFilter(PROVIDER));
+
+        stream.onSlotChange(event(PROVIDER, "Cardiology", DATE.atTime(9, 0)));
+        stream.onSlotChange(event(UUID.randomUUID(), "Cardiology", DATE.atTime(9, 0)));
+        runPending();
+
+        assertEquals(1, emitter.events.size());
+        SlotChangeMessage message = (SlotChangeMessage) emitter.events.get(0).data();
+        assertEquals(SlotChangeStream.SLOT_EVENT, emitter.events.get(0).name());
+        assertEquals(PROVIDER.toString(), message.getProviderId());
+        assertEquals(AppointmentSlot.SlotStatus.BOOKED, message.getStatus());
+    }
+
+    @Test
+    void subscribeSpecialization_FiltersBySpecializationAndDate() {
+        RecordingEmitter emitter = subscribe(SlotChangeStream.specializationFilter("Cardiology", DATE));
+
+        stream.onSlotChange(event(PROVIDER, "Cardiology", DATE.atTime(9, 0), DATE.plusDays(1).atTime(9, 0)));
+        stream.onSlotChange(event(PROVIDER, "Dermatology", DATE.atTime(10, 0)));
+        runPending();
+
+        assertEquals(1, emitter.events.size());
+        assertEquals(DATE.atTime(9, 0), ((SlotChangeMessage) emitter.events.get(0).data()).getStartTime());
+    }
+
+    @Test
+    void onSlotChange_SlowSubscriber_DropsOldestAndReportsOverflow() {
+        RecordingEmitter emitter = subscribe((event, slot) -> true);
+
+        stream.onSlotChange(event(PROVIDER, "Cardiology",
+                DATE.atTime(9, 0), DATE.atTime(9, 30), DATE.atTime(10, 0), DATE.atTime(10, 30)));
+        assertEquals(1, pending.size());
+        runPending();
+
+        assertEquals(3, emitter.events.size());
+        assertEquals(SlotChangeStream.OVERFLOW_EVENT, emitter.events.get(0).name());
+        assertEquals(Map.of("dropped", 2L), emitter.events.get(0).data());
+        assertEquals(DATE.atTime(10, 0), ((SlotChangeMessage) emitter.events.get(1).data()).getStartTime());
+        assertEquals(DATE.atTime(10, 30), ((SlotChangeMessage) emitter.events.get(2).data()).getStartTime());
+        assertEquals(2.0, meterRegistry.get("think.sse.events").tag("outcome", "dropped").counter().count());
+    }
+
+    @Test
+    void subscribe_AtCapacity_ThrowsOverloaded() {
+        for (int i = 0; i < 3; i++) {
+            subscribe((event, slot) -> true);
+        }
+
+        assertThrows(ServiceOverloadedException.class, () -> subscribe((event, slot) -> true));
+        assertEquals(3.0, meterRegistry.get("think.sse.subscribers").gauge().value());
+    }
+
+    @Test
+    void subscribe_ConcurrentCallers_NeverExceedCapacity() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        try {
+            List<Future<?>> callers = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                callers.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        stream.subscribe(new RecordingEmitter(), (event, slot) -> true);
+                        accepted.incrementAndGet();
+                    } catch (ServiceOverloadedException e) {
+                        // expected beyond capacity
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> caller : callers) {
+                caller.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(3, accepted.get());
+        assertEquals(3, stream.subscriberCount());
+    }
+
+    @Test
+    void subscribe_AfterClientDisconnects_CapacityIsFreed() {
+        RecordingEmitter gone = subscribe((event, slot) -> true);
+        subscribe((event, slot) -> true);
+        subscribe((event, slot) -> true);
+        gone.disconnected = true;
+        stream.onSlotChange(event(PROVIDER, "Cardiology", DATE.atTime(9, 0)));
+        runPending();
+
+        assertDoesNotThrow(() -> subscribe((event, slot) -> true));
+        assertEquals(3, stream.subscriberCount());
+    }
+
+    @Test
+    void onSlotChange_DisconnectedClient_IsRemoved() {
+        RecordingEmitter emitter = subscribe((event, slot) -> true);
+        emitter.disconnected = true;
+
+        stream.onSlotChange(event(PROVIDER, "Cardiology", DATE.atTime(9, 0)));
+        runPending();
+
+        assertEquals(0, stream.subscriberCount());
+    }
+
+    @Test
+    void heartbeat_IdleSubscriber_GetsComment() {
+        RecordingEmitter emitter = subscribe((event, slot) -> true);
+
+        stream.heartbeat();
+        runPending();
+
+        assertEquals(1, emitter.events.size());
+        assertNull(emitter.events.get(0).name());
+    }
+
+    private RecordingEmitter subscribe(BiPredicate<SlotChangeEvent, SlotChangeEvent.Slot> filter) {
+        RecordingEmitter emitter = new RecordingEmitter();
+        stream.subscribe(emitter, filter);
+        return emitter;
+    }
+
+    private void runPending() {
+        while (!pending.isEmpty()) {
+            pending.remove(0).run();
+        }
+    }
+
+    private static SlotChangeEvent event(UUID providerId, String specialization, LocalDateTime... starts) {
+        List<SlotChangeEvent.Slot> slots = new ArrayList<>();
+        for (LocalDateTime start : starts) {
+            slots.add(new SlotChangeEvent.Slot(UUID.randomUUID(), UUID.randomUUID(), start, start.plusMinutes(30),
+                    AppointmentSlot.SlotStatus.BOOKED, "APT-TEST", "patient-1"));
+        }
+        return new SlotChangeEvent(SlotChangeEvent.Type.BOOKED, providerId, specialization, slots);
+    }
+
+    record Sent(String name, Object data) {
+    }
+
+    static class RecordingEmitter extends SseEmitter {
+
+        final List<Sent> events = new ArrayList<>();
+        boolean disconnected;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (disconnected) {
+                throw new IOException("Broken pipe");
+            }
+            List<DataWithMediaType> parts = new ArrayList<>(builder.build());
+            String head = (String) parts.get(0).getData();
+            String name = head.startsWith("event:") ? head.substring(6, head.indexOf('\n')) : null;
+            events.add(new Sent(name, parts.size() > 1 ? parts.get(1).getData() : head));
+        }
+    }
+}
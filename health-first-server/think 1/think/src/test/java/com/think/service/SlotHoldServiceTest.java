@@ -0,0 +1,138 @@
+package com.think.service;
+
+import com.think.dto.HoldSlotRequest;
+import com.think.dto.SlotHoldResponse;
+import com.think.entity.AppointmentSlot;
+import com.think.entity.Provider;
+import com.think.event.SlotChangeEvent;
+import com.think.repository.AppointmentSlotRepository;
+import com.think.repository.PatientRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlotHoldServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 3, 4, 8, 0);
+    private static final LocalDateTime START = NOW.plusHours(1);
+    private static final UUID PROVIDER_ID = UUID.randomUUID();
+
+    @Mock
+    private AppointmentSlotRepository slotRepository;
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SlotHoldService slotHoldService;
+    private HoldSlotRequest request;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        Clock clock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        slotHoldService = new SlotHoldService(slotRepository, patientRepository, eventPublisher, meterRegistry,
+                clock, Duration.ofMinutes(10));
+        request = new HoldSlotRequest("patient-1", PROVIDER_ID.toString(), START.toLocalDate(), START.toLocalTime());
+    }
+
+    @Test
+    void holdSlot_AvailableSlot_GrantsHoldUntilTtl() {
+        when(patientRepository.existsById("patient-1")).thenReturn(true);
+        when(slotRepository.acquireHold(PROVIDER_ID, START, "patient-1", NOW.plusMinutes(10), NOW)).thenReturn(1);
+        when(slotRepository.findHeldSlot(PROVIDER_ID, START, "patient-1")).thenReturn(Optional.of(heldSlot()));
+
+        SlotHoldResponse response = slotHoldService.holdSlot(request);
+
+        assertEquals("HELD", response.getStatus());
+        assertEquals(NOW.plusMinutes(10), response.getHeldUntil());
+        assertEquals("patient-1", response.getPatientId());
+        ArgumentCaptor<SlotChangeEvent> event = ArgumentCaptor.forClass(SlotChangeEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(SlotChangeEvent.Type.HELD, event.getValue().getType());
+        assertEquals(1.0, meterRegistry.get("think.slot.holds").tag("outcome", "granted").counter().count());
+    }
+
+    @Test
+    void holdSlot_SlotTaken_IsRejected() {
+        when(patientRepository.existsById("patient-1")).thenReturn(true);
+        when(slotRepository.acquireHold(any(), any(), any(), any(), any())).thenReturn(0);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> slotHoldService.holdSlot(request));
+
+        assertEquals("This time slot is not available", exception.getMessage());
+        verify(slotRepository, never()).findHeldSlot(any(), any(), any());
+        verifyNoInteractions(eventPublisher);
+        assertEquals(1.0, meterRegistry.get("think.slot.holds").tag("outcome", "rejected").counter().count());
+    }
+
+    @Test
+    void holdSlot_PastSlot_IsRejectedWithoutUpdate() {
+        when(patientRepository.existsById("patient-1")).thenReturn(true);
+        request.setAppointmentTime(NOW.minusHours(1).toLocalTime());
+
+        assertThrows(IllegalArgumentException.class, () -> slotHoldService.holdSlot(request));
+        verify(slotRepository, never()).acquireHold(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void releaseHold_NoActiveHold_Throws() {
+        UUID slotId = UUID.randomUUID();
+        when(slotRepository.releaseHold(slotId, "patient-2", NOW)).thenReturn(0);
+
+        assertThrows(IllegalArgumentException.class, () -> slotHoldService.releaseHold(slotId, "patient-2"));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void releaseHold_OwnHold_PublishesReleased() {
+        AppointmentSlot slot = heldSlot();
+        slot.setStatus(AppointmentSlot.SlotStatus.AVAILABLE);
+        when(slotRepository.releaseHold(slot.getId(), "patient-1", NOW)).thenReturn(1);
+        when(slotRepository.findWithProviderByIdIn(List.of(slot.getId()))).thenReturn(List.of(slot));
+
+        slotHoldService.releaseHold(slot.getId(), "patient-1");
+
+        ArgumentCaptor<SlotChangeEvent> event = ArgumentCaptor.forClass(SlotChangeEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(SlotChangeEvent.Type.RELEASED, event.getValue().getType());
+        assertEquals(PROVIDER_ID, event.getValue().getProviderId());
+    }
+
+    private static AppointmentSlot heldSlot() {
+        Provider provider = new Provider();
+        provider.setId(PROVIDER_ID);
+        provider.setSpecialization("Cardiology");
+        return AppointmentSlot.builder()
+                .id(UUID.randomUUID())
+                .provider(provider)
+                .slotStartTime(START)
+                .slotEndTime(START.plusMinutes(30))
+                .status(AppointmentSlot.SlotStatus.HELD)
+                .heldBy("patient-1")
+                .heldUntil(NOW.plusMinutes(10))
+                .build();
+    }
+}
@@ -0,0 +1,112 @@
+package com.think.service;
+
+import com.think.TestFixtures;
+import com.think.entity.AppointmentSlot;
+import com.think.entity.Provider;
+import com.think.entity.ProviderAvailability;
+import com.think.event.SlotChangeEvent;
+import com.think.repository.AppointmentSlotRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@RecordApplicationEvents
+class SlotHoldSweeperTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 3, 4, 8, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AppointmentSlotRepository slotRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SlotHoldSweeper sweeper;
+    private Provider provider;
+    private ProviderAvailability availability;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        Clock clock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        sweeper = new SlotHoldSweeper(slotRepository, eventPublisher, new TransactionTemplate(transactionManager),
+                meterRegistry, clock, 2, 10);
+        provider = entityManager.persist(TestFixtures.provider(1));
+        availability = entityManager.persist(TestFixtures.availability(provider, NOW.toLocalDate()));
+    }
+
+    @Test
+    void acquireHold_LiveHoldOfAnotherPatient_IsRejectedUntilItExpires() {
+        LocalDateTime start = NOW.toLocalDate().atTime(9, 0);
+        persistSlot(start);
+        entityManager.flush();
+
+        assertEquals(1, slotRepository.acquireHold(provider.getId(), start, "patient-1", NOW.plusMinutes(10), NOW));
+        assertEquals(0, slotRepository.acquireHold(provider.getId(), start, "patient-2", NOW.plusMinutes(10), NOW));
+        assertEquals(1, slotRepository.acquireHold(provider.getId(), start, "patient-1", NOW.plusMinutes(20), NOW));
+        assertEquals(1, slotRepository.acquireHold(provider.getId(), start, "patient-2", NOW.plusMinutes(40), NOW.plusMinutes(30)));
+        entityManager.clear();
+
+        assertEquals("patient-2", slotRepository.findHeldSlot(provider.getId(), start, "patient-2").orElseThrow().getHeldBy());
+    }
+
+    @Test
+    void sweep_ReleasesExpiredHoldsInBatchesAndKeepsLiveOnes() {
+        AppointmentSlot live = persistHeld(NOW.toLocalDate().atTime(9, 0), NOW.plusMinutes(5));
+        for (int i = 1; i <= 3; i++) {
+            persistHeld(NOW.toLocalDate().atTime(9, 0).plusMinutes(30L * i), NOW.minusMinutes(i));
+        }
+        AppointmentSlot booked = persistSlot(NOW.toLocalDate().atTime(11, 0));
+        booked.setStatus(AppointmentSlot.SlotStatus.BOOKED);
+        entityManager.flush();
+        entityManager.clear();
+
+        sweeper.sweep();
+        entityManager.clear();
+
+        assertEquals(AppointmentSlot.SlotStatus.HELD, entityManager.find(AppointmentSlot.class, live.getId()).getStatus());
+        assertEquals(AppointmentSlot.SlotStatus.BOOKED, entityManager.find(AppointmentSlot.class, booked.getId()).getStatus());
+        assertEquals(1, slotRepository.findAll().stream().filter(slot -> slot.getHeldUntil() != null).count());
+        assertEquals(3, events.stream(SlotChangeEvent.class)
+                .filter(event -> event.getType() == SlotChangeEvent.Type.RELEASED)
+                .mapToLong(event -> event.getSlots().size()).sum());
+        assertEquals(3.0, meterRegistry.get("think.slot.holds").tag("outcome", "expired").counter().count());
+    }
+
+    private AppointmentSlot persistHeld(LocalDateTime start, LocalDateTime heldUntil) {
+        AppointmentSlot slot = persistSlot(start);
+        slot.setStatus(AppointmentSlot.SlotStatus.HELD);
+        slot.setHeldBy("patient-1");
+        slot.setHeldUntil(heldUntil);
+        return slot;
+    }
+
+    private AppointmentSlot persistSlot(LocalDateTime start) {
+        return entityManager.persist(TestFixtures.slot(availability, start));
+    }
+}
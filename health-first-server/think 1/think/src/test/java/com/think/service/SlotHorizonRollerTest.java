@@ -0,0 +1,136 @@
+package com.think.service;
+
+import com.think.TestFixtures;
+import com.think.entity.AppointmentSlot;
+import com.think.entity.Provider;
+import com.think.entity.ProviderAvailability;
+import com.think.repository.AppointmentSlotRepository;
+import com.think.repository.ProviderAvailabilityRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class SlotHorizonRollerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2030, 3, 4);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProviderAvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private AppointmentSlotRepository slotRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SlotHorizonRoller roller;
+    private int providers;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ProviderAvailabilityService availabilityService = new ProviderAvailabilityService(
+                null, null, null, null, null, null, null, null, null);
+        roller = new SlotHorizonRoller(availabilityRepository, slotRepository, availabilityService, new SlotHorizon(14),
+                eventPublisher, new TransactionTemplate(transactionManager), meterRegistry,
+                Clock.fixed(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC), 1);
+    }
+
+    @Test
+    void roll_ExtendsSeriesToHorizonAcrossProviderBatches() {
+        ProviderAvailability daily = persistSeries(persistProvider(), ProviderAvailability.RecurrencePattern.DAILY, null, TODAY.plusDays(2));
+        ProviderAvailability weekly = persistSeries(persistProvider(), ProviderAvailability.RecurrencePattern.WEEKLY, null, TODAY);
+        entityManager.flush();
+
+        roller.roll();
+        entityManager.clear();
+
+        // Daily: days 3..14 after today, two slots each; weekly: today+7 and today+14
+        assertEquals(24, slotCount(daily));
+        assertEquals(4, slotCount(weekly));
+        assertEquals(TODAY.plusDays(14), entityManager.find(ProviderAvailability.class, daily.getId()).getSlotsGeneratedThrough());
+        assertEquals(28.0, meterRegistry.get("think.horizon.slots.created").counter().count());
+        assertEquals(2.0, meterRegistry.get("think.horizon.providers").tag("outcome", "rolled").counter().count());
+        assertEquals(0.0, meterRegistry.get("think.horizon.providers.pending").gauge().value());
+    }
+
+    @Test
+    void roll_SecondRun_CreatesNothing() {
+        ProviderAvailability daily = persistSeries(persistProvider(), ProviderAvailability.RecurrencePattern.DAILY, null, TODAY);
+        entityManager.flush();
+
+        roller.roll();
+        roller.roll();
+        entityManager.clear();
+
+        assertEquals(28, slotCount(daily));
+        assertEquals(1.0, meterRegistry.get("think.horizon.providers").tag("outcome", "rolled").counter().count());
+    }
+
+    @Test
+    void roll_StopsAtRecurrenceEndAndSkipsMissedPastDates() {
+        ProviderAvailability ending = persistSeries(persistProvider(), ProviderAvailability.RecurrencePattern.DAILY,
+                TODAY.plusDays(3), TODAY.minusDays(5));
+        entityManager.flush();
+
+        roller.roll();
+        entityManager.clear();
+
+        List<AppointmentSlot> slots = slotRepository.findAvailableSlotsByAvailabilityId(ending.getId());
+        assertEquals(8, slots.size());
+        assertEquals(TODAY.atTime(9, 0), slots.get(0).getSlotStartTime());
+        assertEquals(TODAY.plusDays(3).atTime(9, 30), slots.get(slots.size() - 1).getSlotStartTime());
+    }
+
+    @Test
+    void occurrences_MonthlySeriesKeepsDayOfMonth() {
+        ProviderAvailability monthly = ProviderAvailability.builder()
+                .date(LocalDate.of(2030, 1, 31))
+                .isRecurring(true)
+                .recurrencePattern(ProviderAvailability.RecurrencePattern.MONTHLY)
+                .build();
+
+        assertEquals(List.of(LocalDate.of(2030, 2, 28), LocalDate.of(2030, 3, 31)),
+                ProviderAvailabilityService.occurrences(monthly, LocalDate.of(2030, 2, 1), LocalDate.of(2030, 4, 15)));
+    }
+
+    private long slotCount(ProviderAvailability availability) {
+        return slotRepository.findAvailableSlotsByAvailabilityId(availability.getId()).size();
+    }
+
+    private ProviderAvailability persistSeries(Provider provider, ProviderAvailability.RecurrencePattern pattern,
+                                               LocalDate endDate, LocalDate generatedThrough) {
+        ProviderAvailability availability = TestFixtures.availability(provider, TODAY.minusDays(7), LocalTime.of(9, 0), LocalTime.of(10, 0));
+        availability.setIsRecurring(true);
+        availability.setRecurrencePattern(pattern);
+        availability.setRecurrenceEndDate(endDate);
+        availability.setSlotsGeneratedThrough(generatedThrough);
+        return entityManager.persist(availability);
+    }
+
+    private Provider persistProvider() {
+        return entityManager.persist(TestFixtures.provider(providers++));
+    }
+}
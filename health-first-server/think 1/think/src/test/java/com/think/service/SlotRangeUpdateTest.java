@@ -0,0 +1,138 @@
+package com.think.service;
+
+import com.think.TestFixtures;
+import com.think.dto.SlotRangeUpdateRequest;
+import com.think.dto.SlotRangeUpdateResponse;
+import com.think.entity.AppointmentSlot;
+import com.think.entity.Provider;
+import com.think.entity.ProviderAvailability;
+import com.think.event.SlotChangeEvent;
+import com.think.repository.AppointmentSlotRepository;
+import com.think.repository.ProviderAvailabilityRepository;
+import com.think.repository.ProviderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@RecordApplicationEvents
+class SlotRangeUpdateTest {
+
+    private static final LocalDateTime AFTERNOON = LocalDate.now().plusDays(3).atTime(13, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProviderRepository providerRepository;
+
+    @Autowired
+    private ProviderAvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private AppointmentSlotRepository slotRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private ProviderAvailabilityService availabilityService;
+    private Provider provider;
+    private ProviderAvailability availability;
+
+    @BeforeEach
+    void setUp() {
+        availabilityService = new ProviderAvailabilityService(availabilityRepository, slotRepository, providerRepository,
+                null, eventPublisher, null, null, null, null);
+        provider = entityManager.persist(TestFixtures.provider(1));
+        availability = persistAvailability(provider);
+    }
+
+    @Test
+    void updateSlotRange_Block_SkipsBookedAndEndsHolds() {
+        persistSlot(availability, 0, AppointmentSlot.SlotStatus.AVAILABLE);
+        persistSlot(availability, 30, AppointmentSlot.SlotStatus.AVAILABLE);
+        AppointmentSlot held = persistSlot(availability, 60, AppointmentSlot.SlotStatus.HELD);
+        held.setHeldBy("patient-1");
+        held.setHeldUntil(LocalDateTime.now().plusMinutes(5));
+        AppointmentSlot booked = persistSlot(availability, 90, AppointmentSlot.SlotStatus.BOOKED);
+        persistSlot(availability, 120, AppointmentSlot.SlotStatus.BLOCKED);
+        AppointmentSlot evening = persistSlot(availability, 300, AppointmentSlot.SlotStatus.AVAILABLE);
+        Provider other = entityManager.persist(TestFixtures.provider(2));
+        AppointmentSlot otherSlot = persistSlot(persistAvailability(other), 0, AppointmentSlot.SlotStatus.AVAILABLE);
+        entityManager.flush();
+        entityManager.clear();
+
+        SlotRangeUpdateResponse response = availabilityService.updateSlotRange(provider.getId().toString(),
+                new SlotRangeUpdateRequest(AFTERNOON, AFTERNOON.plusHours(4), AppointmentSlot.SlotStatus.BLOCKED));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(5, response.getSlotsInRange());
+        assertEquals(3, response.getSlotsUpdated());
+        assertEquals(1, response.getSlotsBooked());
+        assertEquals(1, response.getSlotsUnchanged());
+        AppointmentSlot wasHeld = slotRepository.findById(held.getId()).orElseThrow();
+        assertEquals(AppointmentSlot.SlotStatus.BLOCKED, wasHeld.getStatus());
+        assertNull(wasHeld.getHeldBy());
+        assertEquals(AppointmentSlot.SlotStatus.BOOKED, slotRepository.findById(booked.getId()).orElseThrow().getStatus());
+        assertEquals(AppointmentSlot.SlotStatus.AVAILABLE, slotRepository.findById(evening.getId()).orElseThrow().getStatus());
+        assertEquals(AppointmentSlot.SlotStatus.AVAILABLE, slotRepository.findById(otherSlot.getId()).orElseThrow().getStatus());
+        SlotChangeEvent event = events.stream(SlotChangeEvent.class).findFirst().orElseThrow();
+        assertEquals(SlotChangeEvent.Type.UPDATED, event.getType());
+        assertEquals(provider.getSpecialization(), event.getSpecialization());
+        assertEquals(3, event.getSlots().size());
+        assertTrue(event.getSlots().stream().allMatch(slot -> slot.getStatus() == AppointmentSlot.SlotStatus.BLOCKED));
+    }
+
+    @Test
+    void updateSlotRange_Unblock_OnlyTouchesBlockedSlots() {
+        persistSlot(availability, 0, AppointmentSlot.SlotStatus.BLOCKED);
+        persistSlot(availability, 30, AppointmentSlot.SlotStatus.BLOCKED);
+        persistSlot(availability, 60, AppointmentSlot.SlotStatus.CANCELLED);
+        persistSlot(availability, 90, AppointmentSlot.SlotStatus.BOOKED);
+        entityManager.flush();
+        entityManager.clear();
+
+        SlotRangeUpdateResponse response = availabilityService.updateSlotRange(provider.getId().toString(),
+                new SlotRangeUpdateRequest(AFTERNOON, AFTERNOON.plusHours(4), AppointmentSlot.SlotStatus.AVAILABLE));
+
+        assertEquals(2, response.getSlotsUpdated());
+        assertEquals(1, response.getSlotsBooked());
+        assertEquals(1, response.getSlotsUnchanged());
+    }
+
+    @Test
+    void updateSlotRange_InvalidRequest_Throws() {
+        String providerId = provider.getId().toString();
+
+        assertThrows(IllegalArgumentException.class, () -> availabilityService.updateSlotRange(providerId,
+                new SlotRangeUpdateRequest(AFTERNOON, AFTERNOON.plusHours(1), AppointmentSlot.SlotStatus.BOOKED)));
+        assertThrows(IllegalArgumentException.class, () -> availabilityService.updateSlotRange(providerId,
+                new SlotRangeUpdateRequest(AFTERNOON, AFTERNOON, AppointmentSlot.SlotStatus.BLOCKED)));
+        assertThrows(IllegalArgumentException.class, () -> availabilityService.updateSlotRange(UUID.randomUUID().toString(),
+                new SlotRangeUpdateRequest(AFTERNOON, AFTERNOON.plusHours(1), AppointmentSlot.SlotStatus.BLOCKED)));
+    }
+
+    private AppointmentSlot persistSlot(ProviderAvailability availability, int minutes, AppointmentSlot.SlotStatus status) {
+        return entityManager.persist(TestFixtures.slot(availability, AFTERNOON.plusMinutes(minutes), status));
+    }
+
+    private ProviderAvailability persistAvailability(Provider provider) {
+        return entityManager.persist(TestFixtures.availability(provider, AFTERNOON.toLocalDate(), LocalTime.of(13, 0), LocalTime.of(19, 0)));
+    }
+}
@@ -0,0 +1,121 @@
+package com.think.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingReferenceGeneratorTest {
+
+    private final BookingReferenceGenerator generator = new BookingReferenceGenerator(7);
+
+    @Test
+    void next_HasPrefixAndPassesChecksum() {
+        String reference = generator.next();
+
+        assertTrue(reference.matches("APT-[0-9A-HJKMNP-TV-Z]{14}"), reference);
+        assertTrue(generator.mayExist(reference));
+    }
+
+    @Test
+    void mayExist_RejectsAnySingleCharacterChange() {
+        String reference = generator.next();
+        String alphabet = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+
+        for (int i = 4; i < reference.length(); i++) {
+            for (char c : alphabet.toCharArray()) {
+                if (c == reference.charAt(i)) {
+                    continue;
+                }
+                String changed = reference.substring(0, i) + c + reference.substring(i + 1);
+                assertFalse(generator.mayExist(changed), changed);
+            }
+        }
+    }
+
+    @Test
+    void mayExist_AcceptsLegacyReferencesOnly() {
+        assertTrue(generator.mayExist("APT-1A2B3C4D"));
+        assertTrue(generator.mayExist("APT-1a2b3c4d"));
+        assertFalse(generator.mayExist("APT-1A2B3C4G"));
+        assertFalse(generator.mayExist("BOOK-1A2B3C4D"));
+        assertFalse(generator.mayExist(""));
+        assertFalse(generator.mayExist(null));
+    }
+
+    @Test
+    void mayExist_IgnoresCaseAndCrockfordLookalikes() {
+        String reference = generator.next();
+        String typed = reference.toLowerCase().replace('1', 'l').replace('0', 'o');
+
+        assertTrue(generator.mayExist(typed), typed);
+        assertEquals(reference, BookingReferenceGenerator.normalize(" " + typed + " "));
+    }
+
+    @Test
+    void next_SameMillisecond_StaysOrderedPastSequenceOverflow() {
+        Clock fixed = Clock.fixed(Instant.parse("2025-06-01T09:00:00Z"), ZoneOffset.UTC);
+        BookingReferenceGenerator frozen = new BookingReferenceGenerator(fixed, 3);
+
+        long previous = frozen.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            long id = frozen.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+    }
+
+    @Test
+    void next_ConcurrentCallers_NeverCollide() throws Exception {
+        int threads = 4;
+        int perThread = 100_000;
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        seen.add(generator.next());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(threads * perThread, seen.size());
+    }
+
+    @Test
+    void next_DifferentNodes_DoNotCollide() {
+        Clock fixed = Clock.fixed(Instant.parse("2025-06-01T09:00:00Z"), ZoneOffset.UTC);
+        BookingReferenceGenerator first = new BookingReferenceGenerator(fixed, 1);
+        BookingReferenceGenerator second = new BookingReferenceGenerator(fixed, 2);
+
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(seen.add(first.next()));
+            assertTrue(seen.add(second.next()));
+        }
+    }
+
+    @Test
+    void constructor_RejectsNodeIdOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new BookingReferenceGenerator(1024));
+    }
+}
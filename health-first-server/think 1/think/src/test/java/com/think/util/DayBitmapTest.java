@@ -0,0 +1,50 @@
+package com.think.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DayBitmapTest {
+
+    @Test
+    void range_UnalignedTimes_CoverEveryTouchedTick() {
+        assertEquals(new DayBitmap.Run(108, 114), DayBitmap.range(LocalTime.of(9, 0), LocalTime.of(9, 30)));
+        assertEquals(new DayBitmap.Run(109, 115), DayBitmap.range(LocalTime.of(9, 7), LocalTime.of(9, 31)));
+        assertEquals(new DayBitmap.Run(287, 288), DayBitmap.range(LocalTime.of(23, 55), LocalTime.MIDNIGHT));
+        assertEquals(0, DayBitmap.tickAtOrAfter(LocalTime.MIDNIGHT));
+        assertEquals(1, DayBitmap.tickAtOrAfter(LocalTime.of(0, 0, 0, 1)));
+    }
+
+    @Test
+    void runs_MergeAdjacentTicks() {
+        DayBitmap bitmap = DayBitmap.empty();
+        bitmap.set(108, 114);
+        bitmap.set(114, 120);
+        bitmap.set(150, 156);
+        bitmap.clear(152, 154);
+
+        assertEquals(List.of(new DayBitmap.Run(108, 120), new DayBitmap.Run(150, 152), new DayBitmap.Run(154, 156)),
+                bitmap.runs());
+        assertEquals(150, bitmap.next(121));
+        assertEquals(-1, bitmap.next(156));
+        assertEquals(-1, bitmap.next(DayBitmap.TICKS));
+    }
+
+    @Test
+    void toBytes_RoundTripsFullDay() {
+        DayBitmap bitmap = DayBitmap.empty();
+        bitmap.set(0, 1);
+        bitmap.set(287, 288);
+
+        byte[] bytes = bitmap.toBytes();
+        assertEquals(DayBitmap.BYTES, bytes.length);
+        assertEquals(DayBitmap.BYTES, DayBitmap.empty().toBytes().length);
+        DayBitmap restored = DayBitmap.of(bytes);
+        assertTrue(restored.get(0));
+        assertTrue(restored.get(287));
+        assertEquals(2, restored.runs().size());
+    }
+}
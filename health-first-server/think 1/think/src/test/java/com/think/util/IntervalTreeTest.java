@@ -0,0 +1,56 @@
+package com.think.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntervalTreeTest {
+
+    @Test
+    void findOverlap_TouchingIntervals_DoNotOverlap() {
+        IntervalTree<String> tree = IntervalTree.of(List.of(
+                new IntervalTree.Interval<>(540, 600, "9-10"),
+                new IntervalTree.Interval<>(720, 780, "12-13")));
+
+        assertTrue(tree.findOverlap(600, 720).isEmpty());
+        assertEquals("9-10", tree.findOverlap(599, 610).orElseThrow());
+        assertEquals("12-13", tree.findOverlap(700, 900).orElseThrow());
+        assertTrue(tree.findOverlap(0, 540).isEmpty());
+    }
+
+    @Test
+    void findOverlap_NestedLongInterval_IsFoundPastShorterOnes() {
+        IntervalTree<String> tree = IntervalTree.of(List.of(
+                new IntervalTree.Interval<>(0, 1000, "long"),
+                new IntervalTree.Interval<>(10, 20, "a"),
+                new IntervalTree.Interval<>(30, 40, "b"),
+                new IntervalTree.Interval<>(50, 60, "c")));
+
+        assertEquals("long", tree.findOverlap(900, 950).orElseThrow());
+    }
+
+    @Test
+    void findOverlap_MatchesBruteForce() {
+        Random random = new Random(42);
+        List<IntervalTree.Interval<Integer>> intervals = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            long start = random.nextInt(100_000);
+            intervals.add(new IntervalTree.Interval<>(start, start + 1 + random.nextInt(300), i));
+        }
+        IntervalTree<Integer> tree = IntervalTree.of(intervals);
+
+        for (int q = 0; q < 2_000; q++) {
+            long start = random.nextInt(100_000);
+            long end = start + 1 + random.nextInt(300);
+            boolean expected = intervals.stream().anyMatch(i -> i.start() < end && i.end() > start);
+
+            var found = tree.findOverlap(start, end);
+            assertEquals(expected, found.isPresent());
+            found.ifPresent(index -> assertTrue(intervals.get(index).start() < end && intervals.get(index).end() > start));
+        }
+    }
+}
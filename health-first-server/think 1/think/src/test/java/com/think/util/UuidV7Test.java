@@ -0,0 +1,46 @@
+package com.think.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7Test {
+
+    @Test
+    void next_IsVersion7WithRfcVariant() {
+        UUID id = UuidV7.next();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+    }
+
+    @Test
+    void next_EncodesCurrentTime() {
+        Instant now = Instant.parse("2025-06-01T09:00:00.123Z");
+        UuidV7 generator = new UuidV7(Clock.fixed(now, ZoneOffset.UTC));
+
+        assertEquals(now.toEpochMilli(), UuidV7.timestamp(generator.generate()));
+    }
+
+    @Test
+    void next_SameMillisecond_SortsInIssueOrderPastCounterOverflow() {
+        UuidV7 generator = new UuidV7(Clock.fixed(Instant.parse("2025-06-01T09:00:00Z"), ZoneOffset.UTC));
+
+        String previous = generator.generate().toString();
+        for (int i = 0; i < 10_000; i++) {
+            String id = generator.generate().toString();
+            assertTrue(id.compareTo(previous) > 0, id + " <= " + previous);
+            previous = id;
+        }
+    }
+
+    @Test
+    void timestamp_RejectsRandomUuid() {
+        assertThrows(IllegalArgumentException.class, () -> UuidV7.timestamp(UUID.randomUUID()));
+    }
+}